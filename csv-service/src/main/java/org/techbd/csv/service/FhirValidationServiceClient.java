@@ -3,6 +3,7 @@ package org.techbd.csv.service;
 import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
@@ -21,7 +22,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
+import jakarta.annotation.PreDestroy;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 /**
  * Optimized client for interacting with the FHIR validation service.
@@ -32,6 +35,7 @@ import reactor.netty.http.client.HttpClient;
  * - Proper timeout configuration
  * - More efficient parameter handling
  * - Better error messages
+ * - One WebClient per base URL, all sharing a single connection pool
  */
 @Service
 public class FhirValidationServiceClient {
@@ -57,13 +61,20 @@ public class FhirValidationServiceClient {
     @Value("${FHIR_CLIENT_BLOCK_TIMEOUT_SECONDS:90}") // 90 seconds default
     private final int blockTimeout;
 
+    private final ConnectionProvider connectionProvider;
+    private final HttpClient httpClient;
+    private final ExchangeStrategies exchangeStrategies;
+    /** Clients by base URL; the base URL may come from a request header. */
+    private final Map<String, WebClient> webClients = new ConcurrentHashMap<>();
+
     public FhirValidationServiceClient(
             @Value("${TECHBD_BL_BASEURL}") String baseUrl,
             @Value("${FHIR_CLIENT_MAX_BUFFER_SIZE:10485760}") int maxBufferSize,
             @Value("${FHIR_CLIENT_CONNECT_TIMEOUT_MS:30000}") int connectTimeoutMs,
             @Value("${FHIR_CLIENT_READ_TIMEOUT_SECONDS:60}") int readTimeoutSeconds,
             @Value("${FHIR_CLIENT_WRITE_TIMEOUT_SECONDS:60}") int writeTimeoutSeconds,
-            @Value("${FHIR_CLIENT_BLOCK_TIMEOUT_SECONDS:90}") int blockTimeoutSeconds) {
+            @Value("${FHIR_CLIENT_BLOCK_TIMEOUT_SECONDS:90}") int blockTimeoutSeconds,
+            @Value("${FHIR_CLIENT_MAX_CONNECTIONS:50}") int maxConnections) {
         
         this.defaultBaseUrl = baseUrl;
         this.maxBufferSize = maxBufferSize;
@@ -72,34 +83,44 @@ public class FhirValidationServiceClient {
         this.writeTimeoutSeconds = writeTimeoutSeconds;
         this.blockTimeout = blockTimeoutSeconds;
         this.objectMapper = new ObjectMapper();
-        
-        LOG.info("FhirValidationServiceClient initialized - defaultBaseUrl: {}, maxBufferSize: {}MB, " +
-                 "connectTimeout: {}ms, readTimeout: {}s, writeTimeout: {}s, blockTimeout: {}s", 
-                 baseUrl, maxBufferSize / (1024 * 1024), connectTimeoutMs, 
-                 readTimeoutSeconds, writeTimeoutSeconds, blockTimeoutSeconds);
-    }
 
-    /**
-     * Creates a WebClient with optimized configuration for handling large responses
-     */
-    private WebClient createConfiguredWebClient(String baseUrl) {
-        HttpClient httpClient = HttpClient.create()
+        this.connectionProvider = ConnectionProvider.builder("fhir-validation-service")
+            .maxConnections(maxConnections)
+            .maxIdleTime(Duration.ofSeconds(60))
+            .build();
+        this.httpClient = HttpClient.create(connectionProvider)
             .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
             .doOnConnected(conn -> conn
                 .addHandlerLast(new ReadTimeoutHandler(readTimeoutSeconds, TimeUnit.SECONDS))
                 .addHandlerLast(new WriteTimeoutHandler(writeTimeoutSeconds, TimeUnit.SECONDS)));
-
-        ExchangeStrategies strategies = ExchangeStrategies.builder()
+        this.exchangeStrategies = ExchangeStrategies.builder()
             .codecs(configurer -> configurer
                 .defaultCodecs()
                 .maxInMemorySize(maxBufferSize))
             .build();
+        
+        LOG.info("FhirValidationServiceClient initialized - defaultBaseUrl: {}, maxBufferSize: {}MB, " +
+                 "connectTimeout: {}ms, readTimeout: {}s, writeTimeout: {}s, blockTimeout: {}s, maxConnections: {}", 
+                 baseUrl, maxBufferSize / (1024 * 1024), connectTimeoutMs, 
+                 readTimeoutSeconds, writeTimeoutSeconds, blockTimeoutSeconds, maxConnections);
+    }
 
-        return WebClient.builder()
-            .baseUrl(baseUrl)
+    /**
+     * Returns the WebClient for {@code baseUrl}, creating it on first use.
+     * All clients share one pooled HttpClient, so connections are reused
+     * across calls instead of being opened per bundle.
+     */
+    private WebClient webClient(String baseUrl) {
+        return webClients.computeIfAbsent(baseUrl, url -> WebClient.builder()
+            .baseUrl(url)
             .clientConnector(new ReactorClientHttpConnector(httpClient))
-            .exchangeStrategies(strategies)
-            .build();
+            .exchangeStrategies(exchangeStrategies)
+            .build());
+    }
+
+    @PreDestroy
+    public void close() {
+        connectionProvider.dispose();
     }
 
     /**
@@ -201,7 +222,7 @@ public class FhirValidationServiceClient {
         validateRequest(request);
         
         String baseUrl = resolveBaseUrl(request);
-        WebClient webClient = createConfiguredWebClient(baseUrl);
+        WebClient webClient = webClient(baseUrl);
 
         try {
             String response = webClient.post()
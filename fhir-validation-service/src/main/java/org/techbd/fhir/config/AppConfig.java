@@ -27,6 +27,19 @@ public class AppConfig {
     private String dataLedgerApiUrl;
     private String validationSeverityLevel;
     private String dataLedgerApiKeySecretName;
+    private BulkValidationConfig bulkValidation;
+
+    /**
+     * Bulk validation ({@code /Bundle/$validate/bulk}). {@code parallelism}
+     * bounds the bundles validated at once across all bulk requests, and the
+     * bundles of one request that are in flight.
+     */
+    @Getter
+    @Setter
+    public static class BulkValidationConfig {
+        private int parallelism = 4;
+    }
+
     @Getter
     @Setter
     public static class FhirV4Config {
@@ -2,7 +2,12 @@ package org.techbd.fhir.controller;
 
 import static org.techbd.udi.auto.jooq.ingress.Tables.INTERACTION_HTTP_REQUEST;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.OffsetDateTime;
@@ -11,9 +16,15 @@ import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoField;
 import java.time.temporal.TemporalAccessor;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.jooq.DSLContext;
 import org.slf4j.Logger;
@@ -34,6 +45,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.techbd.corelib.config.Configuration;
 import org.techbd.corelib.config.Constants;
 import org.techbd.corelib.config.Helpers;
@@ -41,6 +53,7 @@ import org.techbd.corelib.service.dataledger.DataLedgerApiClient;
 import org.techbd.corelib.util.CoreFHIRUtil;
 import org.techbd.corelib.util.UuidUtil;
 import org.techbd.fhir.config.AppConfig;
+import org.techbd.fhir.config.AppConfig.BulkValidationConfig;
 import org.techbd.fhir.service.FHIRService;
 import org.techbd.fhir.service.engine.OrchestrationEngine;
 
@@ -55,6 +68,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.PreDestroy;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -71,6 +85,8 @@ public class FhirController {
         private final DSLContext primaryDslContext;
         private final FHIRService fhirService;
         private final Tracer tracer;
+        /** Validates the bundles of bulk requests; shared by all of them. */
+        private final ExecutorService bulkValidationExecutor;
 
         public FhirController(final OrchestrationEngine engine,
         final AppConfig appConfig ,final DataLedgerApiClient dataLedgerApiClient,final FHIRService fhirService
@@ -81,6 +97,12 @@ public class FhirController {
                 this.dataLedgerApiClient = dataLedgerApiClient;
                  this.tracer = GlobalOpenTelemetry.get().getTracer("FhirController");
                 this.primaryDslContext = primaryDslContext;
+                final AtomicInteger threadCount = new AtomicInteger();
+                this.bulkValidationExecutor = Executors.newFixedThreadPool(bulkValidationParallelism(), runnable -> {
+                        final Thread thread = new Thread(runnable, "bulk-validate-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                });
         }
 
         @GetMapping(value = "/metadata", produces = { MediaType.APPLICATION_XML_VALUE })
@@ -196,6 +218,124 @@ public class FhirController {
                 }
         }
 
+        @PostMapping(value = { "/Bundle/$validate/bulk", "/Bundle/$validate/bulk/" }, consumes = {
+                        MediaType.APPLICATION_NDJSON_VALUE }, produces = { MediaType.APPLICATION_NDJSON_VALUE })
+        @Operation(summary = "Endpoint to validate many payloads in one request, one bundle per line (NDJSON).", description = "Each line is validated as if posted to /Bundle/$validate, under its own interaction ID. Bundles are validated in parallel and each result is written as one NDJSON line as soon as it is ready, so results may arrive out of order; the <code>index</code> field is the zero-based line number of the bundle.")
+        public ResponseEntity<StreamingResponseBody> validateBundles(
+                        @Parameter(description = "Parameter to specify the Tenant ID. This is a <b>mandatory</b> parameter.", required = true) @RequestHeader(value = Configuration.Servlet.HeaderName.Request.TENANT_ID, required = true) String tenantId,
+                        @Parameter(description = "Optional header to specify IG version.", required = false) @RequestHeader(value = "X-SHIN-NY-IG-Version", required = false) String requestedIgVersion,
+                        @Parameter(description = "Optional header to specify source type.", required = false) @RequestHeader(value = "X-TechBD-Source-Type", required = false) String sourceType,
+                        @Parameter(description = "Optional header to specify master interaction ID.", required = false) @RequestHeader(value = "X-TechBD-Master-Interaction-ID", required = false) String masterInteractionId,
+                        @Parameter(description = "Optional header to specify group interaction ID.", required = false) @RequestHeader(value = "X-TechBD-Group-Interaction-ID", required = false) String groupInteractionId,
+                        @Parameter(description = "Optional header to provide elaboration details.", required = false) @RequestHeader(value = "X-TechBD-Elaboration", required = false) String elaboration,
+                        @Parameter(description = "Optional header to specify data ledgder tracking.", required = false) @RequestHeader(value = "X-TechBD-Data-Ledger-Tracking", required = false, defaultValue = "false") boolean dataLedgerTracking,
+                        @Parameter(description = "Optional header to specify data ledger diagnostics.", required = false) @RequestHeader(value = "X-TechBD-Data-Ledger-diagnostics", required = false, defaultValue = "false") boolean dataLedgerDiagnostics,
+                        HttpServletRequest request) throws IOException {
+                if (tenantId == null || tenantId.trim().isEmpty()) {
+                        LOG.error("FHIRController:Bundle Bulk Validate:: Tenant ID is missing or empty");
+                        throw new IllegalArgumentException("Tenant ID must be provided");
+                }
+                final Map<String, Object> requestDetailsMap = CoreFHIRUtil.extractRequestDetails(request);
+                CoreFHIRUtil.buildRequestParametersMap(requestDetailsMap, null, null, sourceType, groupInteractionId,
+                                masterInteractionId, request.getRequestURI());
+                requestDetailsMap.put(Constants.ELABORATION, elaboration);
+                requestDetailsMap.put(Constants.DATA_LEDGER_TRACKING, dataLedgerTracking);
+                requestDetailsMap.put(Constants.DATA_LEDGER_DIAGNOSTICS, dataLedgerDiagnostics);
+                requestDetailsMap.putAll(CoreFHIRUtil.buildHeaderParametersMap(tenantId, null, null, null, "false",
+                                null, null, requestedIgVersion));
+                requestDetailsMap.put(Constants.HEALTH_CHECK_HEADER, "false");
+                final InputStream body = request.getInputStream();
+                final StreamingResponseBody responseBody = outputStream -> validateEach(body, requestDetailsMap,
+                                outputStream);
+                return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(responseBody);
+        }
+
+        /**
+         * Validates each line of {@code body} on {@link #bulkValidationExecutor}
+         * and writes its result to {@code outputStream} as soon as it is ready.
+         * At most {@code bulk-validation.parallelism} bundles of this request are
+         * in flight, so the body is read only as fast as bundles are validated.
+         */
+        private void validateEach(InputStream body, Map<String, Object> requestDetailsMap,
+                        OutputStream outputStream) throws IOException {
+                final int parallelism = bulkValidationParallelism();
+                final Semaphore inFlight = new Semaphore(parallelism);
+                final AtomicReference<IOException> writeFailure = new AtomicReference<>();
+                final var reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+                int index = 0;
+                int validated = 0;
+                try {
+                        String line;
+                        while (writeFailure.get() == null && (line = reader.readLine()) != null) {
+                                if (line.isBlank()) {
+                                        continue;
+                                }
+                                final String payload = line;
+                                final int bundleIndex = index++;
+                                inFlight.acquire();
+                                bulkValidationExecutor.execute(() -> {
+                                        try {
+                                                writeLine(outputStream,
+                                                                validateOne(payload, bundleIndex, requestDetailsMap));
+                                        } catch (IOException e) {
+                                                writeFailure.compareAndSet(null, e);
+                                        } finally {
+                                                inFlight.release();
+                                        }
+                                });
+                                validated++;
+                        }
+                        inFlight.acquire(parallelism);
+                } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Bulk validation interrupted after " + validated + " bundles");
+                }
+                if (writeFailure.get() != null) {
+                        LOG.warn("FHIRController:Bundle Bulk Validate:: client stopped reading after {} bundles",
+                                        validated, writeFailure.get());
+                        throw writeFailure.get();
+                }
+                LOG.info("FHIRController:Bundle Bulk Validate:: validated {} bundles", validated);
+        }
+
+        private Map<String, Object> validateOne(String payload, int index, Map<String, Object> requestDetailsMap) {
+                final String interactionId = UuidUtil.generateUuid();
+                final Map<String, Object> bundleDetailsMap = new HashMap<>(requestDetailsMap);
+                bundleDetailsMap.put(Constants.INTERACTION_ID, interactionId);
+                bundleDetailsMap.put(Constants.OBSERVABILITY_METRIC_INTERACTION_START_TIME, Instant.now().toString());
+                final Map<String, Object> line = new LinkedHashMap<>();
+                line.put("index", index);
+                line.put("interactionId", interactionId);
+                try {
+                        line.put("result", fhirService.processBundle(payload, bundleDetailsMap, new HashMap<>()));
+                } catch (Exception e) {
+                        LOG.error("FHIRController:Bundle Bulk Validate:: bundle {} failed for interactionId {}", index,
+                                        interactionId, e);
+                        line.put("status", "Error");
+                        line.put("message", e.getMessage());
+                }
+                return line;
+        }
+
+        private static void writeLine(OutputStream outputStream, Map<String, Object> line) throws IOException {
+                final byte[] bytes = Configuration.objectMapperConcise.writeValueAsBytes(line);
+                synchronized (outputStream) {
+                        outputStream.write(bytes);
+                        outputStream.write('\n');
+                        outputStream.flush();
+                }
+        }
+
+        private int bulkValidationParallelism() {
+                final var config = appConfig.getBulkValidation();
+                return Math.max(1, config != null ? config.getParallelism() : new BulkValidationConfig().getParallelism());
+        }
+
+        @PreDestroy
+        public void shutdownBulkValidation() {
+                bulkValidationExecutor.shutdownNow();
+        }
+
         @GetMapping(value = "/Bundle/$status/{bundleSessionId}", produces = { "application/json", "text/html" })
         @ResponseBody
         @Operation(summary = "Check the state/status of async operation")
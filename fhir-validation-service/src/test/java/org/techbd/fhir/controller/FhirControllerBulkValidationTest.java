@@ -0,0 +1,203 @@
+package org.techbd.fhir.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.techbd.corelib.config.Configuration;
+import org.techbd.corelib.config.Constants;
+import org.techbd.corelib.service.dataledger.DataLedgerApiClient;
+import org.techbd.fhir.config.AppConfig;
+import org.techbd.fhir.config.AppConfig.BulkValidationConfig;
+import org.techbd.fhir.service.FHIRService;
+import org.techbd.fhir.service.engine.OrchestrationEngine;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Drives {@code /Bundle/$validate/bulk} through MockMvc with the bundle
+ * validation itself mocked.
+ */
+class FhirControllerBulkValidationTest {
+
+        private static final String TENANT_ID = "tenant-1";
+
+        private final FHIRService fhirService = mock(FHIRService.class);
+        private FhirController controller;
+
+        @AfterEach
+        void shutdown() {
+                if (controller != null) {
+                        controller.shutdownBulkValidation();
+                }
+        }
+
+        private MockMvc mockMvc(int parallelism, Filter... filters) throws IOException {
+                final var bulkValidation = new BulkValidationConfig();
+                bulkValidation.setParallelism(parallelism);
+                final AppConfig appConfig = mock(AppConfig.class);
+                when(appConfig.getBulkValidation()).thenReturn(bulkValidation);
+                controller = new FhirController(mock(OrchestrationEngine.class), appConfig,
+                                mock(DataLedgerApiClient.class), fhirService, mock(DSLContext.class));
+                return MockMvcBuilders.standaloneSetup(controller).addFilters(filters).build();
+        }
+
+        private static String bundle(int id) {
+                return "{\"resourceType\":\"Bundle\",\"id\":\"b" + id + "\"}";
+        }
+
+        private static MvcResult postBulk(MockMvc mockMvc, String body) throws Exception {
+                return mockMvc.perform(post("/Bundle/$validate/bulk")
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .accept(MediaType.APPLICATION_NDJSON)
+                                .header(Configuration.Servlet.HeaderName.Request.TENANT_ID, TENANT_ID)
+                                .content(body))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+        }
+
+        private static List<Map<String, Object>> resultLines(MockMvc mockMvc, MvcResult started) throws Exception {
+                final String content = mockMvc.perform(asyncDispatch(started))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+                final List<Map<String, Object>> lines = new ArrayList<>();
+                for (String line : content.split("\n")) {
+                        lines.add(Configuration.objectMapper.readValue(line, new TypeReference<Map<String, Object>>() {
+                        }));
+                }
+                return lines;
+        }
+
+        @Test
+        void tagsEachResultWithTheIndexOfItsBundleAndSkipsBlankLines() throws Exception {
+                when(fhirService.processBundle(anyString(), anyMap(), anyMap())).thenAnswer(invocation -> {
+                        final String payload = invocation.getArgument(0);
+                        final Map<String, Object> requestDetails = invocation.getArgument(1);
+                        if (payload.contains("\"b0\"")) {
+                                // the first bundle finishes last
+                                Thread.sleep(200);
+                        }
+                        return Map.of("payload", payload,
+                                        "interactionId", requestDetails.get(Constants.INTERACTION_ID),
+                                        "tenantId", requestDetails.get(Constants.TENANT_ID));
+                });
+                final MockMvc mockMvc = mockMvc(4);
+                final String body = bundle(0) + "\n\n" + bundle(1) + "\n   \n" + bundle(2) + "\r\n" + bundle(3) + "\n"
+                                + bundle(4);
+
+                final List<Map<String, Object>> lines = resultLines(mockMvc, postBulk(mockMvc, body));
+
+                assertThat(lines).hasSize(5);
+                assertThat(lines).extracting(line -> line.get("index"))
+                                .containsExactlyInAnyOrder(0, 1, 2, 3, 4);
+                for (Map<String, Object> line : lines) {
+                        @SuppressWarnings("unchecked")
+                        final Map<String, Object> result = (Map<String, Object>) line.get("result");
+                        assertThat(result.get("payload")).isEqualTo(bundle((Integer) line.get("index")));
+                        assertThat(result.get("interactionId")).isEqualTo(line.get("interactionId"));
+                        assertThat(result.get("tenantId")).isEqualTo(TENANT_ID);
+                }
+                assertThat(lines.stream().map(line -> line.get("interactionId")).collect(Collectors.toSet()))
+                                .hasSize(5);
+                verify(fhirService, times(5)).processBundle(anyString(), anyMap(), anyMap());
+        }
+
+        @Test
+        void reportsAFailedBundleOnItsOwnLineAndValidatesTheRest() throws Exception {
+                when(fhirService.processBundle(anyString(), anyMap(), anyMap())).thenAnswer(invocation -> {
+                        final String payload = invocation.getArgument(0);
+                        if (payload.contains("\"b1\"")) {
+                                throw new IllegalStateException("bundle b1 could not be validated");
+                        }
+                        return Map.of("payload", payload);
+                });
+                final MockMvc mockMvc = mockMvc(2);
+                final String body = IntStream.range(0, 3).mapToObj(FhirControllerBulkValidationTest::bundle)
+                                .collect(Collectors.joining("\n"));
+
+                final Map<Object, Map<String, Object>> byIndex = resultLines(mockMvc, postBulk(mockMvc, body))
+                                .stream().collect(Collectors.toMap(line -> line.get("index"), line -> line));
+
+                assertThat(byIndex).containsOnlyKeys(0, 1, 2);
+                assertThat(byIndex.get(1))
+                                .containsEntry("status", "Error")
+                                .containsEntry("message", "bundle b1 could not be validated")
+                                .doesNotContainKey("result");
+                assertThat(byIndex.get(0)).containsKey("result").doesNotContainKey("status");
+                assertThat(byIndex.get(2)).containsKey("result").doesNotContainKey("status");
+        }
+
+        @Test
+        void stopsReadingBundlesOnceTheClientHasGone() throws Exception {
+                when(fhirService.processBundle(anyString(), anyMap(), anyMap())).thenReturn(Map.of());
+                final Filter disconnectedClient = (servletRequest, servletResponse, chain) -> chain.doFilter(
+                                servletRequest,
+                                new HttpServletResponseWrapper((HttpServletResponse) servletResponse) {
+                                        @Override
+                                        public ServletOutputStream getOutputStream() {
+                                                return new BrokenPipeOutputStream();
+                                        }
+                                });
+                final MockMvc mockMvc = mockMvc(1, disconnectedClient);
+                final String body = IntStream.range(0, 20).mapToObj(FhirControllerBulkValidationTest::bundle)
+                                .collect(Collectors.joining("\n"));
+
+                final MvcResult started = postBulk(mockMvc, body);
+
+                assertThat(started.getAsyncResult(10_000)).isInstanceOf(IOException.class);
+                // the bundle that failed to write and at most the one read while it was in flight
+                verify(fhirService, atMost(2)).processBundle(anyString(), anyMap(), anyMap());
+        }
+
+        /** The response stream of a client that has closed its connection. */
+        private static final class BrokenPipeOutputStream extends ServletOutputStream {
+
+                @Override
+                public void write(int b) throws IOException {
+                        throw new IOException("Broken pipe");
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                        throw new IOException("Broken pipe");
+                }
+
+                @Override
+                public boolean isReady() {
+                        return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                }
+        }
+}
@@ -31,6 +31,15 @@ public class CoreAppConfig {
     private String dataLedgerApiKeySecretName;
 
     private ProcessingAgentConfig processingAgent;
+    private ValidatorRegistryConfig validatorRegistry;
+    private IgPackageLoadingConfig igPackageLoading;
+    private CsvProcessingConfig csvProcessing;
+    private DataLedgerDispatchConfig dataLedgerDispatch;
+    private MtlsClientCacheConfig mtlsClientCache;
+    private InteractionPersistenceConfig interactionPersistence;
+    private FhirReplayConfig fhirReplay;
+    private ValidationResultCacheConfig validationResultCache;
+    private BundleEntryValidationConfig bundleEntryValidation;
 
     @Getter
     @Setter
@@ -40,6 +49,148 @@ public class CoreAppConfig {
         private List<String> tenantIds;
     }
 
+    /**
+     * Limits for validators built on demand for a requested IG version.
+     */
+    @Getter
+    @Setter
+    public static class ValidatorRegistryConfig {
+        private int maxEntries = 8;
+        private long maxMemoryMb = 4096;
+    }
+
+    /**
+     * How the IG packages behind each validator are loaded at startup.
+     * {@code parallelism} of 0 uses one thread per available core;
+     * a blank {@code snapshotCacheDir} disables the on-disk cache, whose
+     * entries are removed once unused for {@code snapshotCacheMaxAgeDays} or
+     * when the directory exceeds {@code snapshotCacheMaxMb}.
+     */
+    @Getter
+    @Setter
+    public static class IgPackageLoadingConfig {
+        private int parallelism;
+        private String snapshotCacheDir;
+        private long snapshotCacheMaxMb = 2048;
+        private int snapshotCacheMaxAgeDays = 30;
+    }
+
+    /**
+     * Concurrency limits for CSV ZIP processing. {@code screeningGroupParallelism}
+     * bounds how many screening groups of all sessions are validated at once;
+     * {@code validationWorkers} is the number of long-lived Python validators,
+     * 0 running a new process per group instead, each replaced after
+     * {@code validationWorkerMaxRequests} requests; {@code bundleParallelism}
+     * bounds how many generated bundles are converted and submitted at once.
+     */
+    @Getter
+    @Setter
+    public static class CsvProcessingConfig {
+        private int screeningGroupParallelism = 4;
+        private int validationWorkers = 4;
+        private long validationWorkerTimeoutSeconds = 300;
+        private long validationWorkerHealthCheckSeconds = 60;
+        private int validationWorkerMaxRequests = 500;
+        private int bundleParallelism = 8;
+    }
+
+    /**
+     * Queueing and retry of DataLedger events. Events beyond
+     * {@code queueCapacity}, or sent while the ledger is down, are appended to
+     * a file in {@code spillDir} and replayed every {@code spillReplaySeconds};
+     * a blank {@code spillDir} drops them instead.
+     */
+    @Getter
+    @Setter
+    public static class DataLedgerDispatchConfig {
+        private int queueCapacity = 10000;
+        private int senders = 4;
+        private int maxAttempts = 5;
+        private long initialBackoffMillis = 200;
+        private long maxBackoffMillis = 10000;
+        private long requestTimeoutSeconds = 30;
+        private long apiKeyTtlSeconds = 900;
+        private String spillDir;
+        private long spillReplaySeconds = 30;
+        private long spillRetentionHours = 24;
+    }
+
+    /**
+     * Cached mTLS clients for scoring-engine forwarding. Credentials are
+     * reloaded after {@code ttlSeconds}; a replaced client's connections are
+     * closed {@code retiredClientGraceSeconds} later.
+     */
+    @Getter
+    @Setter
+    public static class MtlsClientCacheConfig {
+        private long ttlSeconds = 3600;
+        private int maxConnections = 50;
+        private long maxIdleSeconds = 60;
+        private long retiredClientGraceSeconds = 60;
+    }
+
+    /**
+     * Write-behind batching of interaction registration calls. A batch is
+     * written once it holds {@code batchSize} calls or its first call is
+     * {@code maxDelayMillis} old; submitters block while {@code queueCapacity}
+     * calls are pending. Disabled, each call runs on the caller's thread.
+     */
+    @Getter
+    @Setter
+    public static class InteractionPersistenceConfig {
+        private boolean enabled = true;
+        private int batchSize = 50;
+        private long maxDelayMillis = 10;
+        private int queueCapacity = 5000;
+    }
+
+    /**
+     * FHIR bundle replay. Pending bundles are read {@code pageSize} at a time
+     * and sent by {@code parallelism} workers, at most
+     * {@code requestsPerSecond} (bursts of up to {@code burst}) across all
+     * replays; a rate of 0 removes the limit.
+     */
+    @Getter
+    @Setter
+    public static class FhirReplayConfig {
+        private int parallelism = 4;
+        private int pageSize = 200;
+        private double requestsPerSecond = 20;
+        private int burst = 20;
+    }
+
+    /**
+     * Cache of validation outcomes for byte-identical bundles, off unless
+     * {@code enabled}. {@code maxMemoryMb} bounds the in-memory tier; a
+     * non-blank {@code diskDir} adds an on-disk tier of up to {@code maxDiskMb}.
+     */
+    @Getter
+    @Setter
+    public static class ValidationResultCacheConfig {
+        private boolean enabled;
+        private long maxMemoryMb = 256;
+        private String diskDir;
+        private long maxDiskMb = 2048;
+    }
+
+    /**
+     * Parallel validation of bundle entries, off unless {@code enabled}.
+     * Bundles with at least {@code minEntries} entries have their entries
+     * validated on {@code threads} shared threads (0 for one per core), with at
+     * most {@code queueCapacity} waiting; a bundle still unfinished after
+     * {@code timeoutSeconds} fails. In this mode HAPI validates each entry
+     * against its own profiles and does not validate the Bundle resource.
+     */
+    @Getter
+    @Setter
+    public static class BundleEntryValidationConfig {
+        private boolean enabled;
+        private int threads;
+        private int queueCapacity = 10000;
+        private int minEntries = 50;
+        private long timeoutSeconds = 120;
+    }
+
     @Getter
     @Setter
     public static class FhirV4Config {
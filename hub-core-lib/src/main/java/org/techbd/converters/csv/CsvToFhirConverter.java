@@ -22,6 +22,9 @@ public class CsvToFhirConverter {
     private final List<IConverter> converters; // todo move other converters inside bundle converter after hl7 changes
     private final BundleConverter bundleConverter;
     private final TemplateLogger LOG;
+    // forR4() builds a new context, scanning the model classes, on every call.
+    // The cached context is thread-safe; parsers are cheap and created per use.
+    private final FhirContext fhirContext = FhirContext.forR4Cached();
 
     public CsvToFhirConverter(BundleConverter bundleConverter, List<IConverter> converters,AppLogger appLogger) {
         this.converters = converters;
@@ -32,6 +35,17 @@ public class CsvToFhirConverter {
     public String convert(DemographicData demographicData,
             QeAdminData qeAdminData, ScreeningProfileData screeningProfileData,
             List<ScreeningObservationData> screeningDataList, String interactionId,String baseFHIRUrl) {
+        return encode(convertToBundle(demographicData, qeAdminData, screeningProfileData, screeningDataList,
+                interactionId, baseFHIRUrl));
+    }
+
+    /**
+     * Builds the bundle without serializing it, so that callers can hand the
+     * in-memory resource to validation and encode it only where JSON is needed.
+     */
+    public Bundle convertToBundle(DemographicData demographicData,
+            QeAdminData qeAdminData, ScreeningProfileData screeningProfileData,
+            List<ScreeningObservationData> screeningDataList, String interactionId,String baseFHIRUrl) {
         Bundle bundle = null;
         try {
             LOG.info("CsvToFhirConvereter::convert - BEGIN for interactionId :{}", interactionId);
@@ -44,7 +58,11 @@ public class CsvToFhirConverter {
         } catch (Exception ex) {
             LOG.error("Exception in Csv conversion for interaction id : {}", interactionId, ex);
         }
-        return FhirContext.forR4().newJsonParser().encodeResourceToString(bundle);
+        return bundle;
+    }
+
+    public String encode(Bundle bundle) {
+        return fhirContext.newJsonParser().encodeResourceToString(bundle);
     }
 
     private void addEntries(Bundle bundle, DemographicData demographicData,
@@ -15,10 +15,16 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.apache.commons.collections.CollectionUtils;
+import org.hl7.fhir.r4.model.Bundle;
 import org.jooq.DSLContext;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
@@ -27,6 +33,7 @@ import org.springframework.util.MimeTypeUtils;
 import org.techbd.config.Configuration;
 import org.techbd.config.Constants;
 import org.techbd.config.CoreAppConfig;
+import org.techbd.config.CoreAppConfig.CsvProcessingConfig;
 import org.techbd.config.Nature;
 import org.techbd.config.SourceType;
 import org.techbd.config.State;
@@ -50,10 +57,12 @@ import org.techbd.util.AppLogger;
 import org.techbd.util.TemplateLogger;
 import org.techbd.util.csv.CsvConversionUtil;
 import org.techbd.util.fhir.CoreFHIRUtil;
+import org.techbd.util.fhir.ParsedBundle;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
 import io.micrometer.common.util.StringUtils;
+import jakarta.annotation.PreDestroy;
 import jakarta.servlet.http.Cookie;
 
 @Service
@@ -64,6 +73,7 @@ public class CsvBundleProcessorService {
     private final CoreDataLedgerApiClient coreDataLedgerApiClient;
     private final CoreAppConfig coreAppConfig;
     private final DSLContext primaryDslContext;
+    private final ExecutorService bundleExecutor;
 
     public CsvBundleProcessorService(final CsvToFhirConverter csvToFhirConverter, final FHIRService fhirService,
     CoreDataLedgerApiClient coreDataLedgerApiClient,CoreAppConfig coreAppConfig, @Qualifier("primaryDslContext") final DSLContext primaryDslContext,AppLogger appLogger) {
@@ -73,6 +83,29 @@ public class CsvBundleProcessorService {
         this.coreAppConfig = coreAppConfig;
         this.primaryDslContext = primaryDslContext;
         this.LOG = appLogger.getLogger(CsvBundleProcessorService.class);
+        this.bundleExecutor = createBundleExecutor(coreAppConfig.getCsvProcessing());
+    }
+
+    /**
+     * Pool shared by all uploads for converting and submitting bundles; its
+     * size bounds how many bundles are in flight at once.
+     */
+    private static ExecutorService createBundleExecutor(final CsvProcessingConfig config) {
+        final int threads = Math.max(1, (config != null ? config : new CsvProcessingConfig()).getBundleParallelism());
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    final Thread thread = new Thread(runnable, "csv-bundle-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        bundleExecutor.shutdown();
     }
 
     private static final Map<String, String> DESCRIPTION_MAP = Map.ofEntries(
@@ -404,115 +437,150 @@ private List<Object> processScreening(final String groupKey,
             boolean isAllCsvConvertedToFhir,String baseFHIRUrl,AtomicInteger totalNumberOfBundlesGenerated,CsvProcessingMetricsBuilder metricsBuilder)
             throws IOException {
         LOG.info("CsvBundleProcessorService processScreening: BEGIN for zipFileInteractionId: {}, groupInteractionId :{}, tenantId: {}, baseFHIRURL: {}", masterInteractionId, groupInteractionId, tenantId, baseFHIRUrl);
-        final List<Object> results = new ArrayList<>();
-        final AtomicInteger errorCount = new AtomicInteger();
+        // Each bundle gets its own copy of the request parameters, so bundles can be
+        // converted and submitted concurrently; results keep the profile order.
+        final Map<String, Object> baseRequestParameters = Collections.unmodifiableMap(new HashMap<>(requestParameters));
+        final List<CompletableFuture<ProfileOutcome>> profileOutcomes = new ArrayList<>();
         screeningProfileData.forEach((encounterId, profileList) -> {
             for (final ScreeningProfileData profile : profileList) {
-                final String interactionId = UUID.randomUUID().toString();
-                String bundle = null;
-                try {
-                    final List<DemographicData> demographicList = demographicData.getOrDefault(
-                            profile.getPatientMrIdValue(),
-                            List.of());
-                    final List<QeAdminData> qeAdminList = qeAdminData.getOrDefault(profile.getPatientMrIdValue(),
-                            List.of());
-                    final List<ScreeningObservationData> screeningObservationList = screeningObservationData
-                            .getOrDefault(profile.getEncounterId(), List.of());
-
-                    if (demographicList.isEmpty() || qeAdminList.isEmpty() || screeningObservationList.isEmpty()) {
-                        final String errorMessage = String.format(
-                                "Foreign Key Error : Data missing in one or more files for patientMrIdValue: %s",
-                                profile.getPatientMrIdValue());
-                        LOG.error(errorMessage);
-                        throw new IllegalArgumentException(errorMessage);
-                    }
-                    final Instant initiatedAt = Instant.now();
-                    bundle = csvToFhirConverter.convert(
-                            demographicList.get(0),
-                            qeAdminList.get(0),
-                            profile,
-                            screeningObservationList,
-                            interactionId,baseFHIRUrl);
-                    final Instant completedAt = Instant.now();
-                    if (bundle != null) {
-                        totalNumberOfBundlesGenerated.getAndIncrement();
-                        final String updatedProvenance = addBundleProvenance(payloadAndValidationOutcome.provenance(),
-                                getFileNames(payloadAndValidationOutcome.fileDetails()),
-                                profile.getPatientMrIdValue(), profile.getEncounterId(), initiatedAt, completedAt);
-                        saveFhirConversionStatus(isValid, masterInteractionId, groupKey, groupInteractionId,
-                                interactionId, requestParameters,
-                                bundle, null, tenantId);
-                        
-                              Map<String, Object> headers = org.techbd.util.fhir.CoreFHIRUtil.buildHeaderParametersMap(
-                                tenantId,
-                                null,
-                                // null,
-                                null,
-                                (String) requestParameters.get(Constants.VALIDATION_SEVERITY_LEVEL),
-                                null,
-                                null,
-                                updatedProvenance, null);
-                        
-                        org.techbd.util.fhir.CoreFHIRUtil.buildRequestParametersMap(requestParameters,
-                            false, null, SourceType.CSV.name(),  groupInteractionId, masterInteractionId,(String) requestParameters.get(Constants.REQUEST_URI));
-                        requestParameters.put(Constants.INTERACTION_ID, interactionId);
-                        requestParameters.put(Constants.GROUP_INTERACTION_ID, groupInteractionId);
-                        requestParameters.put(Constants.MASTER_INTERACTION_ID, masterInteractionId);
-                        // Ensure CUSTOM_DATA_LAKE_API key is present by reusing any existing value from requestParameters (avoids referencing undefined variable)
-                        requestParameters.put(Constants.CUSTOM_DATA_LAKE_API, requestParameters.get(Constants.CUSTOM_DATA_LAKE_API));
-                        requestParameters.putAll(headers);
-                        results.add(fhirService.processBundle(
-                                bundle, requestParameters,responseParameters));
-                        LOG.info("Bundle generated for  patient  MrId: {}, interactionId: {}, masterInteractionId: {}, groupInteractionId :{}",
-                                profile.getPatientMrIdValue(), interactionId, masterInteractionId,groupInteractionId);        
-                    } else {
-                        metricsBuilder.dataValidationStatus(CsvDataValidationStatus.FAILED.getDescription());
-                        LOG.error("Bundle not generated for  patient  MrId: {}, interactionId: {}, masterInteractionId: {}, groupInteractionId :{}",
-                                profile.getPatientMrIdValue(), interactionId, masterInteractionId,groupInteractionId);
-                        errorCount.incrementAndGet();
-                        final Map<String, Object> result = CsvConversionUtil.createOperationOutcomeForError(coreAppConfig,masterInteractionId, interactionId,
-                                profile.getPatientMrIdValue(), profile.getEncounterId(),
-                                new Exception("Bundle not created"),
-                                payloadAndValidationOutcome.provenance(),payloadAndValidationOutcome.fileDetails(),requestParameters);
-                        String bundleId =CoreFHIRUtil.extractBundleId(bundle, tenantId);                                
-                        DataLedgerPayload dataLedgerPayload = DataLedgerPayload.create(
-                        CoreDataLedgerApiClient.Actor.TECHBD.getValue(), CoreDataLedgerApiClient.Action.SENT.getValue(), 
-                        CoreDataLedgerApiClient.Actor.INVALID_CSV.getValue(), bundleId != null ? bundleId : masterInteractionId);
-                        final var dataLedgerProvenance = "%s.processScreening".formatted(CsvBundleProcessorService.class.getName());
-                        coreDataLedgerApiClient.processRequest(dataLedgerPayload,interactionId,masterInteractionId,groupInteractionId,dataLedgerProvenance,SourceType.CSV.name(),result);        
-                        results.add(result);
-                        saveFhirConversionStatus(isValid, masterInteractionId, groupKey, groupInteractionId,
-                                interactionId, requestParameters,
-                                bundle, result, tenantId);
-                    }
-                } catch (final Exception e) {
-                    errorCount.incrementAndGet();
-                    metricsBuilder.dataValidationStatus(CsvDataValidationStatus.FAILED.getDescription());
-                    final Map<String, Object> result = CsvConversionUtil.createOperationOutcomeForError(coreAppConfig,masterInteractionId, interactionId,
-                            profile.getPatientMrIdValue(), profile.getEncounterId(), e,
-                            payloadAndValidationOutcome.provenance(),payloadAndValidationOutcome.fileDetails(),requestParameters);
-                    String bundleId =CoreFHIRUtil.extractBundleId(bundle, tenantId);                                
-                    DataLedgerPayload dataLedgerPayload = DataLedgerPayload.create(
-                    CoreDataLedgerApiClient.Actor.TECHBD.getValue(), CoreDataLedgerApiClient.Action.SENT.getValue(), 
-                    CoreDataLedgerApiClient.Actor.INVALID_CSV.getValue(), bundleId != null ? bundleId : masterInteractionId);
-                    final var dataLedgerProvenance = "%s.processScreening".formatted(FHIRService.class.getName());
-                    coreDataLedgerApiClient.processRequest(dataLedgerPayload,interactionId,masterInteractionId,groupInteractionId,dataLedgerProvenance,SourceType.CSV.name(),result);
-                    LOG.error("Error processing patient data for MrId:{}, interactionId: {}, masterInteractionId:{} , groupInteractionId:{}, Error:{}",
-                            profile.getPatientMrIdValue(), interactionId,masterInteractionId,groupInteractionId, e.getMessage(), e);
-                    results.add(result);
-                    saveFhirConversionStatus(isValid, masterInteractionId, groupKey, groupInteractionId, interactionId,
-                            requestParameters,
-                            bundle, result, tenantId);
-                }
+                profileOutcomes.add(CompletableFuture.supplyAsync(() -> processProfile(groupKey, profile,
+                        demographicData, qeAdminData, screeningObservationData, baseRequestParameters,
+                        responseParameters, groupInteractionId, masterInteractionId, tenantId, isValid,
+                        payloadAndValidationOutcome, baseFHIRUrl, totalNumberOfBundlesGenerated), bundleExecutor));
             }
         });
-        if (errorCount.get() > 0) {
+        final List<Object> results = new ArrayList<>(profileOutcomes.size());
+        int errorCount = 0;
+        for (final CompletableFuture<ProfileOutcome> profileOutcome : profileOutcomes) {
+            final ProfileOutcome outcome = profileOutcome.join();
+            if (outcome.failed()) {
+                errorCount++;
+                metricsBuilder.dataValidationStatus(CsvDataValidationStatus.FAILED.getDescription());
+            }
+            results.add(outcome.result());
+        }
+        if (errorCount > 0) {
             isAllCsvConvertedToFhir = false;
         }
         LOG.info("CsvBundleProcessorService processScreening: END for zipFileInteractionId: {}, groupInteractionId :{}, tenantId: {}, baseFHIRURL: {}", masterInteractionId, groupInteractionId, tenantId, baseFHIRUrl);
         return results;
     }
 
+    /** Result of one screening profile and whether it failed. */
+    private record ProfileOutcome(Object result, boolean failed) {
+    }
+
+    /**
+     * Converts one screening profile to a bundle and submits it. Runs on the
+     * bundle pool; {@code baseRequestParameters} is shared and read-only.
+     */
+    private ProfileOutcome processProfile(final String groupKey, final ScreeningProfileData profile,
+            final Map<String, List<DemographicData>> demographicData,
+            final Map<String, List<QeAdminData>> qeAdminData,
+            final Map<String, List<ScreeningObservationData>> screeningObservationData,
+            final Map<String, Object> baseRequestParameters,
+            final Map<String, Object> responseParameters,
+            final String groupInteractionId,
+            final String masterInteractionId,
+            final String tenantId, final boolean isValid, final PayloadAndValidationOutcome payloadAndValidationOutcome,
+            final String baseFHIRUrl, final AtomicInteger totalNumberOfBundlesGenerated) {
+        final Map<String, Object> bundleRequestParameters = new HashMap<>(baseRequestParameters);
+        final String interactionId = UUID.randomUUID().toString();
+        String bundle = null;
+        try {
+            final List<DemographicData> demographicList = demographicData.getOrDefault(
+                    profile.getPatientMrIdValue(),
+                    List.of());
+            final List<QeAdminData> qeAdminList = qeAdminData.getOrDefault(profile.getPatientMrIdValue(),
+                    List.of());
+            final List<ScreeningObservationData> screeningObservationList = screeningObservationData
+                    .getOrDefault(profile.getEncounterId(), List.of());
+
+            if (demographicList.isEmpty() || qeAdminList.isEmpty() || screeningObservationList.isEmpty()) {
+                final String errorMessage = String.format(
+                        "Foreign Key Error : Data missing in one or more files for patientMrIdValue: %s",
+                        profile.getPatientMrIdValue());
+                LOG.error(errorMessage);
+                throw new IllegalArgumentException(errorMessage);
+            }
+            final Instant initiatedAt = Instant.now();
+            final Bundle fhirBundle = csvToFhirConverter.convertToBundle(
+                    demographicList.get(0),
+                    qeAdminList.get(0),
+                    profile,
+                    screeningObservationList,
+                    interactionId,baseFHIRUrl);
+            bundle = csvToFhirConverter.encode(fhirBundle);
+            final Instant completedAt = Instant.now();
+            if (bundle != null) {
+                totalNumberOfBundlesGenerated.getAndIncrement();
+                final String updatedProvenance = addBundleProvenance(payloadAndValidationOutcome.provenance(),
+                        getFileNames(payloadAndValidationOutcome.fileDetails()),
+                        profile.getPatientMrIdValue(), profile.getEncounterId(), initiatedAt, completedAt);
+                saveFhirConversionStatus(isValid, masterInteractionId, groupKey, groupInteractionId,
+                        interactionId, bundleRequestParameters,
+                        bundle, null, tenantId);
+                
+                      Map<String, Object> headers = org.techbd.util.fhir.CoreFHIRUtil.buildHeaderParametersMap(
+                        tenantId,
+                        null,
+                        // null,
+                        null,
+                        (String) bundleRequestParameters.get(Constants.VALIDATION_SEVERITY_LEVEL),
+                        null,
+                        null,
+                        updatedProvenance, null);
+                
+                org.techbd.util.fhir.CoreFHIRUtil.buildRequestParametersMap(bundleRequestParameters,
+                    false, null, SourceType.CSV.name(),  groupInteractionId, masterInteractionId,(String) bundleRequestParameters.get(Constants.REQUEST_URI));
+                bundleRequestParameters.put(Constants.INTERACTION_ID, interactionId);
+                bundleRequestParameters.put(Constants.GROUP_INTERACTION_ID, groupInteractionId);
+                bundleRequestParameters.put(Constants.MASTER_INTERACTION_ID, masterInteractionId);
+                // Ensure CUSTOM_DATA_LAKE_API key is present by reusing any existing value from bundleRequestParameters (avoids referencing undefined variable)
+                bundleRequestParameters.put(Constants.CUSTOM_DATA_LAKE_API, bundleRequestParameters.get(Constants.CUSTOM_DATA_LAKE_API));
+                bundleRequestParameters.putAll(headers);
+                final Object response = fhirService.processBundle(
+                        new ParsedBundle(bundle, fhirBundle), bundleRequestParameters,responseParameters);
+                LOG.info("Bundle generated for  patient  MrId: {}, interactionId: {}, masterInteractionId: {}, groupInteractionId :{}",
+                        profile.getPatientMrIdValue(), interactionId, masterInteractionId,groupInteractionId);        
+                return new ProfileOutcome(response, false);
+            } else {
+                LOG.error("Bundle not generated for  patient  MrId: {}, interactionId: {}, masterInteractionId: {}, groupInteractionId :{}",
+                        profile.getPatientMrIdValue(), interactionId, masterInteractionId,groupInteractionId);
+                final Map<String, Object> result = CsvConversionUtil.createOperationOutcomeForError(coreAppConfig,masterInteractionId, interactionId,
+                        profile.getPatientMrIdValue(), profile.getEncounterId(),
+                        new Exception("Bundle not created"),
+                        payloadAndValidationOutcome.provenance(),payloadAndValidationOutcome.fileDetails(),bundleRequestParameters);
+                String bundleId =CoreFHIRUtil.extractBundleId(bundle, tenantId);                                
+                DataLedgerPayload dataLedgerPayload = DataLedgerPayload.create(
+                CoreDataLedgerApiClient.Actor.TECHBD.getValue(), CoreDataLedgerApiClient.Action.SENT.getValue(), 
+                CoreDataLedgerApiClient.Actor.INVALID_CSV.getValue(), bundleId != null ? bundleId : masterInteractionId);
+                final var dataLedgerProvenance = "%s.processScreening".formatted(CsvBundleProcessorService.class.getName());
+                coreDataLedgerApiClient.processRequest(dataLedgerPayload,interactionId,masterInteractionId,groupInteractionId,dataLedgerProvenance,SourceType.CSV.name(),result);        
+                saveFhirConversionStatus(isValid, masterInteractionId, groupKey, groupInteractionId,
+                        interactionId, bundleRequestParameters,
+                        bundle, result, tenantId);
+                return new ProfileOutcome(result, true);
+            }
+        } catch (final Exception e) {
+            final Map<String, Object> result = CsvConversionUtil.createOperationOutcomeForError(coreAppConfig,masterInteractionId, interactionId,
+                    profile.getPatientMrIdValue(), profile.getEncounterId(), e,
+                    payloadAndValidationOutcome.provenance(),payloadAndValidationOutcome.fileDetails(),bundleRequestParameters);
+            String bundleId =CoreFHIRUtil.extractBundleId(bundle, tenantId);                                
+            DataLedgerPayload dataLedgerPayload = DataLedgerPayload.create(
+            CoreDataLedgerApiClient.Actor.TECHBD.getValue(), CoreDataLedgerApiClient.Action.SENT.getValue(), 
+            CoreDataLedgerApiClient.Actor.INVALID_CSV.getValue(), bundleId != null ? bundleId : masterInteractionId);
+            final var dataLedgerProvenance = "%s.processScreening".formatted(FHIRService.class.getName());
+            coreDataLedgerApiClient.processRequest(dataLedgerPayload,interactionId,masterInteractionId,groupInteractionId,dataLedgerProvenance,SourceType.CSV.name(),result);
+            LOG.error("Error processing patient data for MrId:{}, interactionId: {}, masterInteractionId:{} , groupInteractionId:{}, Error:{}",
+                    profile.getPatientMrIdValue(), interactionId,masterInteractionId,groupInteractionId, e.getMessage(), e);
+            saveFhirConversionStatus(isValid, masterInteractionId, groupKey, groupInteractionId, interactionId,
+                    bundleRequestParameters,
+                    bundle, result, tenantId);
+            return new ProfileOutcome(result, true);
+        }
+    }
+
     public static List<String> getFileNames(final List<FileDetail> fileDetails) {
         if (fileDetails != null) {
             return fileDetails.stream()
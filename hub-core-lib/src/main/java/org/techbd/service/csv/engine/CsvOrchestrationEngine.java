@@ -26,6 +26,14 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -39,6 +47,7 @@ import org.springframework.web.multipart.MultipartFile;
 import org.techbd.config.Configuration;
 import org.techbd.config.Constants;
 import org.techbd.config.CoreAppConfig;
+import org.techbd.config.CoreAppConfig.CsvProcessingConfig;
 import org.techbd.config.Nature;
 import org.techbd.config.State;
 import org.techbd.model.csv.CsvDataValidationStatus;
@@ -59,6 +68,7 @@ import org.techbd.util.fhir.CoreFHIRUtil;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import jakarta.annotation.PreDestroy;
 import jakarta.validation.constraints.NotNull;
 
 /**
@@ -72,6 +82,8 @@ public class CsvOrchestrationEngine {
     private final VfsCoreService vfsCoreService;
     private final DSLContext primaryDSLContext;
     private final CsvBundleProcessorService csvBundleProcessorService;
+    private final ExecutorService screeningGroupExecutor;
+    private CsvValidationWorkerPool validationWorkerPool;
     private static TemplateLogger log;
     private static final Pattern FILE_PATTERN = Pattern.compile(
           "(SDOH_PtInfo|SDOH_QEadmin|SDOH_ScreeningProf|SDOH_ScreeningObs)_(.+)");
@@ -83,6 +95,81 @@ public class CsvOrchestrationEngine {
         this.primaryDSLContext = primaryDSLContext;
         log = appLogger.getLogger(CsvOrchestrationEngine.class);
         this.csvBundleProcessorService = csvBundleProcessorService;
+        this.screeningGroupExecutor = createScreeningGroupExecutor(coreAppConfig.getCsvProcessing());
+    }
+
+    /**
+     * Pool shared by all sessions for validating screening groups. Each task
+     * spends most of its time waiting on a Python process, so the pool size
+     * rather than the core count limits how many run at once.
+     */
+    private static ExecutorService createScreeningGroupExecutor(final CsvProcessingConfig config) {
+        final int threads = Math.max(1, (config != null ? config : new CsvProcessingConfig())
+                .getScreeningGroupParallelism());
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    final Thread thread = new Thread(runnable, "csv-screening-group-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Runs {@code validation} for every group on {@code executor} and returns
+     * the results in the order of {@code groups}. When a group fails, every
+     * group still queued or running is cancelled, running ones by interrupt,
+     * and the failure is rethrown.
+     */
+    static <G, R> List<R> validateGroupsInOrder(final List<G> groups, final Function<G, R> validation,
+            final ExecutorService executor) throws InterruptedException {
+        final List<Future<R>> futures = new ArrayList<>(groups.size());
+        try {
+            for (G group : groups) {
+                futures.add(executor.submit(() -> validation.apply(group)));
+            }
+            final List<R> results = new ArrayList<>(groups.size());
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException
+                    : new RuntimeException(e.getCause());
+        } catch (InterruptedException | RuntimeException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        }
+    }
+
+    /**
+     * The worker pool for CSV validation, started on first use; {@code null}
+     * when workers are disabled.
+     */
+    private synchronized CsvValidationWorkerPool getValidationWorkerPool(
+            final CoreAppConfig.CsvValidation.Validation validation) {
+        final CsvProcessingConfig config = coreAppConfig.getCsvProcessing() != null
+                ? coreAppConfig.getCsvProcessing()
+                : new CsvProcessingConfig();
+        if (validationWorkerPool == null && config.getValidationWorkers() > 0) {
+            validationWorkerPool = new CsvValidationWorkerPool(validation.pythonExecutable(),
+                    Paths.get(validation.pythonScriptPath()), config.getValidationWorkers(),
+                    Duration.ofSeconds(config.getValidationWorkerTimeoutSeconds()),
+                    Duration.ofSeconds(config.getValidationWorkerHealthCheckSeconds()),
+                    config.getValidationWorkerMaxRequests());
+        }
+        return validationWorkerPool;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        screeningGroupExecutor.shutdown();
+        if (validationWorkerPool != null) {
+            validationWorkerPool.close();
+        }
     }
 
     public List<OrchestrationSession> getSessions() {
@@ -186,6 +273,14 @@ public class CsvOrchestrationEngine {
         }
     }
 
+    /**
+     * Outcome of one screening group, produced on a pool thread and merged
+     * into the session afterwards.
+     */
+    private record ScreeningGroupResult(String groupKey, List<FileDetail> fileDetails, String groupInteractionId,
+            Map<String, Object> operationOutcome, boolean valid) {
+    }
+
     public class OrchestrationSession {
         private final String sessionId;
         private final String masterInteractionId;
@@ -580,6 +675,7 @@ public class CsvOrchestrationEngine {
                 final Map<String, List<FileDetail>> groupedFiles = FileProcessor.processAndGroupFiles(csvFiles);
                 List<Map<String, Object>> combinedValidationResults = new ArrayList<>();
                 int noOfValidGroups = 0;
+                final List<Map.Entry<String, List<FileDetail>>> groups = new ArrayList<>();
                 for (Map.Entry<String, List<FileDetail>> entry : groupedFiles.entrySet()) {
                     String groupKey = entry.getKey();
                     if (groupKey.equals("filesNotProcessed")) {
@@ -592,34 +688,27 @@ public class CsvOrchestrationEngine {
                         }
                         continue;
                     }
-                    List<FileDetail> fileDetails = entry.getValue();
-                    Map<String, Object> operationOutcomeForThisGroup;
-                    final String groupInteractionId = UUID.randomUUID().toString();
-                    boolean isGroupValid = false;
-                    
-                    if (isGroupComplete(fileDetails)) {
-                        operationOutcomeForThisGroup = validateScreeningGroup(groupInteractionId, groupKey, fileDetails,
-                                originalFileName);
-                        isGroupValid = extractValidValue(operationOutcomeForThisGroup);
-                    } else {
-                        metricsBuilder.dataValidationStatus(CsvDataValidationStatus.FAILED.getDescription());
-                        // Incomplete group - generate error operation outcome
-                        operationOutcomeForThisGroup = createIncompleteGroupOperationOutcome(
-                                groupKey, fileDetails, originalFileName, masterInteractionId);
-                        log.warn("Incomplete Group - Missing files for group {} for zipFileInteractionId : {}", groupKey, masterInteractionId);
-                    }
-                    if (!isGroupValid) {
+                    groups.add(entry);
+                }
+                // Merged in submission order so the combined results do not depend on
+                // which group finished first; the metrics builder is only touched here.
+                final List<ScreeningGroupResult> groupResults = validateGroupsInOrder(groups,
+                        group -> processScreeningGroup(group.getKey(), group.getValue(), originalFileName,
+                                masterInteractionId),
+                        screeningGroupExecutor);
+                for (ScreeningGroupResult result : groupResults) {
+                    if (!result.valid()) {
                         metricsBuilder.dataValidationStatus(CsvDataValidationStatus.FAILED.getDescription());
                     } else {
                         noOfValidGroups++;
                     }
-                    combinedValidationResults.add(operationOutcomeForThisGroup);
+                    combinedValidationResults.add(result.operationOutcome());
                     if (generateBundle) {
-                        this.payloadAndValidationOutcomes.put(groupKey,
-                                new PayloadAndValidationOutcome(fileDetails,
-                                        isGroupValid,
-                                        groupInteractionId, extractProvenance(operationOutcomeForThisGroup),
-                                        operationOutcomeForThisGroup));
+                        this.payloadAndValidationOutcomes.put(result.groupKey(),
+                                new PayloadAndValidationOutcome(result.fileDetails(),
+                                        result.valid(),
+                                        result.groupInteractionId(), extractProvenance(result.operationOutcome()),
+                                        result.operationOutcome()));
                     }
                 }
                 if (noOfValidGroups > 0 && CsvDataValidationStatus.FAILED.getDescription().equals(metricsBuilder.build().getDataValidationStatus())) {
@@ -633,6 +722,29 @@ public class CsvOrchestrationEngine {
                 throw new RuntimeException("Error processing ZIP files for zipFileInteractionId: " + masterInteractionId + " - " + e.getMessage(), e);
             }
         }
+        private ScreeningGroupResult processScreeningGroup(String groupKey, List<FileDetail> fileDetails,
+                String originalFileName, String masterInteractionId) {
+            final String groupInteractionId = UUID.randomUUID().toString();
+            try {
+                if (isGroupComplete(fileDetails)) {
+                    final Map<String, Object> operationOutcome = validateScreeningGroup(groupInteractionId, groupKey,
+                            fileDetails, originalFileName);
+                    return new ScreeningGroupResult(groupKey, fileDetails, groupInteractionId, operationOutcome,
+                            extractValidValue(operationOutcome));
+                }
+                // Incomplete group - generate error operation outcome
+                final Map<String, Object> operationOutcome = createIncompleteGroupOperationOutcome(
+                        groupKey, fileDetails, originalFileName, masterInteractionId);
+                log.warn("Incomplete Group - Missing files for group {} for zipFileInteractionId : {}", groupKey, masterInteractionId);
+                return new ScreeningGroupResult(groupKey, fileDetails, groupInteractionId, operationOutcome, false);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException("Error validating group " + groupKey + " for zipFileInteractionId: "
+                        + masterInteractionId + " - " + e.getMessage(), e);
+            }
+        }
+
         public boolean isGroupComplete(List<FileDetail> fileDetails) {
             Set<FileType> presentFileTypes = fileDetails.stream()
                     .map(FileDetail::fileType)
@@ -956,11 +1068,37 @@ public class CsvOrchestrationEngine {
 
                 // Build command to run Python script
                 final List<String> command = buildValidationCommand(config, fileDetails);
+                final File workingDirectory = new File(fileDetails.get(0).filePath()).getParentFile();
+
+                final CsvValidationWorkerPool workerPool = getValidationWorkerPool(config);
+                if (workerPool != null) {
+                    try {
+                        final CsvValidationWorkerPool.Result result = workerPool.validate(workingDirectory.toPath(),
+                                command.subList(2, command.size()));
+                        if (result.exitCode() != 0) {
+                            log.error("Python worker validation failed. Exit code: {}, Error: {} for zipFileInteractionId : {}",
+                                    result.exitCode(), result.output(), zipFileInteractionId);
+                            throw new IOException("Python script execution failed with exit code " +
+                                    result.exitCode() + ": " + result.output());
+                        }
+                        log.info(
+                                "CsvService : validateCsvUsingPython END (worker) for zipFileInteractionId :{} " + zipFileInteractionId);
+                        return result.output();
+                    } catch (CsvValidationWorkerPool.WorkerTimeoutException e) {
+                        // the one-shot process has no timeout and would hang on the same files
+                        log.error("Python validation worker timed out for zipFileInteractionId : {} - {}",
+                                zipFileInteractionId, e.getMessage());
+                        throw e;
+                    } catch (CsvValidationWorkerPool.WorkerUnavailableException e) {
+                        log.warn("Python validation worker unavailable, running one-shot validation for zipFileInteractionId : {} - {}",
+                                zipFileInteractionId, e.getMessage());
+                    }
+                }
 
                 log.info("Executing validation command: {} for zipFileIInteractionId : {} ", String.join(" ", command), zipFileInteractionId);
 
                 final ProcessBuilder processBuilder = new ProcessBuilder();
-                processBuilder.directory(new File(fileDetails.get(0).filePath()).getParentFile());
+                processBuilder.directory(workingDirectory);
                 processBuilder.command(command);
                 processBuilder.redirectErrorStream(true);
 
@@ -0,0 +1,281 @@
+package org.techbd.service.csv.engine;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.techbd.config.Configuration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Long-lived Python CSV validators that take requests over stdin/stdout as
+ * JSON lines, so that a screening group no longer pays for interpreter
+ * startup and the frictionless imports.
+ * <p>
+ * Workers run the validation script with {@code --worker}. They are started on
+ * demand up to {@code maxWorkers}, which also caps how many validations run at
+ * once. A worker idle for longer than the health check interval is pinged
+ * before reuse; one that has exited, fails the ping, breaks the protocol or
+ * exceeds the request timeout is destroyed, and the next request starts a
+ * replacement. Workers are also retired after {@code maxRequestsPerWorker}
+ * requests, so memory held by the interpreter does not grow without bound.
+ * <p>
+ * A request that no worker could answer fails with
+ * {@link WorkerUnavailableException}, and callers fall back to the one-shot
+ * process. A request that a worker did not answer within the timeout fails
+ * with {@link WorkerTimeoutException} instead: the same files would most
+ * likely hang the one-shot process too, so callers treat it as a failed
+ * validation.
+ */
+public class CsvValidationWorkerPool implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CsvValidationWorkerPool.class);
+    private static final Duration PING_TIMEOUT = Duration.ofSeconds(10);
+
+    /** Exit code and stdout of one validation, as the one-shot process reports them. */
+    public record Result(int exitCode, String output) {
+    }
+
+    /** The pool could not get an answer from a worker. */
+    public static class WorkerUnavailableException extends IOException {
+        public WorkerUnavailableException(final String message, final Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /** A worker did not answer a validation request within the request timeout. */
+    public static class WorkerTimeoutException extends IOException {
+        public WorkerTimeoutException(final String message, final Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private final List<String> command;
+    private final File workingDirectory;
+    private final Duration requestTimeout;
+    private final Duration healthCheckInterval;
+    private final int maxRequestsPerWorker;
+    private final Semaphore permits;
+    private final BlockingDeque<Worker> idle = new LinkedBlockingDeque<>();
+    private final List<Worker> live = new ArrayList<>();
+    private final ScheduledExecutorService watchdog;
+    private final AtomicInteger workerIds = new AtomicInteger();
+    private final AtomicLong requestIds = new AtomicLong();
+    private volatile boolean closed;
+
+    public CsvValidationWorkerPool(final String pythonExecutable, final Path scriptPath, final int maxWorkers,
+            final Duration requestTimeout, final Duration healthCheckInterval) {
+        this(pythonExecutable, scriptPath, maxWorkers, requestTimeout, healthCheckInterval, 0);
+    }
+
+    /**
+     * @param maxRequestsPerWorker requests after which a worker is replaced;
+     *                             0 keeps workers for as long as they are healthy
+     */
+    public CsvValidationWorkerPool(final String pythonExecutable, final Path scriptPath, final int maxWorkers,
+            final Duration requestTimeout, final Duration healthCheckInterval, final int maxRequestsPerWorker) {
+        this.command = List.of(pythonExecutable, scriptPath.toAbsolutePath().toString(), "--worker");
+        this.workingDirectory = scriptPath.toAbsolutePath().getParent().toFile();
+        this.requestTimeout = requestTimeout;
+        this.healthCheckInterval = healthCheckInterval;
+        this.maxRequestsPerWorker = maxRequestsPerWorker;
+        this.permits = new Semaphore(Math.max(1, maxWorkers), true);
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "csv-validation-worker-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Validates the files of one group. {@code args} are the script arguments
+     * of the one-shot mode (spec path followed by the four CSV files), resolved
+     * against {@code directory}.
+     *
+     * @throws WorkerUnavailableException if no worker could produce an answer
+     * @throws WorkerTimeoutException     if the worker did not answer within the
+     *                                    request timeout
+     */
+    public Result validate(final Path directory, final List<String> args)
+            throws WorkerUnavailableException, WorkerTimeoutException, InterruptedException {
+        if (closed) {
+            throw new WorkerUnavailableException("CSV validation worker pool is closed", null);
+        }
+        permits.acquire();
+        Worker worker = null;
+        try {
+            worker = checkout();
+            final JsonNode response = worker.call(Map.of(
+                    "id", worker.nextRequestId(),
+                    "cwd", directory.toAbsolutePath().toString(),
+                    "args", args), requestTimeout);
+            final Result result = new Result(response.path("exitCode").asInt(1), response.path("output").asText(""));
+            if (maxRequestsPerWorker > 0 && ++worker.requests >= maxRequestsPerWorker) {
+                LOG.info("Retiring {} after {} requests", worker.name, worker.requests);
+            } else {
+                idle.offerFirst(worker);
+                worker = null;
+            }
+            return result;
+        } catch (WorkerUnavailableException | WorkerTimeoutException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new WorkerUnavailableException(e.getMessage(), e);
+        } finally {
+            if (worker != null) {
+                discard(worker);
+            }
+            permits.release();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        watchdog.shutdownNow();
+        synchronized (live) {
+            live.forEach(Worker::destroy);
+            live.clear();
+        }
+        idle.clear();
+    }
+
+    private Worker checkout() throws IOException {
+        Worker worker;
+        while ((worker = idle.pollFirst()) != null) {
+            if (worker.isHealthy()) {
+                return worker;
+            }
+            LOG.warn("CSV validation worker {} failed its health check, restarting", worker.name);
+            discard(worker);
+        }
+        return start();
+    }
+
+    private Worker start() throws IOException {
+        final String name = "csv-validation-worker-" + workerIds.incrementAndGet();
+        final ProcessBuilder processBuilder = new ProcessBuilder(command)
+                .directory(workingDirectory)
+                .redirectError(ProcessBuilder.Redirect.INHERIT);
+        final Worker worker = new Worker(name, processBuilder.start());
+        synchronized (live) {
+            live.add(worker);
+        }
+        try {
+            final JsonNode ready = worker.read(requestTimeout);
+            if (!ready.path("ready").asBoolean()) {
+                throw new IOException("Unexpected handshake from " + name + ": " + ready);
+            }
+        } catch (IOException e) {
+            discard(worker);
+            throw new WorkerUnavailableException(name + " did not start: " + e.getMessage(), e);
+        }
+        LOG.info("Started {} (pid {})", name, worker.process.pid());
+        return worker;
+    }
+
+    private void discard(final Worker worker) {
+        worker.destroy();
+        synchronized (live) {
+            live.remove(worker);
+        }
+    }
+
+    private final class Worker {
+        private final String name;
+        private final Process process;
+        private final BufferedWriter stdin;
+        private final BufferedReader stdout;
+        private long lastUsedNanos = System.nanoTime();
+        private int requests;
+
+        Worker(final String name, final Process process) {
+            this.name = name;
+            this.process = process;
+            this.stdin = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            this.stdout = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        String nextRequestId() {
+            return name + "-" + requestIds.incrementAndGet();
+        }
+
+        boolean isHealthy() {
+            if (!process.isAlive()) {
+                return false;
+            }
+            if (System.nanoTime() - lastUsedNanos < healthCheckInterval.toNanos()) {
+                return true;
+            }
+            try {
+                return call(Map.of("id", nextRequestId(), "ping", true), PING_TIMEOUT).path("pong").asBoolean();
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        JsonNode call(final Map<String, Object> request, final Duration timeout) throws IOException {
+            stdin.write(Configuration.objectMapper.writeValueAsString(request));
+            stdin.newLine();
+            stdin.flush();
+            final JsonNode response = read(timeout);
+            if (!request.get("id").equals(response.path("id").asText())) {
+                throw new IOException(name + " answered " + response.path("id").asText() + " to request "
+                        + request.get("id"));
+            }
+            lastUsedNanos = System.nanoTime();
+            return response;
+        }
+
+        /**
+         * Reads one protocol line. A blocked read cannot be interrupted, so
+         * the watchdog destroys the process on timeout, which ends the read.
+         */
+        JsonNode read(final Duration timeout) throws IOException {
+            final AtomicBoolean timedOut = new AtomicBoolean();
+            final ScheduledFuture<?> kill = watchdog.schedule(() -> {
+                timedOut.set(true);
+                process.destroyForcibly();
+            }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+            final String line;
+            try {
+                line = stdout.readLine();
+            } catch (IOException e) {
+                throw timedOut.get() ? new WorkerTimeoutException(name + " timed out after " + timeout, e) : e;
+            } finally {
+                kill.cancel(false);
+            }
+            if (line == null) {
+                throw timedOut.get() ? new WorkerTimeoutException(name + " timed out after " + timeout, null)
+                        : new IOException(name + " exited unexpectedly");
+            }
+            return Configuration.objectMapper.readTree(line);
+        }
+
+        void destroy() {
+            process.destroyForcibly();
+        }
+    }
+}
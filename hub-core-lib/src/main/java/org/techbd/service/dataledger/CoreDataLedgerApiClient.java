@@ -1,13 +1,11 @@
 package org.techbd.service.dataledger;
 
-import java.net.URI;
 import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
@@ -25,6 +23,7 @@ import org.techbd.util.TemplateLogger;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 
+import jakarta.annotation.PreDestroy;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -36,10 +35,21 @@ public class CoreDataLedgerApiClient {
     private final org.techbd.config.CoreAppConfig appConfig;
     private final TemplateLogger LOG;
     private final DSLContext primaryDslContext;
+    private final DataLedgerDispatcher dispatcher;
     public CoreDataLedgerApiClient(CoreAppConfig appConfig, @Qualifier("primaryDslContext") DSLContext primaryDslContext,AppLogger appLogger) {
         this.appConfig = appConfig;
         this.primaryDslContext = primaryDslContext;
         LOG = appLogger.getLogger(CoreDataLedgerApiClient.class);
+        final CoreAppConfig.DataLedgerDispatchConfig dispatchConfig = appConfig.getDataLedgerDispatch() != null
+                ? appConfig.getDataLedgerDispatch()
+                : new CoreAppConfig.DataLedgerDispatchConfig();
+        this.dispatcher = new DataLedgerDispatcher(client, dispatchConfig,
+                () -> AWSUtil.getValue(appConfig.getDataLedgerApiKeySecretName()), this::onDispatched);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.close();
     }
 
     public void processRequest(DataLedgerPayload dataLedgerPayload, String interactionId, String provenance,
@@ -87,54 +97,35 @@ public class CoreDataLedgerApiClient {
         }
     }
 
+    /**
+     * Queues the request on the {@link DataLedgerDispatcher}; the response or
+     * failure is recorded in the diagnostics table once delivery completes.
+     */
     public void sendRequestAsync(String apiUrl, String jsonPayload, String interactionId, String sourceHubInteractionId,
             String groupHubInteractionId, String action, String provenance, String source,
             Map<String, Object> additionalDetails) {
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(apiUrl))
-                .header("Content-Type", "application/json")
-                .header("Accept", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(jsonPayload))
-                .build();
-        String dataLedgerApiKey = AWSUtil.getValue(appConfig.getDataLedgerApiKeySecretName());
-        LOG.info("DataLedger Api Key fetched from Secret Manager:" +dataLedgerApiKey == null ? "null" : "not null");        
-        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(request.uri())
-                .headers(request.headers().map().entrySet().stream()
-                        .flatMap(e -> e.getValue().stream().map(v -> new String[] { e.getKey(), v }))
-                        .flatMap(arr -> java.util.stream.Stream.of(arr))
-                        .toArray(String[]::new))
-                .method(request.method(), request.bodyPublisher().orElse(HttpRequest.BodyPublishers.noBody())); // safer
-                                                                                                                // get()
-
-        if (dataLedgerApiKey != null) {
-            requestBuilder.header("x-api-key", dataLedgerApiKey);
-        }
+        dispatcher.submit(new DataLedgerDispatcher.Event(apiUrl, jsonPayload, interactionId, sourceHubInteractionId,
+                groupHubInteractionId, action, provenance, source, additionalDetails, System.currentTimeMillis()));
+    }
 
-        request = requestBuilder.build();
-
-        CompletableFuture<Void> future = HttpClient.newHttpClient().sendAsync(request, HttpResponse.BodyHandlers.ofString())
-            .thenAccept(response -> {
-                    boolean isSuccess = response.statusCode() >= 200 && response.statusCode() < 300;
-                    LOG.info("Data Ledger API response code : " + response.statusCode() + " for interactionId : "
-                            + interactionId);
-                    // LOG.info("Data Ledger API response body : " + response.body() + " for interactionId : "
-                    //         + interactionId);
-                    if (appConfig.isDataLedgerDiagnostics()) {
-                        processActionDiagnosticData(interactionId, apiUrl, jsonPayload, response, null,
-                                groupHubInteractionId, sourceHubInteractionId, action, provenance, source,
-                                additionalDetails);
-                    }
-                })
-                .exceptionally(ex -> {
-                    LOG.error("DataLedgerApiClient:: Request failed for interactionId :{}  ", interactionId,
-                            ex.getMessage());
-                    if (appConfig.isDataLedgerDiagnostics()) {
-                        processActionDiagnosticData(interactionId, apiUrl, jsonPayload, null, ex.getMessage(),
-                                groupHubInteractionId, sourceHubInteractionId, action, provenance, source,
-                                additionalDetails);
-                    }
-                    return null;
-                });
+    private void onDispatched(DataLedgerDispatcher.Event event, HttpResponse<String> response, String errorMessage,
+            Map<String, Object> metrics) {
+        if (response != null) {
+            LOG.info("Data Ledger API response code : " + response.statusCode() + " for interactionId : "
+                    + event.interactionId());
+        } else {
+            LOG.error("DataLedgerApiClient:: Request failed for interactionId :{} {}", event.interactionId(),
+                    errorMessage);
+        }
+        if (appConfig.isDataLedgerDiagnostics()) {
+            final Map<String, Object> details = event.additionalDetails() != null
+                    ? new HashMap<>(event.additionalDetails())
+                    : new HashMap<>();
+            details.put("dataLedgerDispatch", metrics);
+            processActionDiagnosticData(event.interactionId(), event.apiUrl(), event.jsonPayload(), response,
+                    errorMessage, event.groupHubInteractionId(), event.sourceHubInteractionId(), event.action(),
+                    event.provenance(), event.source(), details);
+        }
     }
 
     @Transactional
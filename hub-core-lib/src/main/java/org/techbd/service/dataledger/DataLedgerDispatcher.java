@@ -0,0 +1,388 @@
+package org.techbd.service.dataledger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.techbd.config.Configuration;
+import org.techbd.config.CoreAppConfig.DataLedgerDispatchConfig;
+
+/**
+ * Delivers DataLedger events from a bounded in-memory queue over one shared
+ * HTTP client.
+ * <p>
+ * A fixed set of sender threads drains the queue; their requests share the
+ * client's HTTP/2 connection, so events are pipelined rather than opening a
+ * connection each. Failed sends are retried with exponential backoff and full
+ * jitter. When retries are exhausted because the ledger is unreachable or
+ * answering 5xx/429, the ledger is treated as down for one replay interval:
+ * events are appended to a local spill file instead of being sent, and the
+ * file is replayed into the queue once the interval has passed. Events that
+ * do not fit in the queue are spilled as well, or dropped when no spill
+ * directory is configured.
+ * <p>
+ * The API key is cached for {@code apiKeyTtlSeconds} and refreshed early on
+ * a 401 or 403; the event is retried once with the fresh key, and a second
+ * 401 or 403 is final like any other 4xx. Every final outcome is reported to the {@link Listener} with
+ * queue depth, latency, attempt and drop counters.
+ */
+public class DataLedgerDispatcher implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DataLedgerDispatcher.class);
+    private static final String SPILL_FILE = "dataledger-spill.ndjson";
+
+    /** One ledger request, with everything needed to record its diagnostics. */
+    public record Event(String apiUrl, String jsonPayload, String interactionId, String sourceHubInteractionId,
+            String groupHubInteractionId, String action, String provenance, String source,
+            Map<String, Object> additionalDetails, long enqueuedAtMillis) {
+    }
+
+    /**
+     * Receives the final outcome of an event: the last response, if any, and
+     * an error message when the event failed without one or was dropped.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onComplete(Event event, HttpResponse<String> response, String errorMessage, Map<String, Object> metrics);
+    }
+
+    private final HttpClient client;
+    private final DataLedgerDispatchConfig config;
+    private final Supplier<String> apiKeyLookup;
+    private final Listener listener;
+    private final BlockingQueue<Event> queue;
+    private final Path spillFile;
+    private final Object spillLock = new Object();
+    private final Object apiKeyLock = new Object();
+    private final AtomicLong spilledTotal = new AtomicLong();
+    private final AtomicLong droppedTotal = new AtomicLong();
+    private ExecutorService senders;
+    private ScheduledExecutorService replayer;
+    private volatile String apiKey;
+    private volatile long apiKeyFetchedAtNanos;
+    private volatile long ledgerDownUntilMillis;
+    private volatile boolean closed;
+
+    public DataLedgerDispatcher(HttpClient client, DataLedgerDispatchConfig config, Supplier<String> apiKeyLookup,
+            Listener listener) {
+        this.client = client;
+        this.config = config;
+        this.apiKeyLookup = apiKeyLookup;
+        this.listener = listener;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity()));
+        this.spillFile = StringUtils.isBlank(config.getSpillDir()) ? null
+                : Path.of(config.getSpillDir()).resolve(SPILL_FILE);
+        if (spillFile != null) {
+            startReplayer();
+        }
+    }
+
+    /**
+     * Queues an event for delivery. The API key is resolved here, on the
+     * submitting thread, so an expired key is refreshed before the event waits
+     * in the queue.
+     */
+    public void submit(Event event) {
+        apiKey();
+        startSenders();
+        if (closed || !queue.offer(event)) {
+            spillOrDrop(event, closed ? "dispatcher closed" : "queue full");
+        }
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (this) {
+            if (replayer != null) {
+                replayer.shutdownNow();
+            }
+            if (senders != null) {
+                senders.shutdownNow();
+                try {
+                    senders.awaitTermination(config.getRequestTimeoutSeconds(), TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        Event event;
+        while ((event = queue.poll()) != null) {
+            spillOrDrop(event, "dispatcher closed");
+        }
+    }
+
+    private synchronized void startSenders() {
+        if (senders != null || closed) {
+            return;
+        }
+        final int count = Math.max(1, config.getSenders());
+        senders = Executors.newFixedThreadPool(count, daemonThreads("dataledger-sender-"));
+        for (int i = 0; i < count; i++) {
+            senders.execute(this::drain);
+        }
+    }
+
+    private synchronized void startReplayer() {
+        final long interval = Math.max(1, config.getSpillReplaySeconds());
+        replayer = Executors.newSingleThreadScheduledExecutor(daemonThreads("dataledger-spill-replay-"));
+        replayer.scheduleWithFixedDelay(this::replaySpilled, interval, interval, TimeUnit.SECONDS);
+    }
+
+    private void drain() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                deliver(queue.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void deliver(Event event) throws InterruptedException {
+        if (spillFile != null && System.currentTimeMillis() < ledgerDownUntilMillis) {
+            spillOrDrop(event, "ledger unavailable");
+            return;
+        }
+        final long startedAtMillis = System.currentTimeMillis();
+        final int maxAttempts = Math.max(1, config.getMaxAttempts());
+        HttpResponse<String> response = null;
+        String errorMessage = null;
+        boolean apiKeyRefreshed = false;
+        int attempt = 0;
+        try {
+            while (++attempt <= maxAttempts) {
+                try {
+                    response = client.sendAsync(request(event), HttpResponse.BodyHandlers.ofString())
+                            .get(config.getRequestTimeoutSeconds(), TimeUnit.SECONDS);
+                    errorMessage = null;
+                    final int status = response.statusCode();
+                    if (status >= 200 && status < 300) {
+                        ledgerDownUntilMillis = 0;
+                        complete(event, response, null, attempt, startedAtMillis);
+                        return;
+                    }
+                    if ((status == 401 || status == 403) && !apiKeyRefreshed && attempt < maxAttempts) {
+                        invalidateApiKey();
+                        apiKeyRefreshed = true;
+                    } else if (status != 429 && status < 500) {
+                        // The ledger rejected this event; retrying will not change that.
+                        complete(event, response, null, attempt, startedAtMillis);
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    response = null;
+                    errorMessage = e instanceof ExecutionException && e.getCause() != null
+                            ? e.getCause().toString()
+                            : e.toString();
+                }
+                if (attempt < maxAttempts) {
+                    Thread.sleep(backoffMillis(attempt));
+                }
+            }
+        } catch (InterruptedException e) {
+            spillOrDrop(event, "dispatcher closed");
+            throw e;
+        }
+        LOG.warn("DataLedger unavailable after {} attempts for interactionId: {} - {}", maxAttempts,
+                event.interactionId(), errorMessage != null ? errorMessage : "HTTP " + response.statusCode());
+        if (spillFile != null) {
+            ledgerDownUntilMillis = System.currentTimeMillis()
+                    + TimeUnit.SECONDS.toMillis(Math.max(1, config.getSpillReplaySeconds()));
+            if (spill(event)) {
+                return;
+            }
+        }
+        complete(event, response, errorMessage, maxAttempts, startedAtMillis);
+    }
+
+    private HttpRequest request(Event event) {
+        final HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(event.apiUrl()))
+                .timeout(Duration.ofSeconds(config.getRequestTimeoutSeconds()))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(event.jsonPayload()));
+        final String key = apiKey();
+        if (key != null) {
+            builder.header("x-api-key", key);
+        }
+        return builder.build();
+    }
+
+    /** Exponential backoff with full jitter, capped at {@code maxBackoffMillis}. */
+    long backoffMillis(int attempt) {
+        final long ceiling = Math.min(config.getMaxBackoffMillis(),
+                config.getInitialBackoffMillis() << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(Math.max(1, ceiling) + 1);
+    }
+
+    String apiKey() {
+        final long ttlNanos = TimeUnit.SECONDS.toNanos(config.getApiKeyTtlSeconds());
+        String key = apiKey;
+        if (key != null && System.nanoTime() - apiKeyFetchedAtNanos < ttlNanos) {
+            return key;
+        }
+        synchronized (apiKeyLock) {
+            key = apiKey;
+            if (key != null && System.nanoTime() - apiKeyFetchedAtNanos < ttlNanos) {
+                return key;
+            }
+            key = apiKeyLookup.get();
+            LOG.info("DataLedger Api Key fetched from Secret Manager: {}", key == null ? "null" : "not null");
+            if (key != null) {
+                apiKey = key;
+                apiKeyFetchedAtNanos = System.nanoTime();
+            }
+            return key;
+        }
+    }
+
+    private void invalidateApiKey() {
+        synchronized (apiKeyLock) {
+            apiKey = null;
+        }
+    }
+
+    private void spillOrDrop(Event event, String reason) {
+        if (spillFile != null && spill(event)) {
+            return;
+        }
+        droppedTotal.incrementAndGet();
+        LOG.error("DataLedger event dropped ({}) for interactionId: {}", reason, event.interactionId());
+        complete(event, null, "DataLedger event dropped: " + reason, 0, System.currentTimeMillis());
+    }
+
+    private boolean spill(Event event) {
+        synchronized (spillLock) {
+            try {
+                Files.createDirectories(spillFile.getParent());
+                append(spillFile, List.of(event));
+                spilledTotal.incrementAndGet();
+                return true;
+            } catch (IOException e) {
+                LOG.error("Unable to spill DataLedger event for interactionId: {} to {}", event.interactionId(),
+                        spillFile, e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Moves the spill file aside and offers its events to the queue again.
+     * Events older than the retention period are reported as failed; those
+     * that do not fit in the queue are written back to the spill file.
+     */
+    void replaySpilled() {
+        if (closed || System.currentTimeMillis() < ledgerDownUntilMillis) {
+            return;
+        }
+        int requeued = 0;
+        synchronized (spillLock) {
+            final Path replay = spillFile.resolveSibling(SPILL_FILE + ".replay");
+            try {
+                if (!Files.exists(replay)) {
+                    if (!Files.exists(spillFile) || Files.size(spillFile) == 0) {
+                        return;
+                    }
+                    Files.move(spillFile, replay, StandardCopyOption.ATOMIC_MOVE);
+                }
+                final long expiredBefore = System.currentTimeMillis()
+                        - TimeUnit.HOURS.toMillis(config.getSpillRetentionHours());
+                try (BufferedReader reader = Files.newBufferedReader(replay, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.isBlank()) {
+                            continue;
+                        }
+                        final Event event = Configuration.objectMapperConcise.readValue(line, Event.class);
+                        if (event.enqueuedAtMillis() < expiredBefore) {
+                            complete(event, null, "DataLedger event expired in spill file", 0,
+                                    System.currentTimeMillis());
+                        } else if (!closed && queue.offer(event)) {
+                            requeued++;
+                        } else {
+                            append(spillFile, List.of(event));
+                        }
+                    }
+                }
+                Files.delete(replay);
+            } catch (IOException e) {
+                LOG.error("Unable to replay spilled DataLedger events from {}", replay, e);
+            }
+        }
+        if (requeued > 0) {
+            startSenders();
+            LOG.info("Replayed {} spilled DataLedger events", requeued);
+        }
+    }
+
+    private static void append(Path file, List<Event> events) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Event event : events) {
+                writer.write(Configuration.objectMapperConcise.writeValueAsString(event));
+                writer.newLine();
+            }
+        }
+    }
+
+    private void complete(Event event, HttpResponse<String> response, String errorMessage, int attempts,
+            long startedAtMillis) {
+        final long now = System.currentTimeMillis();
+        final Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("queueDepth", queue.size());
+        metrics.put("queuedMillis", Math.max(0, startedAtMillis - event.enqueuedAtMillis()));
+        metrics.put("sendMillis", now - startedAtMillis);
+        metrics.put("attempts", attempts);
+        metrics.put("spilledTotal", spilledTotal.get());
+        metrics.put("droppedTotal", droppedTotal.get());
+        try {
+            listener.onComplete(event, response, errorMessage, metrics);
+        } catch (RuntimeException e) {
+            LOG.error("DataLedger outcome listener failed for interactionId: {}", event.interactionId(), e);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
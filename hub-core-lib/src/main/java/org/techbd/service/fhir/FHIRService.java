@@ -1,6 +1,5 @@
 package org.techbd.service.fhir;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
@@ -19,16 +18,15 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.jooq.DSLContext;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.NestedExceptionUtils;
-import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -58,12 +56,14 @@ import org.techbd.service.dataledger.CoreDataLedgerApiClient;
 import org.techbd.service.dataledger.CoreDataLedgerApiClient.DataLedgerPayload;
 import org.techbd.service.fhir.engine.OrchestrationEngine;
 import org.techbd.service.fhir.engine.OrchestrationEngine.Device;
+import org.techbd.service.persistence.InteractionPersistenceWriter;
 import org.techbd.udi.auto.jooq.ingress.routines.GetOperationOutcomeSendToNyec;
 import org.techbd.udi.auto.jooq.ingress.routines.RegisterInteractionFhirRequest;
 import org.techbd.util.AWSUtil;
 import org.techbd.util.AppLogger;
 import org.techbd.util.TemplateLogger;
 import org.techbd.util.fhir.CoreFHIRUtil;
+import org.techbd.util.fhir.ParsedBundle;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -72,16 +72,15 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.TextNode;
 
 import io.micrometer.common.util.StringUtils;
-import io.netty.handler.ssl.SslContextBuilder;
 import io.opentelemetry.api.GlobalOpenTelemetry;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.Tracer;
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.PreDestroy;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.Getter;
 import lombok.Setter;
 import reactor.core.publisher.Mono;
-import reactor.netty.http.client.HttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 import software.amazon.awssdk.services.secretsmanager.model.GetSecretValueRequest;
@@ -98,18 +97,30 @@ public class FHIRService {
 	private final CoreDataLedgerApiClient coreDataLedgerApiClient;
     private final OrchestrationEngine engine;
 	private final DSLContext primaryDSLContext;
+	private final MtlsWebClientCache mtlsWebClientCache;
+	private final InteractionPersistenceWriter interactionPersistenceWriter;
 	private Tracer tracer;
 
 	public FHIRService(CoreAppConfig coreAppConfig, CoreDataLedgerApiClient coreDataLedgerApiClient,OrchestrationEngine engine,
-	@Qualifier("primaryDslContext") final DSLContext primaryDSLContext, AppLogger appLogger) {
+	@Qualifier("primaryDslContext") final DSLContext primaryDSLContext, AppLogger appLogger,
+	InteractionPersistenceWriter interactionPersistenceWriter) {
 		this.coreAppConfig = coreAppConfig;
 		this.coreDataLedgerApiClient = coreDataLedgerApiClient;
 		this.tracer = GlobalOpenTelemetry.get().getTracer("FHIRService");
 		this.engine = engine;
 		this.primaryDSLContext = primaryDSLContext;
+		this.interactionPersistenceWriter = interactionPersistenceWriter;
+		this.mtlsWebClientCache = new MtlsWebClientCache(coreAppConfig.getMtlsClientCache() != null
+				? coreAppConfig.getMtlsClientCache()
+				: new CoreAppConfig.MtlsClientCacheConfig());
 		LOG = appLogger.getLogger(FHIRService.class);
 	}
 
+	@PreDestroy
+	public void shutdown() {
+		mtlsWebClientCache.close();
+	}
+
  /**
      * TODO: These parameters will be removed. Ensure they are set in the
      * {@code requestMap} from Mirth.
@@ -138,6 +149,17 @@ public class FHIRService {
     public Object processBundle(final @RequestBody @Nonnull String payload, final Map<String, Object> requestParameters,
             final Map<String, Object> responseParameters)
             throws IOException {
+        return processBundle(new ParsedBundle(payload), requestParameters, responseParameters);
+    }
+
+    /**
+     * Same as {@link #processBundle(String, Map, Map)} for a bundle the caller
+     * already holds in memory, such as one built by a converter, so that
+     * validation does not parse the JSON back into a {@code Bundle}.
+     */
+    public Object processBundle(final @Nonnull ParsedBundle parsedBundle, final Map<String, Object> requestParameters,
+            final Map<String, Object> responseParameters)
+            throws IOException {
         final Span span = tracer.spanBuilder("FHIRService.processBundle").startSpan();
         try {
             final var start = Instant.now();
@@ -163,7 +185,8 @@ public class FHIRService {
             if (null == interactionId) {
                 throw new IllegalArgumentException("Interaction ID must be provided in the request parameters.");
             }
-				final String bundleId = CoreFHIRUtil.extractBundleId(payload, tenantId);
+			// Parsed at most once and shared by every stage below.
+				final String bundleId = CoreFHIRUtil.extractBundleId(parsedBundle, tenantId);
 			if (!SourceType.CSV.name().equalsIgnoreCase(source)
 					&& !SourceType.CCDA.name().equalsIgnoreCase(source)
 					&& !SourceType.HL7V2.name().equalsIgnoreCase(source)) {
@@ -184,18 +207,18 @@ public class FHIRService {
             LOG.info("Bundle processing start at {} for interaction id {}.", interactionId);
 			if (!"true".equalsIgnoreCase(healthCheck != null ? healthCheck.trim() : null)) {
 				registerOriginalPayload(requestParameters,
-						payload, interactionId, groupInteractionId, masterInteractionId,
+						parsedBundle, interactionId, groupInteractionId, masterInteractionId,
 						source, requestUriToBeOverriden, coRrelationId);
 			}
 			Map<String, Object> payloadWithDisposition = null;			
             try {
-                validateJson(payload, interactionId);
-                validateBundleProfileUrl(payload, interactionId);
+                validateJson(parsedBundle, interactionId);
+                validateBundleProfileUrl(parsedBundle, interactionId);
                 // if (null == requestParameters.get(Constants.DATA_LAKE_API_CONTENT_TYPE)) {
                 //     dataLakeApiContentType = MediaType.APPLICATION_JSON_VALUE;
                 // }
 
-                                final Map<String, Object> immediateResult = validate(requestParameters, payload, interactionId, provenance,
+                                final Map<String, Object> immediateResult = validate(requestParameters, parsedBundle, interactionId, provenance,
                         source);
                                                final Map<String, Object> result = Map.of("OperationOutcome", immediateResult);
 				if (!"true".equalsIgnoreCase(healthCheck != null ? healthCheck.trim() : null)) {
@@ -221,7 +244,7 @@ public class FHIRService {
                             "FHIRService:: ERROR:: Disposition payload is not available.Send Bundle payload to scoring engine for interaction id {}.",
                             interactionId);
                     sendToScoringEngine(requestParameters,customDataLakeApi,
-                            tenantId, payload,
+                            tenantId, parsedBundle,
                             provenance, null,
                             mtlsStrategy,
                             interactionId, groupInteractionId, masterInteractionId,
@@ -236,7 +259,7 @@ public class FHIRService {
                             "FHIRService:: Received Disposition payload.Send Disposition payload to scoring engine for interaction id {}.",
                             interactionId);
                     sendToScoringEngine(requestParameters, customDataLakeApi,
-                            tenantId, payload,
+                            tenantId, parsedBundle,
                             provenance, payloadWithDisposition,
                             mtlsStrategy, interactionId, groupInteractionId,
                             masterInteractionId, source, requestUriToBeOverriden, coRrelationId,bundleId,false,null);
@@ -276,10 +299,14 @@ public class FHIRService {
 	}
 
 	public void validateJson(final String jsonString, final String interactionId) {
+		validateJson(new ParsedBundle(jsonString), interactionId);
+	}
+
+	public void validateJson(final ParsedBundle bundle, final String interactionId) {
 		final Span validateJsonSpan = tracer.spanBuilder("FHIRService.validateJson").startSpan();
 		try {
 			try {
-				Configuration.objectMapper.readTree(jsonString);
+				bundle.json();
 			} catch (final Exception e) {
 				throw new JsonValidationException(ErrorCode.INVALID_JSON);
 			}
@@ -290,19 +317,15 @@ public class FHIRService {
 	}
 
 	public void validateBundleProfileUrl(final String jsonString, final String interactionId) {
+		validateBundleProfileUrl(new ParsedBundle(jsonString), interactionId);
+	}
+
+	public void validateBundleProfileUrl(final ParsedBundle bundle, final String interactionId) {
 		final Span validateJsonSpan = tracer.spanBuilder("FHIRService.validateBundleProfileUrl").startSpan();
 		try {
-			JsonNode rootNode;
 			try {
-				rootNode = Configuration.objectMapper.readTree(jsonString);
-				final JsonNode metaNode = rootNode.path("meta").path("profile");
-
-				final List<String> profileList = Optional.ofNullable(metaNode)
-						.filter(JsonNode::isArray)
-						.map(node -> StreamSupport.stream(node.spliterator(), false)
-								.map(JsonNode::asText)
-								.collect(Collectors.toList()))
-						.orElse(List.of());
+				bundle.json();
+				final List<String> profileList = bundle.profileUrls();
 
 				if (CollectionUtils.isEmpty(profileList)) {
 					LOG.error("Bundle profile is not provided for interaction id: {}", interactionId);
@@ -392,7 +415,7 @@ public class FHIRService {
 	}
 	@Transactional
 	private void registerOriginalPayload(final Map<String, Object> requestParameters,
-			final String payload,
+			final ParsedBundle payload,
 			final String interactionId,
 			final String groupInteractionId,
 			final String masterInteractionId,
@@ -401,7 +424,6 @@ public class FHIRService {
 			final String coRrelationId) throws IOException {
 		final Span span = tracer.spanBuilder("FHIRService.registerOriginalPayload").startSpan();
 		try {
-			final var jooqCfg = primaryDSLContext.configuration();
 			LOG.info(
 					"FHIRService -  REGISTER Original Payload BEGIN  for interaction id: {}",interactionId);
 			final var rihr = new RegisterInteractionFhirRequest();
@@ -410,10 +432,10 @@ public class FHIRService {
 			JsonNode payloadJson;
 
 			try {
-				payloadJson = Configuration.objectMapper.readTree(payload);
+				payloadJson = payload.json();
 			} catch (JsonProcessingException e) {
 				LOG.error("Invalid JSON format. Storing raw payload. Error: {} for interactionID :{}", e.getMessage(), interactionId,e);
-				payloadJson = TextNode.valueOf(payload);
+				payloadJson = TextNode.valueOf(payload.payload());
 			}
 			prepareRequestBase(
 					rihr,
@@ -435,16 +457,21 @@ public class FHIRService {
 					LOG.error("Invalid elaboration JSON. Storing as string. Error: {} for interactionID :{}", e.getMessage(), interactionId, e);
 				}
 			}
-			final int i = rihr.execute(jooqCfg);
-			final var end = Instant.now();
-			final JsonNode response = rihr.getReturnValue();
-			final Map<String, Object> responseAttributes = CoreFHIRUtil.extractFields(response);
-			LOG.info(
-					"FHIRService - Time taken: {} ms for DB call to REGISTER Original Payload, interaction id: {}, error: {}, hub_nexus_interaction_id: {}",
-					Duration.between(start, end).toMillis(),
-					interactionId,
-					responseAttributes.getOrDefault(Constants.KEY_ERROR, "N/A"),
-					responseAttributes.getOrDefault(Constants.KEY_HUB_NEXUS_INTERACTION_ID, "N/A"));
+			interactionPersistenceWriter.submit(rihr).whenComplete((response, error) -> {
+				if (error != null) {
+					LOG.error("ERROR:: REGISTER Original Payload for interaction id: {}: {}",
+							interactionId, error.getMessage(), error);
+					return;
+				}
+				final var end = Instant.now();
+				final Map<String, Object> responseAttributes = CoreFHIRUtil.extractFields(response);
+				LOG.info(
+						"FHIRService - Time taken: {} ms for DB call to REGISTER Original Payload, interaction id: {}, error: {}, hub_nexus_interaction_id: {}",
+						Duration.between(start, end).toMillis(),
+						interactionId,
+						responseAttributes.getOrDefault(Constants.KEY_ERROR, "N/A"),
+						responseAttributes.getOrDefault(Constants.KEY_HUB_NEXUS_INTERACTION_ID, "N/A"));
+			});
 		} catch (final Exception e) {
 			LOG.error("ERROR:: REGISTER Original Payload for interaction id: {}: {}",
 					interactionId, e.getMessage(), e);
@@ -463,7 +490,6 @@ public class FHIRService {
 			final String requestUriToBeOverriden) throws IOException {
 		final Span span = tracer.spanBuilder("FHIRService.registerValidationResults").startSpan();
 		try {
-			final var jooqCfg = primaryDSLContext.configuration();
 			LOG.info("FHIRService REGISTER Validation Results BEGIN  for interaction id: {}",interactionId);
 			final var rihr = new RegisterInteractionFhirRequest();
 			final var provenance = "%s.doFilterInternal".formatted(FHIRService.class.getName());
@@ -479,9 +505,8 @@ public class FHIRService {
 					provenance,
 					Nature.TECH_BY_DISPOSITION.getDescription(),
 					Configuration.objectMapper.valueToTree(immediateResult),State.ACCEPT_FHIR_BUNDLE.name(),State.DISPOSITION.name());
-			final int i = rihr.execute(jooqCfg);
+			final JsonNode response = interactionPersistenceWriter.submitAndWait(rihr);
 			final var end = Instant.now();
-			final JsonNode response = rihr.getReturnValue();
 			final Map<String, Object> responseAttributes = CoreFHIRUtil.extractFields(response);
 
 			LOG.info(
@@ -546,7 +571,7 @@ public class FHIRService {
         request.setAttribute("activeHttpRequestTenant", tenant);
     }
 
-	private Map<String, Object> validate(final Map<String,Object> requestParameters, final String payload,
+	private Map<String, Object> validate(final Map<String,Object> requestParameters, final ParsedBundle payload,
             final String interactionId, final String provenance, final String sourceType) {
         final Span span = tracer.spanBuilder("FhirService.validate").startSpan();
 		try {
@@ -559,7 +584,7 @@ public class FHIRService {
 					.withSessionId(UUID.randomUUID().toString())
 					//.onDevice(Device.createDefault())
 					.withInteractionId(interactionId)
-					.withPayloads(List.of(payload))
+					.withParsedBundles(List.of(payload))
 					.withFhirProfileUrl(CoreFHIRUtil.getBundleProfileUrl())
 					.withTracer(tracer)
 					.withFhirIGPackages(igPackages)
@@ -615,7 +640,7 @@ public class FHIRService {
 		}
 	}
 
-	public void sendToScoringEngine(
+	public CompletableFuture<Void> sendToScoringEngine(
 			final Map<String,Object> requestParameters,
 			final String scoringEngineApiURL,
 			final String tenantId,
@@ -625,6 +650,29 @@ public class FHIRService {
 			final String mtlsStrategy, final String interactionId, final String groupInteractionId,
 			final String masterInteractionId, final String sourceType, final String requestUriToBeOverriden, 
 			final String coRrelationId,final String bundleId,boolean replay,Map<String,Object> replayPayload) {
+		return sendToScoringEngine(requestParameters, scoringEngineApiURL, tenantId,
+				payload != null ? new ParsedBundle(payload) : null, provenance,
+				validationPayloadWithDisposition, mtlsStrategy, interactionId, groupInteractionId, masterInteractionId,
+				sourceType, requestUriToBeOverriden, coRrelationId, bundleId, replay, replayPayload);
+	}
+
+	/**
+	 * Posts the bundle to the scoring engine. The post itself is asynchronous;
+	 * the returned future completes once the engine's answer has been recorded
+	 * and fails unless the engine reported success, so callers such as replay
+	 * can bound the posts they have in flight.
+	 */
+	public CompletableFuture<Void> sendToScoringEngine(
+			final Map<String,Object> requestParameters,
+			final String scoringEngineApiURL,
+			final String tenantId,
+			final ParsedBundle parsedBundle,
+			final String provenance,
+			final Map<String, Object> validationPayloadWithDisposition, 
+			final String mtlsStrategy, final String interactionId, final String groupInteractionId,
+			final String masterInteractionId, final String sourceType, final String requestUriToBeOverriden, 
+			final String coRrelationId,final String bundleId,boolean replay,Map<String,Object> replayPayload) {
+		final String payload = parsedBundle != null ? parsedBundle.payload() : null;
 		final Span span = tracer.spanBuilder("FhirService.sentToScoringEngine").startSpan();
 		try {
 			LOG.info("FHIRService:: sendToScoringEngine BEGIN | interactionId: {} | replay mode: {}", interactionId, replay);
@@ -644,15 +692,13 @@ public class FHIRService {
 								"FHIRService:: sendToScoringEngine Prepare payload with operation outcome interaction id: {}",
 								interactionId);
 						bundlePayloadWithDisposition = preparePayload(requestParameters,
-								payload,
+								parsedBundle,
 								validationPayloadWithDisposition, interactionId);
 					} else {
 						LOG.debug(
 								"FHIRService:: sendToScoringEngine Send payload without operation outcome interaction id: {}",
 								interactionId);
-						bundlePayloadWithDisposition = Configuration.objectMapper.readValue(payload,
-								new TypeReference<Map<String, Object>>() {
-								});
+						bundlePayloadWithDisposition = parsedBundle.toMap();
 					}
 				}
 				final var dataLakeApiBaseURL = Optional.ofNullable(scoringEngineApiURL)
@@ -664,14 +710,14 @@ public class FHIRService {
 					LOG.info(
 							"###### defaultDatalakeApiAuthn is not defined #######.Hence proceeding with post to scoring engine without mTls for interaction id :{}",
 							interactionId);
-					handleNoMtls(MTlsStrategy.NO_MTLS, interactionId, tenantId, dataLakeApiBaseURL,requestParameters,
+					return handleNoMtls(MTlsStrategy.NO_MTLS, interactionId, tenantId, dataLakeApiBaseURL,requestParameters,
 							bundlePayloadWithDisposition, payload,
 							// dataLakeApiContentType,
 							provenance,  
                                                         groupInteractionId,
 							masterInteractionId, sourceType, requestUriToBeOverriden,bundleId,replay);
 				} else {
-					handleMTlsStrategy(defaultDatalakeApiAuthn, interactionId, tenantId,
+					return handleMTlsStrategy(defaultDatalakeApiAuthn, interactionId, tenantId,
 							dataLakeApiBaseURL,
 							requestParameters, bundlePayloadWithDisposition,
 							payload,
@@ -685,6 +731,7 @@ public class FHIRService {
 
 			final Exception e) {
 				handleError(validationPayloadWithDisposition, e,  interactionId);
+				return CompletableFuture.failedFuture(e);
 			} finally {
 				LOG.info("FHIRService:: sendToScoringEngine END for interaction id: {}", interactionId);
 			}
@@ -693,7 +740,7 @@ public class FHIRService {
 		}
 	}
 
-	public void handleMTlsStrategy(final DefaultDataLakeApiAuthn defaultDatalakeApiAuthn, final String interactionId,
+	public CompletableFuture<Void> handleMTlsStrategy(final DefaultDataLakeApiAuthn defaultDatalakeApiAuthn, final String interactionId,
 			final String tenantId, final String dataLakeApiBaseURL, final Map<String,Object> requestParameters,
 			final Map<String, Object> bundlePayloadWithDisposition, final String payload,
 			// final String dataLakeApiContentType,
@@ -715,7 +762,7 @@ public class FHIRService {
 		}
 		final String requestURI = StringUtils.isNotEmpty(requestUriToBeOverriden) ? requestUriToBeOverriden
 				: (String) requestParameters.get(Constants.REQUEST_URI);
-		switch (mTlsStrategy) {
+		return switch (mTlsStrategy) {
 			case AWS_SECRETS -> handleAwsSecrets(defaultDatalakeApiAuthn.mTlsAwsSecrets(), interactionId,
 					tenantId, dataLakeApiBaseURL, 
 					//dataLakeApiContentType,
@@ -750,10 +797,10 @@ public class FHIRService {
 						provenance, 
                                                 groupInteractionId,
 						masterInteractionId, sourceType, requestUriToBeOverriden,bundleId,replay);
-		}
+		};
 	}
 
-	private void handleMtlsResources(final String interactionId, final String tenantId,
+	private CompletableFuture<Void> handleMtlsResources(final String interactionId, final String tenantId,
 			final Map<String, Object> bundlePayloadWithDisposition,
 			final String payload, final String provenance,final Map<String,Object> requestParameters,
 			//final String dataLakeApiContentType,
@@ -789,60 +836,49 @@ public class FHIRService {
 				throw new IllegalArgumentException(
 						"Client certificate location `mTlsCertResourceName` not configured in application.yml");
 			}
-			final String myClientKey = Files
-					.readString(Paths.get(mTlsResources.mTlsKeyResourceName()));
-			if (null == myClientKey) {
-				LOG.error(
-						"ERROR:: FHIRService:: handleMtlsResources Key not provided.Copy the key to file in location :{} for interaction id :{} tenant id :{} ",
-						mTlsResources.mTlsKeyResourceName(), interactionId, tenantId);
-				throw new IllegalArgumentException(
-						"Client key not provided.Copy the key to file in location : "
-								+ mTlsResources.mTlsKeyResourceName());
-			}
-			LOG.debug(
-					"FHIRService:: handleMtlsResources Client key fetched successfully for interaction id: {} tenantid :{} ",
-					interactionId,
-					tenantId);
-			final String myClientCert = Files.readString(Paths.get(mTlsResources.mTlsCertResourceName()));
-			if (null == myClientCert) {
-				LOG.error(
-						"ERROR:: FHIRService:: handleMtlsResources Client certificate not provided.Copy the certificate to file in location :{}  for interaction id : {}  tenantId :{}",
-						mTlsResources.mTlsCertResourceName(), interactionId, tenantId);
-				throw new IllegalArgumentException(
-						"Client certificate not provided.Copy the certificate to file in location : "
-								+ mTlsResources.mTlsCertResourceName());
-			}
-			LOG.debug(
-					"FHIRService:: handleMtlsResources Client cert fetched successfully for interaction id: {} tenantid :{} ",
-					interactionId,
-					tenantId);
-			LOG.debug("FHIRService:: handleMtlsResources Get SSL Context -BEGIN for interaction id: {} tenantid:{}",
-					interactionId, tenantId);
-
-			final var sslContext = SslContextBuilder.forClient()
-					.keyManager(new ByteArrayInputStream(myClientCert.getBytes()),
-							new ByteArrayInputStream(myClientKey.getBytes()))
-					.build();
-			LOG.debug("FHIRService:: handleMtlsResources Get SSL Context -END for interaction id: {} tenantId:{}",
-					interactionId, tenantId);
-			LOG.debug("FHIRService:: handleMtlsResources Create HttpClient for interaction id: {} tenantID:{}",
-					interactionId, tenantId);
-			final HttpClient httpClient = HttpClient.create()
-					.secure(sslSpec -> sslSpec.sslContext(sslContext));
-
-			LOG.debug("FHIRService:: Create ReactorClientHttpConnector for interaction id: {} tenantId:{}",
-					interactionId, tenantId);
-			final ReactorClientHttpConnector connector = new ReactorClientHttpConnector(httpClient);
-			LOG.debug(
-					"FHIRService:: Build WebClient with MTLS Enabled ReactorClientHttpConnector -BEGIN with scoring Engine API URL : {} for interactionID :{} tenant Id:{} ",
-					dataLakeApiBaseURL, interactionId, tenantId);
-			final var webClient = WebClient.builder()
-					.baseUrl(dataLakeApiBaseURL)
-					//.defaultHeader("Content-Type", dataLakeApiContentType)
-					.clientConnector(connector)
-					.build();
+			final var keyPath = Paths.get(mTlsResources.mTlsKeyResourceName());
+			final var certPath = Paths.get(mTlsResources.mTlsCertResourceName());
+			final var webClient = mtlsWebClientCache.get(tenantId, MTlsStrategy.MTLS_RESOURCES.value,
+					dataLakeApiBaseURL, new MtlsWebClientCache.CredentialSource() {
+						@Override
+						public MtlsWebClientCache.Credentials load() throws IOException {
+							final String myClientKey = Files.readString(keyPath);
+							if (null == myClientKey) {
+								LOG.error(
+										"ERROR:: FHIRService:: handleMtlsResources Key not provided.Copy the key to file in location :{} for interaction id :{} tenant id :{} ",
+										mTlsResources.mTlsKeyResourceName(), interactionId, tenantId);
+								throw new IllegalArgumentException(
+										"Client key not provided.Copy the key to file in location : "
+												+ mTlsResources.mTlsKeyResourceName());
+							}
+							LOG.debug(
+									"FHIRService:: handleMtlsResources Client key fetched successfully for interaction id: {} tenantid :{} ",
+									interactionId,
+									tenantId);
+							final String myClientCert = Files.readString(certPath);
+							if (null == myClientCert) {
+								LOG.error(
+										"ERROR:: FHIRService:: handleMtlsResources Client certificate not provided.Copy the certificate to file in location :{}  for interaction id : {}  tenantId :{}",
+										mTlsResources.mTlsCertResourceName(), interactionId, tenantId);
+								throw new IllegalArgumentException(
+										"Client certificate not provided.Copy the certificate to file in location : "
+												+ mTlsResources.mTlsCertResourceName());
+							}
+							LOG.debug(
+									"FHIRService:: handleMtlsResources Client cert fetched successfully for interaction id: {} tenantid :{} ",
+									interactionId,
+									tenantId);
+							return new MtlsWebClientCache.Credentials(myClientCert, myClientKey);
+						}
+
+						@Override
+						public String version() throws IOException {
+							// A replaced key or certificate file rebuilds the client before the TTL expires.
+							return Files.getLastModifiedTime(keyPath) + "|" + Files.getLastModifiedTime(certPath);
+						}
+					});
 			LOG.debug(
-					"FHIRService:: Build WebClient with MTLS Enabled ReactorClientHttpConnector -END with scoring Engine API URL : {} for interactionID :{} tenant Id:{} ",
+					"FHIRService:: Cached WebClient with MTLS Enabled for scoring Engine API URL : {} interactionID :{} tenant Id:{} ",
 					dataLakeApiBaseURL, interactionId, tenantId);
 			LOG.debug(
 					"FHIRService:: handleMtlsResources Build WebClient with MTLS Enabled ReactorClientHttpConnector -BEGIN \n"
@@ -858,7 +894,7 @@ public class FHIRService {
 							: "Payload is not null",
 					interactionId,
 					tenantId);
-			sendPostRequest(webClient, tenantId, bundlePayloadWithDisposition, payload,
+			final CompletableFuture<Void> sent = sendPostRequest(webClient, tenantId, bundlePayloadWithDisposition, payload,
 					//dataLakeApiContentType,
 					 interactionId,
 					provenance, (String) requestParameters.get(Constants.REQUEST_URI), dataLakeApiBaseURL,
@@ -869,6 +905,7 @@ public class FHIRService {
 			LOG.info("FHIRService:: handleMtlsResources END for interaction id: {} tenantid :{} ",
 					interactionId,
 					tenantId);
+			return sent;
 		} catch (final Exception ex) {
 			LOG.error(
 					"ERROR:: handleMtlsResources Exception while posting to scoring engine with MTLS enabled for interactionId : {}",
@@ -876,11 +913,11 @@ public class FHIRService {
 			registerStateFailed(interactionId,
 					requestURI, tenantId, ex.getMessage(), provenance,
 					groupInteractionId, masterInteractionId, sourceType,requestParameters,replay);
-
+			return CompletableFuture.failedFuture(ex);
 		}
 	}
 
-	private void handleApiKeyAuth(final String interactionId, final String tenantId,
+	private CompletableFuture<Void> handleApiKeyAuth(final String interactionId, final String tenantId,
 			final String dataLakeApiBaseURL,final Map<String,Object> requestParameters,
 			final Map<String, Object> bundlePayloadWithDisposition, final String payload,
 			// final String dataLakeApiContentType,
@@ -923,7 +960,7 @@ public class FHIRService {
 				tenantId);
 		LOG.debug("FHIRService:: sendPostRequest BEGIN for interaction id: {} tenantid :{} ", interactionId,
 				tenantId);
-		sendPostRequestWithApiKey(webClient, tenantId, bundlePayloadWithDisposition, payload,
+		final CompletableFuture<Void> sent = sendPostRequestWithApiKey(webClient, tenantId, bundlePayloadWithDisposition, payload,
 				//dataLakeApiContentType, 
 				interactionId,
 				provenance,
@@ -933,8 +970,9 @@ public class FHIRService {
 				masterInteractionId, sourceType, apiKeyAuthDetails, bundleId, requestParameters, replay);
 		LOG.debug("FHIRService:: sendPostRequest END for interaction id: {} tenantid :{} ", interactionId,
 				tenantId);
+		return sent;
 	}
-	private void handleNoMtls(final MTlsStrategy mTlsStrategy, final String interactionId, final String tenantId,
+	private CompletableFuture<Void> handleNoMtls(final MTlsStrategy mTlsStrategy, final String interactionId, final String tenantId,
 			final String dataLakeApiBaseURL,final Map<String,Object> requestParameters,
 			final Map<String, Object> bundlePayloadWithDisposition, final String payload, 
 			//final String dataLakeApiContentType,
@@ -968,7 +1006,7 @@ public class FHIRService {
 				tenantId);
 		LOG.debug("FHIRService:: sendPostRequest BEGIN for interaction id: {} tenantid :{} ", interactionId,
 				tenantId);
-		sendPostRequest(webClient, tenantId, bundlePayloadWithDisposition, payload,
+		final CompletableFuture<Void> sent = sendPostRequest(webClient, tenantId, bundlePayloadWithDisposition, payload,
 			//	dataLakeApiContentType, 
 				interactionId,provenance,
 				StringUtils.isNotEmpty(requestUriToBeOverriden) ? requestUriToBeOverriden
@@ -977,9 +1015,10 @@ public class FHIRService {
 				masterInteractionId, sourceType, bundleId, requestParameters, replay);
 		LOG.debug("FHIRService:: sendPostRequest END for interaction id: {} tenantid :{} ", interactionId,
 				tenantId);
+		return sent;
 	}
 
-	private void handleAwsSecrets(final MTlsAwsSecrets mTlsAwsSecrets, final String interactionId, final String tenantId,
+	private CompletableFuture<Void> handleAwsSecrets(final MTlsAwsSecrets mTlsAwsSecrets, final String interactionId, final String tenantId,
 			final String dataLakeApiBaseURL, 
 			//final String dataLakeApiContentType,
 			final Map<String, Object> bundlePayloadWithDisposition, final String provenance, final String requestURI,
@@ -1002,72 +1041,48 @@ public class FHIRService {
 			if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
 				Security.addProvider(new BouncyCastleProvider());
 			}
-			final KeyDetails keyDetails = getSecretsFromAWSSecretManager(mTlsAwsSecrets.mTlsKeySecretName(),
-					mTlsAwsSecrets.mTlsCertSecretName());
-			final String CERTIFICATE = keyDetails.cert();
-			final String PRIVATE_KEY = keyDetails.key();
-
-			if (StringUtils.isEmpty(CERTIFICATE)) {
-				throw new IllegalArgumentException(
-						"Certifcate read from secrets manager with certficate secret name : {} is null "
-								+ mTlsAwsSecrets.mTlsCertSecretName());
-			}
-
-			if (StringUtils.isEmpty(PRIVATE_KEY)) {
-				throw new IllegalArgumentException(
-						"Private key read from secrets manager with key secret name : {} is null "
-								+ mTlsAwsSecrets.mTlsKeySecretName());
-			}
-
-			LOG.debug(
-					"FHIRService :: handleAwsSecrets Certificate and Key Details fetched successfully for interactionId : {}",
-					interactionId);
-
-			LOG.debug("FHIRService :: handleAwsSecrets Creating SSLContext  -BEGIN for interactionId : {}",
-					interactionId);
-
-			final var sslContext = SslContextBuilder.forClient()
-					.keyManager(new ByteArrayInputStream(CERTIFICATE.getBytes()),
-							new ByteArrayInputStream(PRIVATE_KEY.getBytes()))
-					.build();
-			LOG.debug("FHIRService :: handleAwsSecrets Creating SSLContext  - END for interactionId : {}",
-					interactionId);
-
-			final HttpClient httpClient = HttpClient.create()
-					.secure(sslSpec -> sslSpec.sslContext(sslContext));
-			LOG.debug("FHIRService :: handleAwsSecrets HttpClient created successfully  for interactionId : {}",
-					interactionId);
-
-			final ReactorClientHttpConnector connector = new ReactorClientHttpConnector(httpClient);
-			LOG.debug(
-					"FHIRService :: handleAwsSecrets ReactorClientHttpConnector created successfully  for interactionId : {}",
-					interactionId);
 			LOG.info(
-					"FHIRService:: handleAwsSecrets Build WebClient with MTLS Enabled ReactorClientHttpConnector -BEGIN \n"
+					"FHIRService:: handleAwsSecrets Get cached WebClient with MTLS Enabled -BEGIN \n"
 							+
 							"with scoring Engine API URL: {} \n" +
-							//"dataLakeApiContentType: {} \n" +
 							"bundlePayloadWithDisposition: {} \n" +
 							"for interactionID: {} \n" +
 							"tenant Id: {}",
 					dataLakeApiBaseURL,
-					//dataLakeApiContentType,
 					bundlePayloadWithDisposition == null ? "Payload is null"
 							: "Payload is not null",
 					interactionId,
 					tenantId);
-			final var webClient = WebClient.builder()
-					.baseUrl(dataLakeApiBaseURL)
-				//	.defaultHeader("Content-Type", dataLakeApiContentType)
-					.clientConnector(connector)
-					.build();
+			final var webClient = mtlsWebClientCache.get(tenantId, MTlsStrategy.AWS_SECRETS.value,
+					dataLakeApiBaseURL, () -> {
+						final KeyDetails keyDetails = getSecretsFromAWSSecretManager(
+								mTlsAwsSecrets.mTlsKeySecretName(), mTlsAwsSecrets.mTlsCertSecretName());
+						final String CERTIFICATE = keyDetails.cert();
+						final String PRIVATE_KEY = keyDetails.key();
+
+						if (StringUtils.isEmpty(CERTIFICATE)) {
+							throw new IllegalArgumentException(
+									"Certifcate read from secrets manager with certficate secret name : {} is null "
+											+ mTlsAwsSecrets.mTlsCertSecretName());
+						}
+
+						if (StringUtils.isEmpty(PRIVATE_KEY)) {
+							throw new IllegalArgumentException(
+									"Private key read from secrets manager with key secret name : {} is null "
+											+ mTlsAwsSecrets.mTlsKeySecretName());
+						}
+						LOG.debug(
+								"FHIRService :: handleAwsSecrets Certificate and Key Details fetched successfully for interactionId : {}",
+								interactionId);
+						return new MtlsWebClientCache.Credentials(CERTIFICATE, PRIVATE_KEY);
+					});
 			LOG.debug(
-					"FHIRService :: handleAwsSecrets  Build WebClient with MTLS Enabled ReactorClientHttpConnector -END for interactionId :{}",
+					"FHIRService :: handleAwsSecrets Get cached WebClient with MTLS Enabled -END for interactionId :{}",
 					interactionId);
 			LOG.debug("FHIRService:: handleAwsSecrets - sendPostRequest BEGIN for interaction id: {} tenantid :{} ",
 					interactionId,
 					tenantId);
-			sendPostRequest(webClient, tenantId, bundlePayloadWithDisposition, payload,
+			final CompletableFuture<Void> sent = sendPostRequest(webClient, tenantId, bundlePayloadWithDisposition, payload,
 					//dataLakeApiContentType,
 					 interactionId,
 					provenance, requestURI, dataLakeApiBaseURL, groupInteractionId,
@@ -1077,6 +1092,9 @@ public class FHIRService {
 					tenantId);
 			LOG.debug("FHIRService :: handleAwsSecrets Post to scoring engine -END for interactionId :{}",
 					interactionId);
+			LOG.info("FHIRService :: handleAwsSecrets -END for interactionId : {}",
+					interactionId);
+			return sent;
 		} catch (final Exception ex) {
 			LOG.error(
 					"ERROR:: FHIRService :: handleAwsSecrets Post to scoring engine FAILED with error :{} for interactionId :{} tenantId:{}",
@@ -1084,12 +1102,13 @@ public class FHIRService {
 					interactionId, tenantId, ex);
 			registerStateFailed(interactionId, requestURI, tenantId, ex.getMessage(),
 					provenance, groupInteractionId, masterInteractionId, sourceType, requestParameters,replay);
+			LOG.info("FHIRService :: handleAwsSecrets -END for interactionId : {}",
+					interactionId);
+			return CompletableFuture.failedFuture(ex);
 		}
-		LOG.info("FHIRService :: handleAwsSecrets -END for interactionId : {}",
-				interactionId);
 	}
 
-	private void handlePostStdoutPayload(final String interactionId, final String tenantId,
+	private CompletableFuture<Void> handlePostStdoutPayload(final String interactionId, final String tenantId,
 			final String dataLakeApiBaseURL,
 			final Map<String, Object> bundlePayloadWithDisposition,
                          final String payload, final String provenance,
@@ -1100,7 +1119,7 @@ public class FHIRService {
 				interactionId);
 		final var requestURI = StringUtils.isNotEmpty(requestUriToBeOverriden) ? requestUriToBeOverriden
 				: (String) requestParameters.get(Constants.REQUEST_URI);
-
+		CompletableFuture<Void> sent;
 		try {
 			registerStateForward(provenance, interactionId,
 					requestURI, tenantId,
@@ -1130,10 +1149,13 @@ public class FHIRService {
 				registerStateComplete(interactionId,
 						requestURI, tenantId, responsePayload,
 						provenance, groupInteractionId, masterInteractionId, sourceType,requestParameters,replay);
+				sent = CompletableFuture.completedFuture(null);
 			} else {
 				registerStateFailed(interactionId,
 						requestURI, tenantId, responsePayload,
 						provenance, groupInteractionId, masterInteractionId, sourceType,requestParameters,replay);
+				sent = CompletableFuture.failedFuture(new IllegalStateException(
+						"Scoring engine did not accept interaction " + interactionId + ": " + responsePayload));
 			}
 		} catch (final Exception ex) {
 			LOG.error("Exception while postStdinPayloadToNyecDataLakeExternal forinteractionId : {}",
@@ -1141,9 +1163,11 @@ public class FHIRService {
 			registerStateFailed(interactionId,
 					requestURI, tenantId, ex.getMessage(), provenance,
 					groupInteractionId, masterInteractionId, sourceType, requestParameters,replay);
+			sent = CompletableFuture.failedFuture(ex);
 		}
 		LOG.info("Proceed with posting payload via external process END for interactionId : {}",
 				interactionId);
+		return sent;
 	}
 
 	private PostToNyecExternalResponse postStdinPayloadToNyecDataLakeExternal(final String dataLakeApiBaseURL,
@@ -1333,7 +1357,7 @@ public class FHIRService {
 				interactionId);
 	}
 
-	private void sendPostRequest(final WebClient webClient,
+	private CompletableFuture<Void> sendPostRequest(final WebClient webClient,
         final String tenantId,
         final Map<String, Object> bundlePayloadWithDisposition,
         final String payload,
@@ -1352,7 +1376,7 @@ public class FHIRService {
 				CoreDataLedgerApiClient.Actor.TECHBD.getValue(), CoreDataLedgerApiClient.Action.SENT.getValue(),
 				CoreDataLedgerApiClient.Actor.NYEC.getValue(), bundleId);
         // Post request to scoring engine
-        webClient.post()
+        final CompletableFuture<Void> sent = recordResponse(webClient.post()
                 .uri("?processingAgent=" + resolveProcessingAgent(tenantId))
                 .body(BodyInserters.fromValue(
                         bundlePayloadWithDisposition != null ? bundlePayloadWithDisposition : payload))
@@ -1362,24 +1386,17 @@ public class FHIRService {
                 .doFinally(signalType -> {
                     final var dataLedgerProvenance = "%s.sendPostRequest".formatted(FHIRService.class.getName());
             		coreDataLedgerApiClient.processRequest(dataLedgerPayload,interactionId,masterInteractionId,groupInteractionId,dataLedgerProvenance,SourceType.FHIR.name(),null);
-                })
-                .subscribe(response -> {
-                    handleResponse(response, interactionId, requestURI, tenantId,
-                            provenance, scoringEngineApiURL, groupInteractionId,
-                            masterInteractionId, sourceType, requestParameters,replay);
-                }, error -> {
-                    registerStateFailure(scoringEngineApiURL, interactionId, error,
-                            requestURI, tenantId, provenance, groupInteractionId,
-                            masterInteractionId, sourceType, requestParameters,replay);
-                });
+                }), interactionId, requestURI, tenantId, provenance, scoringEngineApiURL, groupInteractionId,
+                masterInteractionId, sourceType, requestParameters, replay);
 
 			LOG.info("FHIRService:: sendToScoringEngine Post to scoring engine - END interaction id: {} tenantid: {}",
 					interactionId, tenantId);
+			return sent;
 		} finally {
 			span.end();
 		}
 	}
-	private void sendPostRequestWithApiKey(final WebClient webClient,
+	private CompletableFuture<Void> sendPostRequestWithApiKey(final WebClient webClient,
 			final String tenantId,
 			final Map<String, Object> bundlePayloadWithDisposition,
 			final String payload,
@@ -1398,7 +1415,7 @@ public class FHIRService {
 			LOG.info(
 				"FHIRService:: nyec api client key retrieved  : {} from secret  {} - BEGIN interaction id: {} tenantID :{}",
 				apiClientKey == null ? "Api key is null" : "Api key is not null" ,apiKeyAuthDetails.apiKeySecretName(),interactionId, tenantId);	
-			webClient.post()
+			final CompletableFuture<Void> sent = recordResponse(webClient.post()
 					.uri("?processingAgent=" + tenantId)
 					.body(BodyInserters.fromValue(null != bundlePayloadWithDisposition
 							? bundlePayloadWithDisposition
@@ -1413,25 +1430,55 @@ public class FHIRService {
 								CoreDataLedgerApiClient.Actor.NYEC.getValue(), bundleId);
 						final var dataLedgerProvenance = "%s.sendPostRequest".formatted(FHIRService.class.getName());
 						coreDataLedgerApiClient.processRequest(dataLedgerPayload,interactionId,masterInteractionId,groupInteractionId,dataLedgerProvenance,SourceType.FHIR.name(),null);
-					})
-					.subscribe(response -> {
-						handleResponse(response, interactionId, requestURI, tenantId,
-								provenance, scoringEngineApiURL, groupInteractionId,
-								masterInteractionId, sourceType,requestParameters,replay);
-					}, error -> {
-						registerStateFailure(scoringEngineApiURL, interactionId, error,
-								requestURI, tenantId, provenance, groupInteractionId,
-								masterInteractionId, sourceType,requestParameters,replay);
-					});
+					}), interactionId, requestURI, tenantId, provenance, scoringEngineApiURL, groupInteractionId,
+					masterInteractionId, sourceType, requestParameters, replay);
 
 			LOG.info("FHIRService:: sendPostRequestWithApiKey Post to scoring engine - END interaction id: {} tenantid: {}",
 					interactionId, tenantId);
+			return sent;
 		} finally {
 			span.end();
 		}
 	}
 
-	private void handleResponse(final String response,
+	/**
+	 * Subscribes to the scoring engine's answer and records it. The returned
+	 * future completes once that is done, exceptionally unless the engine
+	 * reported success.
+	 */
+	private CompletableFuture<Void> recordResponse(final Mono<String> response, final String interactionId,
+			final String requestURI, final String tenantId, final String provenance,
+			final String scoringEngineApiURL, final String groupInteractionId, final String masterInteractionId,
+			final String sourceType, final Map<String, Object> requestParameters, final boolean replay) {
+		final CompletableFuture<Void> recorded = new CompletableFuture<>();
+		response.subscribe(body -> {
+			try {
+				if (handleResponse(body, interactionId, requestURI, tenantId,
+						provenance, scoringEngineApiURL, groupInteractionId,
+						masterInteractionId, sourceType, requestParameters, replay)) {
+					recorded.complete(null);
+				} else {
+					recorded.completeExceptionally(new IllegalStateException(
+							"Scoring engine did not accept interaction " + interactionId + ": " + body));
+				}
+			} catch (final RuntimeException e) {
+				recorded.completeExceptionally(e);
+			}
+		}, error -> {
+			try {
+				registerStateFailure(scoringEngineApiURL, interactionId, error,
+						requestURI, tenantId, provenance, groupInteractionId,
+						masterInteractionId, sourceType, requestParameters, replay);
+			} finally {
+				recorded.completeExceptionally(error);
+			}
+		}, () -> recorded.completeExceptionally(new IllegalStateException(
+				"Scoring engine returned no response for interaction " + interactionId)));
+		return recorded;
+	}
+
+	/** Records the scoring engine's response; {@code true} if it reported success. */
+	private boolean handleResponse(final String response,
 			final String interactionId,
 			final String requestURI,
 			final String tenantId,
@@ -1455,20 +1502,22 @@ public class FHIRService {
 					registerStateComplete(interactionId, requestURI, tenantId, response,
 							provenance, groupInteractionId, masterInteractionId,
 							sourceType,requestParameters,replay);
-				} else {
-					LOG.warn("FHIRService:: handleResponse FAILURE for interaction id: {}",
-							interactionId);
-					registerStateFailed(interactionId, requestURI, tenantId, response,
-							provenance, groupInteractionId, masterInteractionId,
-							sourceType,requestParameters,replay);
+					return true;
 				}
+				LOG.warn("FHIRService:: handleResponse FAILURE for interaction id: {}",
+						interactionId);
+				registerStateFailed(interactionId, requestURI, tenantId, response,
+						provenance, groupInteractionId, masterInteractionId,
+						sourceType,requestParameters,replay);
 			} catch (final Exception e) {
 				LOG.error("FHIRService:: handleResponse unexpected error for interaction id : {}, response: {}",
 						interactionId, response, e);
 				registerStateFailed(interactionId, requestURI, tenantId, e.getMessage(),
 						provenance, groupInteractionId, masterInteractionId, sourceType,requestParameters,replay);
+			} finally {
+				LOG.info("FHIRService:: handleResponse END for interaction id: {}", interactionId);
 			}
-			LOG.info("FHIRService:: handleResponse END for interaction id: {}", interactionId);
+			return false;
 		} finally {
 			span.end();
 		}
@@ -1477,13 +1526,15 @@ public class FHIRService {
 	private void handleError(final Map<String, Object> validationPayloadWithDisposition,
 			final Exception e, final String interactionId) {
 
-		validationPayloadWithDisposition.put("exception", e.toString());
+		if (validationPayloadWithDisposition != null) {
+			validationPayloadWithDisposition.put("exception", e.toString());
+		}
 		LOG.error(
 				"ERROR:: FHIRService:: sendToScoringEngine Exception while sending to scoring engine payload with interaction id: {}",
 				interactionId, e);
 	}
 
-	private Map<String, Object> preparePayload(final Map<String,Object> requestParameters, final String bundlePayload,
+	private Map<String, Object> preparePayload(final Map<String,Object> requestParameters, final ParsedBundle bundlePayload,
 			final Map<String, Object> payloadWithDisposition, final String interactionId) {
 		LOG.debug("FHIRService:: addValidationResultToPayload BEGIN for interaction id : {}", interactionId);
 
@@ -1506,9 +1557,7 @@ public class FHIRService {
 				return payloadWithDisposition;
 			}
 			final Map<String, Object> bundleMap = Optional
-					.ofNullable(Configuration.objectMapper.readValue(bundlePayload,
-							new TypeReference<Map<String, Object>>() {
-							}))
+					.ofNullable(bundlePayload.toMap())
 					.filter(map -> !map.isEmpty())
 					.orElseGet(() -> {
 						LOG.warn(
@@ -1681,7 +1730,6 @@ public class FHIRService {
 			final String groupInteractionId, final String masterInteractionId, final String sourceType,final boolean replay) {
 		final Span span = tracer.spanBuilder("FHIRService.registerStateForward").startSpan();
 		try {
-			final var jooqCfg = primaryDSLContext.configuration();
 			LOG.info("{} : BEGIN for interaction id: {} | tenant id: {}",
 					replay ? "FHIR-REPLAY" : "REGISTER State Forward",
 					bundleAsyncInteractionId,
@@ -1727,20 +1775,26 @@ public class FHIRService {
 				initRIHR.setPProvenance(buildProvenance(provenance, tenantId, bundleAsyncInteractionId));
 				initRIHR.setPTechbdVersionNumber(coreAppConfig.getVersion());
 				final var start = Instant.now();
-				final var execResult = initRIHR.execute(jooqCfg);
-				final var end = Instant.now();
-				final JsonNode response = initRIHR.getReturnValue();
-				final Map<String,Object> responseAttributes = CoreFHIRUtil.extractFields(response);
-				LOG.info(
-						"{} REGISTER State Forward : END for interaction id: {} tenant id: {}. Time taken: {} milliseconds | payload -> error: {}, interaction_id: {}, hub_nexus_interaction_id: {} | execResult: {}",
-						replay ? "FHIR-REPLAY" : "REGISTER State Forward",
-						bundleAsyncInteractionId,
-						tenantId,
-						Duration.between(start, end).toMillis(),
-						responseAttributes.getOrDefault(Constants.KEY_ERROR, "N/A"),
-						responseAttributes.getOrDefault(Constants.KEY_INTERACTION_ID, "N/A"),
-						responseAttributes.getOrDefault(Constants.KEY_HUB_NEXUS_INTERACTION_ID, "N/A"),
-						execResult);
+				interactionPersistenceWriter.submit(initRIHR).whenComplete((response, error) -> {
+					if (error != null) {
+						LOG.error("ERROR:: REGISTER State Forward CALL for interaction id : {} tenant id : {}"
+								+ initRIHR.getName() + " initRIHR error", bundleAsyncInteractionId,
+								tenantId,
+								error);
+						return;
+					}
+					final var end = Instant.now();
+					final Map<String,Object> responseAttributes = CoreFHIRUtil.extractFields(response);
+					LOG.info(
+							"{} REGISTER State Forward : END for interaction id: {} tenant id: {}. Time taken: {} milliseconds | payload -> error: {}, interaction_id: {}, hub_nexus_interaction_id: {}",
+							replay ? "FHIR-REPLAY" : "REGISTER State Forward",
+							bundleAsyncInteractionId,
+							tenantId,
+							Duration.between(start, end).toMillis(),
+							responseAttributes.getOrDefault(Constants.KEY_ERROR, "N/A"),
+							responseAttributes.getOrDefault(Constants.KEY_INTERACTION_ID, "N/A"),
+							responseAttributes.getOrDefault(Constants.KEY_HUB_NEXUS_INTERACTION_ID, "N/A"));
+				});
 			} catch (final Exception e) {
 				LOG.error("ERROR:: REGISTER State Forward CALL for interaction id : {} tenant id : {}"
 						+ initRIHR.getName() + " initRIHR error", bundleAsyncInteractionId,
@@ -1776,7 +1830,6 @@ public class FHIRService {
 					bundleAsyncInteractionId, tenantId);
 			final var forwardRIHR = new RegisterInteractionFhirRequest();
 			try {
-				final var jooqCfg = primaryDSLContext.configuration();
 				if (!replay) {
 					requestParameters.put(Constants.OBSERVABILITY_METRIC_INTERACTION_FINISH_TIME, Instant.now().toString());
 					forwardRIHR.setPAdditionalDetails((JsonNode) Configuration.objectMapper.valueToTree( Map.of("request", requestParameters)));
@@ -1813,19 +1866,24 @@ public class FHIRService {
 				forwardRIHR.setPProvenance(provenance);
 				forwardRIHR.setPTechbdVersionNumber(coreAppConfig.getVersion());
 				final var start = Instant.now();
-				final var execResult = forwardRIHR.execute(jooqCfg);
-				final var end = Instant.now();
-				final JsonNode responseFromDB = forwardRIHR.getReturnValue();
-				final Map<String,Object> responseAttributes = CoreFHIRUtil.extractFields(responseFromDB);
-				LOG.info(
-						"REGISTER State Complete : END for interaction id: {} tenant id: {}. Time Taken: {} milliseconds | payload -> error: {}, interaction_id: {}, hub_nexus_interaction_id: {} | execResult: {}",
-						bundleAsyncInteractionId,
-						tenantId,
-						Duration.between(start, end).toMillis(),
-						responseAttributes.getOrDefault(Constants.KEY_ERROR, "N/A"),
-						responseAttributes.getOrDefault(Constants.KEY_INTERACTION_ID, "N/A"),
-						responseAttributes.getOrDefault(Constants.KEY_HUB_NEXUS_INTERACTION_ID, "N/A"),
-						execResult);
+				interactionPersistenceWriter.submit(forwardRIHR).whenComplete((responseFromDB, error) -> {
+					if (error != null) {
+						LOG.error("ERROR:: REGISTER State Complete CALL for interaction id : {} tenant id : {} "
+								+ forwardRIHR.getName()
+								+ " forwardRIHR error", bundleAsyncInteractionId, tenantId, error);
+						return;
+					}
+					final var end = Instant.now();
+					final Map<String,Object> responseAttributes = CoreFHIRUtil.extractFields(responseFromDB);
+					LOG.info(
+							"REGISTER State Complete : END for interaction id: {} tenant id: {}. Time Taken: {} milliseconds | payload -> error: {}, interaction_id: {}, hub_nexus_interaction_id: {}",
+							bundleAsyncInteractionId,
+							tenantId,
+							Duration.between(start, end).toMillis(),
+							responseAttributes.getOrDefault(Constants.KEY_ERROR, "N/A"),
+							responseAttributes.getOrDefault(Constants.KEY_INTERACTION_ID, "N/A"),
+							responseAttributes.getOrDefault(Constants.KEY_HUB_NEXUS_INTERACTION_ID, "N/A"));
+				});
 			} catch (final Exception e) {
 				LOG.error("ERROR:: REGISTER State Complete CALL for interaction id : {} tenant id : {} "
 						+ forwardRIHR.getName()
@@ -1843,7 +1901,6 @@ public class FHIRService {
 			final String sourceType,Map<String,Object> requestParameters,boolean replay) {
 		final Span span = tracer.spanBuilder("FHIRService.registerStateFailed").startSpan();
 		try {
-			final var jooqCfg = primaryDSLContext.configuration();
 			LOG.info("{} ; REGISTER State Fail : BEGIN for interaction id :  {} tenant id : {}",
 					replay ? "FHIR-REPLAY" : "REGISTER State Fail",
 					bundleAsyncInteractionId, tenantId);
@@ -1887,23 +1944,30 @@ public class FHIRService {
 				forwardRIHR.setPProvenance(provenance);
 				forwardRIHR.setPTechbdVersionNumber(coreAppConfig.getVersion());
 				final var start = Instant.now();
-				final var execResult = forwardRIHR.execute(jooqCfg);
-				final var end = Instant.now();
-                final JsonNode responseFromDB = forwardRIHR.getReturnValue();
-				final Map<String,Object> responseAttributes = CoreFHIRUtil.extractFields(responseFromDB);
-				LOG.info(
-					"{} : FHIRService - Time taken: {} milliseconds for DB call to REGISTER State None, Accept, Disposition for interaction id: {}  error: {}, hub_nexus_interaction_id: {}",
-					replay ? "FHIR-REPLAY" : "REGISTER State Fail",
-					Duration.between(start, end).toMillis(),
-					responseAttributes.getOrDefault(Constants.KEY_INTERACTION_ID, "N/A"),
-					responseAttributes.getOrDefault(Constants.KEY_ERROR, "N/A"),					
-					responseAttributes.getOrDefault(Constants.KEY_HUB_NEXUS_INTERACTION_ID, "N/A")
-				);
-				LOG.info(
-						"{} : REGISTER State Fail : END for interaction id : {} tenant id : {} .Time Taken : {} milliseconds"
-								+ execResult,replay ? "FHIR-REPLAY" : "REGISTER State Fail",
-						bundleAsyncInteractionId, tenantId,
-						Duration.between(start, end).toMillis());
+				interactionPersistenceWriter.submit(forwardRIHR).whenComplete((responseFromDB, error) -> {
+					if (error != null) {
+						LOG.error("{} : ERROR:: REGISTER State Fail CALL for interaction id : {} tenant id : {} "
+								+ forwardRIHR.getName()
+								+ " forwardRIHR error", replay ? "FHIR-REPLAY" : "REGISTER State Fail",
+								bundleAsyncInteractionId, tenantId, error);
+						return;
+					}
+					final var end = Instant.now();
+					final Map<String,Object> responseAttributes = CoreFHIRUtil.extractFields(responseFromDB);
+					LOG.info(
+						"{} : FHIRService - Time taken: {} milliseconds for DB call to REGISTER State None, Accept, Disposition for interaction id: {}  error: {}, hub_nexus_interaction_id: {}",
+						replay ? "FHIR-REPLAY" : "REGISTER State Fail",
+						Duration.between(start, end).toMillis(),
+						responseAttributes.getOrDefault(Constants.KEY_INTERACTION_ID, "N/A"),
+						responseAttributes.getOrDefault(Constants.KEY_ERROR, "N/A"),
+						responseAttributes.getOrDefault(Constants.KEY_HUB_NEXUS_INTERACTION_ID, "N/A")
+					);
+					LOG.info(
+							"{} : REGISTER State Fail : END for interaction id : {} tenant id : {} .Time Taken : {} milliseconds",
+							replay ? "FHIR-REPLAY" : "REGISTER State Fail",
+							bundleAsyncInteractionId, tenantId,
+							Duration.between(start, end).toMillis());
+				});
 			} catch (final Exception e) {
 				LOG.error("{} : ERROR:: REGISTER State Fail CALL for interaction id : {} tenant id : {} "
 						+ forwardRIHR.getName()
@@ -1928,7 +1992,6 @@ public class FHIRService {
 					" NYEC_API_CALL_FAILED  {} : Register State Failure - Exception while sending FHIR payload to datalake URL {} for interaction id {}",
 					replay ? "FHIR-REPLAY" : "REGISTER State Fail",
 					dataLakeApiBaseURL, bundleAsyncInteractionId, error);
-			final var jooqCfg = primaryDSLContext.configuration();
 			final var errorRIHR = new RegisterInteractionFhirRequest();
 			try {
 				if(!replay) {
@@ -2013,22 +2076,28 @@ public class FHIRService {
 				errorRIHR.setPProvenance(provenance);
 				errorRIHR.setPTechbdVersionNumber(coreAppConfig.getVersion());
 				final var start = Instant.now();
-				final var execResult = errorRIHR.execute(jooqCfg);
-				final var end = Instant.now();
-
-				final JsonNode responseFromDB = errorRIHR.getReturnValue();
-				final Map<String, Object> responseAttributes = CoreFHIRUtil.extractFields(responseFromDB);
+				interactionPersistenceWriter.submit(errorRIHR).whenComplete((responseFromDB, failure) -> {
+					if (failure != null) {
+						LOG.error("{} : ERROR :: Register State Failure - for interaction id : {} tenant id : {} CALL "
+								+ errorRIHR.getName() + " errorRIHR error", replay ? "FHIR-REPLAY" : "REGISTER State Fail",
+								bundleAsyncInteractionId,
+								tenantId,
+								failure);
+						return;
+					}
+					final var end = Instant.now();
+					final Map<String, Object> responseAttributes = CoreFHIRUtil.extractFields(responseFromDB);
 
-				LOG.info(
-						"{} : Register State Failure - END for interaction id: {} tenant id: {} forwardRIHR execResult: {}. Time Taken: {} milliseconds  error: {}, interaction_id: {}, hub_nexus_interaction_id: {}",
-						replay ? "FHIR-REPLAY" : "REGISTER State Fail",
-						bundleAsyncInteractionId,
-						tenantId,
-						execResult,
-						Duration.between(start, end).toMillis(),
-						responseAttributes.getOrDefault(Constants.KEY_ERROR, "N/A"),
-						responseAttributes.getOrDefault(Constants.KEY_INTERACTION_ID, "N/A"),
-						responseAttributes.getOrDefault(Constants.KEY_HUB_NEXUS_INTERACTION_ID, "N/A"));
+					LOG.info(
+							"{} : Register State Failure - END for interaction id: {} tenant id: {}. Time Taken: {} milliseconds  error: {}, interaction_id: {}, hub_nexus_interaction_id: {}",
+							replay ? "FHIR-REPLAY" : "REGISTER State Fail",
+							bundleAsyncInteractionId,
+							tenantId,
+							Duration.between(start, end).toMillis(),
+							responseAttributes.getOrDefault(Constants.KEY_ERROR, "N/A"),
+							responseAttributes.getOrDefault(Constants.KEY_INTERACTION_ID, "N/A"),
+							responseAttributes.getOrDefault(Constants.KEY_HUB_NEXUS_INTERACTION_ID, "N/A"));
+				});
 			} catch (final Exception e) {
 				LOG.error("{} : ERROR :: Register State Failure - for interaction id : {} tenant id : {} CALL "
 						+ errorRIHR.getName() + " errorRIHR error", replay ? "FHIR-REPLAY" : "REGISTER State Fail",
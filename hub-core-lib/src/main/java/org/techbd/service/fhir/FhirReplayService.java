@@ -1,31 +1,50 @@
 package org.techbd.service.fhir;
 
+import static org.techbd.udi.auto.jooq.ingress.Tables.FHIR_REPLAY_DETAILS;
+import static org.techbd.udi.auto.jooq.ingress.Tables.SAT_INTERACTION_FHIR_REQUEST;
+
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.jooq.Condition;
 import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.Record2;
+import org.jooq.impl.DSL;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.task.TaskExecutor;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.techbd.config.Configuration;
 import org.techbd.config.CoreAppConfig;
+import org.techbd.config.Nature;
+import org.techbd.config.SourceType;
+import org.techbd.config.State;
 import org.techbd.udi.auto.jooq.ingress.routines.GetFhirBundlesToReplay;
-import org.techbd.udi.auto.jooq.ingress.routines.GetFhirPayloadForNyec;
 import org.techbd.udi.auto.jooq.ingress.routines.GetNyecSubmissionFailedBundles;
 import org.techbd.udi.auto.jooq.ingress.routines.UpdateFhirReplayStatus;
 import org.techbd.util.AppLogger;
 import org.techbd.util.TemplateLogger;
+import org.techbd.util.fhir.ParsedBundle;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
+import jakarta.annotation.PreDestroy;
 import jakarta.servlet.http.HttpServletRequest;
 
 @Service
@@ -41,6 +60,19 @@ public class FhirReplayService {
 
     private final TaskExecutor asyncTaskExecutor;
 
+    private final CoreAppConfig.FhirReplayConfig replayConfig;
+
+    private final ReplayRateLimiter rateLimiter;
+
+    private final ExecutorService replayExecutor;
+
+    private final Set<String> activeReplays = ConcurrentHashMap.newKeySet();
+
+    /** A pending bundle of a replay with the payload to resend. */
+    record ReplayCandidate(String bundleId, String interactionId, String tenantId, String source,
+            String requestUri, String groupInteractionId, String zipInteractionId, Map<String, Object> payload) {
+    }
+
     public FhirReplayService(FHIRService fhirService, AppLogger appLogger, CoreAppConfig appConfig,
             @Qualifier("primaryDslContext") final DSLContext primaryDslContext,
             @Qualifier("asyncTaskExecutor") final TaskExecutor asyncTaskExecutor) {
@@ -49,6 +81,16 @@ public class FhirReplayService {
         this.appConfig = appConfig;
         this.primaryDslContext = primaryDslContext;
         this.asyncTaskExecutor = asyncTaskExecutor;
+        this.replayConfig = appConfig.getFhirReplay() != null
+                ? appConfig.getFhirReplay()
+                : new CoreAppConfig.FhirReplayConfig();
+        this.rateLimiter = new ReplayRateLimiter(replayConfig.getRequestsPerSecond(), replayConfig.getBurst());
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.replayExecutor = Executors.newFixedThreadPool(Math.max(1, replayConfig.getParallelism()), runnable -> {
+            final Thread thread = new Thread(runnable, "fhir-replay-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     public Map<String, Object> replayBundles(HttpServletRequest request, String replayId, OffsetDateTime startDate,
@@ -56,29 +98,17 @@ public class FhirReplayService {
         LOG.info("FHIR-REPLAY Starting replayBundles for replayId={} | startDate={} | endDate={}",
                 replayId, startDate, endDate);
         final var jooqCfg = primaryDslContext.configuration();
-        Map<String, Object> bundlesResponse = getBundlesToReplay(jooqCfg,replayId, startDate, endDate,tenantId);
-        if (bundlesResponse.isEmpty() || !bundlesResponse.containsKey("bundles")) {
+        final JsonNode bundlesResponse = getBundlesToReplay(jooqCfg,replayId, startDate, endDate,tenantId);
+        if (bundlesResponse.isEmpty() || !bundlesResponse.has("bundles")) {
             LOG.warn("FHIR-REPLAY No bundles found to replay for replayId={}", replayId);
             return Map.of(
                     "bundle_count", 0,
                     "message", "No bundles found to replay");
         }
-        List<Map<String, Object>> bundlesList = (List<Map<String, Object>>) bundlesResponse.get("bundles");
+        // The candidates are now recorded in fhir_replay_details; they are streamed from there
         Map<String, Object> interimResponse = new HashMap<>();
 
-        int bundleCount = Optional.ofNullable(bundlesResponse.get("bundle_count"))
-        .map(obj -> {
-            if (obj instanceof Number) {
-                return ((Number) obj).intValue();
-            } else {
-                try {
-                    return Integer.parseInt(obj.toString());
-                } catch (NumberFormatException e) {
-                    return 0;
-                }
-            }
-        })
-        .orElse(0);
+        final int bundleCount = bundlesResponse.path("bundle_count").asInt(0);
         interimResponse.put("total_bundles", bundleCount);
         interimResponse.put("replay_id", replayId);
 
@@ -91,98 +121,220 @@ public class FhirReplayService {
 
         LOG.info("FHIR-REPLAY Replay started for replayId={} | bundle_count={}",
                 replayId, bundleCount);
+        startReplay(replayId);
+        return interimResponse;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        replayExecutor.shutdownNow();
+    }
+
+    /**
+     * Sends the pending bundles of {@code replayId} in the background unless
+     * that replay is already running here.
+     */
+    private void startReplay(String replayId) {
+        if (!activeReplays.add(replayId)) {
+            LOG.warn("FHIR-REPLAY Replay already running for replayId={}", replayId);
+            return;
+        }
         CompletableFuture.runAsync(() -> {
-            for (Map<String, Object> bundle : bundlesList) {
-                final var bundleId = (String) bundle.get("bundleid");
-                final var bundleInteractionId = (String) bundle.get("interactionid");
-                final var groupInteractionId = (String) bundle.get("groupInteractionId");
-                final var zipInteractionId = (String) bundle.get("zipInteractionID");
-                final var tenant = (String) bundle.get("tenantID");
-                final var source = (String) bundle.get("source");
-                final var requestUri = (String) bundle.get("uri");
-                var errorMessage = (String) bundle.get("errorMessage");
-                var status = "Success";
-                final var provenance = "%s.replayBundles".formatted(FhirReplayService.class.getName());
-                try {
-                    LOG.info(
-                            "FHIR-REPLAY Starting replay of bundle | replayId={} | bundleInteractionId={} | zipInteractionId={} | groupInteractionId={} | bundleId={} | tenantId={} | source={}",
-                            replayId,
-                            bundleInteractionId,
-                            zipInteractionId,
-                            groupInteractionId,
-                            bundleId,
-                            tenant,
-                            source);
-                        // Call scoring engine
-
-                        fhirService.sendToScoringEngine(                                
-                                null,
-                                appConfig.getDefaultDatalakeApiUrl(),
-                                MediaType.APPLICATION_JSON_VALUE,
-                                tenant,
-                                null,
-                                null,
-                                null,
-                                bundleInteractionId,
-                                groupInteractionId,
-                                zipInteractionId,
-                                source,
-                                requestUri,
-                                null,
-                                bundleId,
-                                true,
-                                getNyecPayload(jooqCfg, bundleInteractionId));
-                        LOG.info(
-                                "FHIR-REPLAY Successfully sent bundle | replayId={} | bundleInteractionId={} | zipInteractionId={} | groupInteractionId={} | bundleId={} | tenantId={} | source={}",
-                                replayId,
-                                bundleInteractionId,
-                                zipInteractionId,
-                                groupInteractionId,
-                                bundleId,
-                                tenant,
-                                source);
-                    
-                } catch (Exception e) {
-                    LOG.error("FHIR-REPLAY Failed sending bundleId={} for replayId={} | error={}",
-                            bundleId, replayId, e.getMessage(), e);
-                    status = "Failed";
-
-                    // Capture full stack trace
-                    StringWriter sw = new StringWriter();
-                    e.printStackTrace(new PrintWriter(sw));
-                    errorMessage = sw.toString();
-                } finally {
-                    // Always update FHIR replay status and errorMessage
-                        updateFhirStatus(jooqCfg, bundleInteractionId, status, errorMessage, replayId, bundleId);
-                }
+            try {
+                runReplay(replayId);
+            } finally {
+                activeReplays.remove(replayId);
             }
-
-            LOG.info("FHIR-REPLAY Completed asynchronous processing for replayMasterId={}",
-                    replayId);
         }, asyncTaskExecutor);
-        return interimResponse;
     }
 
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> getNyecPayload(final org.jooq.Configuration jooqCfg,String interactionId) {
-        LOG.info("Fetching NYEC FHIR payload for interactionId={}", interactionId);
+    /**
+     * Streams the bundles of {@code replayId} whose replay status is still
+     * empty, a page at a time in key order, and sends them on the replay
+     * workers. The next page is read while the previous one is still being
+     * sent. At most {@code parallelism} bundles are awaiting the scoring
+     * engine at once; each bundle's status is written when its answer arrives,
+     * so a replay interrupted by a restart picks up the remaining bundles when
+     * started again with the same id.
+     */
+    void runReplay(String replayId) {
+        final var jooqCfg = primaryDslContext.configuration();
+        final int parallelism = Math.max(1, replayConfig.getParallelism());
+        final Semaphore inFlight = new Semaphore(parallelism);
+        int dispatched = 0;
+        String afterInteractionId = null;
+        String afterBundleId = null;
         try {
-            GetFhirPayloadForNyec getFhirPayloadForNyec = new GetFhirPayloadForNyec();
-            getFhirPayloadForNyec.setPInteractionId(interactionId);
-            int executeResult = getFhirPayloadForNyec.execute(jooqCfg);
-            JsonNode responseJson = getFhirPayloadForNyec.getReturnValue();
+            List<ReplayCandidate> page;
+            while (!(page = nextPage(replayId, afterInteractionId, afterBundleId)).isEmpty()) {
+                for (ReplayCandidate candidate : page) {
+                    inFlight.acquire();
+                    rateLimiter.acquire();
+                    try {
+                        replayExecutor.execute(() -> replayBundle(jooqCfg, replayId, candidate)
+                                .whenComplete((ignored, error) -> inFlight.release()));
+                    } catch (RejectedExecutionException e) {
+                        inFlight.release();
+                        throw e;
+                    }
+                    dispatched++;
+                }
+                final ReplayCandidate last = page.get(page.size() - 1);
+                afterInteractionId = last.interactionId();
+                afterBundleId = last.bundleId();
+            }
+            inFlight.acquire(parallelism);
+            LOG.info("FHIR-REPLAY Completed asynchronous processing for replayMasterId={} | bundles sent={}",
+                    replayId, dispatched);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("FHIR-REPLAY Interrupted replayMasterId={} after {} bundles; pending bundles resume with the same replay id",
+                    replayId, dispatched);
+        } catch (RuntimeException e) {
+            LOG.error("FHIR-REPLAY Stopped replayMasterId={} after {} bundles | error={}",
+                    replayId, dispatched, e.getMessage(), e);
+        }
+    }
 
-            if (responseJson == null || responseJson.isEmpty()) {
+    /**
+     * Sends one bundle and, once the scoring engine has answered, writes its
+     * replay status on the replay workers. The returned future always
+     * completes normally.
+     */
+    private CompletableFuture<Void> replayBundle(final org.jooq.Configuration jooqCfg, String replayId,
+            ReplayCandidate bundle) {
+        CompletableFuture<Void> sent;
+        try {
+            LOG.info(
+                    "FHIR-REPLAY Starting replay of bundle | replayId={} | bundleInteractionId={} | zipInteractionId={} | groupInteractionId={} | bundleId={} | tenantId={} | source={}",
+                    replayId,
+                    bundle.interactionId(),
+                    bundle.zipInteractionId(),
+                    bundle.groupInteractionId(),
+                    bundle.bundleId(),
+                    bundle.tenantId(),
+                    bundle.source());
+            // Call scoring engine
+            sent = fhirService.sendToScoringEngine(
+                    null,
+                    appConfig.getDefaultDatalakeApiUrl(),
+                    bundle.tenantId(),
+                    (ParsedBundle) null,
+                    null,
+                    null,
+                    null,
+                    bundle.interactionId(),
+                    bundle.groupInteractionId(),
+                    bundle.zipInteractionId(),
+                    bundle.source(),
+                    bundle.requestUri(),
+                    null,
+                    bundle.bundleId(),
+                    true,
+                    bundle.payload());
+        } catch (Exception e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        return sent.handleAsync((ignored, error) -> {
+            if (error == null) {
+                LOG.info(
+                        "FHIR-REPLAY Successfully sent bundle | replayId={} | bundleInteractionId={} | zipInteractionId={} | groupInteractionId={} | bundleId={} | tenantId={} | source={}",
+                        replayId,
+                        bundle.interactionId(),
+                        bundle.zipInteractionId(),
+                        bundle.groupInteractionId(),
+                        bundle.bundleId(),
+                        bundle.tenantId(),
+                        bundle.source());
+                updateFhirStatus(jooqCfg, bundle.interactionId(), "Success", null, replayId, bundle.bundleId());
+                return null;
+            }
+            final Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause()
+                    : error;
+            LOG.error("FHIR-REPLAY Failed sending bundleId={} for replayId={} | error={}",
+                    bundle.bundleId(), replayId, cause.getMessage(), cause);
+            // Capture full stack trace
+            StringWriter sw = new StringWriter();
+            cause.printStackTrace(new PrintWriter(sw));
+            updateFhirStatus(jooqCfg, bundle.interactionId(), "Failed", sw.toString(), replayId, bundle.bundleId());
+            return null;
+        }, replayExecutor);
+    }
+
+    /**
+     * Reads the next {@code pageSize} pending bundles of {@code replayId} after
+     * the given key, together with their failure details and the payloads to
+     * resend, in three queries.
+     */
+    @SuppressWarnings("unchecked")
+    List<ReplayCandidate> nextPage(String replayId, String afterInteractionId, String afterBundleId) {
+        final var details = FHIR_REPLAY_DETAILS;
+        final var request = SAT_INTERACTION_FHIR_REQUEST;
+        Condition pending = details.REPLAY_MASTER_ID.eq(replayId).and(details.REPLAY_STATUS.isNull());
+        if (afterInteractionId != null) {
+            pending = pending.and(DSL.row(details.HUB_INTERACTION_ID, details.BUNDLE_ID)
+                    .gt(afterInteractionId, afterBundleId));
+        }
+        final List<Record2<String, String>> keys = primaryDslContext
+                .select(details.HUB_INTERACTION_ID, details.BUNDLE_ID)
+                .from(details)
+                .where(pending)
+                .orderBy(details.HUB_INTERACTION_ID, details.BUNDLE_ID)
+                .limit(Math.max(1, replayConfig.getPageSize()))
+                .fetch();
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        final Set<String> interactionIds = keys.stream().map(Record2::value1).collect(Collectors.toSet());
+
+        // Same choice as get_fhir_bundles_to_replay: a replay error wins over the original response error
+        final String replayError = Nature.FORWARDED_HTTP_RESPONSE_REPLAY_ERROR.getDescription();
+        final Map<String, Record> failures = new HashMap<>();
+        primaryDslContext
+                .select(request.HUB_INTERACTION_ID, request.BUNDLE_ID, request.TENANT_NAME, request.SOURCE_TYPE,
+                        request.URI, request.GROUP_HUB_INTERACTION_ID, request.SOURCE_HUB_INTERACTION_ID,
+                        request.NATURE)
+                .from(request)
+                .where(request.HUB_INTERACTION_ID.in(interactionIds))
+                .and(request.TO_STATE.eq(State.FAIL.name()))
+                .and(request.NATURE.in(Nature.FORWARDED_HTTP_RESPONSE_ERROR.getDescription(), replayError))
+                .fetch()
+                .forEach(row -> failures.merge(row.value1() + "|" + row.value2(), row,
+                        (current, other) -> replayError.equals(other.get(request.NATURE)) ? other : current));
+
+        final Map<String, JsonNode> payloads = new HashMap<>();
+        primaryDslContext
+                .select(request.HUB_INTERACTION_ID, request.PAYLOAD)
+                .from(request)
+                .where(request.HUB_INTERACTION_ID.in(interactionIds))
+                .and(request.NATURE.eq(Nature.FORWARD_HTTP_REQUEST.getDescription()))
+                .fetch()
+                .forEach(row -> payloads.putIfAbsent(row.value1(), row.value2()));
+
+        final List<ReplayCandidate> page = new ArrayList<>(keys.size());
+        for (Record2<String, String> key : keys) {
+            final String interactionId = key.value1();
+            final Record failure = failures.get(interactionId + "|" + key.value2());
+            final String source = failure != null ? failure.get(request.SOURCE_TYPE) : null;
+            final boolean csv = SourceType.CSV.name().equals(source);
+            final JsonNode payload = payloads.get(interactionId);
+            if (payload == null || payload.isEmpty()) {
                 LOG.warn("No NYEC payload found for interactionId={}", interactionId);
-                return Collections.emptyMap();
             }
-            Map<String, Object> payloadMap = Configuration.objectMapper.convertValue(responseJson, Map.class);
-            LOG.info("Fetched NYEC payload for interactionId={} | keys={}", interactionId, payloadMap.keySet());
-            return payloadMap;
-        } catch (Exception e) {
-            LOG.error("Error fetching NYEC payload for interactionId={}: {}", interactionId, e.getMessage(), e);
-            throw new RuntimeException("Failed to fetch NYEC payload for interactionId=" + interactionId, e);
+            page.add(new ReplayCandidate(
+                    key.value2(),
+                    interactionId,
+                    failure != null ? failure.get(request.TENANT_NAME) : null,
+                    source,
+                    failure != null ? failure.get(request.URI) : null,
+                    csv ? failure.get(request.GROUP_HUB_INTERACTION_ID) : null,
+                    csv ? failure.get(request.SOURCE_HUB_INTERACTION_ID) : null,
+                    payload == null || payload.isEmpty()
+                            ? Collections.emptyMap()
+                            : Configuration.objectMapper.convertValue(payload, Map.class)));
         }
+        return page;
     }
 
     /**
@@ -261,7 +413,13 @@ public class FhirReplayService {
         }
     }
 
-    private Map<String, Object> getBundlesToReplay(final org.jooq.Configuration jooqCfg,
+    /**
+     * Records the replay candidates in {@code fhir_replay_details} and returns
+     * the procedure's summary. Only {@code bundle_count} and
+     * {@code replay_master_id} are read from it, directly on the tree, so the
+     * {@code bundles} array is never converted.
+     */
+    private JsonNode getBundlesToReplay(final org.jooq.Configuration jooqCfg,
             final String interactionId,
             final OffsetDateTime startDate,
             final OffsetDateTime endDate,String teanantId) {
@@ -283,20 +441,18 @@ public class FhirReplayService {
             if (responseJson == null || responseJson.isEmpty()) {
                 LOG.warn("FHIR-REPLAY No bundles found for interactionId={} | startDate={} | endDate={}",
                         interactionId, startDate, endDate);
-                return Map.of(
-                        "bundle_count", 0,
-                        "replay_master_id", interactionId,
-                        "bundles", List.of());
+                final var empty = Configuration.objectMapper.createObjectNode()
+                        .put("bundle_count", 0)
+                        .put("replay_master_id", interactionId);
+                empty.putArray("bundles");
+                return empty;
             }
 
-            // Convert JsonNode → Map directly
-            final Map<String, Object> response = Configuration.objectMapper.convertValue(responseJson, Map.class);
-
             LOG.info("FHIR-REPLAY Found {} bundles to replay for replay_master_id={}",
-                    response.getOrDefault("bundle_count", 0),
-                    response.getOrDefault("replay_master_id", interactionId));
+                    responseJson.path("bundle_count").asInt(0),
+                    responseJson.path("replay_master_id").asText(interactionId));
 
-            return response;
+            return responseJson;
 
         } catch (Exception e) {
             LOG.error("FHIR-REPLAY Error fetching bundles to replay for interactionId={} : {}", interactionId,
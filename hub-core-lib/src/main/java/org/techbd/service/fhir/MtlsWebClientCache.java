@@ -0,0 +1,202 @@
+package org.techbd.service.fhir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.techbd.config.CoreAppConfig.MtlsClientCacheConfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Ready-to-use mTLS {@link WebClient}s for forwarding to the scoring engine,
+ * keyed by tenant, strategy and base URL.
+ * <p>
+ * Building a client means fetching the key and certificate, parsing them into
+ * an {@link SslContext} and creating a Reactor client; a cached client also
+ * keeps its pooled connections, so later forwards skip the TLS handshake. An
+ * entry is reloaded when its TTL expires or when the
+ * {@link CredentialSource#version() version} of its source changes. If the
+ * reloaded credentials are unchanged the client is kept; otherwise a new one
+ * is built and the old connection pool is disposed after a grace period so
+ * in-flight requests can finish.
+ * <p>
+ * Hits, misses, refreshes and rotations are counted in {@link #stats()} and
+ * published to the global Micrometer registry as
+ * {@code techbd.mtls.webclient.cache}.
+ */
+public class MtlsWebClientCache implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MtlsWebClientCache.class);
+    private static final String METRIC = "techbd.mtls.webclient.cache";
+
+    /** PEM encoded client certificate chain and private key. */
+    public record Credentials(String cert, String key) {
+    }
+
+    /** Where an entry's credentials come from. */
+    public interface CredentialSource {
+        Credentials load() throws Exception;
+
+        /**
+         * A cheap marker that changes when the credentials change, such as
+         * file modification times; {@code null} when only the TTL applies.
+         */
+        default String version() throws Exception {
+            return null;
+        }
+    }
+
+    public record Stats(long hits, long misses, long refreshes, long rotations, int size) {
+    }
+
+    private record Entry(WebClient webClient, ConnectionProvider connectionProvider, String fingerprint,
+            String version, long expiresAtNanos) {
+    }
+
+    private final MtlsClientCacheConfig config;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+    private final Outcome hits = new Outcome("hit");
+    private final Outcome misses = new Outcome("miss");
+    private final Outcome refreshes = new Outcome("refresh");
+    private final Outcome rotations = new Outcome("rotation");
+
+    public MtlsWebClientCache(MtlsClientCacheConfig config) {
+        this.config = config;
+        Metrics.gauge(METRIC + ".size", entries, Map::size);
+    }
+
+    /**
+     * Returns the cached client for {@code tenantId}, {@code strategy} and
+     * {@code baseUrl}, building or reloading it from {@code source} when
+     * needed.
+     */
+    public WebClient get(String tenantId, String strategy, String baseUrl, CredentialSource source) throws Exception {
+        final String cacheKey = strategy + "|" + tenantId + "|" + baseUrl;
+        final Entry current = entries.get(cacheKey);
+        if (current != null && System.nanoTime() < current.expiresAtNanos()
+                && Objects.equals(current.version(), source.version())) {
+            hits.increment();
+            return current.webClient();
+        }
+        synchronized (locks.computeIfAbsent(cacheKey, key -> new Object())) {
+            final Entry entry = entries.get(cacheKey);
+            final String version = source.version();
+            if (entry != null && System.nanoTime() < entry.expiresAtNanos()
+                    && Objects.equals(entry.version(), version)) {
+                hits.increment();
+                return entry.webClient();
+            }
+            final Credentials credentials = source.load();
+            final String fingerprint = fingerprint(credentials);
+            if (entry != null && entry.fingerprint().equals(fingerprint)) {
+                refreshes.increment();
+                entries.put(cacheKey, new Entry(entry.webClient(), entry.connectionProvider(), fingerprint, version,
+                        expiresAt()));
+                return entry.webClient();
+            }
+            if (entry == null) {
+                misses.increment();
+            } else {
+                rotations.increment();
+                LOG.info("mTLS credentials changed for {}, replacing its client", cacheKey);
+                retire(entry);
+            }
+            final Entry created = create(cacheKey, baseUrl, credentials, fingerprint, version);
+            entries.put(cacheKey, created);
+            return created.webClient();
+        }
+    }
+
+    /** Drops the entry so the next request reloads its credentials. */
+    public void invalidate(String tenantId, String strategy, String baseUrl) {
+        final Entry entry = entries.remove(strategy + "|" + tenantId + "|" + baseUrl);
+        if (entry != null) {
+            retire(entry);
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(hits.count.get(), misses.count.get(), refreshes.count.get(), rotations.count.get(),
+                entries.size());
+    }
+
+    @Override
+    public void close() {
+        entries.values().forEach(entry -> entry.connectionProvider().dispose());
+        entries.clear();
+    }
+
+    private Entry create(String cacheKey, String baseUrl, Credentials credentials, String fingerprint,
+            String version) throws Exception {
+        final SslContext sslContext = SslContextBuilder.forClient()
+                .keyManager(new ByteArrayInputStream(credentials.cert().getBytes(StandardCharsets.UTF_8)),
+                        new ByteArrayInputStream(credentials.key().getBytes(StandardCharsets.UTF_8)))
+                .build();
+        final ConnectionProvider connectionProvider = ConnectionProvider.builder("mtls-" + cacheKey)
+                .maxConnections(config.getMaxConnections())
+                .maxIdleTime(Duration.ofSeconds(config.getMaxIdleSeconds()))
+                .evictInBackground(Duration.ofSeconds(config.getMaxIdleSeconds()))
+                .build();
+        final HttpClient httpClient = HttpClient.create(connectionProvider)
+                .secure(sslSpec -> sslSpec.sslContext(sslContext));
+        final WebClient webClient = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        LOG.info("Built mTLS client for {}", cacheKey);
+        return new Entry(webClient, connectionProvider, fingerprint, version, expiresAt());
+    }
+
+    private void retire(Entry entry) {
+        entry.connectionProvider().disposeLater()
+                .delaySubscription(Duration.ofSeconds(config.getRetiredClientGraceSeconds()))
+                .onErrorResume(e -> Mono.empty())
+                .subscribe();
+    }
+
+    private long expiresAt() {
+        return System.nanoTime() + TimeUnit.SECONDS.toNanos(config.getTtlSeconds());
+    }
+
+    /** Counts one cache outcome for {@link #stats()} and the global registry. */
+    private static final class Outcome {
+        private final AtomicLong count = new AtomicLong();
+        private final Counter counter;
+
+        Outcome(String result) {
+            this.counter = Metrics.counter(METRIC, "result", result);
+        }
+
+        void increment() {
+            count.incrementAndGet();
+            counter.increment();
+        }
+    }
+
+    private static String fingerprint(Credentials credentials) throws Exception {
+        final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update(credentials.cert().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(credentials.key().getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
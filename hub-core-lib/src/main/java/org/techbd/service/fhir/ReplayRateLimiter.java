@@ -0,0 +1,44 @@
+package org.techbd.service.fhir;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket limiting how fast replayed bundles are sent to the data lake.
+ * Tokens refill continuously at {@code permitsPerSecond} up to {@code burst};
+ * a rate of 0 or less disables the limit.
+ */
+final class ReplayRateLimiter {
+
+    private final double permitsPerNano;
+    private final double capacity;
+    private double tokens;
+    private long refilledAt;
+
+    ReplayRateLimiter(double permitsPerSecond, int burst) {
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = Math.max(1, burst);
+        this.tokens = capacity;
+        this.refilledAt = System.nanoTime();
+    }
+
+    /** Blocks until a permit is available. */
+    void acquire() throws InterruptedException {
+        if (permitsPerNano <= 0) {
+            return;
+        }
+        while (true) {
+            final long waitNanos;
+            synchronized (this) {
+                final long now = System.nanoTime();
+                tokens = Math.min(capacity, tokens + (now - refilledAt) * permitsPerNano);
+                refilledAt = now;
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return;
+                }
+                waitNanos = (long) Math.ceil((1 - tokens) / permitsPerNano);
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
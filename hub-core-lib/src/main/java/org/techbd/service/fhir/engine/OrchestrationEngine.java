@@ -8,19 +8,20 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpRequest.BodyPublishers;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.text.StringEscapeUtils;
@@ -31,23 +32,33 @@ import org.hl7.fhir.common.hapi.validation.support.NpmPackageValidationSupport;
 import org.hl7.fhir.common.hapi.validation.support.SnapshotGeneratingValidationSupport;
 import org.hl7.fhir.common.hapi.validation.support.ValidationSupportChain;
 import org.hl7.fhir.common.hapi.validation.validator.FhirInstanceValidator;
+import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.r4.model.Bundle;
 import org.hl7.fhir.r4.model.OperationOutcome;
 import org.hl7.fhir.r4.model.OperationOutcome.IssueSeverity;
 import org.hl7.fhir.r4.model.OperationOutcome.OperationOutcomeIssueComponent;
+import org.hl7.fhir.r4.model.StructureDefinition;
 import org.springframework.stereotype.Component;
-import org.techbd.config.Configuration;
 import org.techbd.config.CoreAppConfig;
+import org.techbd.config.CoreAppConfig.BundleEntryValidationConfig;
 import org.techbd.config.CoreAppConfig.FhirV4Config;
+import org.techbd.config.CoreAppConfig.IgPackageLoadingConfig;
+import org.techbd.config.CoreAppConfig.ValidationResultCacheConfig;
+import org.techbd.config.CoreAppConfig.ValidatorRegistryConfig;
 import org.techbd.exceptions.ErrorCode;
 import org.techbd.exceptions.JsonValidationException;
+import org.techbd.service.fhir.validation.BundleEntryValidationExecutor;
 import org.techbd.service.fhir.validation.FhirBundleValidator;
+import org.techbd.service.fhir.validation.FhirValidatorRegistry;
+import org.techbd.service.fhir.validation.IgPackageSnapshotCache;
 import org.techbd.service.fhir.validation.PostPopulateSupport;
 import org.techbd.service.fhir.validation.PrePopulateSupport;
+import org.techbd.service.fhir.validation.ValidationResultCache;
 import org.techbd.util.AppLogger;
 import org.techbd.util.JsonText.JsonTextSerializer;
 import org.techbd.util.TemplateLogger;
 import org.techbd.util.fhir.CoreFHIRUtil;
+import org.techbd.util.fhir.ParsedBundle;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -56,6 +67,9 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.context.support.DefaultProfileValidationSupport;
+import ca.uhn.fhir.context.support.IValidationSupport;
+import ca.uhn.fhir.context.support.ValidationSupportContext;
+import ca.uhn.fhir.parser.DataFormatException;
 import ca.uhn.fhir.parser.LenientErrorHandler;
 import ca.uhn.fhir.validation.FhirValidator;
 import io.opentelemetry.api.GlobalOpenTelemetry;
@@ -74,7 +88,8 @@ import lombok.Setter;
  * <p>
  * This class also includes a cache for {@link ValidationEngine} instances to
  * ensure that only one instance of
- * each type is used for a given FHIR profile URL.
+ * each type is used for a given FHIR profile URL. The cached engines are
+ * shared by concurrent requests and keep no per-request state.
  * <p>
  * Usage example:
  * 
@@ -151,7 +166,7 @@ public class OrchestrationEngine {
     public OrchestrationEngine(final CoreAppConfig coreAppConfig, AppLogger appLogger) {
         this.sessions = new ConcurrentHashMap<>();
         this.coreAppConfig = coreAppConfig;
-        this.validationEngineCache = new HashMap<>();
+        this.validationEngineCache = new ConcurrentHashMap<>();
         this.tracer = GlobalOpenTelemetry.get().getTracer("OrchestrationEngine");
         LOG = appLogger.getLogger(OrchestrationEngine.class);
         this.appLogger = appLogger;
@@ -203,6 +218,11 @@ public class OrchestrationEngine {
                             .withTracer(tracer)
                             .withAppLogger(appLogger)
                             .withTemplateLogger(LOG)
+                            .withValidatorRegistryConfig(coreAppConfig.getValidatorRegistry())
+                            .withIgPackageLoadingConfig(coreAppConfig.getIgPackageLoading())
+                            .withValidationResultCacheConfig(coreAppConfig.getValidationResultCache(),
+                                    coreAppConfig.getVersion())
+                            .withBundleEntryValidationConfig(coreAppConfig.getBundleEntryValidation())
                             .build();
                 case HL7_EMBEDDED:
                     return new Hl7ValidationEngineEmbedded.Builder().build();
@@ -278,26 +298,53 @@ public class OrchestrationEngine {
         Observability observability();
 
         ValidationResult validate(@NotNull final String payload, final String interactionId , final String requestedIgVersion);
+
+        /**
+         * Validates a payload that may already have been parsed by an earlier
+         * stage. Engines that can reuse the parsed forms override this.
+         */
+        default ValidationResult validate(@NotNull final ParsedBundle bundle, final String interactionId,
+                final String requestedIgVersion) {
+            return validate(bundle.payload(), interactionId, requestedIgVersion);
+        }
     }
 
     @Getter
     public static class HapiValidationEngine implements OrchestrationEngine.ValidationEngine {
+        /** Base packages loaded alongside a SHIN-NY package requested by IG version. */
+        private static final Map<String, String> VERSIONED_BASE_PACKAGES = Map.of(
+                "us-core", "ig-packages/fhir-v4/us-core/stu-7.0.0",
+                "sdoh", "ig-packages/fhir-v4/sdoh-clinicalcare/stu-2.2.0",
+                "uv-sdc", "ig-packages/fhir-v4/uv-sdc/stu-3.0.0");
+
         private final Observability observability;
         private final Instant engineInitAt = Instant.now();
         private final Instant engineConstructedAt;
-        private String fhirProfileUrl;
+        /** Defaults reported when a request fails before a validator is resolved. */
+        private final String fhirProfileUrl;
         private final FhirContext fhirContext;
         private final Map<String, FhirV4Config> igPackages;
-        private String igVersion;
+        private final String igVersion;
         private final Tracer tracer;
         private final AppLogger appLogger;
         private final TemplateLogger LOG;
         private final String interactionId;
         private final List<FhirBundleValidator> fhirBundleValidators;
+        private final FhirValidatorRegistry validatorRegistry;
+        private final IgPackageLoadingConfig igPackageLoadingConfig;
+        private final IgPackageSnapshotCache snapshotCache;
+        /** Outcomes of previously validated payloads; {@code null} when disabled. */
+        private final ValidationResultCache resultCache;
+        /** Content hash of each IG package, part of every {@link #resultCache} key. */
+        private final Map<String, String> packageHashes = new ConcurrentHashMap<>();
+        private final BundleEntryValidationConfig entryValidationConfig;
+        /** Validates bundle entries in parallel; {@code null} when disabled. */
+        private final BundleEntryValidationExecutor entryValidationExecutor;
         
         private HapiValidationEngine(final Builder builder) {
             this.fhirProfileUrl = builder.fhirProfileUrl;
             this.fhirContext = FhirContext.forR4();
+            this.fhirContext.setParserErrorHandler(new LenientErrorHandler());
             this.engineConstructedAt = Instant.now();
             this.observability = new Observability(HapiValidationEngine.class.getName(),
                     "HAPI version %s (FHIR version %s)"
@@ -310,9 +357,61 @@ public class OrchestrationEngine {
             this.LOG = builder.LOG;
             this.interactionId = builder.interactionId;
             this.fhirBundleValidators = new ArrayList<>();
+            this.validatorRegistry = createValidatorRegistry(builder.validatorRegistryConfig);
+            this.igPackageLoadingConfig = builder.igPackageLoadingConfig != null ? builder.igPackageLoadingConfig
+                    : new IgPackageLoadingConfig();
+            this.snapshotCache = StringUtils.isNotBlank(igPackageLoadingConfig.getSnapshotCacheDir())
+                    ? new IgPackageSnapshotCache(Path.of(igPackageLoadingConfig.getSnapshotCacheDir()),
+                            igPackageLoadingConfig.getSnapshotCacheMaxMb() * 1024 * 1024,
+                            Duration.ofDays(igPackageLoadingConfig.getSnapshotCacheMaxAgeDays()))
+                    : null;
+            this.resultCache = createResultCache(builder.validationResultCacheConfig, builder.cacheNamespace);
+            this.entryValidationConfig = builder.bundleEntryValidationConfig != null
+                    ? builder.bundleEntryValidationConfig
+                    : new BundleEntryValidationConfig();
+            this.entryValidationExecutor = entryValidationConfig.isEnabled()
+                    ? new BundleEntryValidationExecutor(entryValidationConfig.getThreads() > 0
+                            ? entryValidationConfig.getThreads()
+                            : Runtime.getRuntime().availableProcessors(), entryValidationConfig.getQueueCapacity())
+                    : null;
             initializeFhirBundleValidators();
         }
 
+        /**
+         * Disk entries are kept under a directory per application version, so a
+         * release that ships different IG packages never reads outcomes of the
+         * previous one.
+         */
+        private static ValidationResultCache createResultCache(ValidationResultCacheConfig config, String namespace) {
+            if (config == null || !config.isEnabled()) {
+                return null;
+            }
+            Path diskDir = null;
+            if (StringUtils.isNotBlank(config.getDiskDir())) {
+                diskDir = Path.of(config.getDiskDir(),
+                        StringUtils.isNotBlank(namespace) ? namespace.replaceAll("[^A-Za-z0-9._-]", "_") : "default");
+            }
+            return new ValidationResultCache(config.getMaxMemoryMb() * 1024 * 1024, diskDir,
+                    config.getMaxDiskMb() * 1024 * 1024);
+        }
+
+        private static FhirValidatorRegistry createValidatorRegistry(ValidatorRegistryConfig config) {
+            final var settings = config != null ? config : new ValidatorRegistryConfig();
+            return new FhirValidatorRegistry(Math.max(1, settings.getMaxEntries()),
+                    settings.getMaxMemoryMb() * 1024 * 1024,
+                    key -> {
+                        final var packagePaths = new ArrayList<String>(VERSIONED_BASE_PACKAGES.values());
+                        packagePaths.add(key.packagePath());
+                        return FhirValidatorRegistry.estimatePackageWeight(packagePaths);
+                    });
+        }
+
+        /**
+         * Builds one validator per configured SHIN-NY package. Each build loads
+         * its own set of packages, so the builds run in parallel on up to
+         * {@code ig-package-loading.parallelism} threads (one per core by
+         * default); the resulting list keeps the configured order.
+         */
         private void initializeFhirBundleValidators() {
             Span span = tracer.spanBuilder("OrchestrationEngine.initializeFhirBundleValidators").startSpan();
             try {
@@ -326,24 +425,37 @@ public class OrchestrationEngine {
                     Map<String, String> basePackages = fhirV4Config.getBasePackages();
                     LOG.info("Number of Base Packages to be loaded :{} interactionId :{} ",
                             null == basePackages ? 0 : basePackages.size(), interactionId);
-                    for (Map<String, String> igPackageMap : shinNyPackages.values()) {
-                        String packagePath = igPackageMap.get("package-path");
-                        String profileBaseUrl = igPackageMap.get("profile-base-url");
-                        String igVersion = igPackageMap.get("ig-version");
-
-                        LOG.info("Creating FhirBundleValidator for package: {} interactionId :{}", packagePath,
-                                interactionId);
-
-                        FhirBundleValidator bundleValidator = FhirBundleValidator.builder()
-                                .fhirContext(FhirContext.forR4())
-                                .fhirValidator(initializeFhirValidator(packagePath, basePackages,profileBaseUrl)) // Pass igPackageMap
-                                                                                                   // directly
-                                .baseFHIRUrl(profileBaseUrl)
-                                .packagePath(packagePath)
-                                .igVersion(igVersion)
-                                .build();
-                        fhirBundleValidators.add(bundleValidator);
+                    final var igPackageMaps = new ArrayList<>(shinNyPackages.values());
+                    final int threads = Math.max(1, Math.min(igPackageMaps.size(),
+                            igPackageLoadingConfig.getParallelism() > 0 ? igPackageLoadingConfig.getParallelism()
+                                    : Runtime.getRuntime().availableProcessors()));
+                    final var start = Instant.now();
+                    final AtomicInteger threadCount = new AtomicInteger();
+                    final ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+                        final Thread thread = new Thread(runnable,
+                                "ig-package-loader-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    try {
+                        final List<CompletableFuture<FhirBundleValidator>> builds = igPackageMaps.stream()
+                                .map(igPackageMap -> CompletableFuture.supplyAsync(
+                                        () -> createFhirBundleValidator(igPackageMap, basePackages), executor))
+                                .toList();
+                        for (CompletableFuture<FhirBundleValidator> build : builds) {
+                            fhirBundleValidators.add(build.join());
+                        }
+                    } catch (CompletionException e) {
+                        if (e.getCause() instanceof RuntimeException runtimeException) {
+                            throw runtimeException;
+                        }
+                        throw e;
+                    } finally {
+                        executor.shutdown();
                     }
+                    LOG.info("Created {} FhirBundleValidators on {} threads in {} ms interactionId :{}",
+                            fhirBundleValidators.size(), threads, Duration.between(start, Instant.now()).toMillis(),
+                            interactionId);
                 } else {
                     LOG.warn("No SHIN-NY IG Packages found in igPackages for interaction id :{}", interactionId);
                 }
@@ -352,7 +464,53 @@ public class OrchestrationEngine {
             }
         }
 
+        private FhirBundleValidator createFhirBundleValidator(Map<String, String> igPackageMap,
+                Map<String, String> basePackages) {
+            String packagePath = igPackageMap.get("package-path");
+            String profileBaseUrl = igPackageMap.get("profile-base-url");
+            String igVersion = igPackageMap.get("ig-version");
+
+            LOG.info("Creating FhirBundleValidator for package: {} interactionId :{}", packagePath,
+                    interactionId);
+            final var start = Instant.now();
+            FhirBundleValidator bundleValidator = bundleValidatorBuilder(packagePath, basePackages, profileBaseUrl)
+                    .igVersion(igVersion)
+                    .build();
+            LOG.info("Created FhirBundleValidator for package: {} in {} ms interactionId :{}", packagePath,
+                    Duration.between(start, Instant.now()).toMillis(), interactionId);
+            return bundleValidator;
+        }
+
+        /**
+         * Starts a validator for the given packages. With entry validation
+         * enabled it also gets a second {@link FhirValidator} sharing the same
+         * support chain that validates bundle entries on
+         * {@link #entryValidationExecutor}.
+         */
+        private FhirBundleValidator.FhirBundleValidatorBuilder bundleValidatorBuilder(String packagePath,
+                Map<String, String> basePackages, String profileBaseUrl) {
+            final var instanceValidator = createInstanceValidator(packagePath, basePackages, profileBaseUrl);
+            FhirValidator entryValidator = null;
+            if (entryValidationExecutor != null) {
+                entryValidator = fhirContext.newValidator().registerValidatorModule(instanceValidator);
+                entryValidator.setConcurrentBundleValidation(true);
+                entryValidator.setExecutorService(entryValidationExecutor);
+            }
+            return FhirBundleValidator.builder()
+                    .fhirContext(FhirContext.forR4())
+                    .fhirValidator(fhirContext.newValidator().registerValidatorModule(instanceValidator))
+                    .entryConcurrentValidator(entryValidator)
+                    .baseFHIRUrl(profileBaseUrl)
+                    .packagePath(packagePath);
+        }
+
         public FhirValidator initializeFhirValidator(String shinNyPackagePath, Map<String, String> basePackages, String profileBaseUrl) {
+            return fhirContext.newValidator()
+                    .registerValidatorModule(createInstanceValidator(shinNyPackagePath, basePackages, profileBaseUrl));
+        }
+
+        private FhirInstanceValidator createInstanceValidator(String shinNyPackagePath,
+                Map<String, String> basePackages, String profileBaseUrl) {
             Span span = tracer.spanBuilder("OrchestrationEngine.initializeFhirValidator").startSpan();
             try {
                 LOG.info("Initializing FHIR Validator for package: {} inteactionId :{} ", shinNyPackagePath,
@@ -361,92 +519,199 @@ public class OrchestrationEngine {
                 final var supportChain = new ValidationSupportChain();
                 final var defaultSupport = new DefaultProfileValidationSupport(fhirContext);
 
-                LOG.info("Adding IG Packages to NpmPackageValidationSupport for package : {} interactionId :{} ",
-                        shinNyPackagePath, interactionId);
-                var npmPackageValidationSupport = new NpmPackageValidationSupport(fhirContext);
-
-                // Add shinNyPackage
-                if (shinNyPackagePath != null) {
-                    try {
-                        LOG.info("Adding SHIN-NY IG Package: {} interactionId :{} ", shinNyPackagePath, interactionId);
-                        npmPackageValidationSupport.loadPackageFromClasspath(shinNyPackagePath + "/package.tgz");
-                    } catch (Exception e) {
-                        LOG.error("Failed to load SHIN-NY package: {} interactionId :{}", shinNyPackagePath,
-                                interactionId, e);
-                    }
-                }
-
-                // Add hl7Packages
-                if (basePackages != null && !basePackages.isEmpty()) {
-                    LOG.info("Adding Base Packages... interaction id :{}", interactionId);
-                    for (Map.Entry<String, String> entry : basePackages.entrySet()) {
-                        String packageName = entry.getKey();
-                        String packagePath = entry.getValue();
-                        try {
-                            LOG.info("Adding Base Package: {} at {} interactionId :{} ", packageName, packagePath,
-                                    interactionId);
-                            npmPackageValidationSupport.loadPackageFromClasspath(packagePath + "/package.tgz");
-                        } catch (Exception e) {
-                            LOG.error("Failed to load Base package: {} at {} interactionId: {} ", packageName,
-                                    packagePath, interactionId, e);
-                        }
-                    }
-                } else {
-                    LOG.warn("No Base packages defined for interactionId : {}", interactionId);
-                }
+                final var packageSupport = loadPackages(shinNyPackagePath, basePackages);
 
-                supportChain.addValidationSupport(npmPackageValidationSupport);
+                supportChain.addValidationSupport(packageSupport);
                 supportChain.addValidationSupport(defaultSupport);
                 supportChain.addValidationSupport(new CommonCodeSystemsTerminologyService(fhirContext));
                 supportChain.addValidationSupport(new SnapshotGeneratingValidationSupport(fhirContext));
                 supportChain.addValidationSupport(new InMemoryTerminologyServerValidationSupport(fhirContext));
                 final var prePopulateSupport = new PrePopulateSupport(tracer, appLogger);
                 var prePopulatedValidationSupport = prePopulateSupport.build(fhirContext);
-                prePopulateSupport.addCodeSystems(supportChain, prePopulatedValidationSupport);
+                prePopulateSupport.addCodeSystems(supportChain, fhirContext);
                 supportChain.addValidationSupport(prePopulatedValidationSupport);
                 prePopulatedValidationSupport = null;
                 final var postPopulateSupport = new PostPopulateSupport(tracer, appLogger);
                 postPopulateSupport.update(supportChain,profileBaseUrl);
                 final var cache = new CachingValidationSupport(supportChain);
-                final var instanceValidator = new FhirInstanceValidator(cache);
-                
-                FhirValidator fhirValidator = fhirContext.newValidator().registerValidatorModule(instanceValidator);
-                // fhirValidator.setConcurrentBundleValidation(true);
-                // ExecutorService executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
-                // fhirValidator.setExecutorService(executorService);
-                return fhirValidator;                
+                return new FhirInstanceValidator(cache);
             } finally {
                 span.end();
             }
         }
 
-        private String extractProfileUrl(String jsonString) {
-            try {
-                JsonNode rootNode = Configuration.objectMapper.readTree(jsonString);
-                JsonNode metaNode = rootNode.path("meta").path("profile");
+        /**
+         * Loads the SHIN-NY package followed by the base packages, in
+         * {@link IgPackageSnapshotCache#loadOrder} order. When the
+         * snapshot cache is enabled and holds an entry for exactly these
+         * packages, that entry is used instead; otherwise the packages are
+         * unpacked and, if all of them loaded, written to the cache with their
+         * snapshots generated.
+         */
+        private IValidationSupport loadPackages(String shinNyPackagePath, Map<String, String> basePackages) {
+            if (basePackages == null || basePackages.isEmpty()) {
+                LOG.warn("No Base packages defined for interactionId : {}", interactionId);
+            }
+            final List<String> packagePaths = IgPackageSnapshotCache.loadOrder(shinNyPackagePath,
+                    basePackages != null ? basePackages.values() : null);
 
-                List<String> profileList = Optional.ofNullable(metaNode)
-                        .filter(JsonNode::isArray)
-                        .map(node -> StreamSupport.stream(node.spliterator(), false)
-                                .map(JsonNode::asText)
-                                .collect(Collectors.toList()))
-                        .orElse(List.of());
+            String cacheKey = null;
+            if (snapshotCache != null) {
+                final var start = Instant.now();
+                try {
+                    cacheKey = snapshotCache.key(packagePaths);
+                    final var cached = snapshotCache.load(fhirContext, cacheKey);
+                    if (cached.isPresent()) {
+                        LOG.info("Loaded packages {} from snapshot cache {} in {} ms interactionId :{}",
+                                packagePaths, cacheKey, Duration.between(start, Instant.now()).toMillis(),
+                                interactionId);
+                        return cached.get();
+                    }
+                } catch (Exception e) {
+                    LOG.warn("Snapshot cache unavailable for packages {} interactionId :{}", packagePaths,
+                            interactionId, e);
+                }
+            }
+
+            LOG.info("Adding IG Packages to NpmPackageValidationSupport for package : {} interactionId :{} ",
+                    shinNyPackagePath, interactionId);
+            final var npmPackageValidationSupport = new NpmPackageValidationSupport(fhirContext);
+            boolean allLoaded = true;
+            for (String packagePath : packagePaths) {
+                final var start = Instant.now();
+                try {
+                    LOG.info("Adding IG Package: {} interactionId :{} ", packagePath, interactionId);
+                    npmPackageValidationSupport.loadPackageFromClasspath(packagePath + "/package.tgz");
+                    LOG.info("Loaded IG Package: {} in {} ms interactionId :{}", packagePath,
+                            Duration.between(start, Instant.now()).toMillis(), interactionId);
+                } catch (Exception e) {
+                    allLoaded = false;
+                    LOG.error("Failed to load IG package: {} interactionId :{}", packagePath, interactionId, e);
+                }
+            }
+
+            if (cacheKey != null && allLoaded) {
+                final var start = Instant.now();
+                try {
+                    snapshotCache.store(fhirContext, cacheKey, withSnapshots(npmPackageValidationSupport));
+                    LOG.info("Stored packages {} in snapshot cache {} in {} ms interactionId :{}", packagePaths,
+                            cacheKey, Duration.between(start, Instant.now()).toMillis(), interactionId);
+                } catch (Exception e) {
+                    LOG.warn("Could not write snapshot cache for packages {} interactionId :{}", packagePaths,
+                            interactionId, e);
+                }
+            }
+            return npmPackageValidationSupport;
+        }
+
+        /**
+         * Returns the conformance resources of {@code packageSupport}, with a
+         * snapshot generated for every StructureDefinition that has none.
+         */
+        private List<IBaseResource> withSnapshots(IValidationSupport packageSupport) {
+            final List<IBaseResource> resources = packageSupport.fetchAllConformanceResources();
+            if (resources == null) {
+                return List.of();
+            }
+            final var chain = new ValidationSupportChain(packageSupport,
+                    new DefaultProfileValidationSupport(fhirContext),
+                    new CommonCodeSystemsTerminologyService(fhirContext));
+            final var snapshotGenerator = new SnapshotGeneratingValidationSupport(fhirContext);
+            final var context = new ValidationSupportContext(chain);
+            final List<IBaseResource> result = new ArrayList<>(resources.size());
+            for (IBaseResource resource : resources) {
+                if (resource instanceof StructureDefinition structureDefinition && !structureDefinition.hasSnapshot()) {
+                    try {
+                        final var generated = snapshotGenerator.generateSnapshot(context, structureDefinition,
+                                structureDefinition.getUrl(), null, structureDefinition.getName());
+                        result.add(generated != null ? generated : structureDefinition);
+                        continue;
+                    } catch (Exception e) {
+                        LOG.warn("Snapshot generation failed for {} interactionId :{}", structureDefinition.getUrl(),
+                                interactionId, e);
+                    }
+                }
+                result.add(resource);
+            }
+            return result;
+        }
 
-                return profileList.isEmpty() ? null : profileList.get(0); // Return the first profile URL
+        private String extractProfileUrl(ParsedBundle bundle, String interactionId) {
+            try {
+                bundle.json();
+                return bundle.firstProfileUrl(); // Return the first profile URL
             } catch (Exception e) {
                 LOG.error("Error extracting profile URL from payload for interactionId : {} ", interactionId, e);
                 return StringUtils.EMPTY;
             }
         }
 
+        /**
+         * Returns the validator for an explicitly requested IG version. The
+         * validators built at startup are reused when the requested package is
+         * one of them; other versions come from {@link #validatorRegistry},
+         * which builds each (package, version, base URL) once and evicts the
+         * least recently used when full.
+         */
+        private FhirBundleValidator findVersionedFhirBundleValidator(FhirValidatorRegistry.Key key,
+                String interactionId) {
+            for (FhirBundleValidator validator : fhirBundleValidators) {
+                if (Objects.equals(validator.getPackagePath(), key.packagePath())
+                        && Objects.equals(validator.getBaseFHIRUrl(), key.profileBaseUrl())) {
+                    return validator;
+                }
+            }
+            final var validator = validatorRegistry.getOrBuild(key, k -> {
+                LOG.info("Building FhirBundleValidator for package: {} version: {} interactionId :{}",
+                        k.packagePath(), k.igVersion(), interactionId);
+                return bundleValidatorBuilder(k.packagePath(), VERSIONED_BASE_PACKAGES, k.profileBaseUrl())
+                        .igVersion(k.igVersion())
+                        .build();
+            });
+            final var stats = validatorRegistry.getStats();
+            LOG.info("Validator registry hits={} misses={} builds={} evictions={} size={} avgBuildMs={} interactionId :{}",
+                    stats.hits(), stats.misses(), stats.builds(), stats.evictions(), stats.size(),
+                    stats.averageBuildMillis(), interactionId);
+            return validator;
+        }
+
         public FhirBundleValidator findFhirBundleValidator(String profileUrl) {
             return fhirBundleValidators.stream()
-                    .peek(validator -> System.out.println("Checking Profile URL: " + validator.getFhirProfileUrl()))
+                    .peek(validator -> LOG.debug("Checking Profile URL: {}", validator.getFhirProfileUrl()))
                     .filter(validator -> validator.getFhirProfileUrl().equals(profileUrl))
                     .findFirst()
                     .orElse(null);
         }
 
+        /**
+         * Validates the raw payload on the calling thread, or, when entry
+         * validation is enabled and the bundle is large enough, the parsed
+         * bundle with its entries spread over {@link #entryValidationExecutor}.
+         */
+        private ca.uhn.fhir.validation.ValidationResult validatePayload(ParsedBundle payload,
+                FhirBundleValidator bundleValidator, String interactionId) {
+            final var entryValidator = bundleValidator.getEntryConcurrentValidator();
+            final int entries = entryCount(payload);
+            if (entryValidator == null || entries < entryValidationConfig.getMinEntries()) {
+                return validateAsRawPayload(payload, fhirContext, bundleValidator, interactionId);
+            }
+            final var bundle = payload.bundle(fhirContext);
+            final var result = entryValidationExecutor.validate(
+                    Duration.ofSeconds(entryValidationConfig.getTimeoutSeconds()),
+                    () -> entryValidator.validateWithResult(bundle));
+            LOG.info("Validated {} bundle entries concurrently queueWaitMs={} executionMs={} for interactionId :{}",
+                    result.entries(), result.queueWaitMillis(), result.executionMillis(), interactionId);
+            return result.value();
+        }
+
+        private static int entryCount(ParsedBundle payload) {
+            try {
+                return payload.json().path("entry").size();
+            } catch (JsonProcessingException e) {
+                return 0;
+            }
+        }
+
         // 1. Validate after parsing into Bundle
         public ca.uhn.fhir.validation.ValidationResult validateAsBundle(
                 String payload,
@@ -468,25 +733,83 @@ public class OrchestrationEngine {
                 FhirContext fhirContext,
                 FhirBundleValidator bundleValidator,
                 String interactionId) {
+            return validateAsRawPayload(new ParsedBundle(payload), fhirContext, bundleValidator, interactionId);
+        }
+
+        /**
+         * Validates the payload with a single HAPI parse at most. When the
+         * carrier already holds a HAPI {@link Bundle} (CSV conversion builds
+         * one before encoding it) that instance is validated directly.
+         * Otherwise the raw JSON text is validated, which keeps the validator's
+         * line and column locations; payloads that are not a JSON Bundle are
+         * first rejected from the cached Jackson tree, which with the lenient
+         * parser error handler is all a HAPI parse would reject.
+         *
+         * @throws DataFormatException if the payload is not JSON or not a
+         *                             Bundle
+         */
+        public ca.uhn.fhir.validation.ValidationResult validateAsRawPayload(
+                ParsedBundle bundle,
+                FhirContext fhirContext,
+                FhirBundleValidator bundleValidator,
+                String interactionId) {
 
+            final var parsed = bundle.parsedBundle();
+            if (parsed != null) {
+                LOG.debug("PARSED BUNDLE validation -BEGIN for interactionId:{}", interactionId);
+                final var hapiVR = bundleValidator.getFhirValidator().validateWithResult(parsed);
+                LOG.debug("PARSED BUNDLE validation -END for interactionId:{}", interactionId);
+                return hapiVR;
+            }
             LOG.debug("RAW PAYLOAD validation -BEGIN for interactionId:{}", interactionId);
-            fhirContext.newJsonParser().parseResource(Bundle.class, payload);
-            final var hapiVR = bundleValidator.getFhirValidator().validateWithResult(payload);
-            ;
+            requireBundle(bundle);
+            final var hapiVR = bundleValidator.getFhirValidator().validateWithResult(bundle.payload());
             LOG.debug("RAW PAYLOAD validation -END for interactionId:{}", interactionId);
 
             return hapiVR;
         }
-        
+
+        private static void requireBundle(ParsedBundle bundle) {
+            final JsonNode json;
+            try {
+                json = bundle.json();
+            } catch (JsonProcessingException e) {
+                throw new DataFormatException("Failed to parse JSON encoded FHIR content: " + e.getOriginalMessage(),
+                        e);
+            }
+            final var resourceType = json.path("resourceType");
+            if (resourceType.isMissingNode()) {
+                throw new DataFormatException("Invalid JSON content detected, missing required element: 'resourceType'");
+            }
+            if (!"Bundle".equals(resourceType.asText())) {
+                throw new DataFormatException("Incorrect resource type found, expected \"Bundle\" but found \""
+                        + resourceType.asText() + "\"");
+            }
+        }
+
         @Override
         public OrchestrationEngine.ValidationResult validate(@NotNull final String payload,
                 final String interactionId, final String requestedIgVersion) {
+            return validate(new ParsedBundle(payload), interactionId, requestedIgVersion);
+        }
+        
+        /**
+         * Validates one payload. The engine is shared by all requests, so
+         * everything resolved for this payload (validator, IG version, profile
+         * URL) stays in local variables and is captured by the returned result;
+         * instance state is only read.
+         */
+        @Override
+        public OrchestrationEngine.ValidationResult validate(@NotNull final ParsedBundle payload,
+                final String interactionId, final String requestedIgVersion) {
             final var initiatedAt = Instant.now();
             Span span = tracer.spanBuilder("OrchestrationEngine.validate").startSpan();
             try {
+                String resolvedIgVersion = igVersion;
+                String resolvedProfileUrl = fhirProfileUrl;
                 try {
                     LOG.info("VALIDATOR -BEGIN initiated At : {} for interactionid:{}", initiatedAt, interactionId);
-                    String profileUrl = extractProfileUrl(payload);
+                    String profileUrl = extractProfileUrl(payload, interactionId);
                     LOG.info("Extracted Profile URL: {} for interactionId :{} ", profileUrl, interactionId);
                     FhirBundleValidator bundleValidator;
                     String shinNyPackagePath = null;
@@ -506,26 +829,16 @@ public class OrchestrationEngine {
 
                     if (headerIgVersion != null) {
                         LOG.info("requested IG Version : " + headerIgVersion);
-                        Map<String, String> basePackages = Map.of(
-                                "us-core", "ig-packages/fhir-v4/us-core/stu-7.0.0",
-                                "sdoh", "ig-packages/fhir-v4/sdoh-clinicalcare/stu-2.2.0",
-                                "uv-sdc", "ig-packages/fhir-v4/uv-sdc/stu-3.0.0");
-                        
                         String profileBaseUrl = profileUrl;
                         if (profileUrl != null) {
                             int idx = profileUrl.indexOf("/StructureDefinition/");
                             if (idx != -1) {
                                 profileBaseUrl = profileUrl.substring(0, idx);
                             }
-                        }                                
-                        bundleValidator = FhirBundleValidator.builder()
-                                .fhirContext(FhirContext.forR4())
-                                .fhirValidator(initializeFhirValidator(shinNyPackagePath, basePackages, profileBaseUrl))
-                                .baseFHIRUrl(profileBaseUrl)
-                                .packagePath(shinNyPackagePath)
-                                .igVersion(headerIgVersion)
-                                .build();
-                        fhirBundleValidators.add(bundleValidator);
+                        }
+                        bundleValidator = findVersionedFhirBundleValidator(
+                                new FhirValidatorRegistry.Key(shinNyPackagePath, headerIgVersion, profileBaseUrl),
+                                interactionId);
                     } else {
                         bundleValidator = findFhirBundleValidator(profileUrl);
                     }
@@ -538,19 +851,48 @@ public class OrchestrationEngine {
                                 "Bundle validated against version :{} using package at path: {} for interactionId :{} ",
                                 bundleValidator.getIgVersion(), bundleValidator.getPackagePath(), interactionId);
                     }
-                    this.igVersion = bundleValidator.getIgVersion();
-                                        this.fhirProfileUrl = bundleValidator.getFhirProfileUrl();
-                    fhirContext.setParserErrorHandler(new LenientErrorHandler());
-
-                    final var hapiVR = validateAsRawPayload(payload, fhirContext, bundleValidator, interactionId);
+                    resolvedIgVersion = bundleValidator.getIgVersion();
+                    resolvedProfileUrl = bundleValidator.getFhirProfileUrl();
+                    final var outcomeIgVersion = resolvedIgVersion;
+                    final var outcomeProfileUrl = resolvedProfileUrl;
+
+                    final var cacheKey = resultCache != null
+                            ? new ValidationResultCache.Key(ValidationResultCache.sha256(payload.payload()),
+                                    bundleValidator.getPackagePath(),
+                                    packageHashes.computeIfAbsent(bundleValidator.getPackagePath(),
+                                            ValidationResultCache::packageSha256),
+                                    outcomeIgVersion, outcomeProfileUrl)
+                            : null;
+                    final var cached = cacheKey != null ? resultCache.get(cacheKey) : null;
+                    final ca.uhn.fhir.validation.ValidationResult hapiVR;
+                    final String cachedOutcome;
+                    final boolean valid;
+                    if (cached != null) {
+                        hapiVR = null;
+                        cachedOutcome = cached.operationOutcome();
+                        valid = cached.valid();
+                        final var stats = resultCache.stats();
+                        LOG.info("VALIDATOR -CACHE HIT for interactionId:{} hitRate={} size={}", interactionId,
+                                stats.hitRate(), stats.size());
+                    } else {
+                        hapiVR = validatePayload(payload, bundleValidator, interactionId);
+                        valid = hapiVR.isSuccessful();
+                        cachedOutcome = cacheKey != null ? FhirContext.forR4Cached().newJsonParser()
+                                .encodeResourceToString(hapiVR.toOperationOutcome()) : null;
+                        if (cacheKey != null) {
+                            resultCache.put(cacheKey, new ValidationResultCache.Entry(cachedOutcome, valid));
+                        }
+                    }
                     final var completedAt = Instant.now();
                     LOG.info("VALIDATOR -END completed at :{} ms for interactionId:{} with ig version :{}",
-                            Duration.between(initiatedAt, completedAt).toMillis(), interactionId, igVersion);
-                    this.igVersion = bundleValidator.getIgVersion();  
+                            Duration.between(initiatedAt, completedAt).toMillis(), interactionId, outcomeIgVersion);
                     return new OrchestrationEngine.ValidationResult() {
                         @Override
                         @JsonSerialize(using = JsonTextSerializer.class)
                         public String getOperationOutcome() {
+                            if (cachedOutcome != null) {
+                                return cachedOutcome;
+                            }
                             final var jp = FhirContext.forR4Cached().newJsonParser();
                             OperationOutcome outcome = (OperationOutcome) hapiVR.toOperationOutcome();
                             return jp.encodeResourceToString(outcome);
@@ -558,21 +900,21 @@ public class OrchestrationEngine {
 
                         @Override
                         public boolean isValid() {
-                            return hapiVR.isSuccessful();
+                            return valid;
                         }
 
                         @Override
                         public String getProfileUrl() {
                             LOG.info("Profile url in final outcome :{}  for interactionId :{} ",
-                                    HapiValidationEngine.this.fhirProfileUrl, interactionId);
-                            return HapiValidationEngine.this.fhirProfileUrl;
+                                    outcomeProfileUrl, interactionId);
+                            return outcomeProfileUrl;
                         }
 
                         @Override
                         public String getIgVersion() {
-                            LOG.info("IG version in final outcome :{}    for interactionId :{} ", igVersion,
+                            LOG.info("IG version in final outcome :{}    for interactionId :{} ", outcomeIgVersion,
                                     interactionId);
-                            return igVersion;
+                            return outcomeIgVersion;
                         }
 
                         @Override
@@ -593,6 +935,8 @@ public class OrchestrationEngine {
 
                 } catch (final Exception e) {
                     final var completedAt = Instant.now();
+                    final var outcomeIgVersion = resolvedIgVersion;
+                    final var outcomeProfileUrl = resolvedProfileUrl;
                     return new OrchestrationEngine.ValidationResult() {
                         @Override
                         @JsonSerialize(using = JsonTextSerializer.class)
@@ -613,12 +957,12 @@ public class OrchestrationEngine {
 
                         @Override
                         public String getProfileUrl() {
-                            return HapiValidationEngine.this.fhirProfileUrl;
+                            return outcomeProfileUrl;
                         }
 
                         @Override
                         public String getIgVersion() {
-                            return igVersion;
+                            return outcomeIgVersion;
                         }
 
                         @Override
@@ -651,6 +995,11 @@ public class OrchestrationEngine {
             private Tracer tracer;
             private AppLogger appLogger;
             private TemplateLogger LOG;
+            private ValidatorRegistryConfig validatorRegistryConfig;
+            private IgPackageLoadingConfig igPackageLoadingConfig;
+            private ValidationResultCacheConfig validationResultCacheConfig;
+            private String cacheNamespace;
+            private BundleEntryValidationConfig bundleEntryValidationConfig;
 
             public Builder withInteractionId(@NotNull final String interactionId) {
                 this.interactionId = interactionId;
@@ -662,6 +1011,28 @@ public class OrchestrationEngine {
                 return this;
             }
 
+            public Builder withValidatorRegistryConfig(final ValidatorRegistryConfig validatorRegistryConfig) {
+                this.validatorRegistryConfig = validatorRegistryConfig;
+                return this;
+            }
+
+            public Builder withIgPackageLoadingConfig(final IgPackageLoadingConfig igPackageLoadingConfig) {
+                this.igPackageLoadingConfig = igPackageLoadingConfig;
+                return this;
+            }
+
+            public Builder withValidationResultCacheConfig(final ValidationResultCacheConfig config,
+                    final String cacheNamespace) {
+                this.validationResultCacheConfig = config;
+                this.cacheNamespace = cacheNamespace;
+                return this;
+            }
+
+            public Builder withBundleEntryValidationConfig(final BundleEntryValidationConfig config) {
+                this.bundleEntryValidationConfig = config;
+                return this;
+            }
+
             public Builder withIgPackages(@NotNull final Map<String, FhirV4Config> igPackages) {
                 this.igPackages = igPackages;
                 return this;
@@ -930,7 +1301,7 @@ public class OrchestrationEngine {
     public static class OrchestrationSession {
         private final String sessionId;
         private final Device device;
-        private final List<String> payloads;
+        private final List<ParsedBundle> payloads;
         private final List<ValidationEngine> validationEngines;
         private final List<ValidationResult> validationResults;
         private final String fhirProfileUrl;
@@ -950,7 +1321,7 @@ public class OrchestrationEngine {
         }
 
         public List<String> getPayloads() {
-            return payloads;
+            return payloads.stream().map(ParsedBundle::payload).toList();
         }
 
         public List<ValidationEngine> getValidationEngines() {
@@ -982,7 +1353,7 @@ public class OrchestrationEngine {
         }
 
         public void validate() {
-            for (final String payload : payloads) {
+            for (final ParsedBundle payload : payloads) {
                 for (final ValidationEngine engine : validationEngines) {
                     final ValidationResult result = engine.validate(payload, interactionId, requestedIgVersion);
                     validationResults.add(result);
@@ -992,7 +1363,7 @@ public class OrchestrationEngine {
 
         public static class Builder {
             private final OrchestrationEngine engine;
-            private final List<String> payloads = new ArrayList<>();
+            private final List<ParsedBundle> payloads = new ArrayList<>();
             private final List<ValidationEngine> validationEngines = new ArrayList<>();
             private Device device = Device.INSTANCE;
             private String fhirProfileUrl;
@@ -1020,7 +1391,12 @@ public class OrchestrationEngine {
             }
 
             public Builder withPayloads(@NotNull final List<String> payloads) {
-                this.payloads.addAll(payloads);
+                payloads.forEach(payload -> this.payloads.add(new ParsedBundle(payload)));
+                return this;
+            }
+
+            public Builder withParsedBundles(@NotNull final List<ParsedBundle> bundles) {
+                this.payloads.addAll(bundles);
                 return this;
             }
 
@@ -0,0 +1,198 @@
+package org.techbd.service.fhir.validation;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Threads on which HAPI validates the entries of one bundle in parallel
+ * ({@code FhirValidator.setConcurrentBundleValidation}).
+ * <p>
+ * The pool is shared by all requests and separate from
+ * {@code asyncTaskExecutor}, so entry validation neither starves nor is
+ * starved by request processing. Its queue is bounded; when it is full the
+ * submitting request validates the entry itself. Each call to
+ * {@link #validate} has a deadline. When it passes, the entries of the call
+ * are cancelled, running ones with an interrupt, which also releases the
+ * caller waiting on them; an entry dequeued after the deadline is dropped
+ * without running. The call then fails instead of holding threads for a
+ * request that has already run out of time.
+ * <p>
+ * Time spent waiting in the queue and validating is published to the global
+ * Micrometer registry as {@code techbd.validation.entry.queue-wait} and
+ * {@code techbd.validation.entry.execution}, and returned per call.
+ */
+public class BundleEntryValidationExecutor extends ThreadPoolExecutor {
+
+    private static final Timer QUEUE_WAIT = Metrics.timer("techbd.validation.entry.queue-wait");
+    private static final Timer EXECUTION = Metrics.timer("techbd.validation.entry.execution");
+
+    /** The validation a submitting thread is currently running. */
+    private static final ThreadLocal<Call> CURRENT = new ThreadLocal<>();
+
+    private record Call(long deadlineNanos, AtomicInteger entries, LongAdder queueNanos, LongAdder executionNanos,
+            AtomicBoolean expired, Queue<Future<?>> futures) {
+    }
+
+    /**
+     * Outcome of one {@link #validate} call; the times are summed over its
+     * entries.
+     */
+    public record Result<T>(T value, int entries, long queueWaitMillis, long executionMillis) {
+    }
+
+    /** Cancels the entries of calls whose deadline has passed. */
+    private final ScheduledThreadPoolExecutor deadlines;
+
+    public BundleEntryValidationExecutor(int threads, int queueCapacity) {
+        super(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(Math.max(1, queueCapacity)),
+                threadFactory(), new ThreadPoolExecutor.CallerRunsPolicy());
+        this.deadlines = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, "fhir-entry-validation-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.deadlines.setRemoveOnCancelPolicy(true);
+    }
+
+    private static ThreadFactory threadFactory() {
+        final AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new EntryThread(runnable, "fhir-entry-validation-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class EntryThread extends Thread {
+        EntryThread(Runnable runnable, String name) {
+            super(runnable, name);
+        }
+    }
+
+    /**
+     * Runs {@code validation}, which submits the entries of one bundle to this
+     * executor, within {@code timeout}.
+     *
+     * @throws IllegalStateException if entries were cancelled because the
+     *                               timeout passed
+     */
+    public <T> Result<T> validate(Duration timeout, Supplier<T> validation) {
+        final Call call = new Call(System.nanoTime() + timeout.toNanos(), new AtomicInteger(), new LongAdder(),
+                new LongAdder(), new AtomicBoolean(), new ConcurrentLinkedQueue<>());
+        final ScheduledFuture<?> deadline = deadlines.schedule(() -> expire(call), timeout.toNanos(),
+                TimeUnit.NANOSECONDS);
+        final Call previous = CURRENT.get();
+        CURRENT.set(call);
+        final T value;
+        try {
+            value = validation.get();
+        } catch (RuntimeException e) {
+            if (call.expired().get()) {
+                throw timedOut(timeout, call);
+            }
+            throw e;
+        } finally {
+            deadline.cancel(false);
+            restore(previous);
+            if (call.expired().get()) {
+                // an entry run here by CallerRunsPolicy may have been interrupted by the cancellation
+                Thread.interrupted();
+            }
+        }
+        if (call.expired().get()) {
+            throw timedOut(timeout, call);
+        }
+        return new Result<>(value, call.entries().get(), TimeUnit.NANOSECONDS.toMillis(call.queueNanos().sum()),
+                TimeUnit.NANOSECONDS.toMillis(call.executionNanos().sum()));
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        final Call call = CURRENT.get();
+        if (call == null) {
+            super.execute(command);
+            return;
+        }
+        call.entries().incrementAndGet();
+        if (command instanceof Future<?> future) {
+            call.futures().add(future);
+            if (call.expired().get()) {
+                future.cancel(true);
+            }
+        }
+        if (Thread.currentThread() instanceof EntryThread) {
+            // a nested submission from an entry runs inline so a full pool cannot wait on itself
+            command.run();
+            return;
+        }
+        super.execute(timed(command, call, System.nanoTime()));
+    }
+
+    @Override
+    protected void terminated() {
+        deadlines.shutdownNow();
+        super.terminated();
+    }
+
+    /**
+     * Cancels every entry of {@code call}, interrupting those running, so that
+     * a caller waiting on them is released at the deadline.
+     */
+    private static void expire(Call call) {
+        call.expired().set(true);
+        for (Future<?> future : call.futures()) {
+            future.cancel(true);
+        }
+    }
+
+    private static Runnable timed(Runnable command, Call call, long submittedAt) {
+        return () -> {
+            final long startedAt = System.nanoTime();
+            QUEUE_WAIT.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+            call.queueNanos().add(startedAt - submittedAt);
+            if (startedAt - call.deadlineNanos() > 0 && command instanceof Future<?> future) {
+                call.expired().set(true);
+                future.cancel(false);
+                return;
+            }
+            final Call previous = CURRENT.get();
+            CURRENT.set(call);
+            try {
+                command.run();
+            } finally {
+                restore(previous);
+                final long elapsed = System.nanoTime() - startedAt;
+                EXECUTION.record(elapsed, TimeUnit.NANOSECONDS);
+                call.executionNanos().add(elapsed);
+            }
+        };
+    }
+
+    private static void restore(Call previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    private static IllegalStateException timedOut(Duration timeout, Call call) {
+        return new IllegalStateException("Validation of %d bundle entries did not finish within %d seconds"
+                .formatted(call.entries().get(), timeout.toSeconds()));
+    }
+}
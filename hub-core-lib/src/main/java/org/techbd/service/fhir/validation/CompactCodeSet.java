@@ -0,0 +1,86 @@
+package org.techbd.service.fhir.validation;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable, sorted and deduplicated set of codes packed into a single byte
+ * array.
+ * <p>
+ * Codes are stored as UTF-8 back to back in {@code data}, with
+ * {@code offsets[i]} marking where code {@code i} starts, and looked up by
+ * binary search. A code costs its length plus four bytes, instead of the
+ * {@code ConceptDefinitionComponent}, {@code CodeType} and {@code String}
+ * objects HAPI would otherwise keep for it.
+ */
+public final class CompactCodeSet {
+
+    private final byte[] data;
+    private final int[] offsets;
+
+    private CompactCodeSet(byte[] data, int[] offsets) {
+        this.data = data;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Builds a set from the given codes; blank entries are ignored and
+     * duplicates are stored once.
+     */
+    public static CompactCodeSet of(Collection<String> codes) {
+        final byte[][] encoded = codes.stream()
+                .filter(code -> code != null && !code.isBlank())
+                .map(code -> code.getBytes(StandardCharsets.UTF_8))
+                .sorted(Arrays::compareUnsigned)
+                .toArray(byte[][]::new);
+        int count = 0;
+        int totalBytes = 0;
+        for (int i = 0; i < encoded.length; i++) {
+            if (i == 0 || !Arrays.equals(encoded[i], encoded[i - 1])) {
+                encoded[count++] = encoded[i];
+                totalBytes += encoded[i].length;
+            }
+        }
+        final byte[] data = new byte[totalBytes];
+        final int[] offsets = new int[count + 1];
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            offsets[i] = position;
+            System.arraycopy(encoded[i], 0, data, position, encoded[i].length);
+            position += encoded[i].length;
+        }
+        offsets[count] = position;
+        return new CompactCodeSet(data, offsets);
+    }
+
+    public boolean contains(String code) {
+        if (code == null) {
+            return false;
+        }
+        final byte[] key = code.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = size() - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int comparison = Arrays.compareUnsigned(data, offsets[mid], offsets[mid + 1], key, 0, key.length);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    /** Approximate heap used by the packed arrays. */
+    public long sizeInBytes() {
+        return data.length + (long) offsets.length * Integer.BYTES;
+    }
+}
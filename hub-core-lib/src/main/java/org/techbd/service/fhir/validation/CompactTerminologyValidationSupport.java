@@ -0,0 +1,119 @@
+package org.techbd.service.fhir.validation;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.techbd.util.fhir.FileUtils;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.support.ConceptValidationOptions;
+import ca.uhn.fhir.context.support.IValidationSupport;
+import ca.uhn.fhir.context.support.LookupCodeRequest;
+import ca.uhn.fhir.context.support.ValidationSupportContext;
+
+/**
+ * Answers code validation for the large reference code systems (SNOMED CT,
+ * ICD-10-CM, LOINC, CPT, HCPCS) from {@link CompactCodeSet}s instead of HAPI
+ * {@code CodeSystem} resources.
+ * <p>
+ * The code sets read from the {@code .psv} reference files are loaded once per
+ * process and shared by every validator chain, so building another validator
+ * (one per SHIN-NY package and per requested IG version) no longer loads
+ * another copy of the terminology. Each chain gets its own lightweight
+ * instance that combines the shared codes with any concepts the chain's IG
+ * packages already define for the same system.
+ * <p>
+ * Only code system membership is answered here. Value set membership is left
+ * to {@code InMemoryTerminologyServerValidationSupport}, which comes back to
+ * {@link #lookupCode} for value sets that include a whole code system.
+ */
+public class CompactTerminologyValidationSupport implements IValidationSupport {
+
+    private static final Map<String, CompactCodeSet> SHARED_CODE_SETS = new ConcurrentHashMap<>();
+
+    /**
+     * Codes accepted for one code system: the shared reference codes, if any,
+     * plus the concepts defined by the chain's own packages.
+     */
+    public record CodeSystemCodes(CompactCodeSet shared, Set<String> local) {
+
+        public CodeSystemCodes {
+            local = local != null ? Set.copyOf(local) : Set.of();
+        }
+
+        public boolean contains(String code) {
+            return (shared != null && shared.contains(code)) || local.contains(code);
+        }
+    }
+
+    private final FhirContext fhirContext;
+    private final Map<String, CodeSystemCodes> codeSystems;
+
+    public CompactTerminologyValidationSupport(FhirContext fhirContext, Map<String, CodeSystemCodes> codeSystems) {
+        this.fhirContext = fhirContext;
+        this.codeSystems = Map.copyOf(codeSystems);
+    }
+
+    /**
+     * Returns the process-wide code set for a classpath {@code .psv} file,
+     * reading the file on first use only.
+     */
+    public static CompactCodeSet sharedCodeSet(String resourcePath) {
+        return SHARED_CODE_SETS.computeIfAbsent(resourcePath,
+                path -> CompactCodeSet.of(FileUtils.readFile(path)));
+    }
+
+    @Override
+    public FhirContext getFhirContext() {
+        return fhirContext;
+    }
+
+    @Override
+    public String getName() {
+        return getClass().getSimpleName();
+    }
+
+    @Override
+    public boolean isCodeSystemSupported(ValidationSupportContext theValidationSupportContext, String theSystem) {
+        return theSystem != null && codeSystems.containsKey(theSystem);
+    }
+
+    @Override
+    public CodeValidationResult validateCode(ValidationSupportContext theValidationSupportContext,
+            ConceptValidationOptions theOptions, String theCodeSystem, String theCode, String theDisplay,
+            String theValueSetUrl) {
+        if (theValueSetUrl != null || theCodeSystem == null) {
+            return null;
+        }
+        final CodeSystemCodes codes = codeSystems.get(theCodeSystem);
+        if (codes == null) {
+            return null;
+        }
+        if (codes.contains(theCode)) {
+            return new CodeValidationResult().setCode(theCode);
+        }
+        return new CodeValidationResult()
+                .setSeverity(IssueSeverity.ERROR)
+                .setMessage("Unknown code '" + theCodeSystem + "#" + theCode + "'");
+    }
+
+    @Override
+    public LookupCodeResult lookupCode(ValidationSupportContext theValidationSupportContext,
+            LookupCodeRequest theLookupCodeRequest) {
+        final String system = theLookupCodeRequest.getSystem();
+        final CodeSystemCodes codes = system != null ? codeSystems.get(system) : null;
+        if (codes == null) {
+            return null;
+        }
+        final String code = theLookupCodeRequest.getCode();
+        if (!codes.contains(code)) {
+            return LookupCodeResult.notFound(system, code);
+        }
+        final LookupCodeResult result = new LookupCodeResult();
+        result.setFound(true);
+        result.setSearchedForSystem(system);
+        result.setSearchedForCode(code);
+        return result;
+    }
+}
@@ -21,6 +21,8 @@ public class FhirBundleValidator {
     private String igVersion;
     private String fhirProfileUrl;
     private FhirValidator fhirValidator;
+    /** Validates bundle entries in parallel; {@code null} unless enabled. */
+    private FhirValidator entryConcurrentValidator;
     private String packagePath;
 
     public String getFhirProfileUrl() {
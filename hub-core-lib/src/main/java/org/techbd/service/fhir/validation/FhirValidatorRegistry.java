@@ -0,0 +1,247 @@
+package org.techbd.service.fhir.validation;
+
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Bounded, concurrent registry of {@link FhirBundleValidator}s built on demand
+ * for a specific IG version.
+ * <p>
+ * Building a validator loads every {@code package.tgz} and the terminology
+ * code systems, which takes seconds and hundreds of MB of heap, so each
+ * {@link Key} is built exactly once: concurrent callers asking for a key that
+ * is being built wait for that build instead of starting their own. A failed
+ * build is not cached, so the next request retries.
+ * <p>
+ * Entries are evicted least-recently-used first once either {@code maxEntries}
+ * or the memory budget {@code maxWeightBytes} is exceeded. The weight of an
+ * entry is an estimate supplied by the weigher (see
+ * {@link #estimatePackageWeight(Collection)}); the most recently added entry is
+ * never evicted, so a single oversized validator is still served.
+ * <p>
+ * Hits, misses, builds, build failures and evictions are counted in
+ * {@link #getStats()} and published to the global Micrometer registry as
+ * {@code techbd.validation.registry}, with the build time, entry count and
+ * estimated weight alongside.
+ */
+public class FhirValidatorRegistry {
+
+    private static final String METRIC = "techbd.validation.registry";
+    private static final Timer BUILD_TIME = Metrics.timer(METRIC + ".build");
+
+    /**
+     * Rough ratio between a compressed {@code package.tgz} and the in-memory
+     * structure definitions, snapshots and caches built from it.
+     */
+    static final long PACKAGE_EXPANSION_FACTOR = 25;
+    /** Approximate heap held by the terminology code systems of one validator. */
+    static final long TERMINOLOGY_OVERHEAD_BYTES = 256L * 1024 * 1024;
+
+    /**
+     * Identifies one validator: the SHIN-NY package it was built from, the IG
+     * version and the profile base URL used for post-population.
+     */
+    public record Key(String packagePath, String igVersion, String profileBaseUrl) {
+    }
+
+    /**
+     * Snapshot of the registry counters.
+     */
+    public record Stats(long hits, long misses, long builds, long buildFailures, long evictions,
+            long totalBuildMillis, int size, long weightBytes) {
+
+        public long averageBuildMillis() {
+            return builds == 0 ? 0 : totalBuildMillis / builds;
+        }
+    }
+
+    private final int maxEntries;
+    private final long maxWeightBytes;
+    private final ToLongFunction<Key> weigher;
+    private final ConcurrentHashMap<Key, CompletableFuture<FhirBundleValidator>> validators = new ConcurrentHashMap<>();
+    /** Access-ordered weights of the completed entries; guarded by {@code this}. */
+    private final LinkedHashMap<Key, Long> lru = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalWeight;
+
+    private final Count hits = new Count(METRIC + ".lookups", "result", "hit");
+    private final Count misses = new Count(METRIC + ".lookups", "result", "miss");
+    private final Count builds = new Count(METRIC + ".builds", "outcome", "success");
+    private final Count buildFailures = new Count(METRIC + ".builds", "outcome", "failure");
+    private final Count evictions = new Count(METRIC + ".evictions");
+    private final AtomicLong buildNanos = new AtomicLong();
+
+    public FhirValidatorRegistry(int maxEntries, long maxWeightBytes, ToLongFunction<Key> weigher) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        this.maxEntries = maxEntries;
+        this.maxWeightBytes = maxWeightBytes;
+        this.weigher = Objects.requireNonNull(weigher, "weigher");
+        Metrics.gauge(METRIC + ".size", this, registry -> registry.getStats().size());
+        Metrics.gauge(METRIC + ".weight", this, registry -> registry.getStats().weightBytes());
+    }
+
+    /**
+     * Returns the validator for {@code key}, building it with {@code builder}
+     * if it is not registered yet.
+     *
+     * @throws RuntimeException whatever {@code builder} threw, for the caller
+     *                          that ran the build and for callers waiting on it
+     */
+    public FhirBundleValidator getOrBuild(Key key, Function<Key, FhirBundleValidator> builder) {
+        CompletableFuture<FhirBundleValidator> existing = validators.get(key);
+        if (existing == null) {
+            CompletableFuture<FhirBundleValidator> created = new CompletableFuture<>();
+            existing = validators.putIfAbsent(key, created);
+            if (existing == null) {
+                return build(key, builder, created);
+            }
+        }
+        hits.increment();
+        touch(key);
+        return await(existing);
+    }
+
+    private FhirBundleValidator build(Key key, Function<Key, FhirBundleValidator> builder,
+            CompletableFuture<FhirBundleValidator> created) {
+        misses.increment();
+        long start = System.nanoTime();
+        FhirBundleValidator validator;
+        try {
+            validator = Objects.requireNonNull(builder.apply(key), "builder returned null");
+        } catch (RuntimeException | Error e) {
+            buildFailures.increment();
+            validators.remove(key, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        buildNanos.addAndGet(elapsed);
+        BUILD_TIME.record(elapsed, TimeUnit.NANOSECONDS);
+        builds.increment();
+        admit(key, Math.max(0, weigher.applyAsLong(key)));
+        created.complete(validator);
+        return validator;
+    }
+
+    private static FhirBundleValidator await(CompletableFuture<FhirBundleValidator> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for validator build");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    private synchronized void touch(Key key) {
+        lru.get(key);
+    }
+
+    private synchronized void admit(Key key, long weight) {
+        Long previous = lru.put(key, weight);
+        totalWeight += weight - (previous != null ? previous : 0);
+        Iterator<Map.Entry<Key, Long>> eldest = lru.entrySet().iterator();
+        while ((lru.size() > maxEntries || totalWeight > maxWeightBytes) && eldest.hasNext()) {
+            Map.Entry<Key, Long> entry = eldest.next();
+            if (entry.getKey().equals(key)) {
+                break;
+            }
+            eldest.remove();
+            totalWeight -= entry.getValue();
+            validators.remove(entry.getKey());
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Removes every entry. Validators already handed out stay usable.
+     */
+    public synchronized void clear() {
+        validators.clear();
+        lru.clear();
+        totalWeight = 0;
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hits.count.get(), misses.count.get(), builds.count.get(), buildFailures.count.get(),
+                evictions.count.get(),
+                buildNanos.get() / 1_000_000, lru.size(), totalWeight);
+    }
+
+    /**
+     * Keys currently registered, least recently used first.
+     */
+    public synchronized List<Key> keys() {
+        return new ArrayList<>(lru.keySet());
+    }
+
+    /**
+     * Estimates the heap held by a validator built from the given classpath
+     * package directories from the size of their {@code package.tgz} files.
+     */
+    public static long estimatePackageWeight(Collection<String> packagePaths) {
+        long compressed = 0;
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        for (String packagePath : packagePaths) {
+            if (packagePath == null) {
+                continue;
+            }
+            URL resource = classLoader.getResource(packagePath + "/package.tgz");
+            if (resource == null) {
+                continue;
+            }
+            try {
+                URLConnection connection = resource.openConnection();
+                connection.setUseCaches(false);
+                compressed += Math.max(0, connection.getContentLengthLong());
+            } catch (Exception ignored) {
+                // Size unknown; the terminology overhead still applies.
+            }
+        }
+        return compressed * PACKAGE_EXPANSION_FACTOR + TERMINOLOGY_OVERHEAD_BYTES;
+    }
+
+    /** Counts one registry event for {@link #getStats()} and the global registry. */
+    private static final class Count {
+        private final AtomicLong count = new AtomicLong();
+        private final Counter counter;
+
+        Count(String name, String... tags) {
+            this.counter = Metrics.counter(name, tags);
+        }
+
+        void increment() {
+            count.incrementAndGet();
+            counter.increment();
+        }
+    }
+}
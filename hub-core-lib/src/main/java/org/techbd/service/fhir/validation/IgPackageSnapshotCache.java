@@ -0,0 +1,235 @@
+package org.techbd.service.fhir.validation;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.hl7.fhir.common.hapi.validation.support.PrePopulatedValidationSupport;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.util.VersionUtil;
+
+/**
+ * On-disk cache of the conformance resources resolved from a set of IG
+ * packages, so that a restart can skip unpacking the {@code package.tgz}
+ * archives and regenerating snapshots.
+ * <p>
+ * An entry is a gzipped NDJSON file of StructureDefinitions (with snapshots),
+ * ValueSets and CodeSystems. Its key is a SHA-256 over the cache format, the
+ * HAPI version and the bytes of every package in load order, so a changed
+ * package or library upgrade simply misses. Entries are written to a
+ * temporary file and moved into place, so pods sharing the directory never
+ * read a partial entry.
+ * <p>
+ * A load marks its entry as used. After each store, entries unused for longer
+ * than {@code maxAge} are removed, then the least recently used ones until the
+ * directory fits {@code maxBytes}; the entry just stored is always kept.
+ */
+public class IgPackageSnapshotCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IgPackageSnapshotCache.class);
+    static final int FORMAT_VERSION = 1;
+    private static final String SUFFIX = ".ndjson.gz";
+
+    private final Path directory;
+    private final long maxBytes;
+    private final Duration maxAge;
+
+    /** A cache that never removes entries. */
+    public IgPackageSnapshotCache(Path directory) {
+        this(directory, Long.MAX_VALUE, null);
+    }
+
+    /**
+     * @param maxBytes total size the entries may occupy
+     * @param maxAge   how long an entry may go unused, {@code null} for no
+     *                 limit
+     */
+    public IgPackageSnapshotCache(Path directory, long maxBytes, Duration maxAge) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * The order in which packages are loaded and hashed into the key: the
+     * SHIN-NY package first, then the base packages sorted by path. Sorting
+     * keeps the key, and which package wins for a duplicated canonical URL,
+     * independent of the iteration order of the configured map.
+     */
+    public static List<String> loadOrder(String shinNyPackagePath, Collection<String> basePackagePaths) {
+        final List<String> packagePaths = new ArrayList<>();
+        if (shinNyPackagePath != null) {
+            packagePaths.add(shinNyPackagePath);
+        }
+        if (basePackagePaths != null) {
+            basePackagePaths.stream().sorted().forEach(packagePaths::add);
+        }
+        return packagePaths;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Computes the cache key for the classpath packages at
+     * {@code packagePaths}, in the order they are loaded.
+     */
+    public String key(List<String> packagePaths) throws IOException {
+        final MessageDigest digest = sha256();
+        digest.update(("format:" + FORMAT_VERSION + "|hapi:" + VersionUtil.getVersion() + "|")
+                .getBytes(StandardCharsets.UTF_8));
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        for (String packagePath : packagePaths) {
+            digest.update((packagePath + "|").getBytes(StandardCharsets.UTF_8));
+            try (InputStream in = classLoader.getResourceAsStream(packagePath + "/package.tgz")) {
+                if (in == null) {
+                    digest.update("missing|".getBytes(StandardCharsets.UTF_8));
+                    continue;
+                }
+                final byte[] buffer = new byte[64 * 1024];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Loads the entry for {@code key} into a new validation support, or
+     * returns empty when there is no such entry.
+     */
+    public Optional<PrePopulatedValidationSupport> load(FhirContext fhirContext, String key) throws IOException {
+        final Path file = directory.resolve(key + SUFFIX);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        touch(file);
+        final IParser parser = fhirContext.newJsonParser();
+        final PrePopulatedValidationSupport support = new PrePopulatedValidationSupport(fhirContext);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    support.addResource(parser.parseResource(line));
+                }
+            }
+        }
+        return Optional.of(support);
+    }
+
+    /**
+     * Writes {@code resources} as the entry for {@code key}, replacing any
+     * existing entry atomically, then removes expired and excess entries.
+     */
+    public void store(FhirContext fhirContext, String key, List<IBaseResource> resources) throws IOException {
+        Files.createDirectories(directory);
+        final Path target = directory.resolve(key + SUFFIX);
+        final Path temp = Files.createTempFile(directory, key, ".tmp");
+        try {
+            final IParser parser = fhirContext.newJsonParser().setPrettyPrint(false);
+            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8))) {
+                for (IBaseResource resource : resources) {
+                    writer.write(parser.encodeResourceToString(resource));
+                    writer.newLine();
+                }
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        prune(key);
+    }
+
+    /**
+     * Removes entries unused for longer than {@code maxAge}, then the least
+     * recently used entries until the rest fit {@code maxBytes}. The entry for
+     * {@code keep} is never removed.
+     */
+    void prune(String keep) {
+        record Entry(Path path, long size, long lastUsed) {
+        }
+        final List<Entry> entries = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).forEach(file -> {
+                try {
+                    entries.add(new Entry(file, Files.size(file), Files.getLastModifiedTime(file).toMillis()));
+                } catch (IOException e) {
+                    // removed concurrently, possibly by another pod
+                }
+            });
+        } catch (IOException e) {
+            LOG.warn("Could not list snapshot cache entries in {}", directory, e);
+            return;
+        }
+        final Path kept = directory.resolve(keep + SUFFIX);
+        final long expiredBefore = maxAge != null ? System.currentTimeMillis() - maxAge.toMillis() : Long.MIN_VALUE;
+        long total = entries.stream().mapToLong(Entry::size).sum();
+        entries.sort(Comparator.comparingLong(Entry::lastUsed));
+        for (Entry entry : entries) {
+            if (entry.lastUsed() >= expiredBefore && total <= maxBytes) {
+                break;
+            }
+            if (entry.path().equals(kept)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(entry.path());
+                total -= entry.size();
+                LOG.info("Removed snapshot cache entry {}", entry.path().getFileName());
+            } catch (IOException e) {
+                LOG.warn("Could not remove snapshot cache entry {}", entry.path(), e);
+            }
+        }
+    }
+
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            LOG.debug("Could not mark snapshot cache entry {} as used", file, e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -2,17 +2,19 @@ package org.techbd.service.fhir.validation;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 import org.hl7.fhir.common.hapi.validation.support.PrePopulatedValidationSupport;
 import org.hl7.fhir.common.hapi.validation.support.ValidationSupportChain;
 import org.hl7.fhir.r4.model.CodeSystem;
-import org.hl7.fhir.r4.model.Enumerations;
 import org.hl7.fhir.r4.model.ValueSet;
+import org.techbd.service.fhir.validation.CompactTerminologyValidationSupport.CodeSystemCodes;
 import org.techbd.util.AppLogger;
 import org.techbd.util.TemplateLogger;
-import org.techbd.util.fhir.ConceptReaderUtils;
 import org.techbd.util.fhir.FileUtils;
 
 import ca.uhn.fhir.context.FhirContext;
@@ -42,79 +44,52 @@ public class PrePopulateSupport {
         }
     }
 
-    public void addCodeSystems(ValidationSupportChain validationSupportChain,
-            PrePopulatedValidationSupport prePopulatedValidationSupport) {
+    /**
+     * Registers the reference code systems with the chain through a
+     * {@link CompactTerminologyValidationSupport} placed first in the chain.
+     * The {@code .psv} code sets are shared by every validator in the process;
+     * only the concepts the chain's own packages define are held per chain.
+     */
+    public void addCodeSystems(ValidationSupportChain validationSupportChain, FhirContext fhirContext) {
         Span span = tracer.spanBuilder("PrePopulateSupport.addCodeSystems").startSpan();
         try {
-            addSnomedCodes(validationSupportChain, prePopulatedValidationSupport);
-            addICD10Codes(validationSupportChain, prePopulatedValidationSupport);
-            addCPTCodes(validationSupportChain, prePopulatedValidationSupport);
-            addHCPCSCodes(validationSupportChain, prePopulatedValidationSupport);
-            addLoincCodes(validationSupportChain, prePopulatedValidationSupport);
+            final Map<String, CodeSystemCodes> codeSystems = new HashMap<>();
+            addSnomedCodes(validationSupportChain, codeSystems);
+            addICD10Codes(validationSupportChain, codeSystems);
+            addCPTCodes(validationSupportChain, codeSystems);
+            addHCPCSCodes(validationSupportChain, codeSystems);
+            addLoincCodes(validationSupportChain, codeSystems);
+            validationSupportChain.addValidationSupport(0,
+                    new CompactTerminologyValidationSupport(fhirContext, codeSystems));
         } finally {
             span.end();
         }
     }
 
     private void addCPTCodes(ValidationSupportChain validationSupportChain,
-            PrePopulatedValidationSupport prePopulatedValidationSupport) {
+            Map<String, CodeSystemCodes> codeSystems) {
         LOG.info("PrePopulateSupport:addCPTCodes  -BEGIN");
-        CodeSystem existCpt = (CodeSystem) validationSupportChain.fetchCodeSystem("http://www.ama-assn.org/go/cpt");
-        if (existCpt == null) {
-            CodeSystem newCpt = new CodeSystem();
-            newCpt.setUrl("http://www.ama-assn.org/go/cpt");
-            newCpt.setConcept(ConceptReaderUtils.getCodeSystemConcepts_wCode(referenceCodesPath.concat("cpt.psv")));
-            newCpt.setContent(CodeSystem.CodeSystemContentMode.COMPLETE);
-            prePopulatedValidationSupport.addCodeSystem(newCpt);
-        } else {
-            existCpt.setContent(CodeSystem.CodeSystemContentMode.COMPLETE);
-            existCpt.getConcept()
-                    .addAll(ConceptReaderUtils.getCodeSystemConcepts_wCode(referenceCodesPath.concat("cpt.psv")));
-        }
+        addCodeSystem(validationSupportChain, codeSystems, "http://www.ama-assn.org/go/cpt",
+                referenceCodesPath.concat("cpt.psv"), true);
         LOG.info("PrePopulateSupport:addCPTCodes  -END");
     }
 
     private void addHCPCSCodes(ValidationSupportChain validationSupportChain,
-            PrePopulatedValidationSupport prePopulatedValidationSupport) {
+            Map<String, CodeSystemCodes> codeSystems) {
         LOG.info("PrePopulateSupport:addHCPCSCodes  -BEGIN");
-        CodeSystem existHCPCS = (CodeSystem) validationSupportChain.fetchCodeSystem("urn:oid:2.16.840.1.113883.6.285");
-        // CodeSystem existHCPCS = (CodeSystem)
-        // validationSupportChain.fetchCodeSystem("https://www.cms.gov/Medicare/Coding/HCPCSReleaseCodeSets");
-        if (existHCPCS == null) {
-            CodeSystem newHCPCS = new CodeSystem();
-            // newHCPCS.setUrl("https://www.cms.gov/Medicare/Coding/HCPCSReleaseCodeSets");
-            newHCPCS.setUrl("urn:oid:2.16.840.1.113883.6.285");
-            newHCPCS.setConcept(ConceptReaderUtils.getCodeSystemConcepts_wCode(referenceCodesPath.concat("hcpcs.psv")));
-            newHCPCS.setContent(CodeSystem.CodeSystemContentMode.COMPLETE);
-            prePopulatedValidationSupport.addCodeSystem(newHCPCS);
-        } else {
-            existHCPCS.setContent(CodeSystem.CodeSystemContentMode.COMPLETE);
-            existHCPCS.getConcept()
-                    .addAll(ConceptReaderUtils.getCodeSystemConcepts_wCode(referenceCodesPath.concat("hcpcs.psv")));
-        }
+        // https://www.cms.gov/Medicare/Coding/HCPCSReleaseCodeSets
+        addCodeSystem(validationSupportChain, codeSystems, "urn:oid:2.16.840.1.113883.6.285",
+                referenceCodesPath.concat("hcpcs.psv"), true);
         LOG.info("PrePopulateSupport:addHCPCSCodes  -END");
     }
 
     private void addICD10Codes(ValidationSupportChain validationSupportChain,
-            PrePopulatedValidationSupport prePopulatedValidationSupport) {
+            Map<String, CodeSystemCodes> codeSystems) {
         LOG.info("PrePopulateSupport:addICD10Codes  -BEGIN");
         Span span = tracer.spanBuilder("PrePopulateSupport.addICD10Codes").startSpan();
         try {
-            CodeSystem existingIcd10 = (CodeSystem) validationSupportChain
-                    .fetchCodeSystem("http://hl7.org/fhir/sid/icd-10-cm");
-            if (existingIcd10 == null) {
-                CodeSystem newIcd10 = new CodeSystem();
-                newIcd10.setUrl("http://hl7.org/fhir/sid/icd-10-cm");
-                newIcd10.setConcept(ConceptReaderUtils.getCodeSystemConcepts_wCode(referenceCodesPath + "icd10cm.psv"));
-                newIcd10.setContent(CodeSystem.CodeSystemContentMode.COMPLETE);
-                prePopulatedValidationSupport.addCodeSystem(newIcd10);
-            } else {
-                if (existingIcd10.getConcept().isEmpty()) {
-                    existingIcd10.getConcept()
-                            .addAll(ConceptReaderUtils.getCodeSystemConcepts_wCode(referenceCodesPath + "icd10cm.psv"));
-                }
-                existingIcd10.setContent(CodeSystem.CodeSystemContentMode.COMPLETE);
-            }
+            addCodeSystem(validationSupportChain, codeSystems, "http://hl7.org/fhir/sid/icd-10-cm",
+                    referenceCodesPath + "icd10cm.psv", false);
         } finally {
             span.end();
         }
@@ -122,30 +97,43 @@ public class PrePopulateSupport {
     }
 
     private void addSnomedCodes(ValidationSupportChain validationSupportChain,
-            PrePopulatedValidationSupport prePopulatedValidationSupport) {
+            Map<String, CodeSystemCodes> codeSystems) {
         LOG.info("PrePopulateSupport:addSnomedCodes  -BEGIN");
         Span span = tracer.spanBuilder("PrePopulateSupport.addSnomedCodes").startSpan();
         try {
-            CodeSystem existingSnomed = (CodeSystem) validationSupportChain.fetchCodeSystem("http://snomed.info/sct");
-            if (existingSnomed == null) {
-                CodeSystem newSnomed = new CodeSystem();
-                newSnomed.setUrl("http://snomed.info/sct");
-                newSnomed.setConcept(ConceptReaderUtils.getCodeSystemConcepts_wCode(referenceCodesPath + "snomed.psv"));
-                newSnomed.setContent(CodeSystem.CodeSystemContentMode.COMPLETE);
-                prePopulatedValidationSupport.addCodeSystem(newSnomed);
-            } else {
-                if (existingSnomed.getConcept().isEmpty()) {
-                    existingSnomed.getConcept()
-                            .addAll(ConceptReaderUtils.getCodeSystemConcepts_wCode(referenceCodesPath + "snomed.psv"));
-                }
-                existingSnomed.setContent(CodeSystem.CodeSystemContentMode.COMPLETE);
-            }
+            addCodeSystem(validationSupportChain, codeSystems, "http://snomed.info/sct",
+                    referenceCodesPath + "snomed.psv", false);
         } finally {
             span.end();
         }
         LOG.info("PrePopulateSupport:addSnomedCodes  -END");
     }
 
+    /**
+     * Adds the codes accepted for {@code url}. Concepts already defined by a
+     * package CodeSystem with the same URL are kept; the shared {@code .psv}
+     * codes are added to them when {@code mergeWithPackage} is set, and
+     * otherwise only when the package defines no concepts of its own.
+     */
+    private void addCodeSystem(ValidationSupportChain validationSupportChain,
+            Map<String, CodeSystemCodes> codeSystems, String url, String psvPath, boolean mergeWithPackage) {
+        final CodeSystem existing = (CodeSystem) validationSupportChain.fetchCodeSystem(url);
+        final Set<String> packageCodes = new HashSet<>();
+        if (existing != null) {
+            existing.getConcept().stream()
+                    .map(CodeSystem.ConceptDefinitionComponent::getCode)
+                    .filter(Objects::nonNull)
+                    .forEach(packageCodes::add);
+        }
+        final CompactCodeSet shared = mergeWithPackage || packageCodes.isEmpty()
+                ? CompactTerminologyValidationSupport.sharedCodeSet(psvPath)
+                : null;
+        codeSystems.put(url, new CodeSystemCodes(shared, packageCodes));
+        LOG.info("PrePopulateSupport: {} shared codes: {} ({} bytes) package codes: {}", url,
+                shared != null ? shared.size() : 0, shared != null ? shared.sizeInBytes() : 0,
+                packageCodes.size());
+    }
+
     public void loadValueSets(FhirContext fhirContext, PrePopulatedValidationSupport prePopulatedValidationSupport) {
         LOG.info("PrePopulateSupport:loadValueSets  -BEGIN");
         Span span = tracer.spanBuilder("PrePopulateSupport.loadValueSets").startSpan();
@@ -196,27 +184,12 @@ public class PrePopulateSupport {
     }
 
     private void addLoincCodes(ValidationSupportChain validationSupportChain,
-            PrePopulatedValidationSupport prePopulatedValidationSupport) {
+            Map<String, CodeSystemCodes> codeSystems) {
         LOG.info("PrePopulateSupport:addLoincCodes  -BEGIN");
         Span span = tracer.spanBuilder("PrePopulateSupport.addLoincCodes").startSpan();
         try {
-            CodeSystem existingLoinc = (CodeSystem) validationSupportChain.fetchCodeSystem("http://loinc.org");
-            if (existingLoinc == null) {
-                CodeSystem newLoinc = new CodeSystem();
-                newLoinc.setUrl("http://loinc.org");
-                newLoinc.setVersion("2.81"); // or whatever version your .psv represents
-                newLoinc.setName("LOINC");
-                newLoinc.setStatus(Enumerations.PublicationStatus.ACTIVE);
-                newLoinc.setConcept(ConceptReaderUtils.getCodeSystemConcepts_wCode(referenceCodesPath + "loinc.psv"));
-                newLoinc.setContent(CodeSystem.CodeSystemContentMode.COMPLETE);
-                prePopulatedValidationSupport.addCodeSystem(newLoinc);
-            } else {
-                if (existingLoinc.getConcept().isEmpty()) {
-                    existingLoinc.getConcept()
-                            .addAll(ConceptReaderUtils.getCodeSystemConcepts_wCode(referenceCodesPath + "loinc.psv"));
-                }
-                existingLoinc.setContent(CodeSystem.CodeSystemContentMode.COMPLETE);
-            }
+            addCodeSystem(validationSupportChain, codeSystems, "http://loinc.org",
+                    referenceCodesPath + "loinc.psv", false);
         } finally {
             span.end();
         }
@@ -0,0 +1,271 @@
+package org.techbd.service.fhir.validation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Validation outcomes of byte-identical payloads.
+ * <p>
+ * Retries, replays and duplicate submissions send the same bundle again; a
+ * cached entry returns its {@code OperationOutcome} without running HAPI. The
+ * key is the SHA-256 of the raw payload text rather than of a canonical form,
+ * because the outcome reports line and column locations in that text, plus
+ * the package, IG version and profile URL of the validator that produced it.
+ * The key also carries the SHA-256 of the package content, so a package that
+ * is changed in place is never answered from outcomes of its previous
+ * content; rebuilding a validator from an unchanged package keeps its
+ * entries. Severity filtering happens after validation, so one entry serves
+ * every severity level.
+ * <p>
+ * Entries are kept in memory up to {@code maxMemoryBytes}, least recently used
+ * evicted first. With a disk directory they are also written there, one file
+ * per entry under a directory per package content, and the oldest files are
+ * removed once {@code maxDiskBytes} is exceeded, which is how entries of
+ * replaced package content eventually go.
+ * <p>
+ * Hits and misses are counted in {@link #stats()} and published to the global
+ * Micrometer registry as {@code techbd.validation.cache}.
+ */
+public class ValidationResultCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ValidationResultCache.class);
+    private static final String METRIC = "techbd.validation.cache";
+    private static final int PRUNE_EVERY_WRITES = 256;
+
+    public record Key(String payloadSha256, String packagePath, String packageSha256, String igVersion,
+            String profileUrl) {
+    }
+
+    public record Entry(String operationOutcome, boolean valid) {
+    }
+
+    public record Stats(long memoryHits, long diskHits, long misses, long evictions, int size, long weightBytes) {
+
+        public double hitRate() {
+            final long lookups = memoryHits + diskHits + misses;
+            return lookups == 0 ? 0 : (double) (memoryHits + diskHits) / lookups;
+        }
+    }
+
+    private final long maxMemoryBytes;
+    private final Path diskDir;
+    private final long maxDiskBytes;
+    /** Access-ordered entries with their weights; guarded by {@code this}. */
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weightBytes;
+    private final AtomicInteger writesSincePrune = new AtomicInteger();
+
+    private final Outcome memoryHits = new Outcome("hit", "memory");
+    private final Outcome diskHits = new Outcome("hit", "disk");
+    private final Outcome misses = new Outcome("miss", "none");
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param diskDir {@code null} to keep entries in memory only
+     */
+    public ValidationResultCache(long maxMemoryBytes, Path diskDir, long maxDiskBytes) {
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.diskDir = diskDir;
+        this.maxDiskBytes = maxDiskBytes;
+        Metrics.gauge(METRIC + ".size", this, cache -> cache.stats().size());
+    }
+
+    public static String sha256(String payload) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * SHA-256 of the classpath IG package at {@code packagePath}, that is of
+     * its {@code package.tgz}; {@code "missing"} when there is none.
+     */
+    public static String packageSha256(String packagePath) {
+        try (InputStream in = Thread.currentThread().getContextClassLoader()
+                .getResourceAsStream(packagePath + "/package.tgz")) {
+            if (in == null) {
+                return "missing";
+            }
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read IG package " + packagePath, e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Returns the cached outcome for {@code key}, or {@code null}. */
+    public Entry get(Key key) {
+        synchronized (this) {
+            final Entry entry = entries.get(key);
+            if (entry != null) {
+                memoryHits.increment();
+                return entry;
+            }
+        }
+        final Entry stored = read(key);
+        if (stored == null) {
+            misses.increment();
+            return null;
+        }
+        diskHits.increment();
+        admit(key, stored);
+        return stored;
+    }
+
+    public void put(Key key, Entry entry) {
+        admit(key, entry);
+        write(key, entry);
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(memoryHits.count.get(), diskHits.count.get(), misses.count.get(), evictions.get(),
+                entries.size(), weightBytes);
+    }
+
+    private synchronized void admit(Key key, Entry entry) {
+        final Entry previous = entries.put(key, entry);
+        weightBytes += weight(entry) - (previous != null ? weight(previous) : 0);
+        final Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (weightBytes > maxMemoryBytes && eldest.hasNext()) {
+            final Map.Entry<Key, Entry> candidate = eldest.next();
+            if (candidate.getKey().equals(key)) {
+                break;
+            }
+            eldest.remove();
+            weightBytes -= weight(candidate.getValue());
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static long weight(Entry entry) {
+        return 2L * entry.operationOutcome().length() + 256;
+    }
+
+    private Path file(Key key) {
+        return diskDir.resolve(key.packageSha256()).resolve(sha256(key.payloadSha256() + "|" + key.packagePath()
+                + "|" + key.igVersion() + "|" + key.profileUrl()));
+    }
+
+    private Entry read(Key key) {
+        if (diskDir == null) {
+            return null;
+        }
+        final Path file = file(key);
+        try {
+            final String content = Files.readString(file);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return new Entry(content.substring(1), content.charAt(0) == '1');
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Could not read cached validation result {}", file, e);
+            return null;
+        }
+    }
+
+    private void write(Key key, Entry entry) {
+        if (diskDir == null) {
+            return;
+        }
+        final Path file = file(key);
+        try {
+            Files.createDirectories(file.getParent());
+            final Path temp = Files.createTempFile(file.getParent(), "entry", ".tmp");
+            Files.writeString(temp, (entry.valid() ? "1" : "0") + entry.operationOutcome());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warn("Could not store validation result {}", file, e);
+            return;
+        }
+        if (writesSincePrune.incrementAndGet() >= PRUNE_EVERY_WRITES) {
+            writesSincePrune.set(0);
+            prune();
+        }
+    }
+
+    /** Removes the least recently used files until the disk tier fits its budget. */
+    synchronized void prune() {
+        record StoredFile(Path path, long size, long lastModified) {
+        }
+        final List<StoredFile> stored = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(diskDir, 2)) {
+            files.filter(Files::isRegularFile).forEach(path -> {
+                try {
+                    stored.add(new StoredFile(path, Files.size(path), Files.getLastModifiedTime(path).toMillis()));
+                } catch (IOException e) {
+                    // removed concurrently
+                }
+            });
+        } catch (IOException e) {
+            LOG.warn("Could not list cached validation results in {}", diskDir, e);
+            return;
+        }
+        long total = stored.stream().mapToLong(StoredFile::size).sum();
+        stored.sort(Comparator.comparingLong(StoredFile::lastModified));
+        for (final StoredFile file : stored) {
+            if (total <= maxDiskBytes) {
+                break;
+            }
+            delete(file.path());
+            total -= file.size();
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOG.warn("Could not delete cached validation result {}", file, e);
+        }
+    }
+
+    /** Counts one lookup outcome for {@link #stats()} and the global registry. */
+    private static final class Outcome {
+        private final AtomicLong count = new AtomicLong();
+        private final Counter counter;
+
+        Outcome(String result, String tier) {
+            this.counter = Metrics.counter(METRIC, "result", result, "tier", tier);
+        }
+
+        void increment() {
+            count.incrementAndGet();
+            counter.increment();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package org.techbd.service.persistence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.jooq.Configuration;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.AbstractRoutine;
+import org.jooq.impl.DefaultConnectionProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.techbd.config.CoreAppConfig;
+import org.techbd.config.CoreAppConfig.InteractionPersistenceConfig;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind writer for the {@code register_interaction_*} stored functions.
+ * <p>
+ * Calls submitted here are queued and written by a single thread in batches:
+ * each batch takes one connection from the pool and sends one
+ * {@code SELECT f(...), f(...), ...} statement, so it costs one round trip and
+ * commits atomically. A batch is written once it reaches the configured size,
+ * once its first call has waited the configured delay, or as soon as a caller
+ * needs a result through {@link #submitAndWait}. Calls are written in the
+ * order they were submitted, so a later state transition is never written
+ * before an earlier one. If the combined statement fails, its calls are run
+ * one at a time on the same connection so one bad call does not fail the
+ * others.
+ * <p>
+ * Results are delivered through the returned futures; the routine's own
+ * {@code getReturnValue()} is not set for calls written as part of a batch.
+ * When batching is disabled, or after {@link #close()}, calls run on the
+ * caller's thread.
+ */
+@Component
+public class InteractionPersistenceWriter implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(InteractionPersistenceWriter.class);
+
+    private record Pending<T>(AbstractRoutine<T> routine, CompletableFuture<T> result, boolean urgent) {
+        @SuppressWarnings("unchecked")
+        void complete(Object value) {
+            result.complete((T) value);
+        }
+    }
+
+    private final DSLContext dsl;
+    private final InteractionPersistenceConfig config;
+    private final BlockingQueue<Pending<?>> queue;
+    private final Thread writer;
+    private volatile boolean running;
+
+    @Autowired
+    public InteractionPersistenceWriter(CoreAppConfig appConfig,
+            @Qualifier("primaryDslContext") DSLContext primaryDslContext) {
+        this(primaryDslContext, appConfig.getInteractionPersistence() != null
+                ? appConfig.getInteractionPersistence()
+                : new InteractionPersistenceConfig());
+    }
+
+    InteractionPersistenceWriter(DSLContext dsl, InteractionPersistenceConfig config) {
+        this.dsl = dsl;
+        this.config = config;
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, config.getQueueCapacity()));
+        this.running = config.isEnabled();
+        if (running) {
+            writer = new Thread(this::run, "interaction-writer");
+            writer.setDaemon(true);
+            writer.start();
+        } else {
+            writer = null;
+        }
+    }
+
+    /**
+     * Queues {@code routine} behind the calls already submitted. Blocks while
+     * the queue is full.
+     */
+    public <T> CompletableFuture<T> submit(AbstractRoutine<T> routine) {
+        return enqueue(routine, false);
+    }
+
+    /**
+     * Queues {@code routine}, writes it together with everything queued before
+     * it, and returns its result.
+     *
+     * @throws java.util.concurrent.CompletionException wrapping the failure of
+     *                                                  the call
+     */
+    public <T> T submitAndWait(AbstractRoutine<T> routine) {
+        return enqueue(routine, true).join();
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        running = false;
+        if (writer != null) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        final List<Pending<?>> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            executeEach(dsl.configuration(), remaining);
+        }
+    }
+
+    private <T> CompletableFuture<T> enqueue(AbstractRoutine<T> routine, boolean urgent) {
+        final Pending<T> pending = new Pending<>(routine, new CompletableFuture<>(), urgent);
+        if (running) {
+            try {
+                queue.put(pending);
+                // close() may have drained the queue between the check and the put
+                if (running || !queue.remove(pending)) {
+                    return pending.result();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        executeEach(dsl.configuration(), List.of(pending));
+        return pending.result();
+    }
+
+    private void run() {
+        final List<Pending<?>> batch = new ArrayList<>(config.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                final Pending<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch, first.urgent());
+            } catch (InterruptedException e) {
+                // nothing interrupts the writer; keep draining until closed
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Adds queued calls to {@code batch} until it is full or its delay has
+     * passed; a waiting caller ends the wait at once.
+     */
+    private void collect(List<Pending<?>> batch, boolean urgent) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getMaxDelayMillis());
+        while (batch.size() < config.getBatchSize()) {
+            if (urgent || !running) {
+                queue.drainTo(batch, config.getBatchSize() - batch.size());
+                return;
+            }
+            final Pending<?> next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            urgent = next.urgent();
+        }
+    }
+
+    private void write(List<Pending<?>> batch) {
+        final long start = System.nanoTime();
+        try {
+            dsl.connection(connection -> {
+                final Configuration cfg = dsl.configuration().derive(new DefaultConnectionProvider(connection));
+                if (batch.size() == 1) {
+                    executeEach(cfg, batch);
+                    return;
+                }
+                final List<Field<?>> fields = new ArrayList<>(batch.size());
+                for (final Pending<?> pending : batch) {
+                    fields.add(pending.routine().asField());
+                }
+                final Record row;
+                try {
+                    row = cfg.dsl().select(fields).fetchOne();
+                } catch (DataAccessException e) {
+                    LOG.warn("Batched write of {} interaction calls failed, writing them one at a time",
+                            batch.size(), e);
+                    executeEach(cfg, batch);
+                    return;
+                }
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).complete(row.get(i));
+                }
+            });
+        } catch (RuntimeException e) {
+            LOG.error("Could not write {} interaction calls", batch.size(), e);
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+        }
+        LOG.debug("Wrote {} interaction calls in {} ms", batch.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static void executeEach(Configuration cfg, List<Pending<?>> calls) {
+        for (final Pending<?> pending : calls) {
+            try {
+                pending.routine().execute(cfg);
+                pending.complete(pending.routine().getReturnValue());
+            } catch (RuntimeException e) {
+                pending.result().completeExceptionally(e);
+            }
+        }
+    }
+}
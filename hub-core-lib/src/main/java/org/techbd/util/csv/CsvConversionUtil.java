@@ -1,9 +1,6 @@
 package org.techbd.util.csv;
 
-import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
@@ -13,9 +10,9 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
-import org.apache.commons.io.input.BOMInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.techbd.config.Constants;
@@ -26,9 +23,10 @@ import org.techbd.model.csv.QeAdminData;
 import org.techbd.model.csv.ScreeningObservationData;
 import org.techbd.model.csv.ScreeningProfileData;
 
-import com.opencsv.bean.CsvToBean;
-import com.opencsv.bean.CsvToBeanBuilder;
-import com.opencsv.exceptions.CsvException;
+import com.opencsv.CSVParserBuilder;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.exceptions.CsvValidationException;
 
 /**
  * Utility class for converting CSV data into domain-specific models grouped by
@@ -122,6 +120,10 @@ public class CsvConversionUtil {
     /**
      * Converts a CSV string into a list of objects of the specified class type and
      * groups them by a specified field.
+     * <p>
+     * Rows are read one at a time straight from {@code csvData}, bound through
+     * the accessors of {@link CsvRowBinder}, trimmed, and added to their group
+     * in the same pass, so only the parsed rows are held besides the input.
      *
      * @param <T>       the type of the objects in the list
      * @param csvData   the CSV data as a string
@@ -133,96 +135,59 @@ public class CsvConversionUtil {
      *         encounter ID) and the value is the list of objects with that value
      * @throws IOException if an error occurs during reading or parsing the CSV
      */
-   
-   public static <T> Map<String, List<T>> convertCsvStringToObjectMap(String csvData, Class<T> clazz, char separator, String fieldName,String interactionId,String techBDVersion) throws IOException {
-    List<String[]> errorRows = new ArrayList<>();
+    public static <T> Map<String, List<T>> convertCsvStringToObjectMap(String csvData, Class<T> clazz, char separator,
+            String fieldName, String interactionId, String techBDVersion) throws IOException {
+        final CsvRowBinder<T> binder = CsvRowBinder.of(clazz);
+        final Function<T, String> groupKey = binder.getter(fieldName);
+        final Map<String, List<T>> grouped = new HashMap<>();
 
-    try (InputStreamReader reader = new InputStreamReader(new BOMInputStream(new ByteArrayInputStream(csvData.getBytes(StandardCharsets.UTF_8))), StandardCharsets.UTF_8);
-         BufferedReader bufferedReader = new BufferedReader(reader)) {
-
-        // Read the first line and remove BOM if present
-        String firstLine = bufferedReader.readLine();
-        if (firstLine != null && firstLine.startsWith("\uFEFF")) {
-            firstLine = firstLine.substring(1);
-        }
-
-        // Reconstruct the CSV string without BOM
-        StringBuilder csvContent = new StringBuilder(firstLine);
-        String line;
-        while ((line = bufferedReader.readLine()) != null) {
-            csvContent.append("\n").append(line);
+        final Reader input = new StringReader(csvData);
+        if (!csvData.isEmpty() && csvData.charAt(0) == '\uFEFF') {
+            input.skip(1);
         }
-
-        // Convert to reader
-        try (Reader csvReader = new StringReader(csvContent.toString())) {
-            CsvToBean<T> csvToBean = new CsvToBeanBuilder<T>(csvReader)
-                    .withType(clazz)
-                    .withSeparator(separator)
-                    .withIgnoreLeadingWhiteSpace(true)
-                    .withThrowExceptions(false) // Do not fail on bad rows
-                    .build();
-
-            List<T> dataList = csvToBean.parse();
-            List<CsvException> errors = csvToBean.getCapturedExceptions();
-
-            for (CsvException error : errors) {
-                LOG.error("Malformed CSV row skipped: {} for interactionId: {} TechBDVersion: {}", error.getLineNumber(), interactionId, techBDVersion, error);
-                errorRows.add(error.getLine()); // Store bad rows for debugging
+        try (CSVReader csvReader = new CSVReaderBuilder(input)
+                .withCSVParser(new CSVParserBuilder()
+                        .withSeparator(separator)
+                        .withIgnoreLeadingWhiteSpace(true)
+                        .build())
+                .build()) {
+            final String[] header = csvReader.readNext();
+            if (header == null) {
+                return grouped;
             }
-
-            // Trim all String fields of parsed objects
-            for (T obj : dataList) {
-                trimStringFields(obj);
+            final List<BiConsumer<T, String>> setters = new ArrayList<>(header.length);
+            for (String column : header) {
+                setters.add(binder.setter(column));
             }
 
-            // Group valid rows by fieldName
-            return dataList.stream()
-                    .collect(Collectors.groupingBy(obj -> {
-                        String fieldValue = getFieldValue(obj, fieldName);
-                        if (fieldValue == null) {
-                            LOG.error("Null value encountered for field '{}' in object: {} for interactionId: {} TechBDVersion: {}", fieldName, obj, interactionId, techBDVersion);
-                            throw new IllegalArgumentException("Field '" + fieldName + "' has a null value in object: " + obj);
-                        }
-                        return fieldValue;
-                    }));
-        }
-    } 
-    
-}
-
-    private static void trimStringFields(Object obj) {
-        for (var field : obj.getClass().getDeclaredFields()) {
-            if (field.getType() == String.class) {
-                field.setAccessible(true);
-                try {
-                    String value = (String) field.get(obj);
-                    if (value != null) {
-                        field.set(obj, value.trim());
+            String[] row;
+            while ((row = csvReader.readNext()) != null) {
+                if (row.length == 1 && row[0].isBlank()) {
+                    continue;
+                }
+                if (row.length != header.length) {
+                    LOG.error("Malformed CSV row skipped: {} for interactionId: {} TechBDVersion: {}. Expected {} fields but found {}",
+                            csvReader.getLinesRead(), interactionId, techBDVersion, header.length, row.length);
+                    continue;
+                }
+                final T obj = binder.newInstance();
+                for (int i = 0; i < row.length; i++) {
+                    final BiConsumer<T, String> setter = setters.get(i);
+                    if (setter != null && row[i] != null) {
+                        setter.accept(obj, row[i].trim());
                     }
-                } catch (IllegalAccessException e) {
-                    // Skip inaccessible fields silently
                 }
+                final String fieldValue = groupKey.apply(obj);
+                if (fieldValue == null) {
+                    LOG.error("Null value encountered for field '{}' in object: {} for interactionId: {} TechBDVersion: {}", fieldName, obj, interactionId, techBDVersion);
+                    throw new IllegalArgumentException("Field '" + fieldName + "' has a null value in object: " + obj);
+                }
+                grouped.computeIfAbsent(fieldValue, key -> new ArrayList<>()).add(obj);
             }
+        } catch (CsvValidationException e) {
+            throw new IOException("Unable to parse CSV for interactionId: " + interactionId, e);
         }
-    }
-
-    /**
-     * Extracts the value of a specified field from an object using reflection.
-     *
-     * @param obj       the object to extract the value from
-     * @param fieldName the name of the field to extract (e.g., "patientMrIdValue"
-     *                  or "encounterId")
-     * @return the field value as a string
-     */
-    private static String getFieldValue(Object obj, String fieldName) {
-        try {
-            var field = obj.getClass().getDeclaredField(fieldName);
-            field.setAccessible(true);
-            return (String) field.get(obj);
-        } catch (NoSuchFieldException | IllegalAccessException e) {
-            throw new IllegalArgumentException(
-                    "The class " + obj.getClass().getName() + " does not have a field named '" + fieldName + "'.", e);
-        }
+        return grouped;
     }
 
     public static String sha256(String input) {
@@ -0,0 +1,119 @@
+package org.techbd.util.csv;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.opencsv.bean.CsvBindByName;
+
+/**
+ * Binds CSV columns to the {@link CsvBindByName} fields of a model class
+ * without per-row reflection.
+ * <p>
+ * The annotations are read once per class, and the no-arg constructor, the
+ * Lombok setters and getters are turned into lambdas with
+ * {@link LambdaMetafactory}, so binding a cell is a plain interface call.
+ * Column names match case-insensitively, as in OpenCSV's header mapping.
+ */
+final class CsvRowBinder<T> {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final ClassValue<CsvRowBinder<?>> BINDERS = new ClassValue<>() {
+        @Override
+        protected CsvRowBinder<?> computeValue(Class<?> type) {
+            return new CsvRowBinder<>(type);
+        }
+    };
+
+    private final Class<T> type;
+    private final Supplier<T> constructor;
+    private final Map<String, BiConsumer<T, String>> settersByColumn = new HashMap<>();
+    private final Map<String, Function<T, String>> gettersByField = new HashMap<>();
+
+    @SuppressWarnings("unchecked")
+    static <T> CsvRowBinder<T> of(Class<T> type) {
+        return (CsvRowBinder<T>) BINDERS.get(type);
+    }
+
+    private CsvRowBinder(Class<T> type) {
+        this.type = type;
+        try {
+            this.constructor = constructor(type);
+            for (var field : type.getDeclaredFields()) {
+                if (field.getType() != String.class) {
+                    continue;
+                }
+                final String property = Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+                gettersByField.put(field.getName(), getter(type, "get" + property));
+                final CsvBindByName binding = field.getAnnotation(CsvBindByName.class);
+                if (binding != null) {
+                    final String column = binding.column().isEmpty() ? field.getName() : binding.column();
+                    settersByColumn.put(column.trim().toUpperCase(Locale.ROOT), setter(type, "set" + property));
+                }
+            }
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot bind CSV columns of " + type.getName(), e);
+        }
+    }
+
+    T newInstance() {
+        return constructor.get();
+    }
+
+    /**
+     * Returns the setter for a header cell, or {@code null} when no field is
+     * bound to that column.
+     */
+    BiConsumer<T, String> setter(String column) {
+        return column == null ? null : settersByColumn.get(column.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Returns the getter of a String field by field name, e.g.
+     * {@code patientMrIdValue}.
+     */
+    Function<T, String> getter(String fieldName) {
+        final Function<T, String> getter = gettersByField.get(fieldName);
+        if (getter == null) {
+            throw new IllegalArgumentException(
+                    "The class " + type.getName() + " does not have a field named '" + fieldName + "'.");
+        }
+        return getter;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Supplier<T> constructor(Class<T> type) throws Throwable {
+        final MethodHandle target = LOOKUP.findConstructor(type, MethodType.methodType(void.class));
+        final CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get",
+                MethodType.methodType(Supplier.class), MethodType.methodType(Object.class),
+                target, MethodType.methodType(type));
+        return (Supplier<T>) site.getTarget().invoke();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> BiConsumer<T, String> setter(Class<T> type, String name) throws Throwable {
+        final MethodHandle target = LOOKUP.findVirtual(type, name, MethodType.methodType(void.class, String.class));
+        final CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept",
+                MethodType.methodType(BiConsumer.class), MethodType.methodType(void.class, Object.class, Object.class),
+                target, MethodType.methodType(void.class, type, String.class));
+        return (BiConsumer<T, String>) site.getTarget().invoke();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Function<T, String> getter(Class<T> type, String name) throws Throwable {
+        final MethodHandle target = LOOKUP.findVirtual(type, name, MethodType.methodType(String.class));
+        final CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply",
+                MethodType.methodType(Function.class), MethodType.methodType(Object.class, Object.class),
+                target, MethodType.methodType(String.class, type));
+        return (Function<T, String>) site.getTarget().invoke();
+    }
+}
@@ -16,7 +16,6 @@ import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Component;
-import org.techbd.config.Configuration;
 import org.techbd.config.Constants;
 import org.techbd.config.CoreAppConfig;
 import org.techbd.config.CoreAppConfig.FhirV4Config;
@@ -148,15 +147,20 @@ public class CoreFHIRUtil {
                 .map(entry -> new Header(entry.getKey(), entry.getValue()))
                 .collect(Collectors.toList());
     }
-        public static String extractBundleId(String json,String interactionId) {
+    public static String extractBundleId(String json, String interactionId) {
+        return extractBundleId(new ParsedBundle(json), interactionId);
+    }
+
+    public static String extractBundleId(ParsedBundle bundle, String interactionId) {
         try {
-            JsonNode rootNode = Configuration.objectMapper.readTree(json);
+            JsonNode rootNode = bundle.json();
             if (!"Bundle".equals(rootNode.path("resourceType").asText())) {
-                return "Bundle id not provided"; 
+                return "Bundle id not provided";
             }
             return rootNode.path("id").asText("Bundle id not provided");
         } catch (Exception e) {
-            LOG.error("Exception fetching bundle Id for interactionId :  ",interactionId , e.getMessage());
+            LOG.error("Exception fetching bundle Id for interactionId : {} error : {}", interactionId,
+                    e.getMessage());
             return StringUtils.EMPTY;
         }
     }
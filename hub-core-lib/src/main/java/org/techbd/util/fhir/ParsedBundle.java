@@ -0,0 +1,144 @@
+package org.techbd.util.fhir;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.hl7.fhir.r4.model.Bundle;
+import org.techbd.config.Configuration;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import ca.uhn.fhir.context.FhirContext;
+
+/**
+ * A FHIR bundle payload that is parsed at most once per request.
+ * <p>
+ * {@code FHIRService.processBundle} used to re-read the same JSON for the
+ * bundle id, the JSON check, the profile check, the validation engine and the
+ * scoring-engine payload. This carrier keeps the raw text together with the
+ * Jackson tree and the HAPI {@link Bundle}, both built lazily on first use and
+ * then shared by every stage. Instances belong to one request; the lazy
+ * getters are synchronized only so that the carrier can be handed to another
+ * thread safely.
+ */
+public final class ParsedBundle {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    private final String payload;
+    private JsonNode json;
+    private JsonProcessingException jsonError;
+    private boolean jsonParsed;
+    private Bundle bundle;
+    private List<String> profileUrls;
+
+    public ParsedBundle(final String payload) {
+        this.payload = payload;
+    }
+
+    /**
+     * A payload whose HAPI {@link Bundle} already exists, typically because
+     * {@code payload} was encoded from it; {@link #bundle(FhirContext)} then
+     * returns {@code bundle} without parsing.
+     */
+    public ParsedBundle(final String payload, final Bundle bundle) {
+        this.payload = payload;
+        this.bundle = bundle;
+    }
+
+    /** The payload exactly as received. */
+    public String payload() {
+        return payload;
+    }
+
+    /**
+     * The Jackson tree of the payload.
+     *
+     * @throws JsonProcessingException if the payload is not valid JSON; the
+     *                                 same exception is rethrown on every call
+     */
+    public synchronized JsonNode json() throws JsonProcessingException {
+        if (!jsonParsed) {
+            try {
+                json = Configuration.objectMapper.readTree(payload);
+            } catch (final JsonProcessingException e) {
+                jsonError = e;
+            }
+            jsonParsed = true;
+        }
+        if (jsonError != null) {
+            throw jsonError;
+        }
+        return json;
+    }
+
+    /** {@code true} when the payload parses as JSON. */
+    public boolean isJson() {
+        try {
+            json();
+            return true;
+        } catch (final JsonProcessingException e) {
+            return false;
+        }
+    }
+
+    /**
+     * The {@code meta.profile} entries of the bundle, empty when there are
+     * none or the payload is not JSON.
+     */
+    public synchronized List<String> profileUrls() {
+        if (profileUrls == null) {
+            final List<String> urls = new ArrayList<>();
+            if (isJson()) {
+                final JsonNode profileNode = json.path("meta").path("profile");
+                if (profileNode.isArray()) {
+                    profileNode.forEach(node -> urls.add(node.asText()));
+                }
+            }
+            profileUrls = Collections.unmodifiableList(urls);
+        }
+        return profileUrls;
+    }
+
+    /** The first {@code meta.profile} entry, or {@code null}. */
+    public String firstProfileUrl() {
+        final List<String> urls = profileUrls();
+        return urls.isEmpty() ? null : urls.get(0);
+    }
+
+    /**
+     * The payload parsed into a HAPI {@link Bundle} with the given context,
+     * whose parser error handler applies. Parsed on the first call only, and
+     * not at all when the bundle was supplied at construction.
+     *
+     * @throws ca.uhn.fhir.parser.DataFormatException if the payload is not a
+     *                                                FHIR bundle
+     */
+    public synchronized Bundle bundle(final FhirContext fhirContext) {
+        if (bundle == null) {
+            bundle = fhirContext.newJsonParser().parseResource(Bundle.class, payload);
+        }
+        return bundle;
+    }
+
+    /**
+     * The HAPI {@link Bundle} if it was supplied at construction or has
+     * already been parsed, otherwise {@code null}; never parses.
+     */
+    public synchronized Bundle parsedBundle() {
+        return bundle;
+    }
+
+    /**
+     * A new mutable map of the payload, converted from the cached tree rather
+     * than re-reading the text. Callers may modify the returned map.
+     */
+    public Map<String, Object> toMap() throws JsonProcessingException {
+        return Configuration.objectMapper.convertValue(json(), MAP_TYPE);
+    }
+}
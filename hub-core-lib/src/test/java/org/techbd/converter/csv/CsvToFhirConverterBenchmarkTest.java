@@ -0,0 +1,150 @@
+package org.techbd.converter.csv;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.List;
+
+import org.hl7.fhir.r4.model.Bundle;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.techbd.converters.csv.BundleConverter;
+import org.techbd.converters.csv.ConsentConverter;
+import org.techbd.converters.csv.CsvToFhirConverter;
+import org.techbd.converters.csv.EncounterConverter;
+import org.techbd.converters.csv.IConverter;
+import org.techbd.converters.csv.OrganizationConverter;
+import org.techbd.converters.csv.PatientConverter;
+import org.techbd.converters.csv.ProcedureConverter;
+import org.techbd.converters.csv.ScreeningResponseObservationConverter;
+import org.techbd.converters.csv.SexualOrientationObservationConverter;
+import org.techbd.model.csv.DemographicData;
+import org.techbd.model.csv.QeAdminData;
+import org.techbd.model.csv.ScreeningObservationData;
+import org.techbd.model.csv.ScreeningProfileData;
+import org.techbd.service.csv.CodeLookupService;
+import org.techbd.util.AppLogger;
+import org.techbd.util.TemplateLogger;
+import org.techbd.util.fhir.CoreFHIRUtil;
+
+import ca.uhn.fhir.context.FhirContext;
+
+/**
+ * The full {@link IConverter} chain behind {@link CsvToFhirConverter}: the
+ * in-memory bundle handed to validation must match what the previous encode
+ * and parse-back in {@code FHIRService} produced. The throughput comparison of
+ * the two paths is tagged {@code benchmark} and left out of the default build.
+ */
+@ExtendWith(MockitoExtension.class)
+class CsvToFhirConverterBenchmarkTest {
+    private static final Logger LOG = LoggerFactory.getLogger(CsvToFhirConverterBenchmarkTest.class.getName());
+
+    @Mock
+    CodeLookupService codeLookupService;
+
+    @Mock
+    DSLContext dslContext;
+
+    @Mock
+    AppLogger appLogger;
+
+    @Mock
+    TemplateLogger templateLogger;
+
+    private CsvToFhirConverter csvToFhirConverter;
+    private DemographicData demographicData;
+    private QeAdminData qeAdminData;
+    private ScreeningProfileData screeningProfileData;
+    private List<ScreeningObservationData> screeningObservationData;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        lenient().when(appLogger.getLogger(any())).thenReturn(templateLogger);
+        lenient().when(codeLookupService.fetchCode(any(), anyString())).thenReturn(new HashMap<>());
+        lenient().when(codeLookupService.fetchSystem(any(), anyString())).thenReturn(new HashMap<>());
+        lenient().when(codeLookupService.fetchDisplay(any(), anyString())).thenReturn(new HashMap<>());
+        Field profileMapField = CoreFHIRUtil.class.getDeclaredField("PROFILE_MAP");
+        profileMapField.setAccessible(true);
+        profileMapField.set(null, CsvTestHelper.getProfileMap());
+        Field baseFhirUrlField = CoreFHIRUtil.class.getDeclaredField("BASE_FHIR_URL");
+        baseFhirUrlField.setAccessible(true);
+        baseFhirUrlField.set(null, CsvTestHelper.BASE_FHIR_URL);
+
+        final List<IConverter> converters = List.of(
+                new OrganizationConverter(codeLookupService, dslContext, appLogger),
+                new PatientConverter(codeLookupService, dslContext, appLogger),
+                new SexualOrientationObservationConverter(codeLookupService, dslContext, appLogger),
+                new ConsentConverter(codeLookupService, dslContext),
+                new EncounterConverter(codeLookupService, dslContext, appLogger),
+                new ScreeningResponseObservationConverter(codeLookupService, dslContext, appLogger),
+                new ProcedureConverter(codeLookupService, dslContext, appLogger));
+        csvToFhirConverter = new CsvToFhirConverter(new BundleConverter(), converters, appLogger);
+
+        demographicData = CsvTestHelper.createDemographicData();
+        qeAdminData = CsvTestHelper.createQeAdminData();
+        screeningProfileData = CsvTestHelper.createScreeningProfileData();
+        screeningObservationData = CsvTestHelper.createScreeningObservationData();
+    }
+
+    private Bundle convert(int i) {
+        return csvToFhirConverter.convertToBundle(demographicData, qeAdminData, screeningProfileData,
+                screeningObservationData, "interaction-" + i, CsvTestHelper.BASE_FHIR_URL);
+    }
+
+    private static Bundle parse(String json) {
+        return FhirContext.forR4Cached().newJsonParser().parseResource(Bundle.class, json);
+    }
+
+    @Test
+    void encodedBundleMatchesInMemoryBundle() {
+        final Bundle bundle = convert(0);
+        final String json = csvToFhirConverter.encode(bundle);
+
+        final Bundle parsed = parse(json);
+        assertThat(bundle.getEntry()).isNotEmpty();
+        assertThat(parsed.getEntry()).hasSameSizeAs(bundle.getEntry());
+        assertThat(parsed.getIdElement().getIdPart()).isEqualTo(bundle.getIdElement().getIdPart());
+        // the parsed-back bundle, which validation used to see, carries the same content
+        assertThat(csvToFhirConverter.encode(parsed)).isEqualTo(json);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void inMemoryBundleThroughput() {
+        final int warmup = 5;
+        final int iterations = 20;
+        for (int i = 0; i < warmup; i++) {
+            parse(csvToFhirConverter.encode(convert(i)));
+            csvToFhirConverter.encode(convert(i));
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            assertThat(parse(csvToFhirConverter.encode(convert(i))).getEntry()).isNotEmpty();
+        }
+        final long previousNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            final Bundle bundle = convert(i);
+            assertThat(csvToFhirConverter.encode(bundle)).isNotEmpty();
+            assertThat(bundle.getEntry()).isNotEmpty();
+        }
+        final long inMemoryNanos = System.nanoTime() - start;
+
+        LOG.info("IConverter chain, {} bundles: encode + parse {} bundles/s, encode only {} bundles/s",
+                iterations, String.format("%.1f", iterations / (previousNanos / 1e9)),
+                String.format("%.1f", iterations / (inMemoryNanos / 1e9)));
+    }
+}
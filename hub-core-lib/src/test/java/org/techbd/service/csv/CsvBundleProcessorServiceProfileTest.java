@@ -0,0 +1,153 @@
+package org.techbd.service.csv;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hl7.fhir.r4.model.Bundle;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
+import org.techbd.config.Constants;
+import org.techbd.config.CoreAppConfig;
+import org.techbd.converters.csv.CsvToFhirConverter;
+import org.techbd.model.csv.CsvDataValidationStatus;
+import org.techbd.model.csv.CsvProcessingMetrics;
+import org.techbd.model.csv.DemographicData;
+import org.techbd.model.csv.FileDetail;
+import org.techbd.model.csv.FileType;
+import org.techbd.model.csv.PayloadAndValidationOutcome;
+import org.techbd.model.csv.QeAdminData;
+import org.techbd.model.csv.ScreeningObservationData;
+import org.techbd.model.csv.ScreeningProfileData;
+import org.techbd.service.dataledger.CoreDataLedgerApiClient;
+import org.techbd.service.fhir.FHIRService;
+import org.techbd.util.AppLogger;
+import org.techbd.util.TemplateLogger;
+import org.techbd.util.csv.CsvConversionUtil;
+import org.techbd.util.fhir.ParsedBundle;
+
+/**
+ * One screening profile is converted and submitted, the other misses its
+ * observations; each bundle is handled by {@code processProfile} on the bundle
+ * pool with its own copy of the request parameters.
+ */
+class CsvBundleProcessorServiceProfileTest {
+
+    private static final String BUNDLE = "{\"resourceType\":\"Bundle\",\"id\":\"bundle-1\"}";
+
+    private final CsvToFhirConverter csvToFhirConverter = mock(CsvToFhirConverter.class);
+    private final FHIRService fhirService = mock(FHIRService.class);
+    private final CoreAppConfig coreAppConfig = mock(CoreAppConfig.class);
+    private CsvBundleProcessorService service;
+    private MockedStatic<CsvConversionUtil> csvConversionUtil;
+
+    @BeforeEach
+    void setUp() {
+        final AppLogger appLogger = mock(AppLogger.class);
+        when(appLogger.getLogger(any())).thenReturn(mock(TemplateLogger.class));
+        when(coreAppConfig.getVersion()).thenReturn("0.0.0-test");
+        service = new CsvBundleProcessorService(csvToFhirConverter, fhirService,
+                mock(CoreDataLedgerApiClient.class), coreAppConfig, mock(DSLContext.class), appLogger);
+
+        csvConversionUtil = mockStatic(CsvConversionUtil.class, CALLS_REAL_METHODS);
+        csvConversionUtil.when(() -> CsvConversionUtil.convertCsvStringToDemographicData(any(), any(), any()))
+                .thenReturn(Map.of("mrn-1", List.of(new DemographicData()), "mrn-2", List.of(new DemographicData())));
+        csvConversionUtil.when(() -> CsvConversionUtil.convertCsvStringToQeAdminData(any(), any(), any()))
+                .thenReturn(Map.of("mrn-1", List.of(new QeAdminData()), "mrn-2", List.of(new QeAdminData())));
+        csvConversionUtil.when(() -> CsvConversionUtil.convertCsvStringToScreeningProfileData(any(), any(), any()))
+                .thenReturn(Map.of("enc-1", List.of(profile("mrn-1", "enc-1"), profile("mrn-2", "enc-2"))));
+        // enc-2 has no observations
+        csvConversionUtil.when(() -> CsvConversionUtil.convertCsvStringToScreeningObservationData(any(), any(), any()))
+                .thenReturn(Map.of("enc-1", List.of(new ScreeningObservationData())));
+    }
+
+    @AfterEach
+    void tearDown() {
+        csvConversionUtil.close();
+        service.shutdown();
+    }
+
+    private static ScreeningProfileData profile(String patientMrId, String encounterId) {
+        final ScreeningProfileData profile = new ScreeningProfileData();
+        profile.setPatientMrIdValue(patientMrId);
+        profile.setEncounterId(encounterId);
+        return profile;
+    }
+
+    private static FileDetail file(FileType type) {
+        return new FileDetail(type.name() + ".csv", type, "content", "/tmp/" + type.name() + ".csv", true, null);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void submitsSuccessfulProfileAndReportsFailedOneInProfileOrder() throws Exception {
+        final Bundle fhirBundle = new Bundle();
+        when(csvToFhirConverter.convertToBundle(any(), any(), any(), anyList(), anyString(), any()))
+                .thenReturn(fhirBundle);
+        when(csvToFhirConverter.encode(fhirBundle)).thenReturn(BUNDLE);
+        final Map<String, Object> submitted = Map.of("resourceType", "OperationOutcome", "bundle", "bundle-1");
+        when(fhirService.processBundle(any(ParsedBundle.class), any(), any())).thenReturn(submitted);
+
+        final List<FileDetail> files = List.of(file(FileType.SDOH_PtInfo),
+                file(FileType.SDOH_QEadmin),
+                file(FileType.SDOH_ScreeningProf),
+                file(FileType.SDOH_ScreeningObs));
+        final Map<String, Object> requestParameters = new HashMap<>(Map.of(
+                Constants.REQUEST_URI, "/flatfile/csv/Bundle",
+                Constants.VALIDATION_SEVERITY_LEVEL, "error"));
+        final Map<String, Object> responseParameters = new HashMap<>();
+        final var metrics = CsvProcessingMetrics.builder()
+                .dataValidationStatus(CsvDataValidationStatus.SUCCESS.getDescription());
+
+        final List<Object> results = service.processPayload("master-1",
+                Map.of("group-1", new PayloadAndValidationOutcome(files, true, "group-interaction-1",
+                        new HashMap<>(), Map.of())),
+                List.of(), requestParameters, responseParameters, "tenant-1", "upload.zip",
+                "http://shinny.org/us/ny/hrsn", metrics);
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0)).isSameAs(submitted);
+        final Map<String, Object> failure = (Map<String, Object>) results.get(1);
+        assertThat(failure).containsEntry("patientMrId", "mrn-2").containsEntry("encounterId", "enc-2");
+        assertThat((Map<String, Object>) failure.get("validationResults"))
+                .containsEntry("resourceType", "OperationOutcome");
+        assertThat(failure.get("validationResults").toString())
+                .contains("data-integrity")
+                .contains("Foreign Key Error");
+        // one bundle was generated, so the failed profile makes the upload a partial success
+        assertThat(metrics.build().getDataValidationStatus())
+                .isEqualTo(CsvDataValidationStatus.PARTIAL_SUCCESS.getDescription());
+        assertThat(metrics.build().getNumberOfFhirBundlesGeneratedFromZipFile()).isEqualTo(1);
+        assertThat(responseParameters)
+                .containsKeys("X-Observability-Metric-Interaction-Start-Time", Constants.METRIC_COOKIE);
+
+        final ArgumentCaptor<Map<String, Object>> bundleParameters = ArgumentCaptor.forClass(Map.class);
+        verify(fhirService, times(1)).processBundle(argThat((ParsedBundle bundle) -> BUNDLE.equals(bundle.payload())),
+                bundleParameters.capture(), eq(responseParameters));
+        assertThat(bundleParameters.getValue())
+                .containsEntry(Constants.GROUP_INTERACTION_ID, "group-interaction-1")
+                .containsEntry(Constants.MASTER_INTERACTION_ID, "master-1")
+                .containsEntry(Constants.REQUEST_URI, "/flatfile/csv/Bundle")
+                .containsKey(Constants.INTERACTION_ID);
+        assertThat(bundleParameters.getValue()).isNotSameAs(requestParameters);
+        // the caller's parameters are not touched by the per-bundle copies
+        assertThat(requestParameters).doesNotContainKeys(Constants.INTERACTION_ID, Constants.GROUP_INTERACTION_ID);
+    }
+}
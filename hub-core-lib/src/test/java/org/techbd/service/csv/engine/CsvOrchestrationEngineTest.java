@@ -0,0 +1,81 @@
+package org.techbd.service.csv.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class CsvOrchestrationEngineTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void mergesGroupResultsInSubmissionOrder() throws Exception {
+        final CountDownLatch lastGroupDone = new CountDownLatch(1);
+
+        final List<String> results = CsvOrchestrationEngine.validateGroupsInOrder(List.of("g1", "g2", "g3", "g4"),
+                group -> {
+                    try {
+                        if (group.equals("g4")) {
+                            lastGroupDone.countDown();
+                        } else {
+                            // earlier groups finish only after the last one
+                            lastGroupDone.await(10, TimeUnit.SECONDS);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return group + "-validated";
+                }, executor);
+
+        assertThat(results).containsExactly("g1-validated", "g2-validated", "g3-validated", "g4-validated");
+    }
+
+    @Test
+    void groupFailureIsRethrownAndCancelsRemainingGroups() throws Exception {
+        final CountDownLatch slowGroupStarted = new CountDownLatch(1);
+        final AtomicBoolean slowGroupInterrupted = new AtomicBoolean();
+        final AtomicInteger started = new AtomicInteger();
+
+        assertThatThrownBy(() -> CsvOrchestrationEngine.validateGroupsInOrder(List.of("failing", "slow"),
+                group -> {
+                    started.incrementAndGet();
+                    if (group.equals("failing")) {
+                        try {
+                            slowGroupStarted.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        throw new IllegalStateException("group failing could not be validated");
+                    }
+                    slowGroupStarted.countDown();
+                    try {
+                        Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                    } catch (InterruptedException e) {
+                        slowGroupInterrupted.set(true);
+                    }
+                    return group;
+                }, executor))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("group failing could not be validated");
+
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(slowGroupInterrupted).isTrue();
+        assertThat(started).hasValue(2);
+    }
+}
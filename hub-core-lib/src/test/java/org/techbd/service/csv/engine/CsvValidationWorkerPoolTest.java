@@ -0,0 +1,118 @@
+package org.techbd.service.csv.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CsvValidationWorkerPoolTest {
+
+    /**
+     * Stand-in for the validation script's worker mode: echoes the request
+     * arguments, exits on "crash" and never answers "hang".
+     */
+    private static final String WORKER = """
+            import json, os, sys, time
+            print(json.dumps({"ready": True}), flush=True)
+            for line in sys.stdin:
+                request = json.loads(line)
+                if request.get("ping"):
+                    print(json.dumps({"id": request["id"], "pong": True}), flush=True)
+                    continue
+                args = request["args"]
+                if args[0] == "crash":
+                    sys.exit(3)
+                if args[0] == "hang":
+                    time.sleep(60)
+                os.chdir(request["cwd"])
+                output = json.dumps({"pid": os.getpid(), "args": args, "cwd": os.getcwd()})
+                print(json.dumps({"id": request["id"], "exitCode": 0, "output": output}), flush=True)
+            """;
+
+    @TempDir
+    static Path scriptDir;
+
+    private static Path script;
+
+    @BeforeAll
+    static void writeWorker() throws Exception {
+        script = Files.writeString(scriptDir.resolve("worker.py"), WORKER);
+    }
+
+    private static CsvValidationWorkerPool pool(int workers, Duration timeout) {
+        assumeTrue(pythonAvailable(), "python3 is required for worker tests");
+        return new CsvValidationWorkerPool("python3", script, workers, timeout, Duration.ofMinutes(1));
+    }
+
+    private static boolean pythonAvailable() {
+        try {
+            return new ProcessBuilder("python3", "--version").start().waitFor() == 0;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @Test
+    void reusesWorkerAcrossRequests(@TempDir Path groupDir) throws Exception {
+        try (CsvValidationWorkerPool pool = pool(1, Duration.ofSeconds(30))) {
+            var first = pool.validate(groupDir, List.of("spec.json", "a.csv", "b.csv", "c.csv", "d.csv"));
+            var second = pool.validate(groupDir, List.of("spec.json", "e.csv", "f.csv", "g.csv", "h.csv"));
+
+            assertThat(first.exitCode()).isZero();
+            assertThat(first.output()).contains("\"a.csv\"").contains(groupDir.toRealPath().toString());
+            assertThat(pid(second.output())).isEqualTo(pid(first.output()));
+        }
+    }
+
+    @Test
+    void replacesCrashedWorker(@TempDir Path groupDir) throws Exception {
+        try (CsvValidationWorkerPool pool = pool(1, Duration.ofSeconds(30))) {
+            var before = pool.validate(groupDir, List.of("spec.json", "a.csv", "b.csv", "c.csv", "d.csv"));
+
+            assertThatThrownBy(() -> pool.validate(groupDir, List.of("crash", "a", "b", "c", "d")))
+                    .isInstanceOf(CsvValidationWorkerPool.WorkerUnavailableException.class);
+
+            var after = pool.validate(groupDir, List.of("spec.json", "a.csv", "b.csv", "c.csv", "d.csv"));
+            assertThat(after.exitCode()).isZero();
+            assertThat(pid(after.output())).isNotEqualTo(pid(before.output()));
+        }
+    }
+
+    @Test
+    void timesOutHungWorker(@TempDir Path groupDir) throws Exception {
+        try (CsvValidationWorkerPool pool = pool(1, Duration.ofSeconds(2))) {
+            assertThatThrownBy(() -> pool.validate(groupDir, List.of("hang", "a", "b", "c", "d")))
+                    .isInstanceOf(CsvValidationWorkerPool.WorkerTimeoutException.class)
+                    .hasMessageContaining("timed out");
+
+            assertThat(pool.validate(groupDir, List.of("spec.json", "a.csv", "b.csv", "c.csv", "d.csv")).exitCode())
+                    .isZero();
+        }
+    }
+
+    @Test
+    void retiresWorkerAfterMaxRequests(@TempDir Path groupDir) throws Exception {
+        assumeTrue(pythonAvailable(), "python3 is required for worker tests");
+        try (CsvValidationWorkerPool pool = new CsvValidationWorkerPool("python3", script, 1, Duration.ofSeconds(30),
+                Duration.ofMinutes(1), 2)) {
+            var first = pool.validate(groupDir, List.of("spec.json", "a.csv", "b.csv", "c.csv", "d.csv"));
+            var second = pool.validate(groupDir, List.of("spec.json", "a.csv", "b.csv", "c.csv", "d.csv"));
+            var third = pool.validate(groupDir, List.of("spec.json", "a.csv", "b.csv", "c.csv", "d.csv"));
+
+            assertThat(pid(second.output())).isEqualTo(pid(first.output()));
+            assertThat(pid(third.output())).isNotEqualTo(pid(first.output()));
+        }
+    }
+
+    private static String pid(String output) {
+        return output.replaceAll(".*\"pid\": (\\d+).*", "$1");
+    }
+}
@@ -0,0 +1,173 @@
+package org.techbd.service.dataledger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.techbd.config.CoreAppConfig.DataLedgerDispatchConfig;
+
+class DataLedgerDispatcherTest {
+
+    record Outcome(String interactionId, Integer status, String error, Map<String, Object> metrics) {
+    }
+
+    private final HttpClient httpClient = mock(HttpClient.class);
+    private final BlockingQueue<Outcome> outcomes = new LinkedBlockingQueue<>();
+    private final AtomicInteger keyLookups = new AtomicInteger();
+    private DataLedgerDispatcher dispatcher;
+
+    @TempDir
+    Path spillDir;
+
+    @AfterEach
+    void close() {
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+    }
+
+    private DataLedgerDispatcher dispatcher(String spillDirectory) {
+        DataLedgerDispatchConfig config = new DataLedgerDispatchConfig();
+        config.setSenders(2);
+        config.setMaxAttempts(3);
+        config.setInitialBackoffMillis(1);
+        config.setMaxBackoffMillis(5);
+        config.setRequestTimeoutSeconds(5);
+        config.setSpillDir(spillDirectory);
+        config.setSpillReplaySeconds(1);
+        dispatcher = new DataLedgerDispatcher(httpClient, config, () -> "key-" + keyLookups.incrementAndGet(),
+                (event, response, error, metrics) -> outcomes.add(new Outcome(event.interactionId(),
+                        response == null ? null : response.statusCode(), error, metrics)));
+        return dispatcher;
+    }
+
+    private static DataLedgerDispatcher.Event event(String interactionId) {
+        return new DataLedgerDispatcher.Event("http://ledger.test/DataLedger", "{\"dataId\":\"" + interactionId + "\"}",
+                interactionId, null, null, "sent", "test", "CSV", Map.of("k", "v"), System.currentTimeMillis());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CompletableFuture<HttpResponse<String>> status(int code) {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(code);
+        return CompletableFuture.completedFuture(response);
+    }
+
+    private static CompletableFuture<HttpResponse<String>> unreachable() {
+        return CompletableFuture.failedFuture(new IOException("connection refused"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void retriesServerErrorsUntilDelivered() throws Exception {
+        var unavailable = status(503);
+        var ok = status(200);
+        when(httpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(unavailable, unavailable, ok);
+
+        dispatcher(null).submit(event("i-1"));
+
+        Outcome outcome = outcomes.poll(5, TimeUnit.SECONDS);
+        assertThat(outcome.status()).isEqualTo(200);
+        assertThat(outcome.metrics()).containsEntry("attempts", 3).containsKeys("queueDepth", "queuedMillis");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void doesNotRetryClientErrors() throws Exception {
+        var badRequest = status(400);
+        when(httpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(badRequest);
+
+        dispatcher(null).submit(event("i-1"));
+
+        assertThat(outcomes.poll(5, TimeUnit.SECONDS).status()).isEqualTo(400);
+        verify(httpClient, times(1)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void cachesApiKeyAndRefreshesItOnUnauthorized() throws Exception {
+        var ok = status(200);
+        var unauthorized = status(401);
+        when(httpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(ok, unauthorized, ok);
+
+        DataLedgerDispatcher dispatcher = dispatcher(null);
+        dispatcher.submit(event("i-1"));
+        assertThat(outcomes.poll(5, TimeUnit.SECONDS).status()).isEqualTo(200);
+        assertThat(keyLookups).hasValue(1);
+
+        dispatcher.submit(event("i-2"));
+        assertThat(outcomes.poll(5, TimeUnit.SECONDS).status()).isEqualTo(200);
+        assertThat(keyLookups).hasValue(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reportsPersistentUnauthorizedAsFailedWithoutMarkingLedgerDown() throws Exception {
+        var forbidden = status(403);
+        var ok = status(200);
+        when(httpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(forbidden, forbidden, ok);
+
+        DataLedgerDispatcher dispatcher = dispatcher(spillDir.toString());
+        dispatcher.submit(event("i-1"));
+        Outcome outcome = outcomes.poll(5, TimeUnit.SECONDS);
+        assertThat(outcome.status()).isEqualTo(403);
+        assertThat(outcome.metrics()).containsEntry("attempts", 2).containsEntry("spilledTotal", 0L);
+        assertThat(keyLookups).hasValue(2);
+
+        dispatcher.submit(event("i-2"));
+        assertThat(outcomes.poll(5, TimeUnit.SECONDS).status()).isEqualTo(200);
+        assertThat(spillDir.resolve("dataledger-spill.ndjson")).doesNotExist();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reportsFailureWithoutSpillDirectory() throws Exception {
+        when(httpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(unreachable());
+
+        dispatcher(null).submit(event("i-1"));
+
+        Outcome outcome = outcomes.poll(5, TimeUnit.SECONDS);
+        assertThat(outcome.status()).isNull();
+        assertThat(outcome.error()).contains("connection refused");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void spillsWhileLedgerIsDownAndReplaysWhenBack() throws Exception {
+        var ok = status(200);
+        when(httpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(unreachable(), unreachable(), unreachable(), ok);
+
+        dispatcher(spillDir.toString()).submit(event("i-1"));
+
+        Outcome outcome = outcomes.poll(10, TimeUnit.SECONDS);
+        assertThat(outcome).isNotNull();
+        assertThat(outcome.interactionId()).isEqualTo("i-1");
+        assertThat(outcome.status()).isEqualTo(200);
+        assertThat(outcome.metrics()).containsEntry("spilledTotal", 1L);
+        assertThat(spillDir.resolve("dataledger-spill.ndjson")).doesNotExist();
+    }
+}
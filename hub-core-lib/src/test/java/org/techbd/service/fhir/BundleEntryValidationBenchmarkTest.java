@@ -0,0 +1,136 @@
+package org.techbd.service.fhir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.techbd.config.CoreAppConfig.BundleEntryValidationConfig;
+import org.techbd.service.fhir.engine.OrchestrationEngine;
+import org.techbd.util.AppLogger;
+import org.techbd.util.TemplateLogger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Latency of validating generated SHIN-NY bundles of 100 to 800 entries with
+ * their entries spread over 1, 2, 4 and 8 entry-validation threads. The
+ * figures are logged rather than asserted because CI hosts vary.
+ */
+@Tag("benchmark")
+class BundleEntryValidationBenchmarkTest extends BaseIgValidationTest {
+
+        private static final Logger LOG = LoggerFactory.getLogger(BundleEntryValidationBenchmarkTest.class);
+        private static final Path EXAMPLE = Path.of(
+                        "src/test/resources/org/techbd/ig-examples/shinny-examples/Bundle-AHCHRSNScreeningResponseExample.json");
+        private static final int[] ENTRIES = { 100, 200, 400, 800 };
+        private static final int[] THREADS = { 1, 2, 4, 8 };
+        private static final int RUNS = 3;
+
+        private record Sample(String name, String payload, int entries) {
+        }
+
+        @Test
+        void entryValidationLatencyByThreadCount() throws Exception {
+                final var hapi = entryValidatingEngine();
+                final var executor = hapi.getEntryValidationExecutor();
+                final List<Sample> samples = samples();
+                for (Sample sample : samples) {
+                        hapi.validate(sample.payload(), UUID.randomUUID().toString(), null);
+                }
+
+                final var report = new StringBuilder("%-20s %7s".formatted("bundle", "entries"));
+                for (int threads : THREADS) {
+                        report.append(" %7s".formatted(threads + "t ms"));
+                }
+                for (Sample sample : samples) {
+                        report.append("%n%-20s %7d".formatted(sample.name(), sample.entries()));
+                        for (int threads : THREADS) {
+                                resize(executor, threads);
+                                long best = Long.MAX_VALUE;
+                                for (int run = 0; run < RUNS; run++) {
+                                        final long start = System.nanoTime();
+                                        final var result = hapi.validate(sample.payload(),
+                                                        UUID.randomUUID().toString(), null);
+                                        best = Math.min(best, System.nanoTime() - start);
+                                        assertThat(result.getOperationOutcome()).doesNotContain("did not finish");
+                                }
+                                report.append(" %7d".formatted(TimeUnit.NANOSECONDS.toMillis(best)));
+                        }
+                }
+                LOG.info("Bundle entry validation latency by thread count:{}{}", System.lineSeparator(), report);
+        }
+
+        private static OrchestrationEngine.HapiValidationEngine entryValidatingEngine() {
+                final var config = new BundleEntryValidationConfig();
+                config.setEnabled(true);
+                config.setThreads(THREADS[THREADS.length - 1]);
+                final var appLogger = mock(AppLogger.class);
+                final var templateLogger = mock(TemplateLogger.class);
+                when(appLogger.getLogger(any())).thenReturn(templateLogger);
+                return new OrchestrationEngine.HapiValidationEngine.Builder()
+                                .withIgPackages(appConfig.getIgPackages())
+                                .withTracer(tracer)
+                                .withAppLogger(appLogger)
+                                .withTemplateLogger(templateLogger)
+                                .withBundleEntryValidationConfig(config)
+                                .build();
+        }
+
+        /**
+         * Grows the screening response example to each size in {@link #ENTRIES}
+         * by repeating its observations under new ids, so every generated
+         * bundle is above the default {@code min-entries}.
+         */
+        private static List<Sample> samples() throws Exception {
+                final var mapper = new ObjectMapper();
+                final JsonNode example = mapper.readTree(Files.readString(EXAMPLE));
+                final List<JsonNode> observations = new ArrayList<>();
+                example.path("entry").forEach(entry -> {
+                        if ("Observation".equals(entry.path("resource").path("resourceType").asText())) {
+                                observations.add(entry);
+                        }
+                });
+                final List<Sample> samples = new ArrayList<>();
+                for (int size : ENTRIES) {
+                        final ObjectNode bundle = example.deepCopy();
+                        final ArrayNode entries = (ArrayNode) bundle.path("entry");
+                        for (int copy = 0; entries.size() < size; copy++) {
+                                final ObjectNode entry = observations.get(copy % observations.size()).deepCopy();
+                                final ObjectNode resource = (ObjectNode) entry.path("resource");
+                                final String id = resource.path("id").asText() + "-" + copy;
+                                resource.put("id", id);
+                                entry.put("fullUrl", "http://shinny.org/us/ny/hrsn/Observation/" + id);
+                                entries.add(entry);
+                        }
+                        bundle.put("id", "generated-" + size);
+                        samples.add(new Sample("generated-" + size, mapper.writeValueAsString(bundle), entries.size()));
+                }
+                return samples;
+        }
+
+        private static void resize(ThreadPoolExecutor executor, int threads) {
+                if (threads > executor.getMaximumPoolSize()) {
+                        executor.setMaximumPoolSize(threads);
+                        executor.setCorePoolSize(threads);
+                } else {
+                        executor.setCorePoolSize(threads);
+                        executor.setMaximumPoolSize(threads);
+                }
+        }
+}
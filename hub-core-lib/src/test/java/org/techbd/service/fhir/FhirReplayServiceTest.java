@@ -0,0 +1,301 @@
+package org.techbd.service.fhir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.JSONB;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.jooq.tools.jdbc.MockConnection;
+import org.jooq.tools.jdbc.MockExecuteContext;
+import org.jooq.tools.jdbc.MockResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskExecutor;
+import org.techbd.config.CoreAppConfig;
+import org.techbd.config.Nature;
+import org.techbd.config.SourceType;
+import org.techbd.util.AppLogger;
+import org.techbd.util.TemplateLogger;
+import org.techbd.util.fhir.ParsedBundle;
+
+/**
+ * Replays against an in-memory stand-in for {@code fhir_replay_details} and
+ * {@code sat_interaction_fhir_request}, answered through jOOQ's mock JDBC
+ * connection.
+ */
+class FhirReplayServiceTest {
+
+    private static final String REPLAY_ID = "replay-1";
+    private static final DSLContext RESULTS = DSL.using(SQLDialect.POSTGRES);
+
+    /** A row of {@code fhir_replay_details}. */
+    private static final class Detail {
+        final String interactionId;
+        final String bundleId;
+        String status;
+
+        Detail(String interactionId, String bundleId, String status) {
+            this.interactionId = interactionId;
+            this.bundleId = bundleId;
+            this.status = status;
+        }
+    }
+
+    /** A replay status written through {@code update_fhir_replay_status}. */
+    private record StatusUpdate(String interactionId, String status, String errorMessage) {
+    }
+
+    private final List<Detail> details = new ArrayList<>();
+    private final List<Object[]> failures = new ArrayList<>();
+    private final Map<String, String> payloads = new HashMap<>();
+    private final List<String> keyQueries = Collections.synchronizedList(new ArrayList<>());
+    private final List<StatusUpdate> statusUpdates = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> sent = Collections.synchronizedList(new ArrayList<>());
+
+    private final FHIRService fhirService = mock(FHIRService.class);
+    private final CoreAppConfig.FhirReplayConfig replayConfig = new CoreAppConfig.FhirReplayConfig();
+    private FhirReplayService service;
+
+    @BeforeEach
+    void setUp() {
+        replayConfig.setRequestsPerSecond(0);
+        replayConfig.setParallelism(1);
+        replayConfig.setPageSize(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    private FhirReplayService service() {
+        final AppLogger appLogger = mock(AppLogger.class);
+        when(appLogger.getLogger(any())).thenReturn(mock(TemplateLogger.class));
+        final CoreAppConfig appConfig = mock(CoreAppConfig.class);
+        when(appConfig.getFhirReplay()).thenReturn(replayConfig);
+        when(appConfig.getDefaultDatalakeApiUrl()).thenReturn("http://datalake.test");
+        final DSLContext dsl = DSL.using(new MockConnection(this::execute), SQLDialect.POSTGRES);
+        service = new FhirReplayService(fhirService, appLogger, appConfig, dsl, mock(TaskExecutor.class));
+        return service;
+    }
+
+    private void answerSends(CompletableFuture<Void> answer) {
+        when(fhirService.sendToScoringEngine(any(), any(), any(), nullable(ParsedBundle.class), any(), any(), any(),
+                any(), any(), any(), any(), any(), any(), any(), anyBoolean(), any()))
+                .thenAnswer(invocation -> {
+                    sent.add(invocation.getArgument(7));
+                    return answer;
+                });
+    }
+
+    private void addBundle(String interactionId, String bundleId, String status) {
+        details.add(new Detail(interactionId, bundleId, status));
+        failures.add(new Object[] { interactionId, bundleId, "tenant-" + interactionId, SourceType.FHIR.name(),
+                "/Bundle", null, null, Nature.FORWARDED_HTTP_RESPONSE_ERROR.getDescription() });
+        payloads.put(interactionId, "{\"resourceType\":\"Bundle\",\"id\":\"" + bundleId + "\"}");
+    }
+
+    @Test
+    void candidateQueryPrefersReplayErrorAndResolvesCsvInteractionIds() {
+        details.add(new Detail("i-csv", "b-csv", null));
+        details.add(new Detail("i-fhir", "b-fhir", null));
+        failures.add(new Object[] { "i-csv", "b-csv", "tenant-1", SourceType.CSV.name(), "/Bundle/replayed",
+                "group-1", "zip-1", Nature.FORWARDED_HTTP_RESPONSE_REPLAY_ERROR.getDescription() });
+        failures.add(new Object[] { "i-csv", "b-csv", "tenant-1", SourceType.CSV.name(), "/Bundle/original",
+                "group-1", "zip-1", Nature.FORWARDED_HTTP_RESPONSE_ERROR.getDescription() });
+        failures.add(new Object[] { "i-fhir", "b-fhir", "tenant-2", SourceType.FHIR.name(), "/Bundle",
+                "group-2", "zip-2", Nature.FORWARDED_HTTP_RESPONSE_ERROR.getDescription() });
+        payloads.put("i-csv", "{\"resourceType\":\"Bundle\",\"id\":\"b-csv\"}");
+
+        final List<FhirReplayService.ReplayCandidate> page = service().nextPage(REPLAY_ID, null, null);
+
+        assertThat(page).extracting(FhirReplayService.ReplayCandidate::interactionId)
+                .containsExactly("i-csv", "i-fhir");
+        final var csv = page.get(0);
+        assertThat(csv.requestUri()).isEqualTo("/Bundle/replayed");
+        assertThat(csv.tenantId()).isEqualTo("tenant-1");
+        assertThat(csv.groupInteractionId()).isEqualTo("group-1");
+        assertThat(csv.zipInteractionId()).isEqualTo("zip-1");
+        assertThat(csv.payload()).containsEntry("id", "b-csv");
+        final var fhir = page.get(1);
+        assertThat(fhir.groupInteractionId()).isNull();
+        assertThat(fhir.zipInteractionId()).isNull();
+        assertThat(fhir.payload()).isEmpty();
+        assertThat(keyQueries.get(0))
+                .contains("replay_status\" is null")
+                .containsPattern("order by .*hub_interaction_id.*bundle_id");
+    }
+
+    @Test
+    void sendsEveryPendingBundleOncePageByPageInKeyOrder() {
+        for (String id : List.of("i-4", "i-2", "i-5", "i-1", "i-3")) {
+            addBundle(id, "b" + id.substring(1), null);
+        }
+        answerSends(CompletableFuture.completedFuture(null));
+
+        service().runReplay(REPLAY_ID);
+
+        assertThat(sent).containsExactly("i-1", "i-2", "i-3", "i-4", "i-5");
+        // three pages of at most two bundles, then an empty one
+        assertThat(keyQueries).hasSize(4);
+        assertThat(statusUpdates).hasSize(5)
+                .allSatisfy(update -> {
+                    assertThat(update.status()).isEqualTo("Success");
+                    assertThat(update.errorMessage()).isNull();
+                });
+    }
+
+    @Test
+    void resumedReplaySendsOnlyBundlesWithoutStatus() {
+        addBundle("i-1", "b-1", "Success");
+        addBundle("i-2", "b-2", "Failed");
+        addBundle("i-3", "b-3", null);
+        addBundle("i-4", "b-4", null);
+        answerSends(CompletableFuture.completedFuture(null));
+
+        service().runReplay(REPLAY_ID);
+
+        assertThat(sent).containsExactly("i-3", "i-4");
+        assertThat(statusUpdates).extracting(StatusUpdate::interactionId).containsExactlyInAnyOrder("i-3", "i-4");
+    }
+
+    @Test
+    void holdsPermitAndWritesStatusOnlyWhenScoringEngineAnswers() throws Exception {
+        addBundle("i-1", "b-1", null);
+        addBundle("i-2", "b-2", null);
+        final CompletableFuture<Void> firstAnswer = new CompletableFuture<>();
+        final CountDownLatch firstSent = new CountDownLatch(1);
+        when(fhirService.sendToScoringEngine(any(), any(), any(), nullable(ParsedBundle.class), any(), any(), any(),
+                any(), any(), any(), any(), any(), any(), any(), anyBoolean(), any()))
+                .thenAnswer(invocation -> {
+                    sent.add(invocation.getArgument(7));
+                    firstSent.countDown();
+                    return sent.size() == 1 ? firstAnswer : CompletableFuture.completedFuture(null);
+                });
+        final FhirReplayService replay = service();
+
+        final CompletableFuture<Void> run = CompletableFuture.runAsync(() -> replay.runReplay(REPLAY_ID));
+        assertThat(firstSent.await(10, TimeUnit.SECONDS)).isTrue();
+        TimeUnit.MILLISECONDS.sleep(200);
+        assertThat(sent).containsExactly("i-1");
+        assertThat(statusUpdates).isEmpty();
+
+        firstAnswer.completeExceptionally(new IllegalStateException("scoring engine unavailable"));
+        run.get(10, TimeUnit.SECONDS);
+
+        assertThat(sent).containsExactly("i-1", "i-2");
+        assertThat(statusUpdates).hasSize(2);
+        final StatusUpdate failed = statusUpdates.get(0);
+        assertThat(failed.interactionId()).isEqualTo("i-1");
+        assertThat(failed.status()).isEqualTo("Failed");
+        assertThat(failed.errorMessage()).contains("IllegalStateException: scoring engine unavailable");
+        assertThat(statusUpdates.get(1)).isEqualTo(new StatusUpdate("i-2", "Success", null));
+    }
+
+    private synchronized MockResult[] execute(MockExecuteContext ctx) {
+        final String sql = ctx.sql();
+        final Object[] bindings = ctx.bindings();
+        if (sql.contains("update_fhir_replay_status")) {
+            recordStatus(bindings);
+            final Field<String> result = DSL.field(DSL.name("update_fhir_replay_status"), String.class);
+            final Result<Record> rows = RESULTS.newResult(result);
+            rows.add(RESULTS.newRecord(result).values("ok"));
+            return new MockResult[] { new MockResult(1, rows) };
+        }
+        if (sql.contains("fhir_replay_details")) {
+            keyQueries.add(sql);
+            return new MockResult[] { pendingKeys(sql, bindings) };
+        }
+        if (sql.contains("to_state")) {
+            return new MockResult[] { failures(Arrays.asList(bindings).subList(0, bindings.length - 3)) };
+        }
+        return new MockResult[] { payloads(Arrays.asList(bindings).subList(0, bindings.length - 1)) };
+    }
+
+    private void recordStatus(Object[] bindings) {
+        final List<Object> values = Arrays.asList(bindings);
+        final int status = values.indexOf("Success") >= 0 ? values.indexOf("Success") : values.indexOf("Failed");
+        final String interactionId = (String) values.get(status - 1);
+        statusUpdates.add(new StatusUpdate(interactionId, (String) values.get(status), (String) values.get(status + 1)));
+        details.stream().filter(detail -> detail.interactionId.equals(interactionId))
+                .forEach(detail -> detail.status = (String) values.get(status));
+    }
+
+    private MockResult pendingKeys(String sql, Object[] bindings) {
+        final Matcher inlineLimit = Pattern.compile("limit (\\d+)").matcher(sql);
+        final boolean limitBound = !inlineLimit.find();
+        final int limit = limitBound ? ((Number) bindings[bindings.length - 1]).intValue()
+                : Integer.parseInt(inlineLimit.group(1));
+        final int keyBindings = bindings.length - (limitBound ? 1 : 0);
+        final String afterInteractionId = keyBindings > 1 ? (String) bindings[1] : null;
+        final String afterBundleId = keyBindings > 1 ? (String) bindings[keyBindings - 1] : null;
+
+        final Field<String> interactionId = DSL.field(DSL.name("hub_interaction_id"), String.class);
+        final Field<String> bundleId = DSL.field(DSL.name("bundle_id"), String.class);
+        final Result<Record> rows = RESULTS.newResult(interactionId, bundleId);
+        details.stream()
+                .filter(detail -> detail.status == null)
+                .filter(detail -> afterInteractionId == null
+                        || (detail.interactionId + "|" + detail.bundleId)
+                                .compareTo(afterInteractionId + "|" + afterBundleId) > 0)
+                .sorted((a, b) -> (a.interactionId + "|" + a.bundleId).compareTo(b.interactionId + "|" + b.bundleId))
+                .limit(limit)
+                .forEach(detail -> rows.add(RESULTS.newRecord(interactionId, bundleId)
+                        .values(detail.interactionId, detail.bundleId)));
+        return new MockResult(rows.size(), rows);
+    }
+
+    private MockResult failures(List<Object> interactionIds) {
+        final List<Field<String>> fields = new ArrayList<>();
+        for (String name : List.of("hub_interaction_id", "bundle_id", "tenant_name", "source_type", "uri",
+                "group_hub_interaction_id", "source_hub_interaction_id", "nature")) {
+            fields.add(DSL.field(DSL.name(name), String.class));
+        }
+        final Result<Record> rows = RESULTS.newResult(fields);
+        for (Object[] failure : failures) {
+            if (interactionIds.contains(failure[0])) {
+                final Record row = RESULTS.newRecord(fields.toArray(Field[]::new));
+                row.fromArray(failure);
+                rows.add(row);
+            }
+        }
+        return new MockResult(rows.size(), rows);
+    }
+
+    private MockResult payloads(List<Object> interactionIds) {
+        final Field<String> interactionId = DSL.field(DSL.name("hub_interaction_id"), String.class);
+        final Field<JSONB> payload = DSL.field(DSL.name("payload"), SQLDataType.JSONB);
+        final Result<Record> rows = RESULTS.newResult(interactionId, payload);
+        payloads.forEach((id, json) -> {
+            if (interactionIds.contains(id)) {
+                rows.add(RESULTS.newRecord(interactionId, payload).values(id, JSONB.valueOf(json)));
+            }
+        });
+        return new MockResult(rows.size(), rows);
+    }
+}
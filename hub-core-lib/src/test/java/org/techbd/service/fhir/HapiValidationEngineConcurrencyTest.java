@@ -0,0 +1,68 @@
+package org.techbd.service.fhir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.techbd.service.fhir.engine.OrchestrationEngine;
+
+class HapiValidationEngineConcurrencyTest extends BaseIgValidationTest {
+
+        private static final String SHINNY_PAYLOAD = "{ \"resourceType\": \"Bundle\", \"id\": \"AHCHRSNScreeningResponseExample\", \"meta\": { \"lastUpdated\": \"2024-02-23T00:00:00Z\", \"profile\": [\"http://shinny.org/us/ny/hrsn/StructureDefinition/SHINNYBundleProfile\"] } }";
+        private static final String TEST_SHINNY_PAYLOAD = "{ \"resourceType\": \"Bundle\", \"id\": \"AHCHRSNScreeningResponseExample\", \"meta\": { \"lastUpdated\": \"2024-02-23T00:00:00Z\", \"profile\": [\"http://test.shinny.org/us/ny/hrsn/StructureDefinition/SHINNYBundleProfile\"] } }";
+
+        private static OrchestrationEngine.ValidationEngine hapiEngine() {
+                return engine.getValidationEngine(OrchestrationEngine.ValidationEngineIdentifier.HAPI);
+        }
+
+        /**
+         * Interleaves payloads for two IG versions on one shared engine; every
+         * result must report the version and profile of its own payload.
+         */
+        @Test
+        void concurrentValidationsReportTheirOwnIgVersion() throws Exception {
+                final var hapi = hapiEngine();
+                final int threads = 8;
+                final int validationsPerThread = 10;
+                final var start = new CountDownLatch(1);
+                final ExecutorService executor = Executors.newFixedThreadPool(threads);
+                try {
+                        final List<Future<List<String>>> futures = new ArrayList<>();
+                        for (int t = 0; t < threads; t++) {
+                                final boolean test = t % 2 == 0;
+                                futures.add(executor.submit(() -> {
+                                        start.await();
+                                        final List<String> mismatches = new ArrayList<>();
+                                        for (int i = 0; i < validationsPerThread; i++) {
+                                                final var result = hapi.validate(test ? TEST_SHINNY_PAYLOAD : SHINNY_PAYLOAD,
+                                                                UUID.randomUUID().toString(), null);
+                                                final var expectedVersion = test ? "1.9.2" : "1.8.1";
+                                                final var expectedProfile = test
+                                                                ? "http://test.shinny.org/us/ny/hrsn/StructureDefinition/SHINNYBundleProfile"
+                                                                : "http://shinny.org/us/ny/hrsn/StructureDefinition/SHINNYBundleProfile";
+                                                if (!expectedVersion.equals(result.getIgVersion())
+                                                                || !expectedProfile.equals(result.getProfileUrl())) {
+                                                        mismatches.add(expectedVersion + " -> " + result.getIgVersion()
+                                                                        + " / " + result.getProfileUrl());
+                                                }
+                                        }
+                                        return mismatches;
+                                }));
+                        }
+                        start.countDown();
+                        for (Future<List<String>> future : futures) {
+                                assertThat(future.get(5, TimeUnit.MINUTES)).isEmpty();
+                        }
+                } finally {
+                        executor.shutdownNow();
+                }
+        }
+}
@@ -0,0 +1,78 @@
+package org.techbd.service.fhir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.techbd.service.fhir.engine.OrchestrationEngine;
+
+/**
+ * Throughput of the shared HAPI validation engine with 1 to N threads, where
+ * N is the number of available cores. With no shared mutable state on the
+ * validation path the rate should grow with the thread count; the figures
+ * are logged rather than asserted because CI hosts vary.
+ */
+@Tag("benchmark")
+class HapiValidationThroughputBenchmarkTest extends BaseIgValidationTest {
+
+        private static final Logger LOG = LoggerFactory.getLogger(HapiValidationThroughputBenchmarkTest.class);
+        private static final Path EXAMPLE = Path.of(
+                        "src/test/resources/org/techbd/ig-examples/shinny-examples/Bundle-AHCHRSNScreeningResponseExample.json");
+        private static final int VALIDATIONS_PER_THREAD = 8;
+
+        @Test
+        void validationsPerSecondByThreadCount() throws Exception {
+                final var hapi = engine.getValidationEngine(OrchestrationEngine.ValidationEngineIdentifier.HAPI);
+                final String payload = Files.readString(EXAMPLE);
+                hapi.validate(payload, UUID.randomUUID().toString(), null);
+
+                final int cores = Math.max(2, Runtime.getRuntime().availableProcessors());
+                final List<Integer> threadCounts = new ArrayList<>();
+                for (int threads = 1; threads < cores; threads *= 2) {
+                        threadCounts.add(threads);
+                }
+                threadCounts.add(cores);
+
+                final var report = new StringBuilder("%7s %13s %9s".formatted("threads", "validations/s", "speed-up"));
+                final double singleThreadRate = validationsPerSecond(hapi, payload, 1);
+                for (int threads : threadCounts) {
+                        final double rate = threads == 1 ? singleThreadRate
+                                        : validationsPerSecond(hapi, payload, threads);
+                        report.append("%n%7d %13.1f %8.2fx".formatted(threads, rate, rate / singleThreadRate));
+                }
+                LOG.info("HAPI validate throughput by thread count:{}{}", System.lineSeparator(), report);
+        }
+
+        private static double validationsPerSecond(OrchestrationEngine.ValidationEngine hapi, String payload,
+                        int threads) throws Exception {
+                final ExecutorService executor = Executors.newFixedThreadPool(threads);
+                try {
+                        final List<Callable<Boolean>> tasks = new ArrayList<>();
+                        for (int i = 0; i < threads * VALIDATIONS_PER_THREAD; i++) {
+                                tasks.add(() -> hapi.validate(payload, UUID.randomUUID().toString(), null)
+                                                .getIgVersion() != null);
+                        }
+                        final long start = System.nanoTime();
+                        for (Future<Boolean> future : executor.invokeAll(tasks)) {
+                                assertThat(future.get()).isTrue();
+                        }
+                        final long elapsed = System.nanoTime() - start;
+                        return (double) tasks.size() * TimeUnit.SECONDS.toNanos(1) / elapsed;
+                } finally {
+                        executor.shutdownNow();
+                }
+        }
+}
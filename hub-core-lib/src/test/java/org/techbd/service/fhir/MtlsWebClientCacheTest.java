@@ -0,0 +1,107 @@
+package org.techbd.service.fhir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.techbd.config.CoreAppConfig.MtlsClientCacheConfig;
+
+import io.netty.handler.ssl.util.SelfSignedCertificate;
+
+class MtlsWebClientCacheTest {
+
+    private static MtlsWebClientCache.Credentials first;
+    private static MtlsWebClientCache.Credentials second;
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private MtlsWebClientCache cache;
+
+    @BeforeAll
+    static void certificates() throws Exception {
+        first = credentials(new SelfSignedCertificate("first.test"));
+        second = credentials(new SelfSignedCertificate("second.test"));
+    }
+
+    private static MtlsWebClientCache.Credentials credentials(SelfSignedCertificate certificate) throws Exception {
+        return new MtlsWebClientCache.Credentials(Files.readString(certificate.certificate().toPath()),
+                Files.readString(certificate.privateKey().toPath()));
+    }
+
+    @AfterEach
+    void close() {
+        if (cache != null) {
+            cache.close();
+        }
+    }
+
+    private MtlsWebClientCache cache(long ttlSeconds) {
+        MtlsClientCacheConfig config = new MtlsClientCacheConfig();
+        config.setTtlSeconds(ttlSeconds);
+        config.setRetiredClientGraceSeconds(0);
+        cache = new MtlsWebClientCache(config);
+        return cache;
+    }
+
+    private MtlsWebClientCache.CredentialSource source(AtomicReference<MtlsWebClientCache.Credentials> credentials,
+            AtomicReference<String> version) {
+        return new MtlsWebClientCache.CredentialSource() {
+            @Override
+            public MtlsWebClientCache.Credentials load() {
+                loads.incrementAndGet();
+                return credentials.get();
+            }
+
+            @Override
+            public String version() {
+                return version.get();
+            }
+        };
+    }
+
+    @Test
+    void reusesClientPerTenantUntilExpiry() throws Exception {
+        MtlsWebClientCache cache = cache(3600);
+        var source = source(new AtomicReference<>(first), new AtomicReference<>());
+
+        WebClient client = cache.get("tenant-a", "aws-secrets", "https://scoring.test", source);
+
+        assertThat(cache.get("tenant-a", "aws-secrets", "https://scoring.test", source)).isSameAs(client);
+        assertThat(cache.get("tenant-b", "aws-secrets", "https://scoring.test", source)).isNotSameAs(client);
+        assertThat(loads).hasValue(2);
+        assertThat(cache.stats()).extracting(MtlsWebClientCache.Stats::hits, MtlsWebClientCache.Stats::misses,
+                MtlsWebClientCache.Stats::size).containsExactly(1L, 2L, 2);
+    }
+
+    @Test
+    void keepsClientWhenExpiredCredentialsAreUnchanged() throws Exception {
+        MtlsWebClientCache cache = cache(0);
+        var source = source(new AtomicReference<>(first), new AtomicReference<>());
+
+        WebClient client = cache.get("tenant-a", "aws-secrets", "https://scoring.test", source);
+
+        assertThat(cache.get("tenant-a", "aws-secrets", "https://scoring.test", source)).isSameAs(client);
+        assertThat(loads).hasValue(2);
+        assertThat(cache.stats().refreshes()).isEqualTo(1);
+    }
+
+    @Test
+    void rebuildsClientWhenCredentialsRotate() throws Exception {
+        MtlsWebClientCache cache = cache(3600);
+        var credentials = new AtomicReference<>(first);
+        var version = new AtomicReference<>("v1");
+        var source = source(credentials, version);
+
+        WebClient client = cache.get("tenant-a", "mTlsResources", "https://scoring.test", source);
+        credentials.set(second);
+        version.set("v2");
+
+        assertThat(cache.get("tenant-a", "mTlsResources", "https://scoring.test", source)).isNotSameAs(client);
+        assertThat(cache.stats().rotations()).isEqualTo(1);
+    }
+}
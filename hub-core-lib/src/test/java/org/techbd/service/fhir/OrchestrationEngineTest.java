@@ -339,4 +339,21 @@ class OrchestrationEngineTest extends BaseIgValidationTest {
                         engine.clear(realSession);
                 }
         }
+
+        @Test
+        void testValidationRejectsPayloadThatIsNotABundle() {
+                String payload = "{ \"resourceType\": \"Patient\", \"id\": \"p-1\", \"meta\": { \"profile\": [\"http://shinny.org/us/ny/hrsn/StructureDefinition/SHINNYBundleProfile\"] } }";
+                OrchestrationEngine.ValidationResult result = engine
+                                .getValidationEngine(OrchestrationEngine.ValidationEngineIdentifier.HAPI)
+                                .validate(payload, INTERACTION_ID, null);
+
+                assertThat(result.isValid()).isFalse();
+                OperationOutcome operationOutcome = (OperationOutcome) FhirContext.forR4Cached().newJsonParser()
+                                .parseResource(result.getOperationOutcome());
+                assertThat(operationOutcome.getIssue()).singleElement().satisfies(issue -> {
+                        assertThat(issue.getSeverity()).isEqualTo(OperationOutcome.IssueSeverity.FATAL);
+                        assertThat(issue.getDiagnostics()).isEqualTo(
+                                        "Incorrect resource type found, expected \"Bundle\" but found \"Patient\"");
+                });
+        }
 }
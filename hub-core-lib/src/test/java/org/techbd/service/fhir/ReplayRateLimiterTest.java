@@ -0,0 +1,42 @@
+package org.techbd.service.fhir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class ReplayRateLimiterTest {
+
+    @Test
+    void allowsBurstThenLimitsToRate() throws Exception {
+        ReplayRateLimiter limiter = new ReplayRateLimiter(50, 5);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire();
+        }
+        long burstMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire();
+        }
+        long limitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(burstMillis).isLessThan(100);
+        assertThat(limitedMillis).isGreaterThanOrEqualTo(150);
+    }
+
+    @Test
+    void doesNotWaitWithoutARate() throws Exception {
+        ReplayRateLimiter limiter = new ReplayRateLimiter(0, 1);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            limiter.acquire();
+        }
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(100);
+    }
+}
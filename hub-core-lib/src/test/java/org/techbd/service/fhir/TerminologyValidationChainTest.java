@@ -0,0 +1,61 @@
+package org.techbd.service.fhir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import org.hl7.fhir.r4.model.OperationOutcome;
+import org.hl7.fhir.r4.model.OperationOutcome.OperationOutcomeIssueComponent;
+import org.junit.jupiter.api.Test;
+import org.techbd.service.fhir.engine.OrchestrationEngine;
+
+import ca.uhn.fhir.context.FhirContext;
+
+/**
+ * Validates a SHIN-NY bundle through the full validator chain, where SNOMED and
+ * LOINC codes are answered by {@code CompactTerminologyValidationSupport} and
+ * value-set membership by the in-memory terminology server.
+ */
+class TerminologyValidationChainTest extends BaseIgValidationTest {
+
+        private static final Path EXAMPLE = Path.of(
+                        "src/test/resources/org/techbd/ig-examples/shinny-examples/Bundle-AHCHRSNScreeningResponseExample.json");
+
+        private static List<OperationOutcomeIssueComponent> errors(OrchestrationEngine.ValidationResult result) {
+                final OperationOutcome outcome = (OperationOutcome) FhirContext.forR4Cached().newJsonParser()
+                                .parseResource(result.getOperationOutcome());
+                return outcome.getIssue().stream()
+                                .filter(issue -> issue.getSeverity() == OperationOutcome.IssueSeverity.ERROR)
+                                .toList();
+        }
+
+        private static OrchestrationEngine.ValidationResult validate(String payload) {
+                return engine.getValidationEngine(OrchestrationEngine.ValidationEngineIdentifier.HAPI)
+                                .validate(payload, UUID.randomUUID().toString(), null);
+        }
+
+        @Test
+        void acceptsKnownSnomedAndLoincCodesInBoundElements() throws Exception {
+                final var result = validate(Files.readString(EXAMPLE));
+
+                assertThat(result.isValid()).isTrue();
+                assertThat(errors(result)).isEmpty();
+        }
+
+        @Test
+        void rejectsUnknownSnomedAndLoincCodesInBoundElements() throws Exception {
+                final String payload = Files.readString(EXAMPLE)
+                                .replace("\"code\" : \"405672008\"", "\"code\" : \"999999999\"")
+                                .replace("\"code\" : \"71802-3\"", "\"code\" : \"99999-9\"");
+
+                final var result = validate(payload);
+
+                assertThat(result.isValid()).isFalse();
+                assertThat(errors(result)).extracting(OperationOutcomeIssueComponent::getDiagnostics)
+                                .anySatisfy(diagnostics -> assertThat(diagnostics).contains("999999999"))
+                                .anySatisfy(diagnostics -> assertThat(diagnostics).contains("99999-9"));
+        }
+}
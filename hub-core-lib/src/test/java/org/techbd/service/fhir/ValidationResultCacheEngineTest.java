@@ -0,0 +1,71 @@
+package org.techbd.service.fhir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.techbd.config.CoreAppConfig.ValidationResultCacheConfig;
+import org.techbd.service.fhir.engine.OrchestrationEngine;
+import org.techbd.util.AppLogger;
+import org.techbd.util.TemplateLogger;
+
+/**
+ * Validates the same bundle twice on an engine with the result cache enabled;
+ * the second validation is answered from the cache instead of by HAPI.
+ */
+class ValidationResultCacheEngineTest extends BaseIgValidationTest {
+
+        private static final Path EXAMPLE = Path.of(
+                        "src/test/resources/org/techbd/ig-examples/shinny-examples/Bundle-AHCHRSNScreeningResponseExample.json");
+
+        @Test
+        void identicalPayloadIsAnsweredFromCacheWithoutRevalidating() throws Exception {
+                final var hapi = cachingEngine();
+                final String payload = Files.readString(EXAMPLE);
+
+                final var first = hapi.validate(payload, UUID.randomUUID().toString(), null);
+                final var second = hapi.validate(payload, UUID.randomUUID().toString(), null);
+
+                final var stats = hapi.getResultCache().stats();
+                assertThat(stats.misses()).isEqualTo(1);
+                assertThat(stats.memoryHits()).isEqualTo(1);
+                assertThat(second.getOperationOutcome()).isEqualTo(first.getOperationOutcome());
+                assertThat(second.isValid()).isEqualTo(first.isValid());
+                assertThat(second.getIgVersion()).isEqualTo(first.getIgVersion());
+                assertThat(second.getProfileUrl()).isEqualTo(first.getProfileUrl());
+        }
+
+        @Test
+        void changedPayloadIsValidatedAgain() throws Exception {
+                final var hapi = cachingEngine();
+                final String payload = Files.readString(EXAMPLE);
+
+                hapi.validate(payload, UUID.randomUUID().toString(), null);
+                hapi.validate(payload + "\n", UUID.randomUUID().toString(), null);
+
+                final var stats = hapi.getResultCache().stats();
+                assertThat(stats.misses()).isEqualTo(2);
+                assertThat(stats.memoryHits()).isZero();
+        }
+
+        private static OrchestrationEngine.HapiValidationEngine cachingEngine() {
+                final var config = new ValidationResultCacheConfig();
+                config.setEnabled(true);
+                final var appLogger = mock(AppLogger.class);
+                final var templateLogger = mock(TemplateLogger.class);
+                when(appLogger.getLogger(any())).thenReturn(templateLogger);
+                return new OrchestrationEngine.HapiValidationEngine.Builder()
+                                .withIgPackages(appConfig.getIgPackages())
+                                .withTracer(tracer)
+                                .withAppLogger(appLogger)
+                                .withTemplateLogger(templateLogger)
+                                .withValidationResultCacheConfig(config, null)
+                                .build();
+        }
+}
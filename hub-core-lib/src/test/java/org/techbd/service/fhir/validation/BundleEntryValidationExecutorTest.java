@@ -0,0 +1,139 @@
+package org.techbd.service.fhir.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class BundleEntryValidationExecutorTest {
+
+    private BundleEntryValidationExecutor executor;
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Waits for every future the way HAPI waits for its entries: without a timeout. */
+    private static List<String> getAll(List<Future<String>> futures) {
+        final List<String> values = new ArrayList<>();
+        try {
+            for (Future<String> future : futures) {
+                values.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+        return values;
+    }
+
+    @Test
+    void deadlineInterruptsRunningEntriesAndReleasesTheWaitingCaller() throws Exception {
+        executor = new BundleEntryValidationExecutor(2, 4);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final long start = System.nanoTime();
+
+        assertThatThrownBy(() -> executor.validate(Duration.ofMillis(200), () -> getAll(List.of(
+                executor.submit(() -> {
+                    try {
+                        Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return "hung";
+                })))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("did not finish");
+
+        assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start)).isLessThan(10);
+        assertThat(interrupted.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+
+    @Test
+    void entriesNotStartedByTheDeadlineNeverRun() throws Exception {
+        executor = new BundleEntryValidationExecutor(1, 4);
+        final AtomicBoolean queuedEntryRan = new AtomicBoolean();
+
+        assertThatThrownBy(() -> executor.validate(Duration.ofMillis(100), () -> getAll(List.of(
+                executor.submit(() -> {
+                    // ignores the interrupt, keeping the only thread busy past the deadline
+                    final long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+                    while (System.nanoTime() < until) {
+                        Thread.onSpinWait();
+                    }
+                    return "slow";
+                }),
+                executor.submit(() -> {
+                    queuedEntryRan.set(true);
+                    return "queued";
+                })))))
+                .isInstanceOf(IllegalStateException.class);
+
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(queuedEntryRan).isFalse();
+    }
+
+    @Test
+    void callerValidatesTheEntryItselfWhenTheQueueIsFull() {
+        executor = new BundleEntryValidationExecutor(1, 1);
+        final Thread caller = Thread.currentThread();
+        final CountDownLatch callerRan = new CountDownLatch(1);
+        final AtomicReference<Thread> rejectedEntryThread = new AtomicReference<>();
+
+        final var result = executor.validate(Duration.ofSeconds(10), () -> {
+            final List<Future<String>> futures = new ArrayList<>();
+            // occupies the only thread until the caller has run the third entry
+            futures.add(executor.submit(() -> {
+                callerRan.await(10, TimeUnit.SECONDS);
+                return "running";
+            }));
+            futures.add(executor.submit(() -> "queued"));
+            futures.add(executor.submit(() -> {
+                rejectedEntryThread.set(Thread.currentThread());
+                callerRan.countDown();
+                return "rejected";
+            }));
+            return getAll(futures);
+        });
+
+        assertThat(rejectedEntryThread.get()).isSameAs(caller);
+        assertThat(result.value()).containsExactly("running", "queued", "rejected");
+        assertThat(result.entries()).isEqualTo(3);
+    }
+
+    @Test
+    void entrySubmittedFromAnEntryRunsInlineOnItsThread() {
+        executor = new BundleEntryValidationExecutor(1, 1);
+        final AtomicReference<Thread> outerThread = new AtomicReference<>();
+        final AtomicReference<Thread> nestedThread = new AtomicReference<>();
+
+        final var result = executor.validate(Duration.ofSeconds(10), () -> getAll(List.of(executor.submit(() -> {
+            outerThread.set(Thread.currentThread());
+            // would wait forever if queued behind its own, only, thread
+            return getAll(List.of(executor.submit(() -> {
+                nestedThread.set(Thread.currentThread());
+                return "nested";
+            }))).get(0);
+        }))));
+
+        assertThat(result.value()).containsExactly("nested");
+        assertThat(nestedThread.get()).isSameAs(outerThread.get()).isNotSameAs(Thread.currentThread());
+        assertThat(result.entries()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,70 @@
+package org.techbd.service.fhir.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.techbd.service.fhir.validation.CompactTerminologyValidationSupport.CodeSystemCodes;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.support.ConceptValidationOptions;
+import ca.uhn.fhir.context.support.IValidationSupport;
+import ca.uhn.fhir.context.support.LookupCodeRequest;
+
+class CompactTerminologyValidationSupportTest {
+
+    private static final String SNOMED = "http://snomed.info/sct";
+    private static final String CPT = "http://www.ama-assn.org/go/cpt";
+
+    @Test
+    void codeSetIsSortedDeduplicatedAndSearchable() {
+        CompactCodeSet codes = CompactCodeSet.of(Arrays.asList("Z99.89", "A00.0", "", null, "A00.0", "é-code"));
+
+        assertThat(codes.size()).isEqualTo(3);
+        assertThat(codes.contains("A00.0")).isTrue();
+        assertThat(codes.contains("Z99.89")).isTrue();
+        assertThat(codes.contains("é-code")).isTrue();
+        assertThat(codes.contains("A00")).isFalse();
+        assertThat(codes.contains(null)).isFalse();
+        assertThat(CompactCodeSet.of(List.of()).contains("A00.0")).isFalse();
+    }
+
+    @Test
+    void sharedCodeSetIsLoadedOncePerProcess() {
+        CompactCodeSet first = CompactTerminologyValidationSupport.sharedCodeSet("ig-packages/reference/snomed.psv");
+
+        assertThat(CompactTerminologyValidationSupport.sharedCodeSet("ig-packages/reference/snomed.psv"))
+                .isSameAs(first);
+        assertThat(first.contains("10000006")).isTrue();
+        assertThat(first.sizeInBytes()).isLessThan(8L * 1024 * 1024);
+    }
+
+    @Test
+    void validatesCodeSystemMembership() {
+        CompactTerminologyValidationSupport support = new CompactTerminologyValidationSupport(
+                FhirContext.forR4Cached(), Map.of(
+                        SNOMED, new CodeSystemCodes(CompactCodeSet.of(List.of("10000006")), Set.of()),
+                        CPT, new CodeSystemCodes(CompactCodeSet.of(List.of("0001A")), Set.of("PKG01"))));
+        ConceptValidationOptions options = new ConceptValidationOptions();
+
+        assertThat(support.isCodeSystemSupported(null, SNOMED)).isTrue();
+        assertThat(support.isCodeSystemSupported(null, "http://loinc.org")).isFalse();
+
+        assertThat(support.validateCode(null, options, SNOMED, "10000006", null, null).isOk()).isTrue();
+        IValidationSupport.CodeValidationResult unknown = support.validateCode(null, options, SNOMED, "42", null,
+                null);
+        assertThat(unknown.isOk()).isFalse();
+        assertThat(unknown.getSeverity()).isEqualTo(IValidationSupport.IssueSeverity.ERROR);
+        assertThat(support.validateCode(null, options, CPT, "PKG01", null, null).isOk()).isTrue();
+        assertThat(support.validateCode(null, options, SNOMED, "10000006", null,
+                "http://example.org/ValueSet/any")).isNull();
+
+        assertThat(support.lookupCode(null, new LookupCodeRequest(CPT, "0001A")).isFound()).isTrue();
+        assertThat(support.lookupCode(null, new LookupCodeRequest(CPT, "9999Z")).isFound()).isFalse();
+        assertThat(support.lookupCode(null, new LookupCodeRequest("http://loinc.org", "1-8"))).isNull();
+    }
+}
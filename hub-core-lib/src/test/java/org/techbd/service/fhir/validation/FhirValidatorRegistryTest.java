@@ -0,0 +1,144 @@
+package org.techbd.service.fhir.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FhirValidatorRegistryTest {
+
+    private static FhirValidatorRegistry.Key key(String version) {
+        return new FhirValidatorRegistry.Key("ig-packages/shin-ny-ig/shinny/v" + version, version,
+                "http://shinny.org/us/ny/hrsn");
+    }
+
+    private static FhirBundleValidator validator(FhirValidatorRegistry.Key key) {
+        return FhirBundleValidator.builder()
+                .packagePath(key.packagePath())
+                .igVersion(key.igVersion())
+                .baseFHIRUrl(key.profileBaseUrl())
+                .build();
+    }
+
+    @Test
+    void buildsEachKeyOnceUnderConcurrentDemand() throws Exception {
+        FhirValidatorRegistry registry = new FhirValidatorRegistry(4, Long.MAX_VALUE, k -> 1);
+        AtomicInteger builds = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<FhirBundleValidator>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return registry.getOrBuild(key("1.5.0"), k -> {
+                        builds.incrementAndGet();
+                        sleep(50);
+                        return validator(k);
+                    });
+                }));
+            }
+            start.countDown();
+            FhirBundleValidator first = results.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<FhirBundleValidator> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isSameAs(first);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(builds.get()).isEqualTo(1);
+        FhirValidatorRegistry.Stats stats = registry.getStats();
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.hits()).isEqualTo(31);
+        assertThat(stats.builds()).isEqualTo(1);
+        assertThat(stats.size()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWhenEntryLimitExceeded() {
+        FhirValidatorRegistry registry = new FhirValidatorRegistry(2, Long.MAX_VALUE, k -> 1);
+
+        registry.getOrBuild(key("1.1.0"), FhirValidatorRegistryTest::validator);
+        registry.getOrBuild(key("1.2.0"), FhirValidatorRegistryTest::validator);
+        registry.getOrBuild(key("1.1.0"), FhirValidatorRegistryTest::validator);
+        registry.getOrBuild(key("1.3.0"), FhirValidatorRegistryTest::validator);
+
+        assertThat(registry.keys()).containsExactly(key("1.1.0"), key("1.3.0"));
+        assertThat(registry.getStats().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsWhenMemoryBudgetExceededButKeepsNewestEntry() {
+        FhirValidatorRegistry registry = new FhirValidatorRegistry(10, 100, k -> 60);
+
+        registry.getOrBuild(key("1.1.0"), FhirValidatorRegistryTest::validator);
+        registry.getOrBuild(key("1.2.0"), FhirValidatorRegistryTest::validator);
+
+        assertThat(registry.keys()).containsExactly(key("1.2.0"));
+        assertThat(registry.getStats().weightBytes()).isEqualTo(60);
+    }
+
+    @Test
+    void doesNotCacheFailedBuilds() {
+        FhirValidatorRegistry registry = new FhirValidatorRegistry(2, Long.MAX_VALUE, k -> 1);
+
+        assertThatThrownBy(() -> registry.getOrBuild(key("9.9.9"), k -> {
+            throw new IllegalStateException("package missing");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("package missing");
+
+        FhirBundleValidator retried = registry.getOrBuild(key("9.9.9"), FhirValidatorRegistryTest::validator);
+        assertThat(retried.getIgVersion()).isEqualTo("9.9.9");
+        assertThat(registry.getStats().buildFailures()).isEqualTo(1);
+        assertThat(registry.getStats().builds()).isEqualTo(1);
+    }
+
+    @Test
+    void publishesCountersToGlobalMeterRegistry() {
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        Metrics.addRegistry(meters);
+        try {
+            FhirValidatorRegistry registry = new FhirValidatorRegistry(1, Long.MAX_VALUE, k -> 10);
+
+            registry.getOrBuild(key("1.1.0"), FhirValidatorRegistryTest::validator);
+            registry.getOrBuild(key("1.1.0"), FhirValidatorRegistryTest::validator);
+            registry.getOrBuild(key("1.2.0"), FhirValidatorRegistryTest::validator);
+            assertThatThrownBy(() -> registry.getOrBuild(key("9.9.9"), k -> {
+                throw new IllegalStateException("package missing");
+            })).isInstanceOf(IllegalStateException.class);
+
+            assertThat(meters.get("techbd.validation.registry.lookups").tag("result", "hit").counter().count())
+                    .isEqualTo(1);
+            assertThat(meters.get("techbd.validation.registry.lookups").tag("result", "miss").counter().count())
+                    .isEqualTo(3);
+            assertThat(meters.get("techbd.validation.registry.builds").tag("outcome", "success").counter().count())
+                    .isEqualTo(2);
+            assertThat(meters.get("techbd.validation.registry.builds").tag("outcome", "failure").counter().count())
+                    .isEqualTo(1);
+            assertThat(meters.get("techbd.validation.registry.evictions").counter().count()).isEqualTo(1);
+            assertThat(meters.get("techbd.validation.registry.build").timer().count()).isEqualTo(2);
+        } finally {
+            Metrics.removeRegistry(meters);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.techbd.service.fhir.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hl7.fhir.common.hapi.validation.support.PrePopulatedValidationSupport;
+import org.hl7.fhir.r4.model.CodeSystem;
+import org.hl7.fhir.r4.model.Enumerations.PublicationStatus;
+import org.hl7.fhir.r4.model.ValueSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import ca.uhn.fhir.context.FhirContext;
+
+class IgPackageSnapshotCacheTest {
+
+    private static final String SHINNY_PACKAGE = "ig-packages/shin-ny-ig/shinny/v1.2.3";
+    private static final String US_CORE_PACKAGE = "ig-packages/fhir-v4/us-core/stu-7.0.0";
+
+    private final FhirContext fhirContext = FhirContext.forR4Cached();
+
+    @TempDir
+    Path cacheDir;
+
+    @Test
+    void keyIsStableAndDependsOnPackagesAndOrder() throws Exception {
+        IgPackageSnapshotCache cache = new IgPackageSnapshotCache(cacheDir);
+
+        String key = cache.key(List.of(SHINNY_PACKAGE, US_CORE_PACKAGE));
+
+        assertThat(key).hasSize(64).isEqualTo(cache.key(List.of(SHINNY_PACKAGE, US_CORE_PACKAGE)));
+        assertThat(cache.key(List.of(US_CORE_PACKAGE, SHINNY_PACKAGE))).isNotEqualTo(key);
+        assertThat(cache.key(List.of(SHINNY_PACKAGE))).isNotEqualTo(key);
+        assertThat(cache.key(List.of(SHINNY_PACKAGE, "ig-packages/missing"))).isNotEqualTo(key);
+    }
+
+    @Test
+    void keyDoesNotDependOnBasePackageMapOrder() throws Exception {
+        IgPackageSnapshotCache cache = new IgPackageSnapshotCache(cacheDir);
+        Map<String, String> declared = new LinkedHashMap<>();
+        declared.put("us-core", US_CORE_PACKAGE);
+        declared.put("sdoh", "ig-packages/fhir-v4/sdoh-clinicalcare/stu-2.2.0");
+        declared.put("uv-sdc", "ig-packages/fhir-v4/uv-sdc/stu-3.0.0");
+        Map<String, String> reversed = new LinkedHashMap<>();
+        reversed.put("uv-sdc", "ig-packages/fhir-v4/uv-sdc/stu-3.0.0");
+        reversed.put("sdoh", "ig-packages/fhir-v4/sdoh-clinicalcare/stu-2.2.0");
+        reversed.put("us-core", US_CORE_PACKAGE);
+
+        List<String> order = IgPackageSnapshotCache.loadOrder(SHINNY_PACKAGE, declared.values());
+
+        assertThat(order).isEqualTo(IgPackageSnapshotCache.loadOrder(SHINNY_PACKAGE, reversed.values()));
+        assertThat(order).first().isEqualTo(SHINNY_PACKAGE);
+        assertThat(cache.key(order))
+                .isEqualTo(cache.key(IgPackageSnapshotCache.loadOrder(SHINNY_PACKAGE, reversed.values())));
+    }
+
+    @Test
+    void storeRemovesExpiredAndLeastRecentlyUsedEntries() throws Exception {
+        IgPackageSnapshotCache cache = new IgPackageSnapshotCache(cacheDir, 1, Duration.ofDays(30));
+        ValueSet valueSet = new ValueSet();
+        valueSet.setUrl("http://example.org/ValueSet/test");
+        valueSet.setStatus(PublicationStatus.ACTIVE);
+        long now = System.currentTimeMillis();
+
+        new IgPackageSnapshotCache(cacheDir).store(fhirContext, "expired", List.of(valueSet));
+        Files.setLastModifiedTime(cacheDir.resolve("expired.ndjson.gz"),
+                FileTime.fromMillis(now - Duration.ofDays(31).toMillis()));
+        new IgPackageSnapshotCache(cacheDir).store(fhirContext, "older", List.of(valueSet));
+        Files.setLastModifiedTime(cacheDir.resolve("older.ndjson.gz"), FileTime.fromMillis(now - 60_000));
+        cache.store(fhirContext, "newest", List.of(valueSet));
+
+        assertThat(cache.load(fhirContext, "expired")).isEmpty();
+        assertThat(cache.load(fhirContext, "older")).isEmpty();
+        assertThat(cache.load(fhirContext, "newest")).isPresent();
+    }
+
+    @Test
+    void storeKeepsEntriesWithinLimits() throws Exception {
+        IgPackageSnapshotCache cache = new IgPackageSnapshotCache(cacheDir, 1024 * 1024, Duration.ofDays(30));
+        ValueSet valueSet = new ValueSet();
+        valueSet.setUrl("http://example.org/ValueSet/test");
+        valueSet.setStatus(PublicationStatus.ACTIVE);
+
+        cache.store(fhirContext, "first", List.of(valueSet));
+        cache.store(fhirContext, "second", List.of(valueSet));
+
+        assertThat(cache.load(fhirContext, "first")).isPresent();
+        assertThat(cache.load(fhirContext, "second")).isPresent();
+    }
+
+    @Test
+    void storedResourcesAreServedAfterLoad() throws Exception {
+        IgPackageSnapshotCache cache = new IgPackageSnapshotCache(cacheDir.resolve("nested"));
+        ValueSet valueSet = new ValueSet();
+        valueSet.setUrl("http://example.org/ValueSet/test");
+        valueSet.setStatus(PublicationStatus.ACTIVE);
+        CodeSystem codeSystem = new CodeSystem();
+        codeSystem.setUrl("http://example.org/CodeSystem/test");
+        codeSystem.addConcept().setCode("a");
+
+        cache.store(fhirContext, "abc", List.of(valueSet, codeSystem));
+        PrePopulatedValidationSupport support = cache.load(fhirContext, "abc").orElseThrow();
+
+        assertThat(support.fetchValueSet("http://example.org/ValueSet/test")).isNotNull();
+        CodeSystem loaded = (CodeSystem) support.fetchCodeSystem("http://example.org/CodeSystem/test");
+        assertThat(loaded.getConcept()).extracting(CodeSystem.ConceptDefinitionComponent::getCode)
+                .containsExactly("a");
+    }
+
+    @Test
+    void missingEntryLoadsEmpty() throws Exception {
+        IgPackageSnapshotCache cache = new IgPackageSnapshotCache(cacheDir);
+
+        assertThat(cache.load(fhirContext, "absent")).isEmpty();
+    }
+}
@@ -0,0 +1,84 @@
+package org.techbd.service.fhir.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ValidationResultCacheTest {
+
+    private static final String PACKAGE = "ig-packages/shin-ny-ig/shinny/v1.5.0";
+
+    private static ValidationResultCache.Key key(String payload, String packagePath) {
+        return key(payload, packagePath, "package-sha256");
+    }
+
+    private static ValidationResultCache.Key key(String payload, String packagePath, String packageSha256) {
+        return new ValidationResultCache.Key(ValidationResultCache.sha256(payload), packagePath, packageSha256,
+                "1.5.0", "http://shinny.org/us/ny/hrsn/StructureDefinition/SHINNYBundleProfile");
+    }
+
+    @Test
+    void returnsStoredOutcomeForIdenticalPayloadOnly() {
+        ValidationResultCache cache = new ValidationResultCache(1024 * 1024, null, 0);
+        cache.put(key("{\"resourceType\":\"Bundle\"}", PACKAGE),
+                new ValidationResultCache.Entry("{\"resourceType\":\"OperationOutcome\"}", false));
+
+        ValidationResultCache.Entry hit = cache.get(key("{\"resourceType\":\"Bundle\"}", PACKAGE));
+        ValidationResultCache.Entry miss = cache.get(key("{ \"resourceType\":\"Bundle\"}", PACKAGE));
+
+        assertThat(hit).isEqualTo(new ValidationResultCache.Entry("{\"resourceType\":\"OperationOutcome\"}", false));
+        assertThat(miss).isNull();
+        assertThat(cache.stats().memoryHits()).isEqualTo(1);
+        assertThat(cache.stats().misses()).isEqualTo(1);
+        assertThat(cache.stats().hitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMemoryBudget() {
+        String outcome = "x".repeat(1000);
+        ValidationResultCache cache = new ValidationResultCache(5000, null, 0);
+        cache.put(key("a", PACKAGE), new ValidationResultCache.Entry(outcome, true));
+        cache.put(key("b", PACKAGE), new ValidationResultCache.Entry(outcome, true));
+        cache.get(key("a", PACKAGE));
+        cache.put(key("c", PACKAGE), new ValidationResultCache.Entry(outcome, true));
+
+        assertThat(cache.get(key("a", PACKAGE))).isNotNull();
+        assertThat(cache.get(key("b", PACKAGE))).isNull();
+        assertThat(cache.get(key("c", PACKAGE))).isNotNull();
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    void readsEntriesWrittenByAnEarlierInstanceFromDisk(@TempDir Path dir) {
+        new ValidationResultCache(1024 * 1024, dir, 1024 * 1024)
+                .put(key("a", PACKAGE), new ValidationResultCache.Entry("{\"issue\":[]}", true));
+
+        ValidationResultCache restarted = new ValidationResultCache(1024 * 1024, dir, 1024 * 1024);
+
+        assertThat(restarted.get(key("a", PACKAGE))).isEqualTo(new ValidationResultCache.Entry("{\"issue\":[]}", true));
+        assertThat(restarted.stats().diskHits()).isEqualTo(1);
+    }
+
+    @Test
+    void changedPackageContentMissesEntriesOfThePreviousContent(@TempDir Path dir) {
+        ValidationResultCache cache = new ValidationResultCache(1024 * 1024, dir, 1024 * 1024);
+        cache.put(key("a", PACKAGE, "before"), new ValidationResultCache.Entry("{}", true));
+
+        assertThat(cache.get(key("a", PACKAGE, "after"))).isNull();
+        assertThat(new ValidationResultCache(1024 * 1024, dir, 1024 * 1024).get(key("a", PACKAGE, "after")))
+                .isNull();
+        assertThat(cache.get(key("a", PACKAGE, "before"))).isNotNull();
+    }
+
+    @Test
+    void hashesPackageContentFromTheClasspath() {
+        String shinny = ValidationResultCache.packageSha256("ig-packages/shin-ny-ig/shinny/v1.8.1");
+
+        assertThat(shinny).hasSize(64).isEqualTo(ValidationResultCache.packageSha256("ig-packages/shin-ny-ig/shinny/v1.8.1"));
+        assertThat(ValidationResultCache.packageSha256("ig-packages/shin-ny-ig/test-shinny/v1.9.2")).isNotEqualTo(shinny);
+        assertThat(ValidationResultCache.packageSha256("ig-packages/none")).isEqualTo("missing");
+    }
+}
@@ -0,0 +1,110 @@
+package org.techbd.service.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.jooq.tools.jdbc.MockConnection;
+import org.jooq.tools.jdbc.MockDataProvider;
+import org.jooq.tools.jdbc.MockResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.techbd.config.CoreAppConfig.InteractionPersistenceConfig;
+import org.techbd.udi.auto.jooq.ingress.routines.RegisterInteractionFhirRequest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class InteractionPersistenceWriterTest {
+
+    private static final String FUNCTION = "register_interaction_fhir_request";
+
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+    private final List<Object> bindings = new CopyOnWriteArrayList<>();
+    private InteractionPersistenceWriter writer;
+
+    private final MockDataProvider provider = ctx -> {
+        statements.add(ctx.sql());
+        bindings.addAll(Arrays.asList(ctx.bindings()));
+        final int calls = ctx.sql().split(FUNCTION, -1).length - 1;
+        final DSLContext create = DSL.using(SQLDialect.POSTGRES);
+        final List<Field<String>> fields = new ArrayList<>();
+        for (int i = 0; i < calls; i++) {
+            fields.add(DSL.field(DSL.name("r" + i), SQLDataType.VARCHAR));
+        }
+        final Result<Record> result = create.newResult(fields.toArray(Field[]::new));
+        final Record record = create.newRecord(fields.toArray(Field[]::new));
+        for (int i = 0; i < calls; i++) {
+            record.set(fields.get(i), "{\"position\":" + i + "}");
+        }
+        result.add(record);
+        return new MockResult[] { new MockResult(1, result) };
+    };
+
+    @AfterEach
+    void close() {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    private InteractionPersistenceWriter writer(boolean enabled) {
+        InteractionPersistenceConfig config = new InteractionPersistenceConfig();
+        config.setEnabled(enabled);
+        config.setBatchSize(10);
+        config.setMaxDelayMillis(5000);
+        writer = new InteractionPersistenceWriter(DSL.using(new MockConnection(provider), SQLDialect.POSTGRES),
+                config);
+        return writer;
+    }
+
+    private static RegisterInteractionFhirRequest call(String interactionId) {
+        RegisterInteractionFhirRequest routine = new RegisterInteractionFhirRequest();
+        routine.setPInteractionId(interactionId);
+        return routine;
+    }
+
+    @Test
+    void writesQueuedCallsInOneStatementWhenACallerWaits() {
+        InteractionPersistenceWriter writer = writer(true);
+
+        CompletableFuture<JsonNode> first = writer.submit(call("i-1"));
+        CompletableFuture<JsonNode> second = writer.submit(call("i-2"));
+        JsonNode third = writer.submitAndWait(call("i-3"));
+
+        assertThat(statements).hasSize(1);
+        assertThat(bindings).filteredOn(value -> value instanceof String s && s.startsWith("i-"))
+                .containsExactly("i-1", "i-2", "i-3");
+        assertThat(first.join().get("position").asInt()).isZero();
+        assertThat(second.join().get("position").asInt()).isEqualTo(1);
+        assertThat(third.get("position").asInt()).isEqualTo(2);
+    }
+
+    @Test
+    void runsCallsOnTheCallerThreadWhenDisabled() {
+        JsonNode response = new ObjectMapper().createObjectNode().put("interaction_id", "i-1");
+        RegisterInteractionFhirRequest routine = mock(RegisterInteractionFhirRequest.class);
+        when(routine.getReturnValue()).thenReturn(response);
+
+        CompletableFuture<JsonNode> result = writer(false).submit(routine);
+
+        assertThat(result).isCompletedWithValue(response);
+        verify(routine).execute(any(org.jooq.Configuration.class));
+        assertThat(statements).isEmpty();
+    }
+}
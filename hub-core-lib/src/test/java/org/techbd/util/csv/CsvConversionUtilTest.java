@@ -0,0 +1,100 @@
+package org.techbd.util.csv;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.techbd.model.csv.DemographicData;
+import org.techbd.model.csv.QeAdminData;
+import org.techbd.model.csv.ScreeningObservationData;
+import org.techbd.model.csv.ScreeningProfileData;
+
+import com.opencsv.bean.CsvToBeanBuilder;
+
+class CsvConversionUtilTest {
+
+    private static final String BASE_CSV_PATH = "src/test/resources/org/techbd/csv/data/latestResources/";
+
+    @Test
+    void bindsTheSameValuesAsOpenCsvBeanBinding() throws Exception {
+        assertMatchesBeanBinding("SDOH_PtInfo_CareRidgeSCN_testcase1_20250312040214.csv", DemographicData.class);
+        assertMatchesBeanBinding("SDOH_QEadmin_CareRidgeSCN_testcase1_20250312040214.csv", QeAdminData.class);
+        assertMatchesBeanBinding("SDOH_ScreeningProf_CareRidgeSCN_testcase1_20250312040214.csv",
+                ScreeningProfileData.class);
+        assertMatchesBeanBinding("SDOH_ScreeningObs_CareRidgeSCN_testcase1_20250312040214.csv",
+                ScreeningObservationData.class);
+    }
+
+    @Test
+    void groupsRowsAndTrimsValues() throws Exception {
+        String csv = "\uFEFFPATIENT_MR_ID_VALUE,FACILITY_ID,FACILITY_NAME,UNKNOWN_COLUMN\n"
+                + "p1, f1 ,\"Care, Inc\",x\n"
+                + "p2,f2,Other,y\n"
+                + "\n"
+                + "p1,f3,Third,z\n";
+
+        Map<String, List<QeAdminData>> grouped = CsvConversionUtil.convertCsvStringToQeAdminData(csv, "test", "0.0.0");
+
+        assertThat(grouped).containsOnlyKeys("p1", "p2");
+        assertThat(grouped.get("p1")).extracting(QeAdminData::getFacilityId).containsExactly("f1", "f3");
+        assertThat(grouped.get("p1").get(0).getFacilityName()).isEqualTo("Care, Inc");
+    }
+
+    @Test
+    void skipsRowsWithWrongFieldCount() throws Exception {
+        String csv = "PATIENT_MR_ID_VALUE,FACILITY_ID\n"
+                + "p1,f1\n"
+                + "p2\n"
+                + "p3,f3,extra\n";
+
+        Map<String, List<QeAdminData>> grouped = CsvConversionUtil.convertCsvStringToQeAdminData(csv, "test", "0.0.0");
+
+        assertThat(grouped).containsOnlyKeys("p1");
+    }
+
+    @Test
+    void rejectsMissingGroupingColumn() {
+        String csv = "FACILITY_ID\nf1\n";
+
+        assertThatThrownBy(() -> CsvConversionUtil.convertCsvStringToQeAdminData(csv, "test", "0.0.0"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("patientMrIdValue");
+    }
+
+    private static <T> void assertMatchesBeanBinding(String file, Class<T> type) throws Exception {
+        String csv = Files.readString(Path.of(BASE_CSV_PATH + file));
+        List<T> expected = new CsvToBeanBuilder<T>(new StringReader(csv.replace("\uFEFF", "")))
+                .withType(type)
+                .withIgnoreLeadingWhiteSpace(true)
+                .build()
+                .parse();
+
+        List<T> actual = CsvConversionUtil.convertCsvStringToObjectMap(csv, type, ',', "patientMrIdValue", "test",
+                "0.0.0").values().stream().flatMap(List::stream).toList();
+
+        assertThat(actual).hasSameSizeAs(expected);
+        assertThat(actual).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyInAnyOrderElementsOf(trimmed(expected));
+    }
+
+    private static <T> List<T> trimmed(List<T> rows) throws IllegalAccessException {
+        for (T row : rows) {
+            for (var field : row.getClass().getDeclaredFields()) {
+                if (field.getType() == String.class) {
+                    field.setAccessible(true);
+                    String value = (String) field.get(row);
+                    if (value != null) {
+                        field.set(row, value.trim());
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+}
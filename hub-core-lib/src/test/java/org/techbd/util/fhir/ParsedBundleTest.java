@@ -0,0 +1,76 @@
+package org.techbd.util.fhir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Map;
+
+import org.hl7.fhir.r4.model.Bundle;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import ca.uhn.fhir.context.FhirContext;
+
+class ParsedBundleTest {
+
+    private static final String PAYLOAD = "{ \"resourceType\": \"Bundle\", \"id\": \"b-1\", \"type\": \"transaction\", \"meta\": { \"profile\": [\"http://shinny.org/us/ny/hrsn/StructureDefinition/SHINNYBundleProfile\", \"http://example.org/other\"] }, \"entry\": [] }";
+
+    @Test
+    void parsesJsonOnceAndExposesProfiles() throws Exception {
+        ParsedBundle bundle = new ParsedBundle(PAYLOAD);
+
+        assertThat(bundle.json()).isSameAs(bundle.json());
+        assertThat(bundle.profileUrls()).containsExactly(
+                "http://shinny.org/us/ny/hrsn/StructureDefinition/SHINNYBundleProfile", "http://example.org/other");
+        assertThat(bundle.firstProfileUrl())
+                .isEqualTo("http://shinny.org/us/ny/hrsn/StructureDefinition/SHINNYBundleProfile");
+        assertThat(CoreFHIRUtil.extractBundleId(bundle, "interaction")).isEqualTo("b-1");
+    }
+
+    @Test
+    void parsesHapiBundleOnce() {
+        ParsedBundle bundle = new ParsedBundle(PAYLOAD);
+        FhirContext fhirContext = FhirContext.forR4Cached();
+
+        assertThat(bundle.bundle(fhirContext)).isSameAs(bundle.bundle(fhirContext));
+        assertThat(bundle.bundle(fhirContext).getIdElement().getIdPart()).isEqualTo("b-1");
+    }
+
+    @Test
+    void exposesOnlyAnAlreadyBuiltHapiBundle() {
+        FhirContext fhirContext = FhirContext.forR4Cached();
+        ParsedBundle lazy = new ParsedBundle(PAYLOAD);
+        assertThat(lazy.parsedBundle()).isNull();
+        assertThat(lazy.bundle(fhirContext)).isSameAs(lazy.parsedBundle());
+
+        Bundle supplied = new Bundle();
+        ParsedBundle prebuilt = new ParsedBundle(PAYLOAD, supplied);
+        assertThat(prebuilt.parsedBundle()).isSameAs(supplied);
+        assertThat(prebuilt.bundle(fhirContext)).isSameAs(supplied);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void toMapReturnsIndependentMutableCopies() throws Exception {
+        ParsedBundle bundle = new ParsedBundle(PAYLOAD);
+
+        Map<String, Object> first = bundle.toMap();
+        ((List<Object>) first.get("entry")).add(Map.of("resource", Map.of()));
+
+        assertThat((List<Object>) bundle.toMap().get("entry")).isEmpty();
+        assertThat(bundle.json().path("entry").size()).isZero();
+    }
+
+    @Test
+    void reportsInvalidJsonConsistently() {
+        ParsedBundle bundle = new ParsedBundle("{ not json");
+
+        assertThat(bundle.isJson()).isFalse();
+        assertThat(bundle.profileUrls()).isEmpty();
+        assertThat(bundle.firstProfileUrl()).isNull();
+        assertThatThrownBy(bundle::json).isInstanceOf(JsonProcessingException.class);
+        assertThat(CoreFHIRUtil.extractBundleId(bundle, "interaction")).isEmpty();
+    }
+}
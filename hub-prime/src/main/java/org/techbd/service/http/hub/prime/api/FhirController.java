@@ -387,7 +387,8 @@ public class FhirController {
 
         @PostMapping(value = { "/Bundle/replay", "/Bundle/replay/" })
         @Operation(summary = "Replay FHIR Bundles between a date or datetime range", description = """
-                        Accepts startDate and endDate
+                        Accepts startDate and endDate. Pass the replay_id of an earlier replay in
+                        X-TechBD-Replay-ID to resume it; bundles it already sent are skipped.
                         """)
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Replay triggered successfully."),
@@ -398,9 +399,11 @@ public class FhirController {
         public Object replayBundles(
                         @RequestHeader("X-TechBD-StartDate") String startDateStr,
                         @RequestHeader("X-TechBD-EndDate") String endDateStr,
-                        @RequestHeader(value = "X-TechBD-Tenant-ID", required = false) String tenantId, HttpServletRequest request) {
+                        @RequestHeader(value = "X-TechBD-Tenant-ID", required = false) String tenantId,
+                        @RequestHeader(value = "X-TechBD-Replay-ID", required = false) UUID replayId,
+                        HttpServletRequest request) {
 
-                UUID interactionId = UUID.randomUUID();
+                UUID interactionId = replayId != null ? replayId : UUID.randomUUID();
                  try {
                          
                         OffsetDateTime startDate = parseFlexibleDate(startDateStr, true);
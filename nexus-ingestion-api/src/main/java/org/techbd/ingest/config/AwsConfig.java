@@ -11,9 +11,14 @@ import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.SqsAsyncClientBuilder;
 import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.sqs.SqsClientBuilder;
 
@@ -37,6 +42,8 @@ import software.amazon.awssdk.services.sqs.SqsClientBuilder;
  * <ul>
  *   <li>{@code S3Client} — for interacting with Amazon S3.</li>
  *   <li>{@code SqsClient} — for sending/receiving messages from Amazon SQS.</li>
+ *   <li>{@code S3AsyncClient} / {@code SqsAsyncClient} — non-blocking variants used by the
+ *       async ingestion pipeline, sharing a Netty NIO connection pool per client.</li>
  * </ul>
  */
 @Configuration
@@ -115,6 +122,77 @@ public class AwsConfig {
         return client;
     }
 
+    /**
+     * Creates and configures an AWS S3AsyncClient bean backed by the Netty NIO
+     * HTTP client. Uses sandbox/localstack endpoint if the sandbox profile is active.
+     *
+     * @return Configured S3AsyncClient instance.
+     */
+    @Bean
+    public S3AsyncClient s3AsyncClient() {
+        LOG.info("AwsConfig:: s3AsyncClient bean creation started");
+        AppConfig.Aws aws = appConfig.getAws();
+        AppConfig.Aws.S3 s3 = aws.getS3();
+
+        S3AsyncClientBuilder builder = S3AsyncClient.builder()
+                .region(Region.of(aws.getRegion()))
+                .httpClientBuilder(asyncHttpClientBuilder());
+
+        if (isSandboxProfile() && s3.getDefaultConfig().getEndpoint() != null) {
+            LOG.info("AwsConfig:: s3AsyncClient using sandbox endpoint: {}", s3.getDefaultConfig().getEndpoint());
+            builder.endpointOverride(URI.create(s3.getDefaultConfig().getEndpoint()));
+            builder.forcePathStyle(true); // Required for LocalStack
+        }
+
+        builder.credentialsProvider(resolveCredentialsProvider(aws));
+
+        S3AsyncClient client = builder.build();
+        LOG.info("AwsConfig:: s3AsyncClient bean created");
+        return client;
+    }
+
+    /**
+     * Creates and configures an AWS SqsAsyncClient bean backed by the Netty NIO
+     * HTTP client. Uses sandbox/localstack endpoint if the sandbox profile is active.
+     *
+     * @return Configured SqsAsyncClient instance.
+     */
+    @Bean
+    public SqsAsyncClient sqsAsyncClient() {
+        LOG.info("AwsConfig:: sqsAsyncClient bean creation started");
+        AppConfig.Aws aws = appConfig.getAws();
+        AppConfig.Aws.Sqs sqs = aws.getSqs();
+
+        SqsAsyncClientBuilder builder = SqsAsyncClient.builder()
+                .region(Region.of(aws.getRegion()))
+                .httpClientBuilder(asyncHttpClientBuilder());
+
+        if (isSandboxProfile() && sqs.getEndpoint() != null) {
+            LOG.info("AwsConfig:: sqsAsyncClient using sandbox endpoint: {}", sqs.getEndpoint());
+            builder.endpointOverride(URI.create(sqs.getEndpoint()));// Required for LocalStack
+        }
+
+        builder.credentialsProvider(resolveCredentialsProvider(aws));
+
+        SqsAsyncClient client = builder.build();
+        LOG.info("AwsConfig:: sqsAsyncClient bean created");
+        return client;
+    }
+
+    /**
+     * Builds the Netty NIO HTTP client used by the async AWS clients. The
+     * connection pool size is taken from {@code AWS_ASYNC_MAX_CONCURRENCY}
+     * (default 200).
+     *
+     * @return a builder; the SDK client it is passed to owns and closes the resulting HTTP client.
+     */
+    private NettyNioAsyncHttpClient.Builder asyncHttpClientBuilder() {
+        int maxConcurrency = environment.getProperty("AWS_ASYNC_MAX_CONCURRENCY", Integer.class, 200);
+        LOG.info("AwsConfig:: async http client maxConcurrency={}", maxConcurrency);
+        return NettyNioAsyncHttpClient.builder()
+                .maxConcurrency(maxConcurrency);
+    }
+
     /**
      * Resolves the AWS credentials provider based on configuration.
      * Uses static credentials if provided, otherwise falls back to the default provider.
@@ -5,13 +5,19 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -29,24 +35,43 @@ import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 /**
  * Singleton Spring Boot component to load port configuration from AWS S3 or
  * local JSON (for sandbox).
+ *
+ * <p>The parsed configuration is published as an immutable {@link Snapshot}
+ * through a volatile field, so readers never lock. {@link #reloadConfig()}
+ * builds a new snapshot and swaps it in atomically; when
+ * {@code PORT_CONFIG_RELOAD_INTERVAL_SECONDS} is greater than zero the reload
+ * runs periodically in the background. MLLP listener ports are bound at
+ * startup and are not rebound on reload.
  */
 @Component
-public class PortConfig implements InitializingBean {
+public class PortConfig implements InitializingBean, DisposableBean {
 
     private static final Logger log = LoggerFactory.getLogger(PortConfig.class);
     private static final String ENV_BUCKET = "PORT_CONFIG_S3_BUCKET";
     private static final String ENV_KEY = "PORT_CONFIG_S3_KEY";
     private static final String ENV_REGION = "AWS_REGION";
     private static final String ENV_PROFILE = "SPRING_PROFILES_ACTIVE";
+    private static final String ENV_RELOAD_INTERVAL = "PORT_CONFIG_RELOAD_INTERVAL_SECONDS";
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
     @Autowired
     private org.springframework.core.env.Environment environment;
 
     private final AtomicBoolean loaded = new AtomicBoolean(false);
-    private List<PortEntry> portConfigurationList = Collections.emptyList();
-    private List<Integer> mllpPorts = Collections.emptyList();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile String lastRawJson;
+    private ScheduledExecutorService reloadScheduler;
     private final S3Client s3Client;
 
+    /**
+     * Immutable view of one loaded configuration. {@code entriesByPort} keeps
+     * the first entry for each port, matching the previous linear lookup.
+     */
+    public record Snapshot(List<PortEntry> entries, List<Integer> mllpPorts, Map<Integer, PortEntry> entriesByPort) {
+        static final Snapshot EMPTY = new Snapshot(List.of(), List.of(), Map.of());
+    }
+
     @Autowired
     public PortConfig(S3Client s3Client) {
         this.s3Client = s3Client;
@@ -72,6 +97,9 @@ public class PortConfig implements InitializingBean {
         public String msgType;
         public String ackContentType;
         public int keepAliveTimeout;
+        public int processingThreads;
+        public int processingQueueCapacity;
+        public Boolean virtualThreads;
 
         public boolean isMtlsEnabled() {
             return mtlsEnabled || (mtls != null && !mtls.isBlank());
@@ -81,17 +109,63 @@ public class PortConfig implements InitializingBean {
     @Override
     public void afterPropertiesSet() {
         loadConfig();
+        startHotReload();
+    }
+
+    @Override
+    public void destroy() {
+        if (reloadScheduler != null) {
+            reloadScheduler.shutdownNow();
+        }
+    }
+
+    private void startHotReload() {
+        long interval;
+        try {
+            String value = getProperty(ENV_RELOAD_INTERVAL);
+            interval = value != null ? Long.parseLong(value.trim()) : 0;
+        } catch (NumberFormatException e) {
+            log.warn("PortConfig: Invalid {} - hot reload disabled", ENV_RELOAD_INTERVAL);
+            return;
+        }
+        if (interval <= 0) {
+            return;
+        }
+        reloadScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "port-config-reload");
+            t.setDaemon(true);
+            return t;
+        });
+        reloadScheduler.scheduleWithFixedDelay(this::reloadConfig, interval, interval, TimeUnit.SECONDS);
+        log.info("PortConfig: Hot reload enabled every {}s", interval);
     }
 
     public synchronized void loadConfig() {
         if (loaded.get())
             return;
+        try {
+            String rawJson = readRawJson();
+            if (rawJson != null) {
+                parseAndSetConfig(rawJson);
+                loaded.set(true);
+            }
+        } catch (JsonProcessingException jpe) {
+            log.error("PortConfig: Failed to parse port config JSON", jpe);
+        } catch (Exception e) {
+            log.error("PortConfig: Unexpected error while loading port config", e);
+        }
+    }
 
+    /**
+     * Reads the raw configuration JSON from the local file (sandbox) or S3.
+     *
+     * @return the JSON, or {@code null} if the source is not available
+     */
+    private String readRawJson() {
         String activeProfile = getProperty(ENV_PROFILE);
         if ("sandbox".equalsIgnoreCase(activeProfile)) {
             log.info("PortConfig: Sandbox profile detected - loading configuration from local file.");
-            loadConfigFromLocal();
-            return;
+            return readLocalJson();
         }
 
         String bucket = getProperty(ENV_BUCKET);
@@ -100,28 +174,25 @@ public class PortConfig implements InitializingBean {
 
         if (bucket == null || key == null) {
             log.error("PortConfig: Missing required properties {} or {}", ENV_BUCKET, ENV_KEY);
-            return;
+            return null;
         }
 
         if (this.s3Client == null) {
             log.error("PortConfig: S3Client bean not available - cannot load port config");
-            return;
+            return null;
         }
 
         try {
             log.info("PortConfig: Loading port config from s3://{}/{} (region={})", bucket, key, region);
             var req = GetObjectRequest.builder().bucket(bucket).key(key).build();
             var bytes = s3Client.getObjectAsBytes(req);
-            var rawJson = new String(bytes.asByteArray(), StandardCharsets.UTF_8);
-            parseAndSetConfig(rawJson);
-            loaded.set(true);
-        } catch (JsonProcessingException jpe) {
-            log.error("PortConfig: Failed to parse port config JSON", jpe);
-        } catch (SdkException | IOException ex) {
+            return new String(bytes.asByteArray(), StandardCharsets.UTF_8);
+        } catch (SdkException ex) {
             log.error("PortConfig: Error while reading S3 object s3://{}/{}", bucket, key, ex);
         } catch (Exception e) {
             log.error("PortConfig: Unexpected error while loading from S3", e);
         }
+        return null;
     }
 
     private String getProperty(String key) {
@@ -135,38 +206,37 @@ public class PortConfig implements InitializingBean {
     }
 
     /**
-     * Loads configuration from local JSON file in sandbox mode.
+     * Reads configuration from local JSON file in sandbox mode.
      */
-    private void loadConfigFromLocal() {
+    private String readLocalJson() {
         try {
             var path = Path.of("src/main/resources/list.json");
             if (!Files.exists(path)) {
                 log.error("PortConfig: Local config file not found at {}", path.toAbsolutePath());
-                return;
+                return null;
             }
 
             var rawJson = Files.readString(path, StandardCharsets.UTF_8);
             log.info("PortConfig: Loaded local JSON config ({} bytes)", rawJson.length());
-            parseAndSetConfig(rawJson);
-            loaded.set(true);
+            return rawJson;
         } catch (IOException e) {
             log.error("PortConfig: Failed to read local config file from resources", e);
         } catch (Exception e) {
             log.error("PortConfig: Unexpected error while loading local config", e);
         }
+        return null;
     }
 
     /**
      * Common JSON parsing logic shared by S3 and local loaders.
      */
     private void parseAndSetConfig(String rawJson) throws IOException {
-        var mapper = new ObjectMapper();
-        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        var configList = mapper.readValue(rawJson, new TypeReference<List<PortEntry>>() {
+        var configList = MAPPER.readValue(rawJson, new TypeReference<List<PortEntry>>() {
         });
-        portConfigurationList = Optional.ofNullable(configList).orElse(Collections.emptyList());
+        List<PortEntry> entries = Collections.unmodifiableList(
+                Optional.ofNullable(configList).orElse(Collections.emptyList()));
 
-        var mports = portConfigurationList.stream()
+        var mports = entries.stream()
                 .filter(Objects::nonNull)
                 .filter(p -> "mllp".equalsIgnoreCase(p.responseType) && "tcp".equalsIgnoreCase(p.protocol))
                 .map(p -> p.port)
@@ -174,40 +244,65 @@ public class PortConfig implements InitializingBean {
                 .sorted()
                 .toList();
 
-        mllpPorts = Collections.unmodifiableList(mports);
-        log.info("PortConfig: Parsed {} port entries; MLLP ports={}", portConfigurationList.size(), mllpPorts);
+        Map<Integer, PortEntry> byPort = new LinkedHashMap<>();
+        entries.stream()
+                .filter(Objects::nonNull)
+                .forEach(p -> byPort.putIfAbsent(p.port, p));
+
+        snapshot = new Snapshot(entries, Collections.unmodifiableList(mports), Collections.unmodifiableMap(byPort));
+        lastRawJson = rawJson;
+        log.info("PortConfig: Parsed {} port entries; MLLP ports={}", entries.size(), snapshot.mllpPorts());
     }
 
     public boolean isLoaded() {
         return loaded.get();
     }
 
+    /**
+     * Returns the current configuration snapshot. The returned list instance
+     * only changes when a reload publishes a new snapshot, so callers may use
+     * its identity to detect reloads.
+     */
     public List<PortEntry> getPortConfigurationList() {
-        if (!isLoaded())
-            loadConfig();
-        return portConfigurationList;
+        return getSnapshot().entries();
     }
 
     public List<Integer> getMllpPorts() {
-        if (!isLoaded())
-            loadConfig();
-        return mllpPorts != null ? mllpPorts : Collections.emptyList();
+        return getSnapshot().mllpPorts();
     }
 
     public Optional<PortEntry> findEntryForPort(int port) {
+        return Optional.ofNullable(getSnapshot().entriesByPort().get(port));
+    }
+
+    public Snapshot getSnapshot() {
         if (!isLoaded())
             loadConfig();
-        return portConfigurationList.stream()
-                .filter(Objects::nonNull)
-                .filter(p -> p.port == port)
-                .findFirst();
+        return snapshot;
     }
 
     /**
-     * Resets the loaded state and forces a fresh reload of the configuration.
+     * Re-reads the configuration and swaps in a new snapshot. Readers keep
+     * using the previous snapshot until the swap and are never blocked. The
+     * current snapshot is kept if the source cannot be read or parsed, or if
+     * the content has not changed.
      */
     public synchronized void reloadConfig() {
-        loaded.set(false);
-        loadConfig();
+        try {
+            String rawJson = readRawJson();
+            if (rawJson == null) {
+                log.warn("PortConfig: Reload skipped - configuration source unavailable");
+                return;
+            }
+            if (rawJson.equals(lastRawJson)) {
+                log.debug("PortConfig: Reload skipped - configuration unchanged");
+                return;
+            }
+            parseAndSetConfig(rawJson);
+            loaded.set(true);
+            log.info("PortConfig: Reloaded configuration ({} entries)", snapshot.entries().size());
+        } catch (Exception e) {
+            log.error("PortConfig: Reload failed - keeping previous configuration", e);
+        }
     }
 }
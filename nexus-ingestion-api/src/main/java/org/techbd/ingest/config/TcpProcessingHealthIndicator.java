@@ -0,0 +1,30 @@
+package org.techbd.ingest.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+import org.techbd.ingest.listener.TcpProcessingExecutor;
+
+/**
+ * Health indicator that reports queue depth, in-flight and backpressure
+ * counters for each TCP/MLLP processing lane.
+ */
+@Component
+public class TcpProcessingHealthIndicator implements HealthIndicator {
+
+    private final TcpProcessingExecutor tcpProcessingExecutor;
+
+    public TcpProcessingHealthIndicator(TcpProcessingExecutor tcpProcessingExecutor) {
+        this.tcpProcessingExecutor = tcpProcessingExecutor;
+    }
+
+    @Override
+    public Health health() {
+        Map<String, Object> details = new HashMap<>();
+        details.put("TCP Processing Lanes", tcpProcessingExecutor.getStats());
+        return Health.up().withDetails(details).build();
+    }
+}
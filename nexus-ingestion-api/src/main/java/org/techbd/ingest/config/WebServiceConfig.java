@@ -82,7 +82,10 @@ public class WebServiceConfig extends WsConfigurationSupport {
         var servlet = new CustomMessageDispatcherServlet();
         servlet.setApplicationContext(context);
         servlet.setTransformWsdlLocations(true);
-        return new ServletRegistrationBean<>(servlet, "/ws/*");
+        var registration = new ServletRegistrationBean<MessageDispatcherServlet>(servlet, "/ws/*");
+        // Initialise eagerly so in-process SOAP forwarding can use it before the first /ws request.
+        registration.setLoadOnStartup(1);
+        return registration;
     }
 
     @Bean
@@ -6,6 +6,7 @@ import java.time.ZonedDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -22,22 +23,19 @@ import org.techbd.ingest.config.PortConfig;
 import org.techbd.ingest.exceptions.ErrorTraceIdGenerator;
 import org.techbd.ingest.feature.FeatureEnum;
 import org.techbd.ingest.model.RequestContext;
+import org.techbd.ingest.service.Hl7ParsingService;
 import org.techbd.ingest.service.MessageProcessorService;
 import org.techbd.ingest.service.portconfig.PortResolverService;
 import org.techbd.ingest.util.AppLogger;
+import org.techbd.ingest.util.Hl7SegmentScanner;
 import org.techbd.ingest.util.LogUtil;
 import org.techbd.ingest.util.TemplateLogger;
 import org.techbd.ingest.util.UuidUtil;
 
-import ca.uhn.hl7v2.DefaultHapiContext;
 import ca.uhn.hl7v2.HL7Exception;
-import ca.uhn.hl7v2.HapiContext;
 import ca.uhn.hl7v2.model.Message;
 import ca.uhn.hl7v2.model.Segment;
-import ca.uhn.hl7v2.parser.GenericParser;
-import ca.uhn.hl7v2.parser.PipeParser;
 import ca.uhn.hl7v2.util.Terser;
-import ca.uhn.hl7v2.validation.impl.NoValidation;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelFuture;
@@ -68,6 +66,8 @@ public class NettyTcpServer implements MessageSourceProvider {
     private final MessageProcessorService messageProcessorService;
     private final AppConfig appConfig;
     private final PortResolverService portResolverService;
+    private final TcpProcessingExecutor tcpProcessingExecutor;
+    private final Hl7ParsingService hl7ParsingService;
     @Value("${TCP_DISPATCHER_PORT:7980}")
     private int tcpPort;
 
@@ -135,8 +135,8 @@ public class NettyTcpServer implements MessageSourceProvider {
      * all activity for a given TCP connection can be correlated in the logs even
      * when multiple messages share the same channel.
      *
-     * Contrast with INTERACTION_ATTRIBUTE_KEY (interactionId) which is reset after
-     * each successfully-processed message on a keep-alive connection.
+     * Contrast with INTERACTION_ATTRIBUTE_KEY (interactionId) which is reset as
+     * each complete message is handed off for processing.
      */
     private static final AttributeKey<String> SESSION_ID_KEY = AttributeKey.valueOf("SESSION_ID");
 
@@ -155,10 +155,14 @@ public class NettyTcpServer implements MessageSourceProvider {
     public NettyTcpServer(MessageProcessorService messageProcessorService,
             AppConfig appConfig,
             AppLogger appLogger,
-            PortResolverService portResolverService) {
+            PortResolverService portResolverService,
+            TcpProcessingExecutor tcpProcessingExecutor,
+            Hl7ParsingService hl7ParsingService) {
         this.messageProcessorService = messageProcessorService;
         this.appConfig = appConfig;
         this.portResolverService = portResolverService;
+        this.tcpProcessingExecutor = tcpProcessingExecutor;
+        this.hl7ParsingService = hl7ParsingService;
         this.logger = appLogger.getLogger(NettyTcpServer.class);
     }
 
@@ -307,202 +311,7 @@ public class NettyTcpServer implements MessageSourceProvider {
                                 }
 
                                 // Main message handler - handles both HAProxyMessage and ByteBuf
-                                ch.pipeline().addLast(new SimpleChannelInboundHandler<Object>() {
-                                    @Override
-                                    protected void channelRead0(ChannelHandlerContext ctx, Object msg) {
-                                        String sessionId = ctx.channel().attr(SESSION_ID_KEY).get();
-                                        UUID interactionId = ctx.channel().attr(INTERACTION_ATTRIBUTE_KEY).get();
-                                        if (interactionId == null) {
-                                            interactionId = UUID.fromString(UuidUtil.generateUuid());
-                                            ctx.channel().attr(INTERACTION_ATTRIBUTE_KEY).set(interactionId);
-                                        }
-
-                                        String activeProfile = System.getProperty("SPRING_PROFILES_ACTIVE");
-                                        if (null == activeProfile) {
-                                            activeProfile = System.getenv("SPRING_PROFILES_ACTIVE");
-                                        }
-
-                                        if ("sandbox".equals(activeProfile)) {
-                                            handleSandboxProxy(ctx, sessionId, interactionId);
-                                        } else {
-                                            // Handle HAProxy header if present
-                                            if (msg instanceof HAProxyMessage proxyMsg) {
-                                                handleProxyHeader(ctx, proxyMsg, sessionId, interactionId);
-                                                return; // Wait for next frame (actual message)
-                                            }
-                                        }
-
-                                        // Handle actual message content
-                                        if (msg instanceof ByteBuf byteBuf) {
-                                            String messageContent = byteBuf.toString(StandardCharsets.UTF_8);
-
-                                            // Always log HAProxy details for every inbound frame so
-                                            // keep-alive messages and probes are traceable.
-                                            logProxyDetails(ctx, sessionId, interactionId);
-
-                                            // If no-delimiter flag was set by the decoder, accumulate and log only
-                                            Boolean noDelimiter = ctx.channel().attr(NO_DELIMITER_DETECTED_KEY).get();
-                                            if (Boolean.TRUE.equals(noDelimiter)) {
-                                                handleNoDelimiterMessage(ctx, messageContent, sessionId, interactionId);
-                                                return;
-                                            }
-
-                                            long startTime = ctx.channel().attr(MESSAGE_START_TIME_KEY).get();
-                                            long receiveTime = System.currentTimeMillis() - startTime;
-                                            int fragmentCount = ctx.channel().attr(FRAGMENT_COUNT_KEY).get().get();
-                                            long totalBytes = ctx.channel().attr(TOTAL_BYTES_KEY).get().get();
-                                            int sessionMsgCount = ctx.channel().attr(SESSION_MESSAGE_COUNT_KEY).get().incrementAndGet();
-                                            
-                                            logger.info("MESSAGE_FULLY_RECEIVED [sessionId={}] [interactionId={}] [haproxyDetails={}] sessionMessageCount={} totalSize={} bytes, fragments={}, receiveTimeMs={}, avgFragmentSize={} bytes",
-                                                    sessionId, interactionId, haproxyDetails(ctx), sessionMsgCount,
-                                                    totalBytes, fragmentCount, receiveTime, 
-                                                    fragmentCount > 0 ? (totalBytes / fragmentCount) : totalBytes);
-                                            
-                                            handleMessage(ctx, messageContent, sessionId, interactionId);
-                                        }
-                                    }
-
-                                    @Override
-                                    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
-                                        // ReadTimeoutException must be handled exclusively by the
-                                        // ChannelInboundHandlerAdapter below, which applies the
-                                        // SEND_HL7_ACK_ON_IDLE_TIMEOUT feature flag gate.
-                                        // Passing it down here prevents this handler from sending
-                                        // a NACK_ON_EXCEPTION before the flag is checked.
-                                        if (cause instanceof ReadTimeoutException) {
-                                            ctx.fireExceptionCaught(cause);
-                                            return;
-                                        }
-
-                                        String sessionId = ctx.channel().attr(SESSION_ID_KEY).get();
-                                        UUID interactionId = ctx.channel().attr(INTERACTION_ATTRIBUTE_KEY).get();
-                                        if (interactionId == null) {
-                                            interactionId = UUID.fromString(UuidUtil.generateUuid());
-                                            ctx.channel().attr(INTERACTION_ATTRIBUTE_KEY).set(interactionId);
-                                        }
-                                        
-                                        // Check if we've already sent a NACK for this channel
-                                        Boolean nackAlreadySent = ctx.channel().attr(ERROR_NACK_SENT_KEY).get();
-                                        if (nackAlreadySent != null && nackAlreadySent) {
-                                            return;
-                                        }
-                                        
-                                        // Mark that we're sending a NACK to prevent duplicates
-                                        ctx.channel().attr(ERROR_NACK_SENT_KEY).set(true);
-                                        
-                                        String errorTraceId = ErrorTraceIdGenerator.generateErrorTraceId();
-                                        
-                                        logger.error("Exception in TCP handler [sessionId={}] [interactionId={}] [haproxyDetails={}] [errorTraceId={}]: {}",
-                                                sessionId, interactionId, haproxyDetails(ctx), errorTraceId, cause.getMessage(), cause);
-                                        
-                                        // Convert Throwable to Exception for logging if needed
-                                        Exception exceptionForLogging;
-                                        if (cause instanceof Exception) {
-                                            exceptionForLogging = (Exception) cause;
-                                        } else {
-                                            exceptionForLogging = new Exception(cause);
-                                        }
-                                        
-                                        try {
-                                            LogUtil.logDetailedError(
-                                                500,
-                                                "Channel exception caught",
-                                                interactionId.toString(),
-                                                errorTraceId,
-                                                exceptionForLogging
-                                            );
-                                        } catch (Exception logException) {
-                                            logger.warn("Failed to log detailed error [sessionId={}] [interactionId={}] [haproxyDetails={}]: {}", 
-                                                    sessionId, interactionId, haproxyDetails(ctx), logException.getMessage());
-                                        }
-                                        
-                                        if (ctx.channel().isActive()) {
-                                            try {
-                                                // Try to send NACK before closing
-                                                String errorMsg = cause.getMessage() != null ? cause.getMessage() : "Unknown error";
-                                                String sanitizedError = errorMsg.replace("|", " ").replace("\r", " ").replace("\n", " ");
-                                                
-                                                String genericNack = "MSH|^~\\&|SERVER|LOCAL|CLIENT|REMOTE|" + Instant.now() + "||ACK|" +
-                                                        UuidUtil.generateUuid().substring(0, 20) + "|P|2.5\r" +
-                                                        "MSA|AR|UNKNOWN|Channel exception: " + sanitizedError + "\r" +
-                                                        "ERR|||207^Application internal error^HL70357||E|||Channel exception occurred\r";
-
-                                                if (FeatureEnum.isEnabled(FeatureEnum.ADD_NTE_SEGMENT_TO_HL7_ACK)) {
-                                                    genericNack += "NTE|1||InteractionID: " + interactionId +
-                                                            " | TechBDIngestionApiVersion: " + appConfig.getVersion() +
-                                                            " | ErrorTraceID: " + errorTraceId + "\r";
-                                                }
-                                   
-                                                String wrappedNack = String.valueOf((char)MLLP_START) + genericNack + (char)MLLP_END_1 + (char)MLLP_END_2;
-                                                
-                                                ByteBuf responseBuf = ctx.alloc().buffer();
-                                                responseBuf.writeBytes(wrappedNack.getBytes(StandardCharsets.UTF_8));
-                                                
-                                                logger.info("SENDING_NACK_ON_EXCEPTION [sessionId={}] [interactionId={}] [haproxyDetails={}] [errorTraceId={}]", 
-                                                        sessionId, interactionId, haproxyDetails(ctx), errorTraceId);
-                                                
-                                                final UUID finalInteractionId = interactionId;
-                                                final String finalSessionId = sessionId;
-                                                final String finalHaproxyDetails = haproxyDetails(ctx);
-                                                // Synchronous write with delay before close
-                                                ctx.writeAndFlush(responseBuf).addListener(future -> {
-                                                    if (future.isSuccess()) {
-                                                        logger.info("NACK_SENT_ON_EXCEPTION [sessionId={}] [interactionId={}] [haproxyDetails={}] [errorTraceId={}]", 
-                                                                finalSessionId, finalInteractionId, finalHaproxyDetails, errorTraceId);
-                                                        // Delay close to ensure NACK is transmitted
-                                                        ctx.executor().schedule(() -> {
-                                                            logger.debug("CLOSING_CONNECTION_AFTER_EXCEPTION [sessionId={}] [interactionId={}] [haproxyDetails={}]",
-                                                                    finalSessionId, finalInteractionId, finalHaproxyDetails);
-                                                            clearChannelAttributes(ctx);
-                                                            ctx.close();
-                                                        }, 100, TimeUnit.MILLISECONDS);
-                                                    } else {
-                                                        logger.error("NACK_SEND_FAILED_ON_EXCEPTION [sessionId={}] [interactionId={}] [haproxyDetails={}] [errorTraceId={}]: {}", 
-                                                                finalSessionId, finalInteractionId, finalHaproxyDetails, errorTraceId, 
-                                                                future.cause() != null ? future.cause().getMessage() : "unknown");
-                                                        clearChannelAttributes(ctx);
-                                                        ctx.close();
-                                                    }
-                                                });
-                                            } catch (Exception e) {
-                                                logger.error("FAILED_TO_SEND_NACK_ON_EXCEPTION [sessionId={}] [interactionId={}] [haproxyDetails={}] [errorTraceId={}]: {}", 
-                                                        sessionId, interactionId, haproxyDetails(ctx), errorTraceId, e.getMessage(), e);
-                                                clearChannelAttributes(ctx);
-                                                ctx.close();
-                                            }
-                                        } else {
-                                            clearChannelAttributes(ctx);
-                                        }
-                                    }
-
-                                    @Override
-                                    public void channelInactive(ChannelHandlerContext ctx) {
-                                        // Read session attributes FIRST — clearChannelAttributes does NOT
-                                        // touch session keys, so these are always valid here even if
-                                        // clearChannelAttributes was called just before ctx.close().
-                                        String sessionId = ctx.channel().attr(SESSION_ID_KEY).get();
-                                        Long sessionStart = ctx.channel().attr(SESSION_START_TIME_KEY).get();
-                                        AtomicInteger msgCount = ctx.channel().attr(SESSION_MESSAGE_COUNT_KEY).get();
-                                        long sessionDurationMs = sessionStart != null
-                                                ? System.currentTimeMillis() - sessionStart : -1;
-                                        int totalMessages = msgCount != null ? msgCount.get() : 0;
-
-                                        logger.info("TCP_SESSION_CLOSED [sessionId={}] [haproxyDetails={}] " +
-                                                "sessionDurationMs={} sessionDurationSec={} totalMessagesProcessed={}",
-                                                sessionId,
-                                                haproxyDetails(ctx),
-                                                sessionDurationMs,
-                                                sessionDurationMs >= 0 ? sessionDurationMs / 1000.0 : -1,
-                                                totalMessages);
-
-                                        // Clear all remaining attributes (including session keys —
-                                        // this is the ONLY place session attributes are nulled out).
-                                        clearChannelAttributes(ctx);
-                                        ctx.channel().attr(SESSION_ID_KEY).set(null);
-                                        ctx.channel().attr(SESSION_START_TIME_KEY).set(null);
-                                        ctx.channel().attr(SESSION_MESSAGE_COUNT_KEY).set(null);
-                                    }
-                                });
+                                ch.pipeline().addLast(new InboundMessageHandler());
                                 ch.pipeline().addLast(new ChannelInboundHandlerAdapter() {
 
                                     @Override
@@ -897,6 +706,229 @@ public class NettyTcpServer implements MessageSourceProvider {
         }
     }
 
+    // -------------------------------------------------------------------------
+    // Main message handler
+    // -------------------------------------------------------------------------
+
+    /**
+     * Main message handler — handles both HAProxyMessage and ByteBuf frames.
+     */
+    private class InboundMessageHandler extends SimpleChannelInboundHandler<Object> {
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, Object msg) {
+            String sessionId = ctx.channel().attr(SESSION_ID_KEY).get();
+            UUID interactionId = ctx.channel().attr(INTERACTION_ATTRIBUTE_KEY).get();
+            if (interactionId == null) {
+                interactionId = UUID.fromString(UuidUtil.generateUuid());
+                ctx.channel().attr(INTERACTION_ATTRIBUTE_KEY).set(interactionId);
+            }
+
+            String activeProfile = System.getProperty("SPRING_PROFILES_ACTIVE");
+            if (null == activeProfile) {
+                activeProfile = System.getenv("SPRING_PROFILES_ACTIVE");
+            }
+
+            if ("sandbox".equals(activeProfile)) {
+                handleSandboxProxy(ctx, sessionId, interactionId);
+            } else {
+                // Handle HAProxy header if present
+                if (msg instanceof HAProxyMessage proxyMsg) {
+                    handleProxyHeader(ctx, proxyMsg, sessionId, interactionId);
+                    return; // Wait for next frame (actual message)
+                }
+            }
+
+            // Handle actual message content
+            if (msg instanceof ByteBuf byteBuf) {
+                String messageContent = byteBuf.toString(StandardCharsets.UTF_8);
+
+                // Always log HAProxy details for every inbound frame so
+                // keep-alive messages and probes are traceable.
+                logProxyDetails(ctx, sessionId, interactionId);
+
+                // If no-delimiter flag was set by the decoder, accumulate and log only
+                Boolean noDelimiter = ctx.channel().attr(NO_DELIMITER_DETECTED_KEY).get();
+                if (Boolean.TRUE.equals(noDelimiter)) {
+                    handleNoDelimiterMessage(ctx, messageContent, sessionId, interactionId);
+                    return;
+                }
+
+                long startTime = ctx.channel().attr(MESSAGE_START_TIME_KEY).get();
+                long receiveTime = System.currentTimeMillis() - startTime;
+                int fragmentCount = ctx.channel().attr(FRAGMENT_COUNT_KEY).get().get();
+                long totalBytes = ctx.channel().attr(TOTAL_BYTES_KEY).get().get();
+                int sessionMsgCount = ctx.channel().attr(SESSION_MESSAGE_COUNT_KEY).get().incrementAndGet();
+                
+                logger.info("MESSAGE_FULLY_RECEIVED [sessionId={}] [interactionId={}] [haproxyDetails={}] sessionMessageCount={} totalSize={} bytes, fragments={}, receiveTimeMs={}, avgFragmentSize={} bytes",
+                        sessionId, interactionId, haproxyDetails(ctx), sessionMsgCount,
+                        totalBytes, fragmentCount, receiveTime, 
+                        fragmentCount > 0 ? (totalBytes / fragmentCount) : totalBytes);
+                
+                // S3/SQS work is handed to the per-port processing executor so
+                // the event loop stays free for other connections. The worker only
+                // sees the state captured here: the per-message attributes are reset
+                // before the decoder reads the next (possibly already pipelined) frame.
+                InboundMessage message = new InboundMessage(messageContent, sessionId, interactionId,
+                        startTime, fragmentCount, totalBytes,
+                        Boolean.TRUE.equals(ctx.channel().attr(MESSAGE_SIZE_EXCEEDED_KEY).get()));
+                resetMessageAttributes(ctx);
+                tcpProcessingExecutor.submit(haproxyDestPort(ctx), ctx.channel(), () -> {
+                    try {
+                        handleMessage(ctx, message);
+                    } catch (Throwable t) {
+                        // Failures are routed back through the pipeline so exceptionCaught
+                        // still NACKs, under the interactionId of the message that failed.
+                        ctx.executor().execute(() -> {
+                            ctx.channel().attr(INTERACTION_ATTRIBUTE_KEY).set(message.interactionId());
+                            ctx.pipeline().fireExceptionCaught(t);
+                        });
+                    }
+                });
+            }
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            // ReadTimeoutException must be handled exclusively by the
+            // ChannelInboundHandlerAdapter installed after this handler, which applies the
+            // SEND_HL7_ACK_ON_IDLE_TIMEOUT feature flag gate.
+            // Passing it down here prevents this handler from sending
+            // a NACK_ON_EXCEPTION before the flag is checked.
+            if (cause instanceof ReadTimeoutException) {
+                ctx.fireExceptionCaught(cause);
+                return;
+            }
+
+            String sessionId = ctx.channel().attr(SESSION_ID_KEY).get();
+            UUID interactionId = ctx.channel().attr(INTERACTION_ATTRIBUTE_KEY).get();
+            if (interactionId == null) {
+                interactionId = UUID.fromString(UuidUtil.generateUuid());
+                ctx.channel().attr(INTERACTION_ATTRIBUTE_KEY).set(interactionId);
+            }
+            
+            // Check if we've already sent a NACK for this channel
+            Boolean nackAlreadySent = ctx.channel().attr(ERROR_NACK_SENT_KEY).get();
+            if (nackAlreadySent != null && nackAlreadySent) {
+                return;
+            }
+            
+            // Mark that we're sending a NACK to prevent duplicates
+            ctx.channel().attr(ERROR_NACK_SENT_KEY).set(true);
+            
+            String errorTraceId = ErrorTraceIdGenerator.generateErrorTraceId();
+            
+            logger.error("Exception in TCP handler [sessionId={}] [interactionId={}] [haproxyDetails={}] [errorTraceId={}]: {}",
+                    sessionId, interactionId, haproxyDetails(ctx), errorTraceId, cause.getMessage(), cause);
+            
+            // Convert Throwable to Exception for logging if needed
+            Exception exceptionForLogging;
+            if (cause instanceof Exception) {
+                exceptionForLogging = (Exception) cause;
+            } else {
+                exceptionForLogging = new Exception(cause);
+            }
+            
+            try {
+                LogUtil.logDetailedError(
+                    500,
+                    "Channel exception caught",
+                    interactionId.toString(),
+                    errorTraceId,
+                    exceptionForLogging
+                );
+            } catch (Exception logException) {
+                logger.warn("Failed to log detailed error [sessionId={}] [interactionId={}] [haproxyDetails={}]: {}", 
+                        sessionId, interactionId, haproxyDetails(ctx), logException.getMessage());
+            }
+            
+            if (ctx.channel().isActive()) {
+                try {
+                    // Try to send NACK before closing
+                    String errorMsg = cause.getMessage() != null ? cause.getMessage() : "Unknown error";
+                    String sanitizedError = errorMsg.replace("|", " ").replace("\r", " ").replace("\n", " ");
+                    
+                    String genericNack = "MSH|^~\\&|SERVER|LOCAL|CLIENT|REMOTE|" + Instant.now() + "||ACK|" +
+                            UuidUtil.generateUuid().substring(0, 20) + "|P|2.5\r" +
+                            "MSA|AR|UNKNOWN|Channel exception: " + sanitizedError + "\r" +
+                            "ERR|||207^Application internal error^HL70357||E|||Channel exception occurred\r";
+
+                    if (FeatureEnum.isEnabled(FeatureEnum.ADD_NTE_SEGMENT_TO_HL7_ACK)) {
+                        genericNack += "NTE|1||InteractionID: " + interactionId +
+                                " | TechBDIngestionApiVersion: " + appConfig.getVersion() +
+                                " | ErrorTraceID: " + errorTraceId + "\r";
+                    }
+       
+                    String wrappedNack = String.valueOf((char)MLLP_START) + genericNack + (char)MLLP_END_1 + (char)MLLP_END_2;
+                    
+                    ByteBuf responseBuf = ctx.alloc().buffer();
+                    responseBuf.writeBytes(wrappedNack.getBytes(StandardCharsets.UTF_8));
+                    
+                    logger.info("SENDING_NACK_ON_EXCEPTION [sessionId={}] [interactionId={}] [haproxyDetails={}] [errorTraceId={}]", 
+                            sessionId, interactionId, haproxyDetails(ctx), errorTraceId);
+                    
+                    final UUID finalInteractionId = interactionId;
+                    final String finalSessionId = sessionId;
+                    final String finalHaproxyDetails = haproxyDetails(ctx);
+                    // Synchronous write with delay before close
+                    ctx.writeAndFlush(responseBuf).addListener(future -> {
+                        if (future.isSuccess()) {
+                            logger.info("NACK_SENT_ON_EXCEPTION [sessionId={}] [interactionId={}] [haproxyDetails={}] [errorTraceId={}]", 
+                                    finalSessionId, finalInteractionId, finalHaproxyDetails, errorTraceId);
+                            // Delay close to ensure NACK is transmitted
+                            ctx.executor().schedule(() -> {
+                                logger.debug("CLOSING_CONNECTION_AFTER_EXCEPTION [sessionId={}] [interactionId={}] [haproxyDetails={}]",
+                                        finalSessionId, finalInteractionId, finalHaproxyDetails);
+                                clearChannelAttributes(ctx);
+                                ctx.close();
+                            }, 100, TimeUnit.MILLISECONDS);
+                        } else {
+                            logger.error("NACK_SEND_FAILED_ON_EXCEPTION [sessionId={}] [interactionId={}] [haproxyDetails={}] [errorTraceId={}]: {}", 
+                                    finalSessionId, finalInteractionId, finalHaproxyDetails, errorTraceId, 
+                                    future.cause() != null ? future.cause().getMessage() : "unknown");
+                            clearChannelAttributes(ctx);
+                            ctx.close();
+                        }
+                    });
+                } catch (Exception e) {
+                    logger.error("FAILED_TO_SEND_NACK_ON_EXCEPTION [sessionId={}] [interactionId={}] [haproxyDetails={}] [errorTraceId={}]: {}", 
+                            sessionId, interactionId, haproxyDetails(ctx), errorTraceId, e.getMessage(), e);
+                    clearChannelAttributes(ctx);
+                    ctx.close();
+                }
+            } else {
+                clearChannelAttributes(ctx);
+            }
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) {
+            // Read session attributes FIRST — clearChannelAttributes does NOT
+            // touch session keys, so these are always valid here even if
+            // clearChannelAttributes was called just before ctx.close().
+            String sessionId = ctx.channel().attr(SESSION_ID_KEY).get();
+            Long sessionStart = ctx.channel().attr(SESSION_START_TIME_KEY).get();
+            AtomicInteger msgCount = ctx.channel().attr(SESSION_MESSAGE_COUNT_KEY).get();
+            long sessionDurationMs = sessionStart != null
+                    ? System.currentTimeMillis() - sessionStart : -1;
+            int totalMessages = msgCount != null ? msgCount.get() : 0;
+
+            logger.info("TCP_SESSION_CLOSED [sessionId={}] [haproxyDetails={}] " +
+                    "sessionDurationMs={} sessionDurationSec={} totalMessagesProcessed={}",
+                    sessionId,
+                    haproxyDetails(ctx),
+                    sessionDurationMs,
+                    sessionDurationMs >= 0 ? sessionDurationMs / 1000.0 : -1,
+                    totalMessages);
+
+            // Clear all remaining attributes (including session keys —
+            // this is the ONLY place session attributes are nulled out).
+            clearChannelAttributes(ctx);
+            ctx.channel().attr(SESSION_ID_KEY).set(null);
+            ctx.channel().attr(SESSION_START_TIME_KEY).set(null);
+            ctx.channel().attr(SESSION_MESSAGE_COUNT_KEY).set(null);
+        }
+    }
+
     // -------------------------------------------------------------------------
     // Parse TCP delimiters
     // -------------------------------------------------------------------------
@@ -953,14 +985,46 @@ public class NettyTcpServer implements MessageSourceProvider {
 
     /**
      * Delimiter-based frame decoder for Netty TCP server.
+     *
+     * <p>One instance is created per channel. {@code scannedBytes} remembers how
+     * far past the reader index the end-marker search has already looked, so
+     * each fragment only scans the newly arrived bytes instead of rescanning the
+     * whole cumulation. The offset is relative to the reader index, which keeps
+     * it valid when {@link ByteToMessageDecoder} discards read bytes.
      */
     private class DelimiterBasedFrameDecoder extends ByteToMessageDecoder {
         private final int maxFrameLength;
+        private int scannedBytes;
 
         public DelimiterBasedFrameDecoder(int maxFrameLength) {
             this.maxFrameLength = maxFrameLength;
         }
 
+        /**
+         * Returns the index just past {@code end1 end2}, or {@code -1} if the
+         * pair is not in the buffer yet. Uses {@link ByteBuf#indexOf} for the
+         * first marker byte, which Netty implements with a word-at-a-time search.
+         */
+        private int findEndMarkers(ByteBuf in, byte end1, byte end2) {
+            int start = in.readerIndex();
+            int limit = in.writerIndex() - 1;
+            int from = start + Math.max(1, scannedBytes);
+            while (from < limit) {
+                int i = in.indexOf(from, limit, end1);
+                if (i < 0) {
+                    break;
+                }
+                if (in.getByte(i + 1) == end2) {
+                    scannedBytes = 0;
+                    return i + 2;
+                }
+                from = i + 1;
+            }
+            // The final byte may be end1 waiting for end2, so it is rescanned next time.
+            scannedBytes = Math.max(1, limit - start);
+            return -1;
+        }
+
         @Override
         protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
             String sessionId = ctx.channel().attr(SESSION_ID_KEY).get();
@@ -982,7 +1046,7 @@ public class NettyTcpServer implements MessageSourceProvider {
             int currentFragment = fragmentCount.incrementAndGet();
             long currentTotalBytes = totalBytes.addAndGet(fragmentSize);
             
-            logger.info("FRAGMENTED_MESSAGE [sessionId={}] [interactionId={}] [haproxyDetails={}] fragment={}, fragmentSize={} bytes, cumulativeSize={} bytes, bufferReadable={} bytes",
+            logger.debug("FRAGMENTED_MESSAGE [sessionId={}] [interactionId={}] [haproxyDetails={}] fragment={}, fragmentSize={} bytes, cumulativeSize={} bytes, bufferReadable={} bytes",
                     sessionId, interactionId, haproxyDetails(ctx), currentFragment, fragmentSize, currentTotalBytes, in.readableBytes());
 
             // Check if we have minimum bytes for delimiter detection
@@ -995,17 +1059,13 @@ public class NettyTcpServer implements MessageSourceProvider {
 
             // Check for MLLP delimiters first (for HL7 messages)
             if (firstByte == MLLP_START) {
-                logger.info("MLLP_START_DETECTED [sessionId={}] [interactionId={}] [haproxyDetails={}] searching for MLLP end markers in {} bytes",
+                logger.debug("MLLP_START_DETECTED [sessionId={}] [interactionId={}] [haproxyDetails={}] searching for MLLP end markers in {} bytes",
                         sessionId, interactionId, haproxyDetails(ctx), in.readableBytes());
                 
-                int endIndex = -1;
-                for (int i = startIndex + 1; i < in.writerIndex() - 1; i++) {
-                    if (in.getByte(i) == MLLP_END_1 && in.getByte(i + 1) == MLLP_END_2) {
-                        endIndex = i + 2;
-                        logger.debug("MLLP_END_MARKERS_FOUND [sessionId={}] [interactionId={}] [haproxyDetails={}] at position={}",
-                                sessionId, interactionId, haproxyDetails(ctx), i);
-                        break;
-                    }
+                int endIndex = findEndMarkers(in, MLLP_END_1, MLLP_END_2);
+                if (endIndex != -1) {
+                    logger.debug("MLLP_END_MARKERS_FOUND [sessionId={}] [interactionId={}] [haproxyDetails={}] at position={}",
+                            sessionId, interactionId, haproxyDetails(ctx), endIndex - 2);
                 }
 
                 if (endIndex == -1) {
@@ -1014,6 +1074,7 @@ public class NettyTcpServer implements MessageSourceProvider {
                                 sessionId, interactionId, haproxyDetails(ctx), in.readableBytes(), maxFrameLength);
                         ctx.channel().attr(MESSAGE_SIZE_EXCEEDED_KEY).set(true);
                         endIndex = in.writerIndex();
+                        scannedBytes = 0;
                     } else {
                         return;
                     }
@@ -1035,14 +1096,10 @@ public class NettyTcpServer implements MessageSourceProvider {
                         String.format("%02X", tcpEndDelimiter1), String.format("%02X", tcpEndDelimiter2),
                         in.readableBytes());
                 
-                int endIndex = -1;
-                for (int i = startIndex + 1; i < in.writerIndex() - 1; i++) {
-                    if (in.getByte(i) == tcpEndDelimiter1 && in.getByte(i + 1) == tcpEndDelimiter2) {
-                        endIndex = i + 2;
-                        logger.info("TCP_END_MARKERS_FOUND [sessionId={}] [interactionId={}] [haproxyDetails={}] at position={}",
-                                sessionId, interactionId, haproxyDetails(ctx), i);
-                        break;
-                    }
+                int endIndex = findEndMarkers(in, tcpEndDelimiter1, tcpEndDelimiter2);
+                if (endIndex != -1) {
+                    logger.info("TCP_END_MARKERS_FOUND [sessionId={}] [interactionId={}] [haproxyDetails={}] at position={}",
+                            sessionId, interactionId, haproxyDetails(ctx), endIndex - 2);
                 }
 
                 if (endIndex == -1) {
@@ -1051,6 +1108,7 @@ public class NettyTcpServer implements MessageSourceProvider {
                                 sessionId, interactionId, haproxyDetails(ctx), in.readableBytes(), maxFrameLength);
                         ctx.channel().attr(MESSAGE_SIZE_EXCEEDED_KEY).set(true);
                         endIndex = in.writerIndex();
+                        scannedBytes = 0;
                     } else {
                         return;
                     }
@@ -1072,6 +1130,7 @@ public class NettyTcpServer implements MessageSourceProvider {
                         in.readableBytes());
 
                 ctx.channel().attr(NO_DELIMITER_DETECTED_KEY).set(true);
+                scannedBytes = 0;
 
                 int remaining = in.readableBytes();
                 ByteBuf raw = in.readRetainedSlice(remaining);
@@ -1086,6 +1145,7 @@ public class NettyTcpServer implements MessageSourceProvider {
             
             if (in.isReadable()) {
                 int frameLength = in.readableBytes();
+                scannedBytes = 0;
                 ByteBuf frame = in.readRetainedSlice(frameLength);
                 out.add(frame);
                 
@@ -1114,6 +1174,33 @@ public class NettyTcpServer implements MessageSourceProvider {
     // Utility helpers
     // -------------------------------------------------------------------------
 
+    /**
+     * Per-message state captured on the event loop when a complete frame is handed
+     * to the {@link TcpProcessingExecutor}. The worker reads this value instead of the
+     * channel attributes, which by then may already describe the next frame.
+     */
+    record InboundMessage(String rawMessage, String sessionId, UUID interactionId,
+            long startTime, int fragmentCount, long totalBytes, boolean sizeExceeded) {
+    }
+
+    /**
+     * Starts fresh per-message state once a complete frame has been captured into an
+     * {@link InboundMessage}. Runs on the event loop before the decoder reads the next
+     * frame, so a pipelined message gets its own interactionId, counters and flags.
+     * Session attributes are preserved.
+     */
+    private void resetMessageAttributes(ChannelHandlerContext ctx) {
+        ctx.channel().attr(INTERACTION_ATTRIBUTE_KEY).set(null);
+        ctx.channel().attr(MESSAGE_START_TIME_KEY).set(System.currentTimeMillis());
+        ctx.channel().attr(FRAGMENT_COUNT_KEY).set(new AtomicInteger(0));
+        ctx.channel().attr(TOTAL_BYTES_KEY).set(new AtomicLong(0));
+        ctx.channel().attr(MESSAGE_SIZE_EXCEEDED_KEY).set(false);
+        ctx.channel().attr(ERROR_NACK_SENT_KEY).set(false);
+        ctx.channel().attr(NO_DELIMITER_DETECTED_KEY).set(false);
+        ctx.channel().attr(RAW_ACCUMULATOR_KEY).set(new StringBuilder());
+        ctx.channel().attr(PORT_ENTRY_KEY).set(null);
+    }
+
     /**
      * Clear per-message channel attributes to prevent memory leaks.
      *
@@ -1271,8 +1358,11 @@ public class NettyTcpServer implements MessageSourceProvider {
      * Also installs IdleStateHandler in place of the default ReadTimeoutHandler when
      * the resolved PortEntry carries a keepAliveTimeout value.
     */
-    private void handleMessage(ChannelHandlerContext ctx, String rawMessage,
-            String sessionId, UUID interactionId) {
+    private void handleMessage(ChannelHandlerContext ctx, InboundMessage message) {
+        String rawMessage = message.rawMessage();
+        String sessionId = message.sessionId();
+        UUID interactionId = message.interactionId();
+
         // All IP/port values come exclusively from HAPROXY_DETAILS_KEY.
         // No fallback to ch.remoteAddress() / ch.localAddress() — if the HAProxy
         // header has not arrived yet these will be empty strings.
@@ -1295,8 +1385,7 @@ public class NettyTcpServer implements MessageSourceProvider {
         ctx.channel().attr(PORT_ENTRY_KEY).set(portEntryOpt.orElse(null));
 
         // Check if message size exceeded limit
-        Boolean messageSizeExceeded = ctx.channel().attr(MESSAGE_SIZE_EXCEEDED_KEY).get();
-        if (messageSizeExceeded != null && messageSizeExceeded) {
+        if (message.sizeExceeded()) {
             String errorTraceId = ErrorTraceIdGenerator.generateErrorTraceId();
             String errorMessage = String.format("Message size %d bytes exceeds maximum allowed size of %d bytes",
                     rawMessage.length(), maxMessageSizeBytes);
@@ -1341,8 +1430,9 @@ public class NettyTcpServer implements MessageSourceProvider {
         boolean isMllpWrapped = detectMllpWrapper(rawMessage);
         boolean isTcpDelimited = detectTcpDelimiterWrapper(rawMessage);
         
-        logger.info("COMPLETE_MESSAGE_RECEIVED [sessionId={}] [interactionId={}] [haproxyDetails={}] from={}:{}, size={} bytes MLLP_WRAPPED={} TCP_DELIMITED={}",
+        logger.info("COMPLETE_MESSAGE_RECEIVED [sessionId={}] [interactionId={}] [haproxyDetails={}] from={}:{}, size={} bytes, fragments={}, elapsedMs={} MLLP_WRAPPED={} TCP_DELIMITED={}",
                 sessionId, interactionId, haproxyDetails(ctx), clientIP, clientPort, rawMessage.length(),
+                message.fragmentCount(), System.currentTimeMillis() - message.startTime(),
                 isMllpWrapped ? "YES" : "NO", isTcpDelimited ? "YES" : "NO");
 
         // --- keepAliveTimeout override ---
@@ -1514,15 +1604,12 @@ public class NettyTcpServer implements MessageSourceProvider {
                 cleanMsg = unwrapMllp(rawMessage);
                 logger.info("HL7_MESSAGE_UNWRAPPED [sessionId={}] [interactionId={}] [haproxyDetails={}] size={} bytes",
                         sessionId, interactionId, haproxyDetails(ctx), cleanMsg.length());
-                HapiContext context = new DefaultHapiContext();
-                context.setValidationContext(new NoValidation());
-                GenericParser parser = context.getGenericParser();
-                hl7Message = parser.parse(cleanMsg);
+                hl7Message = hl7ParsingService.parse(cleanMsg);
                 Message ack = hl7Message.generateACK();
                 if (FeatureEnum.isEnabled(FeatureEnum.ADD_NTE_SEGMENT_TO_HL7_ACK)) {
                    ackMessage = addNteWithInteractionId(ack, interactionId.toString(), appConfig.getVersion());
                 }
-                ackMessage = new PipeParser().encode(ack);
+                ackMessage = hl7ParsingService.encode(ack);
                 logger.info("HL7_ACK_GENERATED [sessionId={}] [interactionId={}] [haproxyDetails={}]",
                         sessionId, interactionId, haproxyDetails(ctx));
             } catch (HL7Exception e) {
@@ -1718,9 +1805,9 @@ public class NettyTcpServer implements MessageSourceProvider {
      *
      * <p>When {@code keepAliveTimeout} is set for this channel the connection is kept
      * open after flushing the response so the client can send subsequent messages.
-     * Per-message tracking attributes are reset so the next message on this channel
-     * gets a fresh interactionId and counters.  The sessionId and session-level
-     * counters are intentionally preserved across messages.
+     * Per-message tracking attributes were already reset on the event loop when this
+     * message was handed to the processing executor (see {@link #resetMessageAttributes}),
+     * so nothing here touches the state of the next message on this channel.
      *
      * <p>When {@code keepAliveTimeout} is not set the channel is closed ~50 ms after
      * the response is flushed (original behaviour).
@@ -1753,18 +1840,7 @@ public class NettyTcpServer implements MessageSourceProvider {
                             future.cause() != null ? future.cause().getMessage() : "unknown");
                     clearChannelAttributes(ctx);
                     ctx.close();
-                    return;
                 }
-                // Reset per-message state; session-level attributes are preserved.
-                ctx.channel().attr(INTERACTION_ATTRIBUTE_KEY).set(null);
-                ctx.channel().attr(MESSAGE_START_TIME_KEY).set(System.currentTimeMillis());
-                ctx.channel().attr(FRAGMENT_COUNT_KEY).set(new AtomicInteger(0));
-                ctx.channel().attr(TOTAL_BYTES_KEY).set(new AtomicLong(0));
-                ctx.channel().attr(MESSAGE_SIZE_EXCEEDED_KEY).set(false);
-                ctx.channel().attr(ERROR_NACK_SENT_KEY).set(false);
-                ctx.channel().attr(NO_DELIMITER_DETECTED_KEY).set(false);
-                ctx.channel().attr(RAW_ACCUMULATOR_KEY).set(new StringBuilder());
-                ctx.channel().attr(PORT_ENTRY_KEY).set(null);
             });
         } else {
             ctx.writeAndFlush(responseBuf).addListener(future -> {
@@ -1828,43 +1904,32 @@ public class NettyTcpServer implements MessageSourceProvider {
         terser.set("/NTE(0)-3",
                 "InteractionID: " + interactionId
                         + " | TechBDIngestionApiVersion: " + ingestionApiVersion);
-        PipeParser parser = new PipeParser();
-        return parser.encode(ackMessage);
+        return hl7ParsingService.encode(ackMessage);
     }
 
     private Map<String, String> parseMshSegment(String hl7Message) {
         Map<String, String> mshFields = new HashMap<>();
         try {
-            String[] lines = hl7Message.split("\r|\n");
-            String mshLine = null;
-            for (String line : lines) {
-                if (line.trim().startsWith("MSH|")) {
-                    mshLine = line.trim();
-                    break;
-                }
-            }
-            if (mshLine == null) {
+            Hl7SegmentScanner.Segment msh = Hl7SegmentScanner.findSegment(hl7Message, "MSH");
+            if (msh == null) {
                 logger.warn("MSH segment not found in message");
                 return mshFields;
             }
-            String[] fields = mshLine.split("\\|", -1);
-            if (fields.length > 0) {
-                mshFields.put("fieldSeparator", "|");
-                mshFields.put("encodingCharacters", fields.length > 1 ? fields[1] : "^~\\&");
-                mshFields.put("sendingApplication", fields.length > 2 ? fields[2] : "");
-                mshFields.put("sendingFacility", fields.length > 3 ? fields[3] : "");
-                mshFields.put("receivingApplication", fields.length > 4 ? fields[4] : "");
-                mshFields.put("receivingFacility", fields.length > 5 ? fields[5] : "");
-                mshFields.put("timestamp", fields.length > 6 ? fields[6] : "");
-                mshFields.put("messageType", fields.length > 8 ? fields[8] : "");
-                mshFields.put("messageControlId", fields.length > 9 ? fields[9] : "");
-                mshFields.put("processingId", fields.length > 10 ? fields[10] : "");
-                mshFields.put("version", fields.length > 11 ? fields[11] : "2.5");
-                logger.info("MSH_PARSED messageControlId={}, sendingApp={}, receivingApp={}",
-                        mshFields.get("messageControlId"),
-                        mshFields.get("sendingApplication"),
-                        mshFields.get("receivingApplication"));
-            }
+            mshFields.put("fieldSeparator", "|");
+            mshFields.put("encodingCharacters", Objects.requireNonNullElse(msh.field(1), "^~\\&"));
+            mshFields.put("sendingApplication", Objects.requireNonNullElse(msh.field(2), ""));
+            mshFields.put("sendingFacility", Objects.requireNonNullElse(msh.field(3), ""));
+            mshFields.put("receivingApplication", Objects.requireNonNullElse(msh.field(4), ""));
+            mshFields.put("receivingFacility", Objects.requireNonNullElse(msh.field(5), ""));
+            mshFields.put("timestamp", Objects.requireNonNullElse(msh.field(6), ""));
+            mshFields.put("messageType", Objects.requireNonNullElse(msh.field(8), ""));
+            mshFields.put("messageControlId", Objects.requireNonNullElse(msh.field(9), ""));
+            mshFields.put("processingId", Objects.requireNonNullElse(msh.field(10), ""));
+            mshFields.put("version", Objects.requireNonNullElse(msh.field(11), "2.5"));
+            logger.info("MSH_PARSED messageControlId={}, sendingApp={}, receivingApp={}",
+                    mshFields.get("messageControlId"),
+                    mshFields.get("sendingApplication"),
+                    mshFields.get("receivingApplication"));
         } catch (Exception e) {
             logger.error("Error parsing MSH segment: {}", e.getMessage());
         }
@@ -2013,39 +2078,19 @@ public class NettyTcpServer implements MessageSourceProvider {
 
     private boolean extractZntSegmentManually(String hl7Message, RequestContext requestContext, String interactionId) {
         try {
-            String[] lines = hl7Message.split("\r|\n");
-            String zntLine = null;
-            for (String line : lines) {
-                if (line.trim().startsWith("ZNT|")) {
-                    zntLine = line.trim();
-                    break;
-                }
-            }
-            if (zntLine == null) {
+            Hl7SegmentScanner.Segment znt = Hl7SegmentScanner.findSegment(hl7Message, "ZNT");
+            if (znt == null) {
                 logger.warn("ZNT_SEGMENT_NOT_FOUND_MANUAL [interactionId={}]", interactionId);
                 return false;
             }
-            String[] fields = zntLine.split("\\|", -1);
             Map<String, String> additionalDetails = requestContext.getAdditionalParameters();
             if (additionalDetails == null) {
                 additionalDetails = new HashMap<>();
                 requestContext.setAdditionalParameters(additionalDetails);
             }
-            String messageCode = null;
-            String deliveryType = null;
-            String znt8_1 = null;
-            if (fields.length > 2 && !fields[2].isEmpty()) {
-                String[] components = fields[2].split("\\^", -1);
-                messageCode = components.length > 0 ? components[0] : null;
-            }
-            if (fields.length > 4 && !fields[4].isEmpty()) {
-                String[] components = fields[4].split("\\^", -1);
-                deliveryType = components.length > 0 ? components[0] : null;
-            }
-            if (fields.length > 8 && !fields[8].isEmpty()) {
-                String[] components = fields[8].split("\\^", -1);
-                znt8_1 = components.length > 0 ? components[0] : null;
-            }
+            String messageCode = znt.firstComponent(2);
+            String deliveryType = znt.firstComponent(4);
+            String znt8_1 = znt.firstComponent(8);
             String facilityCode = null;
             String qe = null;
             if (znt8_1 != null && znt8_1.contains(":")) {
@@ -2104,7 +2149,7 @@ public class NettyTcpServer implements MessageSourceProvider {
         String originalFileName = fileBaseName;
         String userAgent = "";
 
-        return new RequestContext(
+        RequestContext requestContext = new RequestContext(
                 headers, "",
                 appConfig.getAws().getSqs().getFifoQueueUrl(),
                 interactionId, uploadTime, timestamp, originalFileName,
@@ -2120,6 +2165,10 @@ public class NettyTcpServer implements MessageSourceProvider {
                 getFullS3MetadataPath(interactionId, headers, originalFileName, timestamp),
                 messageSourceType,
                 getDataBucketName(), getMetadataBucketName(), appConfig.getVersion());
+        // The channel already resolved its port entry; record it so the port
+        // config applier does not resolve it again for this request.
+        portEntryOpt.ifPresent(entry -> portResolverService.memoize(requestContext, Constants.TCP, entry));
+        return requestContext;
     }
 
     // -------------------------------------------------------------------------
@@ -0,0 +1,294 @@
+package org.techbd.ingest.listener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.techbd.ingest.config.PortConfig;
+import org.techbd.ingest.util.AppLogger;
+import org.techbd.ingest.util.TemplateLogger;
+
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs TCP/MLLP message processing (S3 upload, SQS publish, ACK generation) off
+ * the Netty event loop so that a slow AWS round-trip on one connection does not
+ * stall every other connection served by the same {@code NioEventLoopGroup}
+ * thread.
+ *
+ * <p>One {@link ProcessingLane} is created lazily per destination port. The
+ * lane's pool is sized from the matching {@link PortConfig.PortEntry}
+ * ({@code processingThreads}, {@code processingQueueCapacity},
+ * {@code virtualThreads}); ports without overrides use the
+ * {@code TCP_PROCESSING_*} defaults.
+ *
+ * <p>Messages of one channel are processed one at a time and in arrival order,
+ * so ACKs never interleave; different channels share the lane's threads.
+ *
+ * <p>Backpressure: when the number of pending (queued + in-flight) messages on
+ * a lane reaches its capacity, {@code autoRead} is switched off on the
+ * submitting channel instead of buffering further frames. Paused channels are
+ * resumed once the lane drains below half of its capacity.
+ *
+ * <p>Setting {@code TCP_PROCESSING_THREADS=0} disables offloading and runs
+ * every task inline on the event loop (legacy behaviour).
+ */
+@Component
+public class TcpProcessingExecutor {
+
+    private final TemplateLogger logger;
+    private final PortConfig portConfig;
+
+    @Value("${TCP_PROCESSING_THREADS:16}")
+    private int defaultThreads;
+
+    @Value("${TCP_PROCESSING_QUEUE_CAPACITY:256}")
+    private int defaultQueueCapacity;
+
+    @Value("${TCP_PROCESSING_VIRTUAL_THREADS:false}")
+    private boolean defaultVirtualThreads;
+
+    private static final AttributeKey<ChannelQueue> CHANNEL_QUEUE_KEY = AttributeKey.valueOf("tcpProcessingQueue");
+
+    private final Map<String, ProcessingLane> lanes = new ConcurrentHashMap<>();
+
+    public TcpProcessingExecutor(PortConfig portConfig, AppLogger appLogger) {
+        this.portConfig = portConfig;
+        this.logger = appLogger.getLogger(TcpProcessingExecutor.class);
+    }
+
+    /**
+     * Submits {@code task} for the given destination port. The channel is paused
+     * (autoRead=false) if the lane is saturated after the submission.
+     *
+     * @param destinationPort destination port taken from the HAProxy header; may be empty
+     * @param channel         the channel the message was read from
+     * @param task            the processing work to run
+     */
+    public void submit(String destinationPort, Channel channel, Runnable task) {
+        if (defaultThreads <= 0) {
+            task.run();
+            return;
+        }
+        ProcessingLane lane = lanes.computeIfAbsent(laneKey(destinationPort), this::createLane);
+        lane.submit(channel, task);
+    }
+
+    /**
+     * Returns a snapshot of counters for every lane, keyed by destination port.
+     */
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        lanes.forEach((key, lane) -> stats.put(key, lane.stats()));
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lanes.values().forEach(lane -> lane.executor.shutdown());
+        for (ProcessingLane lane : lanes.values()) {
+            try {
+                if (!lane.executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                    lane.executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                lane.executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private String laneKey(String destinationPort) {
+        return destinationPort == null || destinationPort.isBlank() ? "default" : destinationPort;
+    }
+
+    private ProcessingLane createLane(String key) {
+        int threads = defaultThreads;
+        int queueCapacity = defaultQueueCapacity;
+        boolean virtual = defaultVirtualThreads;
+        try {
+            if (!"default".equals(key)) {
+                PortConfig.PortEntry entry = portConfig.findEntryForPort(Integer.parseInt(key)).orElse(null);
+                if (entry != null) {
+                    threads = entry.getProcessingThreads() > 0 ? entry.getProcessingThreads() : threads;
+                    queueCapacity = entry.getProcessingQueueCapacity() > 0 ? entry.getProcessingQueueCapacity()
+                            : queueCapacity;
+                    virtual = entry.getVirtualThreads() != null ? entry.getVirtualThreads() : virtual;
+                }
+            }
+        } catch (NumberFormatException e) {
+            logger.warn("TCP_PROCESSING_LANE_PORT_UNPARSEABLE port={} - using defaults", key);
+        }
+        logger.info("TCP_PROCESSING_LANE_CREATED port={} threads={} queueCapacity={} virtualThreads={}",
+                key, threads, queueCapacity, virtual);
+        return new ProcessingLane(key, threads, queueCapacity, virtual);
+    }
+
+    /**
+     * Executor plus counters for a single destination port.
+     */
+    final class ProcessingLane {
+        private final String key;
+        private final int capacity;
+        private final ExecutorService executor;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong pauses = new AtomicLong();
+        private final Queue<Channel> pausedChannels = new ConcurrentLinkedQueue<>();
+
+        ProcessingLane(String key, int threads, int queueCapacity, boolean virtual) {
+            this.key = key;
+            this.capacity = threads + queueCapacity;
+            if (virtual) {
+                ThreadFactory factory = Thread.ofVirtual().name("tcp-proc-" + key + "-", 0).factory();
+                this.executor = Executors.newThreadPerTaskExecutor(factory);
+            } else {
+                AtomicInteger threadNumber = new AtomicInteger();
+                ThreadFactory factory = r -> {
+                    Thread t = new Thread(r, "tcp-proc-" + key + "-" + threadNumber.getAndIncrement());
+                    t.setDaemon(true);
+                    return t;
+                };
+                // The work queue itself is unbounded; growth is bounded by pausing reads
+                // on the submitting channels once capacity is reached.
+                this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(), factory);
+            }
+        }
+
+        void submit(Channel channel, Runnable task) {
+            ChannelQueue channelQueue = channel.attr(CHANNEL_QUEUE_KEY).get();
+            if (channelQueue == null) {
+                channelQueue = new ChannelQueue(this);
+                ChannelQueue existing = channel.attr(CHANNEL_QUEUE_KEY).setIfAbsent(channelQueue);
+                channelQueue = existing != null ? existing : channelQueue;
+            }
+            queued.incrementAndGet();
+            try {
+                channelQueue.add(() -> run(task));
+            } catch (RuntimeException e) {
+                queued.decrementAndGet();
+                throw e;
+            }
+            if (pending() >= capacity && channel.config().isAutoRead()) {
+                channel.config().setAutoRead(false);
+                pausedChannels.add(channel);
+                pauses.incrementAndGet();
+                logger.warn("TCP_PROCESSING_SATURATED port={} pending={} capacity={} - autoRead disabled for channel {}",
+                        key, pending(), capacity, channel.id().asShortText());
+                // the lane may have drained before the channel was added; no later task would resume it
+                resumePausedChannels();
+            }
+        }
+
+        private void run(Runnable task) {
+            queued.decrementAndGet();
+            inFlight.incrementAndGet();
+            try {
+                task.run();
+                completed.incrementAndGet();
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();
+                logger.error("TCP_PROCESSING_TASK_FAILED port={}: {}", key, e.getMessage(), e);
+            } finally {
+                inFlight.decrementAndGet();
+                resumePausedChannels();
+            }
+        }
+
+        private void resumePausedChannels() {
+            while (pending() <= capacity / 2) {
+                Channel channel = pausedChannels.poll();
+                if (channel == null) {
+                    return;
+                }
+                if (channel.isActive()) {
+                    channel.config().setAutoRead(true);
+                    logger.info("TCP_PROCESSING_RESUMED port={} pending={} - autoRead enabled for channel {}",
+                            key, pending(), channel.id().asShortText());
+                }
+            }
+        }
+
+        int pending() {
+            return queued.get() + inFlight.get();
+        }
+
+        Map<String, Object> stats() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("queueDepth", queued.get());
+            stats.put("inFlight", inFlight.get());
+            stats.put("capacity", capacity);
+            stats.put("pausedChannels", pausedChannels.size());
+            stats.put("completed", completed.get());
+            stats.put("failed", failed.get());
+            stats.put("pauses", pauses.get());
+            return stats;
+        }
+    }
+
+    /**
+     * The pending messages of one channel. At most one of them is scheduled on
+     * the lane at a time; each run schedules the next, so the channel's
+     * messages run in order while other channels' messages interleave.
+     */
+    static final class ChannelQueue {
+        private final ProcessingLane lane;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        ChannelQueue(ProcessingLane lane) {
+            this.lane = lane;
+        }
+
+        void add(Runnable task) {
+            tasks.add(task);
+            try {
+                schedule();
+            } catch (RuntimeException e) {
+                tasks.remove(task);
+                throw e;
+            }
+        }
+
+        private void schedule() {
+            if (!tasks.isEmpty() && scheduled.compareAndSet(false, true)) {
+                try {
+                    lane.executor.execute(this::runNext);
+                } catch (RuntimeException e) {
+                    scheduled.set(false);
+                    throw e;
+                }
+            }
+        }
+
+        private void runNext() {
+            try {
+                Runnable task = tasks.poll();
+                if (task != null) {
+                    task.run();
+                }
+            } finally {
+                scheduled.set(false);
+                schedule();
+            }
+        }
+    }
+}
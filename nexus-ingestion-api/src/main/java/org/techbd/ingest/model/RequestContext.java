@@ -4,6 +4,7 @@ import java.time.ZonedDateTime;
 import java.util.Map;
 
 import org.techbd.ingest.commons.MessageSourceType;
+import org.techbd.ingest.config.PortConfig;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -68,6 +69,10 @@ public class RequestContext {
     private String ackContentType;
     private boolean isPixRequest;
     private boolean ackExpected = true;
+    /** Port entry resolved for this request, memoized by {@code PortResolverService}. */
+    private PortConfig.PortEntry portEntry;
+    /** Lookup key {@link #portEntry} was resolved for. */
+    private String portEntryKey;
 
     public RequestContext(Map<String, String> headers, String requestUrl, String tenantId, String interactionId,
                           ZonedDateTime uploadTime, String timestamp, String fileName, long fileSize,
@@ -0,0 +1,34 @@
+package org.techbd.ingest.processor;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.techbd.ingest.model.RequestContext;
+
+/**
+ * {@code AsyncMessageProcessingStep} is the non-blocking variant of
+ * {@link MessageProcessingStep}.
+ * <p>
+ * Implementations return a {@link CompletableFuture} backed by the AWS async
+ * clients instead of blocking the calling thread. {@code MessageProcessorService}
+ * composes these futures so that independent work inside a step (e.g. the
+ * metadata, payload and ACK uploads) runs in parallel, while the steps
+ * themselves still complete in {@code @Order} sequence.
+ * </p>
+ * <p>
+ * The synchronous {@code process(...)} methods remain part of the contract and
+ * are used by callers that have not opted into the async pipeline.
+ * </p>
+ */
+public interface AsyncMessageProcessingStep extends MessageProcessingStep {
+
+    /**
+     * Asynchronously processes raw string content.
+     *
+     * @param context    The request context containing metadata for the operation.
+     * @param content    The raw string content to process.
+     * @param ackMessage The acknowledgement message to be processed; may be {@code null}.
+     * @return a future completed when the step has finished, or completed
+     *         exceptionally with the failure cause.
+     */
+    CompletableFuture<Void> processAsync(RequestContext context, String content, String ackMessage);
+}
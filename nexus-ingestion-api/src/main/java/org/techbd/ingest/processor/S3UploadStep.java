@@ -1,9 +1,24 @@
 package org.techbd.ingest.processor;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
@@ -15,11 +30,21 @@ import org.techbd.ingest.util.TemplateLogger;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
 
 /**
  * {@code S3UploadStep is a {@link MessageProcessingStep} implementation
@@ -35,16 +60,33 @@ import software.amazon.awssdk.services.s3.model.PutObjectResponse;
  * {@link String} content
  * (e.g., HL7, FHIR JSON) uploads.
  * </p>
+ *
+ * <p>
+ * Payloads at or above {@code S3_MULTIPART_THRESHOLD_BYTES} are streamed to S3
+ * as a multipart upload in parts of {@code S3_MULTIPART_PART_SIZE_BYTES}, so at
+ * most one part is held in heap per request. Size and SHA-256 are computed
+ * while the parts are read.
+ * </p>
  */
 @Component
 @Order(1)
-public class S3UploadStep implements MessageProcessingStep {
+public class S3UploadStep implements AsyncMessageProcessingStep {
 
     private final MetadataBuilderService metadataBuilderService;
     private final ObjectMapper objectMapper;
     private final AppConfig appConfig;
     private final TemplateLogger LOG;
     private final S3Client s3Client;
+    private final S3AsyncClient s3AsyncClient;
+
+    /** S3 rejects multipart parts smaller than 5 MB (except the last one). */
+    static final int MIN_PART_SIZE_BYTES = 5 * 1024 * 1024;
+
+    @Value("${S3_MULTIPART_THRESHOLD_BYTES:16777216}")
+    private long multipartThresholdBytes = 16L * 1024 * 1024;
+
+    @Value("${S3_MULTIPART_PART_SIZE_BYTES:8388608}")
+    private int multipartPartSizeBytes = 8 * 1024 * 1024;
 
     /**
      * Constructs an {@code S3UploadStep} with required dependencies.
@@ -56,16 +98,19 @@ public class S3UploadStep implements MessageProcessingStep {
      * JSON.
      * @param appConfig AppConfig for reading application configuration.
      * @param s3Client AWS S3 client for performing S3 operations.
+     * @param s3AsyncClient AWS S3 async client used by {@link #processAsync}.
      */
     public S3UploadStep(
             MetadataBuilderService metadataBuilderService,
             ObjectMapper objectMapper,
             AppConfig appConfig,
-            S3Client s3Client,AppLogger appLogger) {
+            S3Client s3Client,
+            S3AsyncClient s3AsyncClient,AppLogger appLogger) {
         this.metadataBuilderService = metadataBuilderService;
         this.objectMapper = objectMapper;
         this.appConfig = appConfig;
         this.s3Client = s3Client;
+        this.s3AsyncClient = s3AsyncClient;
         this.LOG = appLogger.getLogger(S3UploadStep.class);
         LOG.info("[S3_UPLOAD_STEP] initialized");
     }
@@ -149,12 +194,127 @@ public class S3UploadStep implements MessageProcessingStep {
         }
     }
 
+    /**
+     * Uploads the metadata, content and (optional) ACK objects to S3 in
+     * parallel using the async client.
+     *
+     * @param context The request context containing metadata for the operation.
+     * @param content The string content to upload to S3.
+     * @param ackMessage The acknowledgement message to upload; may be {@code null}.
+     * @return a future completed once every upload has finished.
+     */
+    @Override
+    public CompletableFuture<Void> processAsync(RequestContext context, String content, String ackMessage) {
+        String interactionId = context != null ? context.getInteractionId() : "unknown";
+        LOG.debug("[S3_UPLOAD_STEP]:: BEGIN processAsync called with String content. interactionId={}", interactionId);
+        List<CompletableFuture<?>> uploads = new ArrayList<>();
+        try {
+            Map<String, String> metadata = metadataBuilderService.buildS3Metadata(context);
+            Map<String, Object> metadataJson = metadataBuilderService.buildMetadataJson(context);
+            String metadataContent = objectMapper.writeValueAsString(metadataJson);
+
+            LOG.info("[S3_UPLOAD_STEP]:: UPLOADING_METADATA_ASYNC to S3 bucket {} using key {} for interactionId={}",
+                    context.getMetaDataBucketName(), context.getMetadataKey(), interactionId);
+            uploads.add(uploadStringContentAsync(context.getMetaDataBucketName(), context.getMetadataKey(),
+                    metadataContent, null, interactionId));
+
+            LOG.info("[S3_UPLOAD_STEP]:: UPLOADING_CONTENT_ASYNC to S3 bucket {} using key {} for interactionId={}",
+                    context.getDataBucketName(), context.getObjectKey(), interactionId);
+            uploads.add(uploadStringContentAsync(context.getDataBucketName(), context.getObjectKey(),
+                    content, metadata, interactionId));
+
+            if (ackMessage != null && !ackMessage.isEmpty()) {
+                LOG.info("[S3_UPLOAD_STEP]:: UPLOADING_ACK_MESSAGE_ASYNC to S3 bucket {} using key {} for interactionId={}",
+                        context.getDataBucketName(), context.getAckObjectKey(), interactionId);
+                uploads.add(uploadStringContentAsync(context.getDataBucketName(), context.getAckObjectKey(),
+                        ackMessage, metadata, interactionId));
+            } else {
+                LOG.info("[S3_UPLOAD_STEP]:: NO_ACK_MESSAGE available to upload for interactionId={}",
+                        interactionId);
+            }
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(asyncFailure(context, interactionId, e));
+        }
+        return CompletableFuture.allOf(uploads.toArray(CompletableFuture[]::new))
+                .handle((ignored, error) -> {
+                    if (error != null) {
+                        throw asyncFailure(context, interactionId, error);
+                    }
+                    LOG.info("[S3_UPLOAD_STEP]:: {} objects uploaded asynchronously. interactionId={}",
+                            uploads.size(), interactionId);
+                    return null;
+                });
+    }
+
+    private RuntimeException asyncFailure(RequestContext context, String interactionId, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+        LOG.error("[S3_UPLOAD_STEP]:: FAILED while uploading asynchronously to bucket {}. interactionId={}",
+                context.getDataBucketName(), interactionId, cause);
+        return new RuntimeException("S3 Upload Step Failed for interactionId=" + interactionId
+                + " while uploading to bucket " + context.getDataBucketName() + " with error: " + cause.getMessage(),
+                cause);
+    }
+
+    private CompletableFuture<?> uploadStringContentAsync(
+            String bucketName,
+            String fileName,
+            String content,
+            Map<String, String> metadata,
+            String interactionId) {
+        if (content.length() >= multipartThresholdBytes) {
+            return uploadMultipartAsync(bucketName, fileName, "application/json; charset=UTF-8", metadata,
+                    new Utf8StringInputStream(content), interactionId)
+                    .whenComplete((upload, error) -> {
+                        if (error != null) {
+                            LOG.error("[S3 Async Upload Failed] Interaction ID: {} | Bucket: {} | Key: {} | Error: {}",
+                                    interactionId, bucketName, fileName, error.getMessage());
+                        } else {
+                            LOG.debug("[S3 Async Upload] Interaction ID: {} | Bucket: {} | Key: {} | Size: {} bytes | SHA-256: {} | ETag: {}",
+                                    interactionId, bucketName, fileName, upload.size(), upload.sha256(), upload.eTag());
+                        }
+                    });
+        }
+        byte[] contentBytes = content.getBytes(StandardCharsets.UTF_8);
+        PutObjectRequest.Builder requestBuilder = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(fileName)
+                .contentType("application/json; charset=UTF-8")
+                .contentLength((long) contentBytes.length);
+
+        if (metadata != null && !metadata.isEmpty()) {
+            requestBuilder = requestBuilder.metadata(metadata);
+        }
+
+        return s3AsyncClient.putObject(requestBuilder.build(), AsyncRequestBody.fromBytes(contentBytes))
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        LOG.error("[S3 Async Upload Failed] Interaction ID: {} | Bucket: {} | Key: {} | Error: {}",
+                                interactionId, bucketName, fileName, error.getMessage());
+                    } else {
+                        LOG.debug("[S3 Async Upload] Interaction ID: {} | Bucket: {} | Key: {} | Size: {} bytes | ETag: {}",
+                                interactionId, bucketName, fileName, contentBytes.length, response.eTag());
+                    }
+                });
+    }
+
     private void uploadStringContent(
             String bucketName,
             String fileName,
             String content,
             Map<String, String> metadata,
             String interactionId) {
+        if (content.length() >= multipartThresholdBytes) {
+            try (InputStream in = new Utf8StringInputStream(content)) {
+                StreamedUpload upload = uploadMultipart(bucketName, fileName, "application/json; charset=UTF-8",
+                        metadata, in, interactionId);
+                LOG.debug("[S3 Upload] Interaction ID: {} | Bucket: {} | Key: {} | Size: {} bytes | SHA-256: {} | ETag: {}",
+                        interactionId, bucketName, fileName, upload.size(), upload.sha256(), upload.eTag());
+                return;
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to stream content for key " + fileName, e);
+            }
+        }
         byte[] contentBytes = content.getBytes(StandardCharsets.UTF_8);
 
         try {
@@ -195,59 +355,304 @@ public class S3UploadStep implements MessageProcessingStep {
             MultipartFile file,
             Map<String, String> metadata,
             String interactionId) throws IOException {
-        try {
-            byte[] fileBytes = file.getBytes();
-            long actualByteLength = fileBytes.length;
-            long declaredSize = file.getSize();
-
-            if (actualByteLength != declaredSize) {
-                LOG.warn("[S3_UPLOAD_STEP]:: Size mismatch detected — declared={} actual={} "
-                        + "fileName={} interactionId={}",
-                        declaredSize, actualByteLength, file.getOriginalFilename(), interactionId);
+        // S3 user-defined metadata is transmitted as HTTP headers (x-amz-meta-*).
+        // HTTP headers must be ASCII — non-ASCII values (e.g. accented characters
+        // in filenames like César, Verónica) cause the AWS SDK to encode the header
+        // value differently from what was signed, resulting in 403
+        // SignatureDoesNotMatch
+        Map<String, String> sanitizedMetadata = metadata != null && !metadata.isEmpty()
+                ? sanitizeMetadata(metadata)
+                : null;
+        long declaredSize = file.getSize();
+        StreamedUpload upload;
+        try (InputStream in = file.getInputStream()) {
+            if (declaredSize >= multipartThresholdBytes) {
+                upload = uploadMultipart(bucketName, key, file.getContentType(), sanitizedMetadata, in, interactionId);
             } else {
-                LOG.debug("[S3_UPLOAD_STEP]:: Size check passed — declared={} actual={} "
-                        + "fileName={} interactionId={}",
-                        declaredSize, actualByteLength, file.getOriginalFilename(), interactionId);
+                upload = putSmallObject(bucketName, key, file.getContentType(), sanitizedMetadata, in);
             }
+        } catch (SdkException e) {
+            LOG.error("[S3 Upload Failed] Interaction ID: {} | Bucket: {} | Key: {} | Error: {}",
+                    interactionId, bucketName, key, e.getMessage(), e);
+            throw e;
+        }
 
-            PutObjectRequest.Builder requestBuilder = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(key)
-                    .contentType(file.getContentType())
-                    .contentLength(actualByteLength);
+        if (upload.size() != declaredSize) {
+            LOG.warn("[S3_UPLOAD_STEP]:: Size mismatch detected — declared={} actual={} "
+                    + "fileName={} interactionId={}",
+                    declaredSize, upload.size(), file.getOriginalFilename(), interactionId);
+        } else {
+            LOG.debug("[S3_UPLOAD_STEP]:: Size check passed — declared={} actual={} "
+                    + "fileName={} interactionId={}",
+                    declaredSize, upload.size(), file.getOriginalFilename(), interactionId);
+        }
+        LOG.debug(
+                "[S3 Upload] Interaction ID: {} | Endpoint: {} | Bucket: {} | Key: {} | Size: {} bytes | SHA-256: {} | ETag: {}",
+                interactionId,
+                s3Client.serviceClientConfiguration().endpointOverride().orElse(null),
+                bucketName,
+                key,
+                upload.size(),
+                upload.sha256(),
+                upload.eTag());
 
-            if (metadata != null && !metadata.isEmpty()) {
-                // S3 user-defined metadata is transmitted as HTTP headers (x-amz-meta-*).
-                // HTTP headers must be ASCII — non-ASCII values (e.g. accented characters
-                // in filenames like César, Verónica) cause the AWS SDK to encode the header
-                // value differently from what was signed, resulting in 403
-                // SignatureDoesNotMatch
-                Map<String, String> sanitizedMetadata = sanitizeMetadata(metadata);
-                requestBuilder = requestBuilder.metadata(sanitizedMetadata);
-            }
+        return "Uploaded to S3: " + key + " (ETag: " + upload.eTag() + ")";
+    }
 
-            PutObjectRequest request = requestBuilder.build();
-            PutObjectResponse response = s3Client.putObject(
-                    request,
-                    RequestBody.fromBytes(fileBytes));
+    /**
+     * Single {@code PutObject} for payloads below the multipart threshold. The
+     * body is bounded by the threshold, so buffering it is acceptable and keeps
+     * the content length exact even when the declared size is wrong.
+     */
+    private StreamedUpload putSmallObject(
+            String bucketName,
+            String key,
+            String contentType,
+            Map<String, String> metadata,
+            InputStream in) throws IOException {
+        byte[] bytes = in.readAllBytes();
+        PutObjectRequest.Builder requestBuilder = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .contentLength((long) bytes.length);
+        if (metadata != null) {
+            requestBuilder = requestBuilder.metadata(metadata);
+        }
+        PutObjectResponse response = s3Client.putObject(requestBuilder.build(), RequestBody.fromBytes(bytes));
+        MessageDigest digest = sha256();
+        digest.update(bytes);
+        return new StreamedUpload(response.eTag(), bytes.length, HexFormat.of().formatHex(digest.digest()));
+    }
 
-            LOG.debug(
-                    "[S3 Upload] Interaction ID: {} | Endpoint: {} | Bucket: {} | Key: {} | Size: {} bytes | ETag: {}",
-                    interactionId,
-                    s3Client.serviceClientConfiguration().endpointOverride().orElse(null),
-                    bucketName,
-                    key,
-                    actualByteLength,
-                    response.eTag());
+    /**
+     * Streams {@code in} to S3 as a multipart upload. Only one part buffer is
+     * allocated per call; the upload is aborted if reading or any S3 call fails
+     * so that no orphaned parts are left behind.
+     */
+    private StreamedUpload uploadMultipart(
+            String bucketName,
+            String key,
+            String contentType,
+            Map<String, String> metadata,
+            InputStream in,
+            String interactionId) throws IOException {
+        CreateMultipartUploadRequest.Builder createBuilder = CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType);
+        if (metadata != null && !metadata.isEmpty()) {
+            createBuilder = createBuilder.metadata(metadata);
+        }
+        String uploadId = s3Client.createMultipartUpload(createBuilder.build()).uploadId();
+        LOG.info("[S3_UPLOAD_STEP]:: MULTIPART_UPLOAD_STARTED bucket={} key={} uploadId={} interactionId={}",
+                bucketName, key, uploadId, interactionId);
 
-            return "Uploaded to S3: " + key + " (ETag: " + response.eTag() + ")";
-        } catch (SdkException e) {
-            LOG.error("[S3 Upload Failed] Interaction ID: {} | Bucket: {} | Key: {} | Error: {}",
-                    interactionId, bucketName, key, e.getMessage(), e);
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[Math.max(multipartPartSizeBytes, MIN_PART_SIZE_BYTES)];
+        List<CompletedPart> parts = new ArrayList<>();
+        long size = 0;
+        try {
+            int read;
+            while ((read = in.readNBytes(buffer, 0, buffer.length)) > 0 || parts.isEmpty()) {
+                digest.update(buffer, 0, read);
+                size += read;
+                int partNumber = parts.size() + 1;
+                UploadPartResponse partResponse = s3Client.uploadPart(UploadPartRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength((long) read)
+                        .build(),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, read), read));
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(partResponse.eTag()).build());
+                if (read < buffer.length) {
+                    break;
+                }
+            }
+            CompleteMultipartUploadResponse response = s3Client.completeMultipartUpload(
+                    CompleteMultipartUploadRequest.builder()
+                            .bucket(bucketName)
+                            .key(key)
+                            .uploadId(uploadId)
+                            .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                            .build());
+            LOG.info("[S3_UPLOAD_STEP]:: MULTIPART_UPLOAD_COMPLETED bucket={} key={} parts={} size={} interactionId={}",
+                    bucketName, key, parts.size(), size, interactionId);
+            return new StreamedUpload(response.eTag(), size, HexFormat.of().formatHex(digest.digest()));
+        } catch (IOException | RuntimeException e) {
+            LOG.error("[S3_UPLOAD_STEP]:: MULTIPART_UPLOAD_FAILED bucket={} key={} uploadId={} interactionId={} - aborting",
+                    bucketName, key, uploadId, interactionId, e);
+            try {
+                s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .build());
+            } catch (RuntimeException abortError) {
+                e.addSuppressed(abortError);
+            }
             throw e;
         }
     }
 
+    /**
+     * Asynchronous counterpart of {@link #uploadMultipart} on the async client.
+     * Parts are read and sent one at a time, so only the part in flight is held
+     * in heap, and the upload is aborted if reading or any S3 call fails.
+     */
+    private CompletableFuture<StreamedUpload> uploadMultipartAsync(
+            String bucketName,
+            String key,
+            String contentType,
+            Map<String, String> metadata,
+            InputStream in,
+            String interactionId) {
+        CreateMultipartUploadRequest.Builder createBuilder = CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType);
+        if (metadata != null && !metadata.isEmpty()) {
+            createBuilder = createBuilder.metadata(metadata);
+        }
+        return s3AsyncClient.createMultipartUpload(createBuilder.build()).thenCompose(created -> {
+            String uploadId = created.uploadId();
+            LOG.info("[S3_UPLOAD_STEP]:: MULTIPART_UPLOAD_STARTED bucket={} key={} uploadId={} interactionId={}",
+                    bucketName, key, uploadId, interactionId);
+            MessageDigest digest = sha256();
+            List<CompletedPart> parts = new ArrayList<>();
+            AtomicLong size = new AtomicLong();
+            return uploadNextPartAsync(bucketName, key, uploadId, in, digest, parts, size)
+                    .thenCompose(ignored -> s3AsyncClient.completeMultipartUpload(
+                            CompleteMultipartUploadRequest.builder()
+                                    .bucket(bucketName)
+                                    .key(key)
+                                    .uploadId(uploadId)
+                                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                                    .build()))
+                    .thenApply(response -> {
+                        LOG.info("[S3_UPLOAD_STEP]:: MULTIPART_UPLOAD_COMPLETED bucket={} key={} parts={} size={} interactionId={}",
+                                bucketName, key, parts.size(), size.get(), interactionId);
+                        return new StreamedUpload(response.eTag(), size.get(),
+                                HexFormat.of().formatHex(digest.digest()));
+                    })
+                    .exceptionallyCompose(error -> {
+                        LOG.error("[S3_UPLOAD_STEP]:: MULTIPART_UPLOAD_FAILED bucket={} key={} uploadId={} interactionId={} - aborting",
+                                bucketName, key, uploadId, interactionId, error);
+                        return s3AsyncClient.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                                .bucket(bucketName)
+                                .key(key)
+                                .uploadId(uploadId)
+                                .build())
+                                .handle((aborted, abortError) -> {
+                                    if (abortError != null) {
+                                        error.addSuppressed(abortError);
+                                    }
+                                    throw error instanceof CompletionException completion ? completion
+                                            : new CompletionException(error);
+                                });
+                    });
+        });
+    }
+
+    private CompletableFuture<Void> uploadNextPartAsync(
+            String bucketName,
+            String key,
+            String uploadId,
+            InputStream in,
+            MessageDigest digest,
+            List<CompletedPart> parts,
+            AtomicLong size) {
+        int partSize = Math.max(multipartPartSizeBytes, MIN_PART_SIZE_BYTES);
+        byte[] part;
+        try {
+            part = in.readNBytes(partSize);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (part.length == 0 && !parts.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        digest.update(part);
+        size.addAndGet(part.length);
+        int partNumber = parts.size() + 1;
+        return s3AsyncClient.uploadPart(UploadPartRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength((long) part.length)
+                .build(),
+                AsyncRequestBody.fromBytesUnsafe(part))
+                .thenCompose(response -> {
+                    parts.add(CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build());
+                    return part.length < partSize ? CompletableFuture.completedFuture(null)
+                            : uploadNextPartAsync(bucketName, key, uploadId, in, digest, parts, size);
+                });
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record StreamedUpload(String eTag, long size, String sha256) {
+    }
+
+    /**
+     * Encodes a {@link String} to UTF-8 in 64 KB chunks so that large payloads
+     * can be streamed without materialising a second full-size byte array.
+     */
+    private static final class Utf8StringInputStream extends InputStream {
+        private final CharBuffer chars;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final ByteBuffer bytes = ByteBuffer.allocate(64 * 1024);
+        private boolean flushed;
+
+        Utf8StringInputStream(String content) {
+            this.chars = CharBuffer.wrap(content);
+            this.bytes.flip();
+        }
+
+        @Override
+        public int read() {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!bytes.hasRemaining() && !fill()) {
+                return -1;
+            }
+            int n = Math.min(len, bytes.remaining());
+            bytes.get(b, off, n);
+            return n;
+        }
+
+        private boolean fill() {
+            if (flushed) {
+                return false;
+            }
+            bytes.clear();
+            if (!encoder.encode(chars, bytes, true).isOverflow()) {
+                encoder.flush(bytes);
+                flushed = true;
+            }
+            bytes.flip();
+            return bytes.hasRemaining();
+        }
+    }
+
     /**
      * Sanitizes all metadata values to ASCII.
      * S3 metadata is sent as HTTP headers which must be ASCII-safe.
@@ -1,12 +1,15 @@
 package org.techbd.ingest.processor;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 import org.techbd.ingest.model.RequestContext;
 import org.techbd.ingest.service.MetadataBuilderService;
+import org.techbd.ingest.service.SqsBatchPublisher;
 import org.techbd.ingest.service.messagegroup.MessageGroupService;
 import org.techbd.ingest.util.AppLogger;
 import org.techbd.ingest.util.TemplateLogger;
@@ -33,18 +36,21 @@ import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
  */
 @Component
 @Order(2)
-public class SqsPublishStep implements MessageProcessingStep {
+public class SqsPublishStep implements AsyncMessageProcessingStep {
 
     private TemplateLogger LOG;
 
     private final SqsClient sqsClient;
+    private final SqsBatchPublisher sqsBatchPublisher;
     private final ObjectMapper objectMapper;
     private final MetadataBuilderService metadataBuilderService;
     private final MessageGroupService messageGroupService;
 
-    public SqsPublishStep(SqsClient sqsClient, ObjectMapper objectMapper, MetadataBuilderService metadataBuilderService,
-            MessageGroupService messageGroupService, AppLogger appLogger) {
+    public SqsPublishStep(SqsClient sqsClient, SqsBatchPublisher sqsBatchPublisher, ObjectMapper objectMapper,
+            MetadataBuilderService metadataBuilderService, MessageGroupService messageGroupService,
+            AppLogger appLogger) {
         this.sqsClient = sqsClient;
+        this.sqsBatchPublisher = sqsBatchPublisher;
         this.objectMapper = objectMapper;
         this.metadataBuilderService = metadataBuilderService;
         this.messageGroupService = messageGroupService;
@@ -70,12 +76,11 @@ public class SqsPublishStep implements MessageProcessingStep {
             LOG.info("[SQS_PUBLISH_STEP]:: SENDING_MESSAGE to SQS. interactionId={}, queueUrl={}", interactionId,
                     context.getQueueUrl());
 
-            String messageId = sqsClient.sendMessage(SendMessageRequest.builder()
+            String messageId = sendMessage(SendMessageRequest.builder()
                     .queueUrl(context.getQueueUrl())
                     .messageBody(messageJson)
                     .messageGroupId(messageGroupId)
-                    .build())
-                    .messageId();
+                    .build());
             context.setMessageId(messageId);
             LOG.info("[SQS_PUBLISH_STEP]:: MESSAGE_SENT to SQS successfully. interactionId={}, messageId={}", interactionId,
                     messageId);
@@ -102,12 +107,11 @@ public class SqsPublishStep implements MessageProcessingStep {
             LOG.info("[SQS_PUBLISH_STEP]:: SENDING_MESSAGE to SQS. interactionId={}, queueUrl={}", interactionId,
                     context.getQueueUrl());
 
-            String messageId = sqsClient.sendMessage(SendMessageRequest.builder()
+            String messageId = sendMessage(SendMessageRequest.builder()
                     .queueUrl(context.getQueueUrl())
                     .messageBody(messageJson)
                     .messageGroupId(messageGroupId)
-                    .build())
-                    .messageId();
+                    .build());
             context.setMessageId(messageId);
             LOG.info("[SQS_PUBLISH_STEP]:: MESSAGE_SENT to SQS successfully. interactionId={}, messageId={}", interactionId,
                     messageId);
@@ -118,6 +122,68 @@ public class SqsPublishStep implements MessageProcessingStep {
         }
     }
 
+    @Override
+    public CompletableFuture<Void> processAsync(RequestContext context, String content, String ackMessage) {
+        String interactionId = context != null ? context.getInteractionId() : "unknown";
+        LOG.debug("[SQS_PUBLISH_STEP]:: processAsync called with String content. interactionId={}", interactionId);
+
+        if (context == null || context.getQueueUrl() == null || context.getQueueUrl().isBlank()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException(
+                    "[SQS_PUBLISH_STEP]:: Queue URL is null or empty for interactionId=" + interactionId));
+        }
+
+        final SendMessageRequest request;
+        try {
+            final var messageGroupId = messageGroupService.createMessageGroupId(context, interactionId);
+            Map<String, Object> message = metadataBuilderService.buildSqsMessage(context);
+            String messageJson = objectMapper.writeValueAsString(message);
+            request = SendMessageRequest.builder()
+                    .queueUrl(context.getQueueUrl())
+                    .messageBody(messageJson)
+                    .messageGroupId(messageGroupId)
+                    .build();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(asyncFailure(context, interactionId, e));
+        }
+
+        LOG.info("[SQS_PUBLISH_STEP]:: SENDING_MESSAGE_ASYNC to SQS. interactionId={}, queueUrl={}", interactionId,
+                context.getQueueUrl());
+        return sqsBatchPublisher.publish(request)
+                .handle((messageId, error) -> {
+                    if (error != null) {
+                        throw asyncFailure(context, interactionId, error);
+                    }
+                    context.setMessageId(messageId);
+                    LOG.info("[SQS_PUBLISH_STEP]:: MESSAGE_SENT to SQS successfully. interactionId={}, messageId={}",
+                            interactionId, messageId);
+                    return null;
+                });
+    }
+
+    /**
+     * Sends a single message, going through the {@link SqsBatchPublisher} when
+     * batching is enabled so that concurrent requests share one
+     * {@code SendMessageBatch} call.
+     */
+    private String sendMessage(SendMessageRequest request) {
+        if (!sqsBatchPublisher.isEnabled()) {
+            return sqsClient.sendMessage(request).messageId();
+        }
+        try {
+            return sqsBatchPublisher.publish(request).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : e;
+        }
+    }
+
+    private RuntimeException asyncFailure(RequestContext context, String interactionId, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        LOG.error("[SQS_PUBLISH_STEP]:: FAILED while publishing to queue {}. interactionId={}", context.getQueueUrl(),
+                interactionId, cause);
+        return new RuntimeException("SQS Publish Step Failed for interactionId " + interactionId
+                + " while publising to queue " + context.getQueueUrl() + " with error: " + cause.getMessage(), cause);
+    }
+
     @Override
     public boolean isEnabledFor(RequestContext context) {
         return !context.isIngestionFailed() && context.getMessageSourceType() != null && context.getMessageSourceType().shouldUploadToSqs();
@@ -0,0 +1,57 @@
+package org.techbd.ingest.service;
+
+import org.springframework.stereotype.Service;
+
+import ca.uhn.hl7v2.DefaultHapiContext;
+import ca.uhn.hl7v2.HL7Exception;
+import ca.uhn.hl7v2.HapiContext;
+import ca.uhn.hl7v2.model.Message;
+import ca.uhn.hl7v2.parser.GenericParser;
+import ca.uhn.hl7v2.parser.PipeParser;
+import ca.uhn.hl7v2.validation.impl.NoValidation;
+
+/**
+ * Holds a single, pre-configured HAPI context for the MLLP listener.
+ * <p>
+ * Creating a {@link DefaultHapiContext} per message rebuilds the model class
+ * factory and its structure caches every time. HAPI parsers are thread-safe
+ * once configured, so one context and one {@link GenericParser} /
+ * {@link PipeParser} pair is shared by every worker thread.
+ * </p>
+ */
+@Service
+public class Hl7ParsingService {
+
+    private final HapiContext hapiContext;
+    private final GenericParser genericParser;
+    private final PipeParser pipeParser;
+
+    public Hl7ParsingService() {
+        this.hapiContext = new DefaultHapiContext();
+        this.hapiContext.setValidationContext(new NoValidation());
+        this.genericParser = hapiContext.getGenericParser();
+        this.pipeParser = hapiContext.getPipeParser();
+    }
+
+    /**
+     * Parses an ER7 or XML encoded HL7 v2 message without validation.
+     *
+     * @param message the unwrapped HL7 message
+     * @return the parsed message
+     * @throws HL7Exception if the message cannot be parsed
+     */
+    public Message parse(String message) throws HL7Exception {
+        return genericParser.parse(message);
+    }
+
+    /**
+     * Encodes {@code message} using pipe (ER7) encoding.
+     *
+     * @param message the message to encode
+     * @return the encoded message
+     * @throws HL7Exception if the message cannot be encoded
+     */
+    public String encode(Message message) throws HL7Exception {
+        return pipeParser.encode(message);
+    }
+}
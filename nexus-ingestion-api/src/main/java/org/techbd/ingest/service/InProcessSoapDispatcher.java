@@ -0,0 +1,517 @@
+package org.techbd.ingest.service;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.ws.transport.http.MessageDispatcherServlet;
+import org.techbd.ingest.controller.InteractionsFilter;
+import org.techbd.ingest.controller.SoapFaultEnhancementFilter;
+import org.techbd.ingest.util.AppLogger;
+import org.techbd.ingest.util.TemplateLogger;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.Servlet;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Dispatches a SOAP request to the Spring-WS {@link MessageDispatcherServlet}
+ * inside the current request thread, without a loopback HTTP call to
+ * {@code /ws}.
+ *
+ * <p>
+ * The forwarded request sees the same view a loopback request would: URI
+ * {@code /ws}, the forwarded headers, the cached body and an empty attribute
+ * map. It passes through the same {@code /ws} filters ({@link InteractionsFilter}
+ * then {@link SoapFaultEnhancementFilter}) before reaching the servlet. The
+ * attributes are kept separate so that the once-per-request markers and
+ * attributes already set on the outer request do not leak into the inner
+ * dispatch.
+ * </p>
+ *
+ * <p>
+ * {@link #dispatch} buffers the response, like the loopback client does.
+ * {@link #dispatchDirect} writes straight to the servlet response and is used
+ * for MTOM output.
+ * </p>
+ */
+@Component
+public class InProcessSoapDispatcher {
+
+    private final TemplateLogger LOG;
+    private final Servlet servlet;
+    private final List<Filter> filters;
+
+    /**
+     * Status, Content-Type and body of a buffered in-process dispatch.
+     */
+    public record CapturedResponse(int status, String contentType, byte[] body) {
+    }
+
+    @Autowired
+    public InProcessSoapDispatcher(ServletRegistrationBean<MessageDispatcherServlet> messageDispatcherServlet,
+            InteractionsFilter interactionsFilter, SoapFaultEnhancementFilter soapFaultEnhancementFilter,
+            AppLogger appLogger) {
+        this(messageDispatcherServlet.getServlet(), List.of(interactionsFilter, soapFaultEnhancementFilter),
+                appLogger);
+    }
+
+    InProcessSoapDispatcher(Servlet servlet, List<Filter> filters, AppLogger appLogger) {
+        this.servlet = servlet;
+        this.filters = List.copyOf(filters);
+        this.LOG = appLogger.getLogger(InProcessSoapDispatcher.class);
+    }
+
+    /**
+     * Returns {@code true} once the servlet container has initialised the
+     * dispatcher servlet.
+     */
+    public boolean isAvailable() {
+        return servlet.getServletConfig() != null;
+    }
+
+    /**
+     * Dispatches the request and buffers the response.
+     *
+     * @param original        the request received by the controller
+     * @param body            the raw SOAP body
+     * @param headers         headers the forwarded request should carry
+     * @param target          the {@code /ws} URL the loopback call would use
+     * @param servletResponse the outer response; only used as the wrapper
+     *                        delegate, nothing is written to it
+     * @return the captured response
+     */
+    public CapturedResponse dispatch(HttpServletRequest original, byte[] body, Map<String, List<String>> headers,
+            URI target, HttpServletResponse servletResponse) throws IOException, ServletException {
+        CapturingResponse response = new CapturingResponse(servletResponse);
+        invoke(new ForwardedRequest(original, body, headers, target), response);
+        return new CapturedResponse(response.getStatus(), response.getContentType(),
+                response.getContentAsByteArray());
+    }
+
+    /**
+     * Dispatches the request and lets the endpoint write directly to
+     * {@code servletResponse}.
+     *
+     * @return the response status
+     */
+    public int dispatchDirect(HttpServletRequest original, byte[] body, Map<String, List<String>> headers,
+            URI target, HttpServletResponse servletResponse) throws IOException, ServletException {
+        invoke(new ForwardedRequest(original, body, headers, target), servletResponse);
+        return servletResponse.getStatus();
+    }
+
+    private void invoke(HttpServletRequest request, HttpServletResponse response)
+            throws IOException, ServletException {
+        LOG.debug("InProcessSoapDispatcher:: Dispatching to {} contentType={}", request.getRequestURI(),
+                request.getContentType());
+        new Chain(filters.iterator()).doFilter(request, response);
+    }
+
+    private final class Chain implements FilterChain {
+        private final Iterator<Filter> remaining;
+
+        Chain(Iterator<Filter> remaining) {
+            this.remaining = remaining;
+        }
+
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response) throws IOException, ServletException {
+            if (remaining.hasNext()) {
+                remaining.next().doFilter(request, response, this);
+            } else {
+                servlet.service(request, response);
+            }
+        }
+    }
+
+    private static Charset charsetOf(String contentType) {
+        if (contentType != null) {
+            for (String param : contentType.split(";")) {
+                String p = param.trim();
+                if (p.regionMatches(true, 0, "charset=", 0, 8)) {
+                    try {
+                        return Charset.forName(p.substring(8).replace("\"", "").trim());
+                    } catch (Exception ignored) {
+                        break;
+                    }
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * Request view presented to the {@code /ws} filters and servlet.
+     */
+    private static final class ForwardedRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+        private final HttpHeaders headers = new HttpHeaders();
+        private final Map<String, Object> attributes = new HashMap<>();
+        private final URI target;
+
+        ForwardedRequest(HttpServletRequest original, byte[] body, Map<String, List<String>> forwardedHeaders,
+                URI target) {
+            super(original);
+            this.body = body;
+            this.target = target;
+            forwardedHeaders.forEach(headers::addAll);
+            headers.set(HttpHeaders.HOST, target.getAuthority());
+            headers.setContentLength(body.length);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream byteStream = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+
+                @Override
+                public int read() {
+                    return byteStream.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return byteStream.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return byteStream.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // The body is cached, so all of it is available at once.
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), charsetOf(getContentType())));
+        }
+
+        @Override
+        public String getCharacterEncoding() {
+            return charsetOf(getContentType()).name();
+        }
+
+        @Override
+        public String getContentType() {
+            return headers.getFirst(HttpHeaders.CONTENT_TYPE);
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return headers.getFirst(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return Collections.enumeration(headers.getOrEmpty(name));
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(headers.keySet());
+        }
+
+        @Override
+        public int getIntHeader(String name) {
+            String value = getHeader(name);
+            return value == null ? -1 : Integer.parseInt(value);
+        }
+
+        @Override
+        public String getMethod() {
+            return "POST";
+        }
+
+        @Override
+        public String getRequestURI() {
+            return target.getPath();
+        }
+
+        @Override
+        public StringBuffer getRequestURL() {
+            return new StringBuffer(target.toString());
+        }
+
+        @Override
+        public String getServletPath() {
+            return target.getPath();
+        }
+
+        @Override
+        public String getPathInfo() {
+            return null;
+        }
+
+        @Override
+        public String getContextPath() {
+            return "";
+        }
+
+        @Override
+        public String getQueryString() {
+            return null;
+        }
+
+        @Override
+        public String getScheme() {
+            return target.getScheme();
+        }
+
+        @Override
+        public String getServerName() {
+            return target.getHost();
+        }
+
+        @Override
+        public int getServerPort() {
+            return port();
+        }
+
+        @Override
+        public int getLocalPort() {
+            return port();
+        }
+
+        private int port() {
+            if (target.getPort() >= 0) {
+                return target.getPort();
+            }
+            return "https".equalsIgnoreCase(target.getScheme()) ? 443 : 80;
+        }
+
+        @Override
+        public String getParameter(String name) {
+            return null;
+        }
+
+        @Override
+        public Map<String, String[]> getParameterMap() {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public Enumeration<String> getParameterNames() {
+            return Collections.emptyEnumeration();
+        }
+
+        @Override
+        public String[] getParameterValues(String name) {
+            return null;
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            return attributes.get(name);
+        }
+
+        @Override
+        public Enumeration<String> getAttributeNames() {
+            return Collections.enumeration(new ArrayList<>(attributes.keySet()));
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+            if (value == null) {
+                attributes.remove(name);
+            } else {
+                attributes.put(name, value);
+            }
+        }
+
+        @Override
+        public void removeAttribute(String name) {
+            attributes.remove(name);
+        }
+
+        @Override
+        public DispatcherType getDispatcherType() {
+            return DispatcherType.REQUEST;
+        }
+
+        @Override
+        public boolean isAsyncSupported() {
+            return false;
+        }
+    }
+
+    /**
+     * Buffers the body in {@link ContentCachingResponseWrapper} and keeps
+     * status and headers local, so nothing reaches the outer response. The
+     * body is never copied to the outer response, including on
+     * {@code sendError}.
+     */
+    private static final class CapturingResponse extends ContentCachingResponseWrapper {
+        private final HttpHeaders headers = new HttpHeaders();
+        private int status = HttpServletResponse.SC_OK;
+        private String characterEncoding;
+
+        CapturingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public void setStatus(int sc) {
+            this.status = sc;
+        }
+
+        @Override
+        public int getStatus() {
+            return status;
+        }
+
+        @Override
+        public void sendError(int sc) {
+            this.status = sc;
+        }
+
+        @Override
+        public void sendError(int sc, String msg) {
+            this.status = sc;
+        }
+
+        @Override
+        public void setContentType(String type) {
+            setHeader(HttpHeaders.CONTENT_TYPE, type);
+        }
+
+        @Override
+        public String getContentType() {
+            return headers.getFirst(HttpHeaders.CONTENT_TYPE);
+        }
+
+        @Override
+        public void setCharacterEncoding(String charset) {
+            this.characterEncoding = charset;
+        }
+
+        @Override
+        public String getCharacterEncoding() {
+            return characterEncoding != null ? characterEncoding : charsetOf(getContentType()).name();
+        }
+
+        @Override
+        public void setLocale(Locale loc) {
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (value == null) {
+                headers.remove(name);
+            } else {
+                headers.set(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            headers.add(name, value);
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            setHeader(name, String.valueOf(value));
+        }
+
+        @Override
+        public void addIntHeader(String name, int value) {
+            addHeader(name, String.valueOf(value));
+        }
+
+        @Override
+        public void setDateHeader(String name, long date) {
+            setHeader(name, String.valueOf(date));
+        }
+
+        @Override
+        public void addDateHeader(String name, long date) {
+            addHeader(name, String.valueOf(date));
+        }
+
+        @Override
+        public boolean containsHeader(String name) {
+            return headers.containsKey(name);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return headers.getFirst(name);
+        }
+
+        @Override
+        public Collection<String> getHeaders(String name) {
+            return headers.getOrEmpty(name);
+        }
+
+        @Override
+        public Collection<String> getHeaderNames() {
+            return headers.keySet();
+        }
+
+        @Override
+        public boolean isCommitted() {
+            return false;
+        }
+
+        @Override
+        public void reset() {
+            resetBuffer();
+            headers.clear();
+            status = HttpServletResponse.SC_OK;
+            characterEncoding = null;
+        }
+    }
+}
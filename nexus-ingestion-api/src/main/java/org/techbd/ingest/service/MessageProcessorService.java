@@ -3,11 +3,15 @@ package org.techbd.ingest.service;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.techbd.ingest.config.AppConfig;
 import org.techbd.ingest.model.RequestContext;
+import org.techbd.ingest.processor.AsyncMessageProcessingStep;
 import org.techbd.ingest.processor.MessageProcessingStep;
 import org.techbd.ingest.service.portconfig.PortConfigApplierService;
 import org.techbd.ingest.util.AppLogger;
@@ -32,6 +36,15 @@ import org.techbd.ingest.util.TemplateLogger;
  * deterministic
  * and extensible handling of incoming messages.
  * </p>
+ *
+ * <p>
+ * {@link #processMessageAsync(RequestContext, String, String)} composes the same
+ * steps as a chain of futures: steps implementing
+ * {@link AsyncMessageProcessingStep} run without blocking (S3 uploads in
+ * parallel), and the next step starts only once the previous one completes.
+ * When {@code INGESTION_ASYNC_PIPELINE_ENABLED} is true, the synchronous String
+ * entry point delegates to the async pipeline and waits for it.
+ * </p>
  */
 @Service
 public class MessageProcessorService {
@@ -41,6 +54,9 @@ public class MessageProcessorService {
     private final List<MessageProcessingStep> processingSteps;
     private final PortConfigApplierService portConfigApplierService;
 
+    @Value("${INGESTION_ASYNC_PIPELINE_ENABLED:false}")
+    private boolean asyncPipelineEnabled;
+
     public MessageProcessorService(List<MessageProcessingStep> processingSteps, AppLogger appLogger, AppConfig appConfig, PortConfigApplierService portConfigApplierService) {
         this.processingSteps = processingSteps;
         LOG = appLogger.getLogger(MessageProcessorService.class);
@@ -103,6 +119,16 @@ public class MessageProcessorService {
      *         and S3 path.
      */
     public Map<String, String> processMessage(RequestContext context, String content, String ackMessage) {
+        if (asyncPipelineEnabled) {
+            try {
+                return processMessageAsync(context, content, ackMessage).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw e;
+            }
+        }
         String interactionId = context != null ? context.getInteractionId() : "unknown";
         LOG.info("MessageProcessorService:: processMessage called with String content. interactionId={} from source {}",
                 interactionId, context.getMessageSourceType().name());
@@ -121,6 +147,56 @@ public class MessageProcessorService {
         return createSuccessResponse(context.getMessageId(), context);
     }
 
+    /**
+     * Processes raw string content by composing each configured processing step
+     * into a non-blocking chain. Steps run in order; work inside an
+     * {@link AsyncMessageProcessingStep} (e.g. the metadata, payload and ACK
+     * uploads) runs in parallel. Steps that only implement the blocking contract
+     * are executed inline when their turn comes.
+     *
+     * @param context    The request context containing metadata for the operation.
+     * @param content    The raw string content to process.
+     * @param ackMessage The acknowledgement message to be processed.
+     * @return a future with the same response map as
+     *         {@link #processMessage(RequestContext, String, String)}, completed
+     *         exceptionally if any step fails.
+     */
+    public CompletableFuture<Map<String, String>> processMessageAsync(RequestContext context, String content,
+            String ackMessage) {
+        String interactionId = context != null ? context.getInteractionId() : "unknown";
+        LOG.info("MessageProcessorService:: processMessageAsync called with String content. interactionId={} from source {}",
+                interactionId, context.getMessageSourceType().name());
+        portConfigApplierService.applyPortConfigOverrides(context);
+        CompletableFuture<Void> pipeline = CompletableFuture.completedFuture(null);
+        for (MessageProcessingStep step : processingSteps) {
+            pipeline = pipeline.thenCompose(ignored -> executeStepAsync(step, context, content, ackMessage, interactionId));
+        }
+        return pipeline.thenApply(ignored -> {
+            LOG.info("MessageProcessorService:: All async processing steps completed for interactionId={}", interactionId);
+            return createSuccessResponse(context.getMessageId(), context);
+        });
+    }
+
+    private CompletableFuture<Void> executeStepAsync(MessageProcessingStep step, RequestContext context,
+            String content, String ackMessage, String interactionId) {
+        if (!step.isEnabledFor(context)) {
+            LOG.debug("MessageProcessorService:: Skipping step {} for interactionId={} (disabled)",
+                    step.getClass().getSimpleName(), interactionId);
+            return CompletableFuture.completedFuture(null);
+        }
+        LOG.info("MessageProcessorService:: Executing step {} for interactionId={}",
+                step.getClass().getSimpleName(), interactionId);
+        if (step instanceof AsyncMessageProcessingStep asyncStep) {
+            return asyncStep.processAsync(context, content, ackMessage);
+        }
+        try {
+            step.process(context, content, ackMessage);
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     /**
      * Creates a success response map containing the message ID, interaction ID, S3
      * path, and timestamp.
@@ -7,10 +7,15 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.techbd.ingest.commons.Constants;
@@ -26,12 +31,22 @@ import jakarta.xml.soap.SOAPConstants;
 @Service
 public class SoapForwarderService {
 
+    private static final Set<String> SKIPPED_HEADERS = Set.of(
+            "host", "connection", "content-length", "transfer-encoding",
+            "expect", "upgrade", "content-type");
+
     private final TemplateLogger LOG;
 
     private final HttpClient httpClient;
 
-    public SoapForwarderService(AppLogger appLogger) {
+    private final InProcessSoapDispatcher inProcessSoapDispatcher;
+
+    @Value("${SOAP_FORWARD_IN_PROCESS_ENABLED:false}")
+    private boolean inProcessEnabled;
+
+    public SoapForwarderService(AppLogger appLogger, InProcessSoapDispatcher inProcessSoapDispatcher) {
         this.LOG = appLogger.getLogger(SoapForwarderService.class);
+        this.inProcessSoapDispatcher = inProcessSoapDispatcher;
         this.httpClient = HttpClient.newBuilder()
                 .version(HttpClient.Version.HTTP_1_1)
                 .connectTimeout(Duration.ofSeconds(60))
@@ -139,7 +154,10 @@ public class SoapForwarderService {
     // ── Core forwarding logic ─────────────────────────────────────────────────
 
     /**
-     * Pipes rawBytes directly to targetUrl using the shared HttpClient.
+     * Forwards rawBytes to /ws, either in-process through
+     * {@link InProcessSoapDispatcher} (when {@code SOAP_FORWARD_IN_PROCESS_ENABLED}
+     * is set, a servlet response is available and the dispatcher servlet is
+     * initialised) or over loopback HTTP using the shared HttpClient.
      *
      * For MTOM multipart responses: if servletResponse is non-null, writes
      * bytes directly to the socket and returns an empty ResponseEntity, bypassing
@@ -167,86 +185,157 @@ public class SoapForwarderService {
             }
         }
 
-        // ── Step 2: build HttpRequest ─────────────────────────────────────
-        HttpRequest.Builder reqBuilder = HttpRequest.newBuilder()
-                .uri(URI.create(targetUrl))
-                .timeout(Duration.ofSeconds(120))
-                .POST(HttpRequest.BodyPublishers.ofByteArray(rawBytes));
+        // ── Step 2: collect outbound headers ──────────────────────────────
+        Map<String, List<String>> headers = buildForwardHeaders(request, outboundContentType,
+                sourceId, msgType, interactionId);
+
+        // ── Step 3: dispatch in-process when possible, else loopback HTTP ──
+        if (inProcessEnabled && servletResponse != null && inProcessSoapDispatcher.isAvailable()) {
+            return forwardInProcess(request, servletResponse, rawBytes, URI.create(targetUrl), headers,
+                    interactionId);
+        }
+        if (inProcessEnabled) {
+            LOG.debug("SoapForwarderService:: In-process dispatch unavailable, using loopback. interactionId={}",
+                    interactionId);
+        }
+        return forwardLoopback(servletResponse, rawBytes, targetUrl, headers, interactionId);
+    }
+
+    /**
+     * Builds the headers the forwarded /ws request carries. The same set is
+     * used for the loopback HTTP call and for in-process dispatch.
+     */
+    private Map<String, List<String>> buildForwardHeaders(HttpServletRequest request, String outboundContentType,
+            String sourceId, String msgType, String interactionId) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
 
         // Content-Type (possibly reconstructed)
         if (outboundContentType != null) {
-            reqBuilder.header("Content-Type", outboundContentType);
+            addHeader(headers, "Content-Type", outboundContentType);
         }
 
         // SOAPAction
         String soapAction = request.getHeader("SOAPAction");
         if (soapAction != null) {
-            reqBuilder.header("SOAPAction", soapAction);
+            addHeader(headers, "SOAPAction", soapAction);
         }
 
         // Custom / correlation headers
         if (interactionId != null && !interactionId.isBlank()) {
-            reqBuilder.header(Constants.HEADER_INTERACTION_ID, interactionId);
+            addHeader(headers, Constants.HEADER_INTERACTION_ID, interactionId);
         }
         String ackContentType = (String) request.getAttribute(Constants.ACK_CONTENT_TYPE);
         if (ackContentType != null) {
-            reqBuilder.header(Constants.ACK_CONTENT_TYPE, ackContentType);
+            addHeader(headers, Constants.ACK_CONTENT_TYPE, ackContentType);
         }
 
         String originalRequestUri = (String) request.getAttribute(Constants.ORIGINAL_REQUEST_URI);
         if (originalRequestUri != null) {
-            reqBuilder.header(Constants.ORIGINAL_REQUEST_URI, originalRequestUri);
+            addHeader(headers, Constants.ORIGINAL_REQUEST_URI, originalRequestUri);
         }
         String responseType = (String) request.getAttribute(Constants.RESPONSE_TYPE);
         if (responseType != null && !responseType.isBlank()) {
-            reqBuilder.header(Constants.RESPONSE_TYPE, responseType);
+            addHeader(headers, Constants.RESPONSE_TYPE, responseType);
             LOG.info("SoapForwarderService:: Forwarding responseType={} interactionId={}",
                     responseType, interactionId);
         }
         if (sourceId != null && !sourceId.isBlank()) {
-            reqBuilder.header(Constants.HEADER_SOURCE_ID, sourceId);
+            addHeader(headers, Constants.HEADER_SOURCE_ID, sourceId);
             LOG.info("SoapForwarderService:: Forwarding sourceId={} interactionId={}", sourceId, interactionId);
         }
         if (msgType != null && !msgType.isBlank()) {
-            reqBuilder.header(Constants.HEADER_MSG_TYPE, msgType);
+            addHeader(headers, Constants.HEADER_MSG_TYPE, msgType);
             LOG.info("SoapForwarderService:: Forwarding msgType={} interactionId={}", msgType, interactionId);
         }
 
         // mTLS verified attribute
         String mtlsVerified = (String) request.getAttribute(Constants.HEADER_MTLS_VERIFIED);
         if ("true".equals(mtlsVerified)) {
-            reqBuilder.header(Constants.HEADER_MTLS_VERIFIED, "true");
+            addHeader(headers, Constants.HEADER_MTLS_VERIFIED, "true");
         }
 
-        reqBuilder.header(Constants.IS_LOCALHOST_WS_FORWARD, "true");
-        reqBuilder.header(Constants.ORIGINAL_REQUEST_URL, request.getRequestURL().toString());
+        addHeader(headers, Constants.IS_LOCALHOST_WS_FORWARD, "true");
+        addHeader(headers, Constants.ORIGINAL_REQUEST_URL, request.getRequestURL().toString());
 
         // Forward ALL original request headers except restricted ones.
         // content-type is already set above (possibly reconstructed).
         // host, connection, content-length, transfer-encoding must not be forwarded —
         // HttpClient manages these automatically.
-        Set<String> skip = Set.of(
-                "host", "connection", "content-length", "transfer-encoding",
-                "expect", "upgrade", "content-type");
-
         Enumeration<String> headerNames = request.getHeaderNames();
         while (headerNames != null && headerNames.hasMoreElements()) {
             String name = headerNames.nextElement();
-            if (name == null || skip.contains(name.toLowerCase())) {
+            if (name == null || SKIPPED_HEADERS.contains(name.toLowerCase())) {
                 continue;
             }
             Enumeration<String> values = request.getHeaders(name);
             while (values != null && values.hasMoreElements()) {
                 String value = values.nextElement();
                 if (value != null) {
-                    reqBuilder.header(name, value);
+                    addHeader(headers, name, value);
                     LOG.debug("SoapForwarderService:: Forwarding header {}={} interactionId={}", name, value,
                             interactionId);
                 }
             }
         }
+        return headers;
+    }
 
-        // ── Step 3: send (blocking) and read response ─────────────────────────
+    private static void addHeader(Map<String, List<String>> headers, String name, String value) {
+        headers.computeIfAbsent(name, n -> new ArrayList<>()).add(value);
+    }
+
+    /**
+     * Hands the request to the Spring-WS dispatcher on the current thread.
+     * MTOM responses are written by the endpoint straight to the servlet
+     * output; everything else is buffered and returned as before.
+     */
+    private ResponseEntity<String> forwardInProcess(HttpServletRequest request,
+            HttpServletResponse servletResponse, byte[] rawBytes, URI target,
+            Map<String, List<String>> headers, String interactionId) throws Exception {
+        String responseType = (String) request.getAttribute(Constants.RESPONSE_TYPE);
+        if (isMtomResponseType(responseType)) {
+            int status;
+            try {
+                status = inProcessSoapDispatcher.dispatchDirect(request, rawBytes, headers, target, servletResponse);
+                servletResponse.flushBuffer();
+            } catch (IOException e) {
+                if (!isBrokenPipe(e)) {
+                    throw e;
+                }
+                LOG.warn("SoapForwarderService:: Client disconnected during MTOM write. interactionId={}",
+                        interactionId);
+                status = servletResponse.getStatus();
+            }
+            LOG.info("SoapForwarderService:: In-process MTOM response streamed to servlet output. " +
+                    "status={} interactionId={}", status, interactionId);
+            // Response is already committed; see writeResponse for why the
+            // Content-Type is application/octet-stream.
+            return ResponseEntity.status(status)
+                    .header("Content-Type", "application/octet-stream")
+                    .build();
+        }
+
+        InProcessSoapDispatcher.CapturedResponse response = inProcessSoapDispatcher.dispatch(
+                request, rawBytes, headers, target, servletResponse);
+        LOG.info("SoapForwarderService:: In-process forward response. status={} contentType={} interactionId={}",
+                response.status(), response.contentType(), interactionId);
+        return writeResponse(response.status(), response.contentType(), response.body(),
+                servletResponse, interactionId);
+    }
+
+    /**
+     * Posts rawBytes to targetUrl over HTTP using the shared HttpClient.
+     */
+    private ResponseEntity<String> forwardLoopback(HttpServletResponse servletResponse,
+            byte[] rawBytes, String targetUrl, Map<String, List<String>> headers,
+            String interactionId) throws Exception {
+        HttpRequest.Builder reqBuilder = HttpRequest.newBuilder()
+                .uri(URI.create(targetUrl))
+                .timeout(Duration.ofSeconds(120))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(rawBytes));
+        headers.forEach((name, values) -> values.forEach(value -> reqBuilder.header(name, value)));
+
+        // ── send (blocking) and read response ─────────────────────────────────
         HttpResponse<byte[]> response = httpClient.send(
                 reqBuilder.build(),
                 HttpResponse.BodyHandlers.ofByteArray());
@@ -259,9 +348,13 @@ public class SoapForwarderService {
         LOG.info("SoapForwarderService:: Raw forward response. status={} contentType={} interactionId={}",
                 status, respContentType, interactionId);
 
-        byte[] responseBodyBytes = response.body();
+        return writeResponse(status, respContentType, response.body(), servletResponse, interactionId);
+    }
+
+    private ResponseEntity<String> writeResponse(int status, String respContentType, byte[] responseBodyBytes,
+            HttpServletResponse servletResponse, String interactionId) throws IOException {
 
-        // ── Step 4: MTOM direct-write — bypass Spring's MediaType parser ──
+        // ── MTOM direct-write — bypass Spring's MediaType parser ──────────────
         // Spring's MediaType.parseMediaType() rejects unquoted type parameter
         // values containing '/' (RFC 7230 token rule). For MTOM responses the
         // type parameter value is "application/xop+xml" which contains '/'.
@@ -308,7 +401,7 @@ public class SoapForwarderService {
 
         }
 
-        // ── Step 5: non-MTOM — existing path unchanged ────────────────────
+        // ── non-MTOM — existing path unchanged ────────────────────────────────
         String responseBody = new String(responseBodyBytes, StandardCharsets.UTF_8);
         return ResponseEntity.status(status)
                 .header("Content-Type", respContentType != null
@@ -333,6 +426,18 @@ public class SoapForwarderService {
         return false;
     }
 
+    /**
+     * Returns true for any responseType that causes the MTOM strategy to
+     * write directly to the servlet output stream.
+     */
+    private boolean isMtomResponseType(String responseType) {
+        if (responseType == null || responseType.isBlank()) {
+            return false;
+        }
+        String normalized = responseType.trim().toLowerCase();
+        return normalized.equals("mtom") || normalized.equals("mtom_trubridge");
+    }
+
     private boolean isFromXdsRepository(HttpServletRequest request) {
         String uri = request.getRequestURI();
         return uri != null && uri.toLowerCase().endsWith("/xds/xdsbrepositoryws");
@@ -0,0 +1,300 @@
+package org.techbd.ingest.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.techbd.ingest.util.AppLogger;
+import org.techbd.ingest.util.TemplateLogger;
+
+import jakarta.annotation.PreDestroy;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
+
+/**
+ * Coalesces individual SQS publishes into {@code SendMessageBatch} calls.
+ *
+ * <p>
+ * Messages are buffered per queue URL and flushed when the linger window
+ * ({@code SQS_BATCH_LINGER_MS}) elapses, when 10 entries are pending, or when
+ * the next message would push the batch payload past 256 KB. Every caller gets
+ * a future completed with its own {@code messageId}, or completed exceptionally
+ * if its entry was rejected.
+ * </p>
+ *
+ * <p>
+ * Standard queues allow up to {@code SQS_BATCH_MAX_IN_FLIGHT} batches in flight
+ * per queue; further batches wait for a permit in flush order.
+ * </p>
+ *
+ * <p>
+ * FIFO ordering: entries keep their arrival order inside a batch and batches
+ * for a {@code .fifo} queue are sent one at a time, so messages sharing a
+ * {@code messageGroupId} reach SQS in the order they were published.
+ * </p>
+ *
+ * <p>
+ * Batching is opt-in via {@code SQS_BATCH_ENABLED}; when disabled every
+ * publish is a plain {@code sendMessage} call.
+ * </p>
+ */
+@Service
+public class SqsBatchPublisher {
+
+    static final int MAX_BATCH_ENTRIES = 10;
+    static final int MAX_BATCH_BYTES = 256 * 1024;
+
+    private final TemplateLogger LOG;
+    private final SqsAsyncClient sqsAsyncClient;
+    private final Map<String, QueueBuffer> buffers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicLong batchesSent = new AtomicLong();
+    private final AtomicLong messagesSent = new AtomicLong();
+    private final AtomicLong messagesFailed = new AtomicLong();
+
+    @Value("${SQS_BATCH_ENABLED:false}")
+    private boolean enabled;
+
+    @Value("${SQS_BATCH_LINGER_MS:20}")
+    private long lingerMs;
+
+    @Value("${SQS_BATCH_MAX_IN_FLIGHT:4}")
+    private int maxInFlightBatches = 4;
+
+    public SqsBatchPublisher(SqsAsyncClient sqsAsyncClient, AppLogger appLogger) {
+        this.sqsAsyncClient = sqsAsyncClient;
+        this.LOG = appLogger.getLogger(SqsBatchPublisher.class);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sqs-batch-linger");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Publishes {@code request}, batching it with other messages for the same
+     * queue when batching is enabled.
+     *
+     * @param request the message to send; queue URL, body, group and
+     *                deduplication IDs and attributes are carried over to the
+     *                batch entry
+     * @return a future completed with the SQS {@code messageId}
+     */
+    public CompletableFuture<String> publish(SendMessageRequest request) {
+        if (!enabled) {
+            return sqsAsyncClient.sendMessage(request).thenApply(SendMessageResponse::messageId);
+        }
+        return buffers.computeIfAbsent(request.queueUrl(), QueueBuffer::new).add(request);
+    }
+
+    /**
+     * Returns batch counters for diagnostics.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("lingerMs", lingerMs);
+        stats.put("maxInFlightBatches", maxInFlightBatches);
+        stats.put("batchesSent", batchesSent.get());
+        stats.put("messagesSent", messagesSent.get());
+        stats.put("messagesFailed", messagesFailed.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        buffers.values().forEach(QueueBuffer::flush);
+        CompletableFuture.allOf(buffers.values().stream()
+                .flatMap(buffer -> buffer.outstanding.stream())
+                .toArray(CompletableFuture[]::new))
+                .orTimeout(30, TimeUnit.SECONDS)
+                .exceptionally(e -> null)
+                .join();
+        scheduler.shutdownNow();
+    }
+
+    private CompletableFuture<Void> send(String queueUrl, List<PendingMessage> batch) {
+        List<SendMessageBatchRequestEntry> entries = new ArrayList<>(batch.size());
+        Map<String, PendingMessage> byId = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            PendingMessage pending = batch.get(i);
+            String id = String.valueOf(i);
+            byId.put(id, pending);
+            SendMessageRequest request = pending.request;
+            entries.add(SendMessageBatchRequestEntry.builder()
+                    .id(id)
+                    .messageBody(request.messageBody())
+                    .messageGroupId(request.messageGroupId())
+                    .messageDeduplicationId(request.messageDeduplicationId())
+                    .delaySeconds(request.delaySeconds())
+                    .messageAttributes(request.messageAttributes())
+                    .build());
+        }
+        LOG.debug("[SQS_BATCH_PUBLISHER]:: SENDING_BATCH queueUrl={} entries={}", queueUrl, entries.size());
+        CompletableFuture<SendMessageBatchResponse> response;
+        try {
+            response = sqsAsyncClient.sendMessageBatch(SendMessageBatchRequest.builder()
+                    .queueUrl(queueUrl)
+                    .entries(entries)
+                    .build());
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        return response.handle((result, error) -> {
+            batchesSent.incrementAndGet();
+            if (error != null) {
+                LOG.error("[SQS_BATCH_PUBLISHER]:: BATCH_FAILED queueUrl={} entries={}", queueUrl, batch.size(), error);
+                messagesFailed.addAndGet(batch.size());
+                batch.forEach(pending -> pending.future.completeExceptionally(error));
+                return null;
+            }
+            for (SendMessageBatchResultEntry ok : result.successful()) {
+                PendingMessage pending = byId.remove(ok.id());
+                if (pending != null) {
+                    messagesSent.incrementAndGet();
+                    pending.future.complete(ok.messageId());
+                }
+            }
+            for (BatchResultErrorEntry failed : result.failed()) {
+                PendingMessage pending = byId.remove(failed.id());
+                if (pending != null) {
+                    messagesFailed.incrementAndGet();
+                    LOG.warn("[SQS_BATCH_PUBLISHER]:: ENTRY_FAILED queueUrl={} code={} message={}", queueUrl,
+                            failed.code(), failed.message());
+                    pending.future.completeExceptionally(new RuntimeException(
+                            "SQS batch entry rejected: " + failed.code() + " - " + failed.message()));
+                }
+            }
+            // Anything SQS did not report on is treated as failed rather than left hanging.
+            byId.values().forEach(pending -> {
+                messagesFailed.incrementAndGet();
+                pending.future.completeExceptionally(
+                        new IllegalStateException("SQS batch response did not include entry"));
+            });
+            return null;
+        });
+    }
+
+    private record PendingMessage(SendMessageRequest request, CompletableFuture<String> future) {
+    }
+
+    private record Batch(List<PendingMessage> messages, CompletableFuture<Void> done) {
+    }
+
+    /**
+     * Pending entries for one queue URL. For a FIFO queue {@code tail} chains
+     * the batches so that a batch is only sent after the previous one
+     * completed; for a standard queue {@code permits} bounds the batches in
+     * flight and {@code waiting} holds the rest in flush order.
+     */
+    private final class QueueBuffer {
+        private final String queueUrl;
+        private final boolean fifo;
+        private final Semaphore permits;
+        private final Deque<Batch> waiting = new ArrayDeque<>();
+        /** Batches flushed but not yet completed, awaited on shutdown. */
+        private final Set<CompletableFuture<Void>> outstanding = ConcurrentHashMap.newKeySet();
+        private List<PendingMessage> pending = new ArrayList<>();
+        private int pendingBytes;
+        private ScheduledFuture<?> lingerTask;
+        private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+
+        QueueBuffer(String queueUrl) {
+            this.queueUrl = queueUrl;
+            this.fifo = queueUrl.endsWith(".fifo");
+            this.permits = new Semaphore(Math.max(1, maxInFlightBatches));
+        }
+
+        synchronized CompletableFuture<String> add(SendMessageRequest request) {
+            int size = request.messageBody() != null
+                    ? request.messageBody().getBytes(StandardCharsets.UTF_8).length
+                    : 0;
+            if (!pending.isEmpty() && pendingBytes + size > MAX_BATCH_BYTES) {
+                flush();
+            }
+            PendingMessage message = new PendingMessage(request, new CompletableFuture<>());
+            pending.add(message);
+            pendingBytes += size;
+            if (pending.size() >= MAX_BATCH_ENTRIES || pendingBytes >= MAX_BATCH_BYTES) {
+                flush();
+            } else if (lingerTask == null) {
+                lingerTask = scheduler.schedule(this::flush, lingerMs, TimeUnit.MILLISECONDS);
+            }
+            return message.future;
+        }
+
+        synchronized void flush() {
+            if (lingerTask != null) {
+                lingerTask.cancel(false);
+                lingerTask = null;
+            }
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<PendingMessage> batch = pending;
+            pending = new ArrayList<>();
+            pendingBytes = 0;
+            CompletableFuture<Void> done;
+            if (fifo) {
+                done = tail = tail.thenCompose(ignored -> send(queueUrl, batch));
+            } else {
+                done = new CompletableFuture<>();
+                waiting.add(new Batch(batch, done));
+            }
+            outstanding.add(done);
+            done.whenComplete((ignored, error) -> outstanding.remove(done));
+            if (!fifo) {
+                dispatch();
+            }
+        }
+
+        /**
+         * Sends waiting batches while permits are available. Called after a
+         * batch is queued and after one completes, so a released permit always
+         * picks up the next waiting batch.
+         */
+        private void dispatch() {
+            while (true) {
+                Batch next;
+                synchronized (this) {
+                    if (waiting.isEmpty() || !permits.tryAcquire()) {
+                        return;
+                    }
+                    next = waiting.poll();
+                }
+                send(queueUrl, next.messages()).whenComplete((ignored, error) -> {
+                    permits.release();
+                    next.done().complete(null);
+                    dispatch();
+                });
+            }
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package org.techbd.ingest.service.portconfig;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.springframework.stereotype.Service;
 import org.techbd.ingest.config.PortConfig;
@@ -14,14 +18,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * Service responsible for resolving the appropriate {@link PortEntry} for a
- * given {@link RequestContext}. It iterates through a list of {@link PortConfigResolver}s
- * to find a matching configuration based on source ID, message type, or port.
+ * given {@link RequestContext}, based on source ID, message type, or port.
  *
  * <p>Resolution logic:
  * <ul>
- *   <li>If a resolver matches {@code sourceId} and {@code msgType}, that entry is used.</li>
- *   <li>If no exact match, a resolver matching only the port is returned.</li>
- *   <li>If no resolvers match, an empty {@link Optional} is returned.</li>
+ *   <li>If an entry matches {@code sourceId} and {@code msgType}, that entry is used.</li>
+ *   <li>If no exact match, an entry matching only the port is returned.</li>
+ *   <li>If nothing matches, an {@link IllegalArgumentException} is thrown.</li>
  * </ul>
  *
  * <p>Example PortEntry list:
@@ -39,24 +42,46 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  *       LOG.info("No matching port entry found, using defaults.");
  *   }
  * </pre>
+ *
+ * <p>Lookups go through an immutable index built once from each
+ * configuration list, so readers never lock. Entries are keyed by
+ * {@code (protocol, port, sourceId, msgType)} with {@code null} standing for
+ * "any": route entries under {@code (protocol, null, sourceId, msgType)} and
+ * every entry under {@code (protocol, port, null, null)}, where a blank
+ * protocol is stored as {@code null}. A lookup probes the route keys before the
+ * port keys and the request's protocol before the blank one, the same
+ * precedence as {@link RouteParamResolver} followed by {@link PortResolver};
+ * the first entry in the list wins each key. A reload publishes a new list
+ * instance, for which a new index is built and swapped in atomically. The
+ * resolved entry is also memoized on the {@link RequestContext} so later steps
+ * handling the same request do not resolve again.
  */
 @Service
 public class PortResolverService {
 
-    private final List<PortConfigResolver> resolvers;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
     private final TemplateLogger LOG;
     private final PortConfig portConfig;
+    private final AtomicReference<PortIndex> index = new AtomicReference<>(new PortIndex(List.of(), Map.of()));
+
+    private record LookupKey(String protocol, String port, String sourceId, String msgType) {
+    }
+
+    /** An indexed entry with the rule that matched it and its JSON for logging. */
+    private record Resolution(PortEntry entry, String rule, String json) {
+    }
+
+    private record PortIndex(List<PortEntry> source, Map<LookupKey, Resolution> resolutions) {
+    }
 
     /**
-     * Constructs the service with a list of resolvers and port configuration.
+     * Constructs the service with the port configuration.
      *
-     * @param resolvers  list of resolvers to apply in order
      * @param portConfig the complete port configuration
      * @param appLogger  the application logger
      */
-    public PortResolverService(List<PortConfigResolver> resolvers, PortConfig portConfig,
-            AppLogger appLogger) {
-        this.resolvers = resolvers;
+    public PortResolverService(PortConfig portConfig, AppLogger appLogger) {
         this.portConfig = portConfig;
         this.LOG = appLogger.getLogger(PortResolverService.class);
     }
@@ -65,8 +90,9 @@ public class PortResolverService {
      * Attempts to resolve a {@link PortEntry} for the given {@link RequestContext}.
      *
      * <p>
-     * Iterates through the list of {@link PortConfigResolver}s in order. Returns
-     * the first {@link PortEntry} that matches the context criteria.
+     * Matches on {@code sourceId} and {@code msgType} first and on the
+     * destination port otherwise, preferring entries for {@code protocol} over
+     * entries with a blank protocol.
      *
      * @param context the request context containing sourceId, msgType, and other
      *                info
@@ -77,22 +103,21 @@ public class PortResolverService {
         LOG.info("[PORT_RESOLVER] Resolving PortEntry for context: sourceId={}, msgType={}, port={}",
                 context.getSourceId(), context.getMsgType(), context.getDestinationPort());
 
-        for (PortConfigResolver resolver : resolvers) {
-            Optional<PortEntry> result = resolver.resolve(portConfig.getPortConfigurationList(), context , protocol);
-
-            if (result.isPresent()) {
-                PortEntry entry = result.get();
-                try {
-                    ObjectMapper mapper = new ObjectMapper();
-                    String json = mapper.writeValueAsString(entry);
-                    LOG.info("[PORT_CONFIG_MATCH] Found PortEntry using resolver {}: port={}, sourceId={}, msgType={} interactionId={} {}",
-                            resolver.getClass().getSimpleName(), context.getDestinationPort(), entry.sourceId, entry.msgType, context.getInteractionId(), json);
-                } catch (Exception e) {
-                    LOG.error("[PORT_CONFIG_ERROR] Failed to serialize PortEntry for port={} interactionId={}",
-                            context.getDestinationPort(), context.getInteractionId(), e);
-                }
-                return result;
-            }
+        LookupKey key = lookupKey(context, protocol);
+        String memoKey = key.toString();
+        if (context.getPortEntry() != null && memoKey.equals(context.getPortEntryKey())) {
+            LOG.debug("[PORT_RESOLVER] Using PortEntry memoized on context for port={} interactionId={}",
+                    context.getDestinationPort(), context.getInteractionId());
+            return Optional.of(context.getPortEntry());
+        }
+
+        Resolution resolution = lookup(indexFor(portConfig.getPortConfigurationList()), context, protocol);
+        if (resolution != null) {
+            PortEntry entry = resolution.entry();
+            LOG.info("[PORT_CONFIG_MATCH] Found PortEntry using {} match: port={}, sourceId={}, msgType={} interactionId={} {}",
+                    resolution.rule(), context.getDestinationPort(), entry.sourceId, entry.msgType, context.getInteractionId(), resolution.json());
+            memoize(context, protocol, entry);
+            return Optional.of(entry);
         }
 
         LOG.warn("[PORT_CONFIG_ERROR] No configuration found for port {} sourceId={} msgType={} interactionId={}",
@@ -100,4 +125,91 @@ public class PortResolverService {
         throw new IllegalArgumentException("No configuration found for the given port = "+context.getDestinationPort()+" sourceId ="+context.getSourceId()+" msgType ="+context.getMsgType()+" interactionId ="+context.getInteractionId());
     }
 
+    /**
+     * Records {@code entry} as the resolution of {@code context} for
+     * {@code protocol}, so a later {@link #resolve} call on the same context
+     * returns it directly.
+     */
+    public void memoize(RequestContext context, String protocol, PortEntry entry) {
+        context.setPortEntry(entry);
+        context.setPortEntryKey(lookupKey(context, protocol).toString());
+    }
+
+    private static LookupKey lookupKey(RequestContext context, String protocol) {
+        return new LookupKey(protocol, context.getDestinationPort(), context.getSourceId(), context.getMsgType());
+    }
+
+    /**
+     * Returns the index for {@code entries}, building it and swapping it in
+     * when the configuration list instance has changed.
+     */
+    private PortIndex indexFor(List<PortEntry> entries) {
+        PortIndex current = index.get();
+        if (current.source() == entries) {
+            return current;
+        }
+        PortIndex fresh = buildIndex(entries);
+        index.compareAndSet(current, fresh);
+        return fresh;
+    }
+
+    private PortIndex buildIndex(List<PortEntry> entries) {
+        Map<LookupKey, Resolution> resolutions = new HashMap<>();
+        for (PortEntry entry : entries) {
+            if (entry == null) {
+                continue;
+            }
+            String protocol = normalize(entry.getProtocol());
+            String json = toJson(entry);
+            if (entry.getSourceId() != null && entry.getMsgType() != null) {
+                resolutions.putIfAbsent(
+                        new LookupKey(protocol, null, normalize(entry.getSourceId()), normalize(entry.getMsgType())),
+                        new Resolution(entry, "route", json));
+            }
+            resolutions.putIfAbsent(new LookupKey(protocol, String.valueOf(entry.getPort()), null, null),
+                    new Resolution(entry, "port", json));
+        }
+        LOG.info("[PORT_RESOLVER] Built port index with {} keys from {} entries", resolutions.size(), entries.size());
+        return new PortIndex(entries, Map.copyOf(resolutions));
+    }
+
+    /** Probes the index in resolution order; {@code null} when nothing matches. */
+    private static Resolution lookup(PortIndex index, RequestContext context, String protocol) {
+        Map<LookupKey, Resolution> resolutions = index.resolutions();
+        String requested = normalize(protocol);
+        String sourceId = normalize(context.getSourceId());
+        String msgType = normalize(context.getMsgType());
+        if (sourceId != null && msgType != null) {
+            Resolution route = firstOf(resolutions, new LookupKey(requested, null, sourceId, msgType),
+                    new LookupKey(null, null, sourceId, msgType));
+            if (route != null) {
+                return route;
+            }
+        }
+        String port = context.getDestinationPort();
+        if (port == null) {
+            return null;
+        }
+        return firstOf(resolutions, new LookupKey(requested, port, null, null), new LookupKey(null, port, null, null));
+    }
+
+    private static Resolution firstOf(Map<LookupKey, Resolution> resolutions, LookupKey exact, LookupKey blank) {
+        Resolution resolution = exact.protocol() == null ? null : resolutions.get(exact);
+        return resolution != null ? resolution : resolutions.get(blank);
+    }
+
+    /** Lower-cases for case-insensitive matching; blank becomes {@code null}. */
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private String toJson(PortEntry entry) {
+        try {
+            return MAPPER.writeValueAsString(entry);
+        } catch (Exception e) {
+            LOG.error("[PORT_CONFIG_ERROR] Failed to serialize PortEntry for port={}", entry.getPort(), e);
+            return null;
+        }
+    }
+
 }
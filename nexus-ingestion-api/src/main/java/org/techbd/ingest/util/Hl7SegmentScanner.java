@@ -0,0 +1,131 @@
+package org.techbd.ingest.util;
+
+/**
+ * Allocation-light scanner for pulling individual fields out of a pipe
+ * delimited HL7 v2 message.
+ * <p>
+ * Used on the MLLP path for MSH and ZNT lookups where only a handful of fields
+ * are needed. Instead of splitting the whole message into lines and every line
+ * into fields, the scanner walks the characters once and only materialises the
+ * requested field values.
+ * </p>
+ * <p>
+ * Semantics match the previous {@code split("\r|\n")} / {@code split("\\|", -1)}
+ * logic: a segment is a line whose whitespace-trimmed text starts with
+ * {@code "<ID>|"}, field {@code 0} is the segment name and field indexes
+ * follow the split positions (so for MSH, field {@code 1} is the encoding
+ * characters).
+ * </p>
+ */
+public final class Hl7SegmentScanner {
+
+    private Hl7SegmentScanner() {
+    }
+
+    /**
+     * Bounds of a single segment line, already trimmed of surrounding
+     * whitespace.
+     */
+    public record Segment(CharSequence message, int start, int end) {
+
+        /**
+         * Returns field {@code index} of this segment, or {@code null} if the
+         * segment has fewer fields.
+         */
+        public String field(int index) {
+            int fieldStart = start;
+            for (int i = 0; i < index; i++) {
+                int sep = indexOf(message, '|', fieldStart, end);
+                if (sep < 0) {
+                    return null;
+                }
+                fieldStart = sep + 1;
+            }
+            int fieldEnd = indexOf(message, '|', fieldStart, end);
+            return message.subSequence(fieldStart, fieldEnd < 0 ? end : fieldEnd).toString();
+        }
+
+        /**
+         * Returns the first {@code ^} component of field {@code index}, or
+         * {@code null} if the field is absent or empty.
+         */
+        public String firstComponent(int index) {
+            String value = field(index);
+            if (value == null || value.isEmpty()) {
+                return null;
+            }
+            int caret = value.indexOf('^');
+            return caret < 0 ? value : value.substring(0, caret);
+        }
+
+        /**
+         * Number of fields in this segment, including the segment name.
+         */
+        public int fieldCount() {
+            int count = 1;
+            for (int i = start; i < end; i++) {
+                if (message.charAt(i) == '|') {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Finds the first segment with the given three-character ID.
+     *
+     * @param message   the HL7 message; {@code \r}, {@code \n} or both may be
+     *                  used as segment terminators
+     * @param segmentId segment ID such as {@code "MSH"} or {@code "ZNT"}
+     * @return the segment, or {@code null} if none is present
+     */
+    public static Segment findSegment(CharSequence message, String segmentId) {
+        if (message == null) {
+            return null;
+        }
+        int length = message.length();
+        int lineStart = 0;
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && message.charAt(lineEnd) != '\r' && message.charAt(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int start = lineStart;
+            while (start < lineEnd && message.charAt(start) <= ' ') {
+                start++;
+            }
+            if (startsWithSegment(message, start, lineEnd, segmentId)) {
+                int end = lineEnd;
+                while (end > start && message.charAt(end - 1) <= ' ') {
+                    end--;
+                }
+                return new Segment(message, start, end);
+            }
+            lineStart = lineEnd + 1;
+        }
+        return null;
+    }
+
+    private static boolean startsWithSegment(CharSequence message, int start, int end, String segmentId) {
+        int idLength = segmentId.length();
+        if (end - start < idLength + 1 || message.charAt(start + idLength) != '|') {
+            return false;
+        }
+        for (int i = 0; i < idLength; i++) {
+            if (message.charAt(start + i) != segmentId.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(CharSequence message, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (message.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
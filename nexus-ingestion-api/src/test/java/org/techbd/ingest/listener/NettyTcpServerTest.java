@@ -12,6 +12,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
@@ -28,6 +29,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockedConstruction;
 import org.mockito.MockedStatic;
@@ -39,6 +41,7 @@ import org.techbd.ingest.config.PortConfig;
 import org.techbd.ingest.exceptions.ErrorTraceIdGenerator;
 import org.techbd.ingest.feature.FeatureEnum;
 import org.techbd.ingest.model.RequestContext;
+import org.techbd.ingest.service.Hl7ParsingService;
 import org.techbd.ingest.service.MessageProcessorService;
 import org.techbd.ingest.service.portconfig.PortResolverService;
 import org.techbd.ingest.util.AppLogger;
@@ -69,7 +72,9 @@ import io.netty.util.concurrent.EventExecutor;
 
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -108,6 +113,8 @@ public class NettyTcpServerTest {
     @Mock
     private PortResolverService portResolverService;
     @Mock
+    private TcpProcessingExecutor tcpProcessingExecutor;
+    @Mock
     private ChannelHandlerContext ctx;
     @Mock
     private Channel channel;
@@ -228,7 +235,9 @@ public class NettyTcpServerTest {
                 messageProcessorService,
                 appConfig,
                 appLogger,
-                portResolverService);
+                portResolverService,
+                tcpProcessingExecutor,
+                new Hl7ParsingService());
 
     }
 
@@ -272,6 +281,22 @@ public class NettyTcpServerTest {
         ctor.setAccessible(true);
         return (ByteToMessageDecoder) ctor.newInstance(server, maxFrame);
     }
+
+    private ChannelHandler createInboundMessageHandler() throws Exception {
+        Class<?> handlerClass = null;
+        for (Class<?> c : NettyTcpServer.class.getDeclaredClasses()) {
+            if (c.getSimpleName().equals("InboundMessageHandler")) {
+                handlerClass = c;
+                break;
+            }
+        }
+        assertNotNull(handlerClass, "InboundMessageHandler inner class must exist");
+
+        Constructor<?> ctor = handlerClass.getDeclaredConstructor(NettyTcpServer.class);
+        ctor.setAccessible(true);
+        return (ChannelHandler) ctor.newInstance(server);
+    }
+
     // ---------------------------------------------------------
     // DELIMITER TESTS
     // ---------------------------------------------------------
@@ -1311,13 +1336,6 @@ public class NettyTcpServerTest {
     @DisplayName("1. Message size exceeded → TCP NACK sent")
     void whenMessageSizeExceeded_tcp_shouldSendTcpNack() throws Exception {
 
-        AttributeKey<Boolean> MESSAGE_SIZE_EXCEEDED_KEY = getAttrKey("MESSAGE_SIZE_EXCEEDED_KEY");
-
-        @SuppressWarnings("unchecked")
-        Attribute<Boolean> attr = mock(Attribute.class);
-        when(channel.attr(eq(MESSAGE_SIZE_EXCEEDED_KEY))).thenReturn(attr);
-        when(attr.get()).thenReturn(true);
-
         when(portResolverService.resolve(any(), any())).thenReturn(Optional.empty());
 
         try (MockedStatic<ErrorTraceIdGenerator> etg = mockStatic(ErrorTraceIdGenerator.class);
@@ -1325,7 +1343,7 @@ public class NettyTcpServerTest {
 
             etg.when(ErrorTraceIdGenerator::generateErrorTraceId).thenReturn("ERR-1");
 
-            invokeHandleMessage(RAW_MESSAGE, Optional.empty());
+            invokeHandleMessage(RAW_MESSAGE, true);
 
             verify(ctx).writeAndFlush(any()); // TCP NACK
         }
@@ -1335,13 +1353,6 @@ public class NettyTcpServerTest {
     @DisplayName("2. Message size exceeded → HL7 NACK sent for MLLP port")
     void whenMessageSizeExceeded_mllp_shouldSendHl7Nack() throws Exception {
 
-        AttributeKey<Boolean> MESSAGE_SIZE_EXCEEDED_KEY = getAttrKey("MESSAGE_SIZE_EXCEEDED_KEY");
-
-        @SuppressWarnings("unchecked")
-        Attribute<Boolean> attr = mock(Attribute.class);
-        when(channel.attr(eq(MESSAGE_SIZE_EXCEEDED_KEY))).thenReturn(attr);
-        when(attr.get()).thenReturn(true);
-
         PortConfig.PortEntry portEntry = new PortConfig.PortEntry();
         portEntry.responseType = "mllp";
 
@@ -1354,7 +1365,7 @@ public class NettyTcpServerTest {
 
             featureEnum.when(() -> FeatureEnum.isEnabled(any())).thenReturn(false);
             etg.when(ErrorTraceIdGenerator::generateErrorTraceId).thenReturn("ERR-2");
-            invokeHandleMessage(RAW_MESSAGE, Optional.empty());
+            invokeHandleMessage(RAW_MESSAGE, true);
             verify(ctx).writeAndFlush(any());
         }
     }
@@ -1469,6 +1480,76 @@ public class NettyTcpServerTest {
         verify(attr).set(30);
     }
 
+    @Test
+    @DisplayName("8. Pipelined frames on a keep-alive channel → each processed under its own interactionId")
+    void whenFramesPipelined_eachMessageKeepsItsOwnState() throws Exception {
+        // Tasks are held until both frames have been handed off, then really run —
+        // the order a busy worker pool produces for pipelined frames.
+        List<Runnable> handedOff = new ArrayList<>();
+        doAnswer(inv -> handedOff.add(inv.getArgument(2)))
+                .when(tcpProcessingExecutor).submit(any(), any(), any());
+
+        PortConfig.PortEntry portEntry = new PortConfig.PortEntry();
+        portEntry.keepAliveTimeout = 30;
+        when(portResolverService.resolve(any(), any())).thenReturn(Optional.of(portEntry));
+
+        ReflectionTestUtils.setField(server, "tcpStartDelimiter", TCP_START);
+        ReflectionTestUtils.setField(server, "tcpEndDelimiter1", TCP_END_1);
+        ReflectionTestUtils.setField(server, "tcpEndDelimiter2", TCP_END_2);
+
+        EmbeddedChannel ch = new EmbeddedChannel(createDecoder(MAX_FRAME), createInboundMessageHandler());
+        ch.attr(SESSION_ID_KEY).set(SESSION_ID);
+        ch.attr(AttributeKey.<AtomicInteger>valueOf("SESSION_MESSAGE_COUNT")).set(new AtomicInteger(0));
+        ch.attr(AttributeKey.<Long>valueOf("MESSAGE_START_TIME")).set(System.currentTimeMillis());
+        ch.attr(FRAGMENT_COUNT_KEY).set(new AtomicInteger(0));
+        ch.attr(TOTAL_BYTES_KEY).set(new AtomicLong(0));
+        ch.attr(SIZE_EXCEEDED_KEY).set(false);
+        ch.attr(NO_DELIMITER_KEY).set(false);
+
+        UUID thirdInteractionId;
+        try (MockedStatic<LogUtil> logUtil = mockStatic(LogUtil.class);
+                MockedStatic<FeatureEnum> featureEnum = mockStatic(FeatureEnum.class)) {
+            featureEnum.when(() -> FeatureEnum.isEnabled(any())).thenReturn(false);
+
+            // Two complete frames in one read, then the first half of a third
+            ch.writeInbound(Unpooled.copiedBuffer(tcpFrame("FIRST") + tcpFrame("SECOND"), StandardCharsets.UTF_8));
+            ch.writeInbound(Unpooled.copiedBuffer((char) TCP_START + "THI", StandardCharsets.UTF_8));
+            assertThat(handedOff).hasSize(2);
+            thirdInteractionId = ch.attr(INTERACTION_KEY).get();
+            assertThat(ch.attr(FRAGMENT_COUNT_KEY).get().get()).isEqualTo(1);
+
+            // The first two messages are processed and acknowledged while the third is still arriving
+            handedOff.forEach(Runnable::run);
+            assertThat(ch.attr(INTERACTION_KEY).get()).isEqualTo(thirdInteractionId);
+            assertThat(ch.attr(FRAGMENT_COUNT_KEY).get().get()).isEqualTo(1);
+
+            ch.writeInbound(Unpooled.copiedBuffer("RD" + (char) TCP_END_1 + (char) TCP_END_2, StandardCharsets.UTF_8));
+            assertThat(handedOff).hasSize(3);
+            handedOff.get(2).run();
+        }
+
+        ArgumentCaptor<RequestContext> contexts = ArgumentCaptor.forClass(RequestContext.class);
+        ArgumentCaptor<String> messages = ArgumentCaptor.forClass(String.class);
+        verify(messageProcessorService, times(3)).processMessage(contexts.capture(), messages.capture(), anyString());
+        assertThat(messages.getAllValues())
+                .containsExactly(tcpFrame("FIRST").trim(), tcpFrame("SECOND").trim(), tcpFrame("THIRD").trim());
+        List<String> interactionIds = contexts.getAllValues().stream().map(RequestContext::getInteractionId).toList();
+        assertThat(interactionIds).doesNotHaveDuplicates();
+        assertThat(interactionIds.get(2)).isEqualTo(thirdInteractionId.toString());
+
+        // Each ACK carries the interactionId of the message it acknowledges
+        for (String interactionId : interactionIds) {
+            ByteBuf ack = ch.readOutbound();
+            assertThat(ack.toString(StandardCharsets.UTF_8)).contains(interactionId);
+            ack.release();
+        }
+        ch.finishAndReleaseAll();
+    }
+
+    private static String tcpFrame(String body) {
+        return (char) TCP_START + body + (char) TCP_END_1 + (char) TCP_END_2;
+    }
+
     @SuppressWarnings("unchecked")
     private <T> AttributeKey<T> getAttrKey(String fieldName) throws Exception {
         Field field = NettyTcpServer.class.getDeclaredField(fieldName);
@@ -2079,17 +2160,20 @@ public class NettyTcpServerTest {
 
     private void invokeHandleMessage(String rawMessage,
             Optional<PortConfig.PortEntry> portEntryOpt) throws Exception {
+        invokeHandleMessage(rawMessage, false);
+    }
+
+    private void invokeHandleMessage(String rawMessage, boolean sizeExceeded) throws Exception {
 
         Method method = NettyTcpServer.class.getDeclaredMethod(
                 "handleMessage",
                 ChannelHandlerContext.class,
-                String.class,
-                String.class,
-                UUID.class);
+                NettyTcpServer.InboundMessage.class);
 
         method.setAccessible(true);
 
-        method.invoke(server, ctx, rawMessage, SESSION_ID, INTERACTION_ID);
+        method.invoke(server, ctx, new NettyTcpServer.InboundMessage(rawMessage, SESSION_ID, INTERACTION_ID,
+                System.currentTimeMillis(), 1, rawMessage.length(), sizeExceeded));
     }
 
     private void invokeHandleProxyHeader(HAProxyMessage proxyMsg) throws Exception {
@@ -2103,6 +2187,57 @@ public class NettyTcpServerTest {
         method.invoke(server, ctx, proxyMsg, SESSION_ID, INTERACTION_ID);
     }
 
+    @Test
+    @DisplayName("MLLP: 5 MB message in 1 KB fragments → single frame, scan offset carried across fragments")
+    void decode_largeFragmentedMllp_shouldEmitSingleFrame() throws Throwable {
+        int bodySize = 5 * 1024 * 1024;
+        EmbeddedChannel ch = new EmbeddedChannel(createDecoder(bodySize * 2));
+        seedChannelAttributes(ch);
+        ByteToMessageDecoder decoder = (ByteToMessageDecoder) ch.pipeline().first();
+
+        byte[] message = new byte[bodySize + 3];
+        java.util.Arrays.fill(message, (byte) 'A');
+        message[0] = MLLP_START;
+        message[message.length - 2] = MLLP_END_1;
+        message[message.length - 1] = MLLP_END_2;
+
+        int fragment = 1024;
+        for (int offset = 0; offset < message.length - fragment; offset += fragment) {
+            ch.writeInbound(Unpooled.wrappedBuffer(message, offset, fragment));
+        }
+        assertNull(ch.readInbound(), "No frame before the end markers arrive");
+        int scanned = (int) ReflectionTestUtils.getField(decoder, "scannedBytes");
+        assertTrue(scanned > bodySize - 2 * fragment, "Scan offset must advance with each fragment");
+
+        int written = (message.length - 1) / fragment * fragment;
+        ch.writeInbound(Unpooled.wrappedBuffer(message, written, message.length - written));
+
+        ByteBuf frame = ch.readInbound();
+        assertNotNull(frame);
+        assertEquals(message.length, frame.readableBytes());
+        assertEquals(0, (int) ReflectionTestUtils.getField(decoder, "scannedBytes"));
+        frame.release();
+        ch.finishAndReleaseAll();
+    }
+
+    @Test
+    @DisplayName("MLLP: end markers split across fragments → frame emitted once second marker arrives")
+    void decode_mllpEndMarkersSplitAcrossFragments_shouldEmitFrame() throws Throwable {
+        EmbeddedChannel ch = new EmbeddedChannel(createDecoder(1024));
+        seedChannelAttributes(ch);
+
+        byte[] first = buildMllpStart("MSH|^~\\&|SPLIT\r" + MLLP_END_1);
+        ch.writeInbound(Unpooled.wrappedBuffer(first));
+        assertNull(ch.readInbound());
+
+        ch.writeInbound(Unpooled.wrappedBuffer(new byte[] { (byte) MLLP_END_2 }));
+
+        ByteBuf frame = ch.readInbound();
+        assertNotNull(frame);
+        assertEquals(first.length + 1, frame.readableBytes());
+        frame.release();
+    }
+
     private byte[] buildMllpStart(String content) {
         byte[] contentBytes = content.getBytes(StandardCharsets.UTF_8);
         byte[] frame = new byte[contentBytes.length + 1];
@@ -0,0 +1,184 @@
+package org.techbd.ingest.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.techbd.ingest.config.PortConfig;
+import org.techbd.ingest.util.AppLogger;
+import org.techbd.ingest.util.TemplateLogger;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+
+/**
+ * Unit tests for {@link TcpProcessingExecutor}.
+ */
+@DisplayName("TcpProcessingExecutor Unit Tests")
+class TcpProcessingExecutorTest {
+
+    private PortConfig portConfig;
+    private TcpProcessingExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        portConfig = mock(PortConfig.class);
+        AppLogger appLogger = mock(AppLogger.class);
+        when(appLogger.getLogger(TcpProcessingExecutor.class)).thenReturn(mock(TemplateLogger.class));
+        when(portConfig.findEntryForPort(anyInt())).thenReturn(Optional.empty());
+        executor = new TcpProcessingExecutor(portConfig, appLogger);
+        ReflectionTestUtils.setField(executor, "defaultThreads", 1);
+        ReflectionTestUtils.setField(executor, "defaultQueueCapacity", 1);
+        ReflectionTestUtils.setField(executor, "defaultVirtualThreads", false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("submit runs the task on a worker thread, not the caller")
+    void submit_runsOffCallerThread() throws Exception {
+        AtomicReference<String> threadName = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        executor.submit("2575", new EmbeddedChannel(), () -> {
+            threadName.set(Thread.currentThread().getName());
+            done.countDown();
+        });
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(threadName.get()).startsWith("tcp-proc-2575-");
+    }
+
+    @Test
+    @DisplayName("threads=0 runs the task inline")
+    void submit_inlineWhenDisabled() {
+        ReflectionTestUtils.setField(executor, "defaultThreads", 0);
+        AtomicReference<String> threadName = new AtomicReference<>();
+
+        executor.submit("2575", new EmbeddedChannel(), () -> threadName.set(Thread.currentThread().getName()));
+
+        assertThat(threadName.get()).isEqualTo(Thread.currentThread().getName());
+        assertThat(executor.getStats()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("saturated lane disables autoRead and re-enables it once drained")
+    void submit_pausesAndResumesAutoRead() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(2);
+        EmbeddedChannel first = new EmbeddedChannel();
+        EmbeddedChannel second = new EmbeddedChannel();
+        Runnable blocking = () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                finished.countDown();
+            }
+        };
+
+        executor.submit("2575", first, blocking);
+        assertThat(first.config().isAutoRead()).isTrue();
+
+        executor.submit("2575", second, blocking);
+        assertThat(second.config().isAutoRead()).isFalse();
+
+        Map<String, Object> stats = executor.getStats().get("2575");
+        assertThat(stats.get("capacity")).isEqualTo(2);
+        assertThat(stats.get("pausedChannels")).isEqualTo(1);
+
+        release.countDown();
+        assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(100);
+        assertThat(second.config().isAutoRead()).isTrue();
+        assertThat(executor.getStats().get("2575").get("completed")).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("messages of one channel run one at a time in arrival order")
+    void submit_keepsPerChannelOrder() throws Exception {
+        ReflectionTestUtils.setField(executor, "defaultThreads", 4);
+        ReflectionTestUtils.setField(executor, "defaultQueueCapacity", 1000);
+        EmbeddedChannel channel = new EmbeddedChannel();
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(200);
+
+        for (int i = 0; i < 200; i++) {
+            final int message = i;
+            executor.submit("2575", channel, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                order.add(message);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(order).containsExactlyElementsOf(IntStream.range(0, 200).boxed().toList());
+        assertThat(maxRunning.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("every channel paused by a saturated lane reads again once the lane drains")
+    void submit_resumesEveryPausedChannel() throws Exception {
+        List<EmbeddedChannel> channels = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            channels.add(new EmbeddedChannel());
+        }
+        int messages = 2000;
+        CountDownLatch done = new CountDownLatch(messages);
+
+        for (int i = 0; i < messages; i++) {
+            executor.submit("2575", channels.get(i % channels.size()), done::countDown);
+        }
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        Map<String, Object> stats = executor.getStats().get("2575");
+        assertThat((Long) stats.get("pauses")).isPositive();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (channels.stream().anyMatch(channel -> !channel.config().isAutoRead())
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(channels).allSatisfy(channel -> assertThat(channel.config().isAutoRead()).isTrue());
+        assertThat(executor.getStats().get("2575").get("pausedChannels")).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("port entry overrides pool size")
+    void submit_usesPortEntryOverrides() throws Exception {
+        PortConfig.PortEntry entry = new PortConfig.PortEntry();
+        entry.port = 6000;
+        entry.processingThreads = 4;
+        entry.processingQueueCapacity = 10;
+        when(portConfig.findEntryForPort(6000)).thenReturn(Optional.of(entry));
+        CountDownLatch done = new CountDownLatch(1);
+
+        executor.submit("6000", new EmbeddedChannel(), done::countDown);
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(executor.getStats().get("6000").get("capacity")).isEqualTo(14);
+    }
+}
@@ -1,8 +1,12 @@
 package org.techbd.ingest.processor;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -10,12 +14,15 @@ import static org.mockito.Mockito.when;
 import java.time.ZonedDateTime;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.techbd.ingest.commons.MessageSourceType;
 import org.techbd.ingest.config.AppConfig;
 import org.techbd.ingest.model.RequestContext;
@@ -25,11 +32,21 @@ import org.techbd.ingest.util.TemplateLogger;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3ServiceClientConfiguration;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
 
 class S3UploadStepTest {
 
@@ -42,6 +59,9 @@ class S3UploadStepTest {
     @Mock
     private S3Client s3Client;
 
+    @Mock
+    private S3AsyncClient s3AsyncClient;
+
     @Mock
     private AppConfig appConfig;
 
@@ -100,7 +120,7 @@ class S3UploadStepTest {
         when(mockConfig.endpointOverride()).thenReturn(Optional.empty());
         when(appLogger.getLogger(S3UploadStep.class)).thenReturn(templateLogger);
         when(appConfig.getVersion()).thenReturn("1.0.0");
-        s3UploadStep = new S3UploadStep(metadataBuilderService, objectMapper, appConfig, s3Client, appLogger);
+        s3UploadStep = new S3UploadStep(metadataBuilderService, objectMapper, appConfig, s3Client, s3AsyncClient, appLogger);
     }
 
     @Test
@@ -157,4 +177,133 @@ class S3UploadStepTest {
 
         verify(s3Client, times(3)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testProcessAsyncUploadsAllObjectsInParallel() throws Exception {
+        Map<String, String> metadata = Map.of("metaKey", "metaValue");
+        Map<String, Object> metadataJson = Map.of("jsonKey", "jsonValue");
+        when(metadataBuilderService.buildS3Metadata(any())).thenReturn(metadata);
+        when(metadataBuilderService.buildMetadataJson(any())).thenReturn(metadataJson);
+        when(objectMapper.writeValueAsString(metadataJson)).thenReturn("{\"jsonKey\":\"jsonValue\"}");
+        CompletableFuture<PutObjectResponse> pending = new CompletableFuture<>();
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(pending);
+
+        CompletableFuture<Void> result = s3UploadStep.processAsync(context, "content", "ack");
+
+        // all three uploads are issued before any of them completes
+        verify(s3AsyncClient, times(3)).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
+        assertFalse(result.isDone());
+        pending.complete(PutObjectResponse.builder().eTag("123etag").build());
+        result.join();
+        verify(s3Client, times(0)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    void testProcessAsyncPropagatesUploadFailure() throws Exception {
+        when(metadataBuilderService.buildS3Metadata(any())).thenReturn(Map.of());
+        when(metadataBuilderService.buildMetadataJson(any())).thenReturn(Map.of());
+        when(objectMapper.writeValueAsString(any())).thenReturn("{}");
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("S3 unavailable")));
+
+        CompletableFuture<Void> result = s3UploadStep.processAsync(context, "content", null);
+
+        CompletionException thrown = assertThrows(CompletionException.class, result::join);
+        assertTrue(thrown.getCause().getMessage().contains("S3 unavailable"));
+    }
+
+    @Test
+    void testLargeMultipartFileIsStreamedAsMultipartUpload() throws Exception {
+        ReflectionTestUtils.setField(s3UploadStep, "multipartThresholdBytes", 1024L);
+        when(metadataBuilderService.buildS3Metadata(any())).thenReturn(Map.of("metaKey", "metaValue"));
+        when(metadataBuilderService.buildMetadataJson(any())).thenReturn(Map.of());
+        when(objectMapper.writeValueAsString(any())).thenReturn("{}");
+        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+                .thenReturn(PutObjectResponse.builder().eTag("meta-etag").build());
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenReturn(UploadPartResponse.builder().eTag("part-etag").build());
+        when(s3Client.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompleteMultipartUploadResponse.builder().eTag("multi-etag").build());
+        MockMultipartFile file = new MockMultipartFile("file", "large.zip", "application/zip", new byte[4096]);
+
+        s3UploadStep.process(context, file);
+
+        verify(s3Client, times(1)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(s3Client, times(1)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+        verify(s3Client, never()).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        assertEquals("Uploaded to S3: objectKey (ETag: multi-etag)", context.getS3Response());
+    }
+
+    @Test
+    void testMultipartUploadIsAbortedOnPartFailure() throws Exception {
+        ReflectionTestUtils.setField(s3UploadStep, "multipartThresholdBytes", 1024L);
+        when(metadataBuilderService.buildS3Metadata(any())).thenReturn(Map.of());
+        when(metadataBuilderService.buildMetadataJson(any())).thenReturn(Map.of());
+        when(objectMapper.writeValueAsString(any())).thenReturn("{}");
+        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+                .thenReturn(PutObjectResponse.builder().eTag("meta-etag").build());
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenThrow(new IllegalStateException("part failed"));
+
+        assertThrows(RuntimeException.class, () -> s3UploadStep.process(context, "x".repeat(2048), null));
+
+        verify(s3Client, times(1)).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    void testProcessAsyncStreamsLargeContentAsMultipartUpload() throws Exception {
+        ReflectionTestUtils.setField(s3UploadStep, "multipartThresholdBytes", 1024L);
+        ReflectionTestUtils.setField(s3UploadStep, "multipartPartSizeBytes", 0);
+        when(metadataBuilderService.buildS3Metadata(any())).thenReturn(Map.of());
+        when(metadataBuilderService.buildMetadataJson(any())).thenReturn(Map.of());
+        when(objectMapper.writeValueAsString(any())).thenReturn("{}");
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.completedFuture(PutObjectResponse.builder().eTag("meta-etag").build()));
+        when(s3AsyncClient.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(
+                        CreateMultipartUploadResponse.builder().uploadId("upload-1").build()));
+        when(s3AsyncClient.uploadPart(any(UploadPartRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.completedFuture(UploadPartResponse.builder().eTag("part-etag").build()));
+        when(s3AsyncClient.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(
+                        CompleteMultipartUploadResponse.builder().eTag("multi-etag").build()));
+
+        s3UploadStep.processAsync(context, "x".repeat(S3UploadStep.MIN_PART_SIZE_BYTES + 1), null).join();
+
+        // metadata stays a single put; the content goes up in two parts
+        verify(s3AsyncClient, times(1)).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
+        verify(s3AsyncClient, times(2)).uploadPart(any(UploadPartRequest.class), any(AsyncRequestBody.class));
+        verify(s3AsyncClient, times(1)).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        verify(s3AsyncClient, never()).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+    }
+
+    @Test
+    void testProcessAsyncAbortsMultipartUploadOnPartFailure() throws Exception {
+        ReflectionTestUtils.setField(s3UploadStep, "multipartThresholdBytes", 1024L);
+        when(metadataBuilderService.buildS3Metadata(any())).thenReturn(Map.of());
+        when(metadataBuilderService.buildMetadataJson(any())).thenReturn(Map.of());
+        when(objectMapper.writeValueAsString(any())).thenReturn("{}");
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.completedFuture(PutObjectResponse.builder().eTag("meta-etag").build()));
+        when(s3AsyncClient.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(
+                        CreateMultipartUploadResponse.builder().uploadId("upload-1").build()));
+        when(s3AsyncClient.uploadPart(any(UploadPartRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("part failed")));
+        when(s3AsyncClient.abortMultipartUpload(any(AbortMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(AbortMultipartUploadResponse.builder().build()));
+
+        CompletableFuture<Void> result = s3UploadStep.processAsync(context, "x".repeat(2048), null);
+
+        CompletionException thrown = assertThrows(CompletionException.class, result::join);
+        assertTrue(thrown.getCause().getMessage().contains("part failed"));
+        verify(s3AsyncClient, times(1)).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3AsyncClient, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+}
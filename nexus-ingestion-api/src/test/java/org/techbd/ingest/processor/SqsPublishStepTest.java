@@ -9,6 +9,7 @@ import static org.mockito.Mockito.when;
 
 import java.time.ZonedDateTime;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,6 +21,7 @@ import org.techbd.ingest.config.AppConfig;
 import org.techbd.ingest.config.PortConfig;
 import org.techbd.ingest.model.RequestContext;
 import org.techbd.ingest.service.MetadataBuilderService;
+import org.techbd.ingest.service.SqsBatchPublisher;
 import org.techbd.ingest.service.messagegroup.MessageGroupService;
 import org.techbd.ingest.util.AppLogger;
 import org.techbd.ingest.util.TemplateLogger;
@@ -35,6 +37,9 @@ class SqsPublishStepTest {
     @Mock
     private SqsClient sqsClient;
 
+    @Mock
+    private SqsBatchPublisher sqsBatchPublisher;
+
     @Mock
     private ObjectMapper objectMapper;
 
@@ -96,7 +101,7 @@ class SqsPublishStepTest {
         when(appConfig.getVersion()).thenReturn("1.0.0");
     // Add PortConfig mock
     PortConfig portConfig = mock(PortConfig.class);
-    sqsPublishStep = new SqsPublishStep(sqsClient, objectMapper, metadataBuilderService, messageGroupService, appLogger);
+    sqsPublishStep = new SqsPublishStep(sqsClient, sqsBatchPublisher, objectMapper, metadataBuilderService, messageGroupService, appLogger);
     }
 
     @Test
@@ -135,4 +140,35 @@ class SqsPublishStepTest {
         assertEquals("sqs-msg-id-456", context.getMessageId());
         verify(sqsClient, times(1)).sendMessage(any(SendMessageRequest.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testProcessAsyncSetsMessageId() throws Exception {
+        Map<String, Object> mockMessage = Map.of("key", "value");
+        when(metadataBuilderService.buildSqsMessage(any())).thenReturn(mockMessage);
+        when(objectMapper.writeValueAsString(any())).thenReturn("{\"key\":\"value\"}");
+        when(sqsBatchPublisher.publish(any(SendMessageRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture("async-msg-789"));
+
+        sqsPublishStep.processAsync(context, "test-content", null).join();
+
+        assertEquals("async-msg-789", context.getMessageId());
+        verify(sqsBatchPublisher, times(1)).publish(any(SendMessageRequest.class));
+        verify(sqsClient, times(0)).sendMessage(any(SendMessageRequest.class));
+    }
+
+    @Test
+    void testProcessUsesBatchPublisherWhenEnabled() throws Exception {
+        Map<String, Object> mockMessage = Map.of("key", "value");
+        when(metadataBuilderService.buildSqsMessage(any())).thenReturn(mockMessage);
+        when(objectMapper.writeValueAsString(any())).thenReturn("{\"key\":\"value\"}");
+        when(sqsBatchPublisher.isEnabled()).thenReturn(true);
+        when(sqsBatchPublisher.publish(any(SendMessageRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture("batched-msg-321"));
+
+        sqsPublishStep.process(context, "test-content", null);
+
+        assertEquals("batched-msg-321", context.getMessageId());
+        verify(sqsBatchPublisher, times(1)).publish(any(SendMessageRequest.class));
+        verify(sqsClient, times(0)).sendMessage(any(SendMessageRequest.class));
+    }
+}
@@ -0,0 +1,141 @@
+package org.techbd.ingest.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletConfig;
+import org.techbd.ingest.util.AppLogger;
+import org.techbd.ingest.util.TemplateLogger;
+
+/**
+ * Throughput of forwarding a PIX add request to {@code /ws} in-process versus
+ * over loopback HTTP to an embedded Tomcat serving the same servlet, with 1 to
+ * 32 concurrent callers. The figures are logged rather than asserted because
+ * CI hosts vary.
+ */
+@Tag("benchmark")
+class InProcessSoapDispatchBenchmarkTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(InProcessSoapDispatchBenchmarkTest.class);
+    private static final Path ENVELOPE = Path.of(
+            "src/test/resources/org/techbd/ingest/soap-test-resources/pix-add-request_1_2.txt");
+    private static final int[] CALLERS = { 1, 4, 16, 32 };
+    private static final int REQUESTS_PER_CALLER = 200;
+    private static final int WARMUP_REQUESTS = 1_000;
+
+    @Test
+    void inProcessVersusLoopbackThroughput() throws Exception {
+        byte[] envelope = Files.readAllBytes(ENVELOPE);
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        headers.put("Content-Type", List.of("application/soap+xml; charset=utf-8"));
+
+        AppLogger appLogger = mock(AppLogger.class);
+        when(appLogger.getLogger(any())).thenReturn(mock(TemplateLogger.class));
+        InProcessSoapDispatcherTest.EchoServlet servlet = new InProcessSoapDispatcherTest.EchoServlet();
+        servlet.init(new MockServletConfig());
+        InProcessSoapDispatcher dispatcher = new InProcessSoapDispatcher(servlet, List.of(), appLogger);
+
+        WebServer tomcat = new TomcatServletWebServerFactory(0).getWebServer(context -> context
+                .addServlet("ws", new InProcessSoapDispatcherTest.EchoServlet()).addMapping("/ws"));
+        tomcat.start();
+        // Configured like the loopback client in SoapForwarderService
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(60))
+                .build();
+        try {
+            URI target = URI.create("http://localhost:" + tomcat.getPort() + "/ws");
+            Callable<byte[]> inProcess = () -> dispatcher.dispatch(
+                    new MockHttpServletRequest("POST", "/ws"), envelope, headers, target,
+                    new MockHttpServletResponse()).body();
+            Callable<byte[]> loopback = () -> {
+                HttpRequest.Builder request = HttpRequest.newBuilder()
+                        .uri(target)
+                        .timeout(Duration.ofSeconds(120))
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(envelope));
+                headers.forEach((name, values) -> values.forEach(value -> request.header(name, value)));
+                HttpResponse<byte[]> response = httpClient.send(request.build(),
+                        HttpResponse.BodyHandlers.ofByteArray());
+                assertEquals(202, response.statusCode());
+                return response.body();
+            };
+
+            for (int i = 0; i < WARMUP_REQUESTS; i++) {
+                assertArrayEquals(envelope, inProcess.call());
+                assertArrayEquals(envelope, loopback.call());
+            }
+
+            StringBuilder report = new StringBuilder(
+                    "%7s %14s %14s %8s".formatted("callers", "in-process/s", "loopback/s", "speedup"));
+            for (int callers : CALLERS) {
+                double inProcessRate = requestsPerSecond(inProcess, envelope, callers);
+                double loopbackRate = requestsPerSecond(loopback, envelope, callers);
+                report.append("%n%7d %14.0f %14.0f %7.1fx".formatted(callers, inProcessRate, loopbackRate,
+                        inProcessRate / loopbackRate));
+            }
+            LOG.info("SOAP /ws dispatch throughput:{}{}", System.lineSeparator(), report);
+        } finally {
+            tomcat.stop();
+        }
+    }
+
+    /**
+     * Runs {@link #REQUESTS_PER_CALLER} requests on each of {@code callers}
+     * threads started together and returns the completed requests per second.
+     */
+    private static double requestsPerSecond(Callable<byte[]> dispatch, byte[] envelope, int callers)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> results = new ArrayList<>();
+            for (int c = 0; c < callers; c++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < REQUESTS_PER_CALLER; i++) {
+                        assertArrayEquals(envelope, dispatch.call());
+                    }
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(5, TimeUnit.MINUTES);
+            }
+            long elapsed = System.nanoTime() - begin;
+            return (double) callers * REQUESTS_PER_CALLER * TimeUnit.SECONDS.toNanos(1) / elapsed;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
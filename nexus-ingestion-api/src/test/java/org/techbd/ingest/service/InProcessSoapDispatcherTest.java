@@ -0,0 +1,249 @@
+package org.techbd.ingest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletConfig;
+import org.techbd.ingest.util.AppLogger;
+import org.techbd.ingest.util.TemplateLogger;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class InProcessSoapDispatcherTest {
+
+    private static final URI TARGET = URI.create("http://localhost:8080/ws");
+
+    private EchoServlet servlet;
+    private AppLogger appLogger;
+
+    /**
+     * Stands in for the Spring-WS dispatcher: echoes the body back and reports
+     * what the forwarded request looked like.
+     */
+    static class EchoServlet extends HttpServlet {
+        @Override
+        protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+            byte[] body = req.getInputStream().readAllBytes();
+            resp.setStatus(202);
+            resp.setContentType("text/xml; charset=utf-8");
+            resp.setHeader("X-Echo-Uri", req.getRequestURI());
+            resp.setHeader("X-Echo-Attribute", String.valueOf(req.getAttribute("outer")));
+            resp.setHeader("X-Echo-Interaction", req.getHeader("X-TechBD-Interaction-ID"));
+            resp.getOutputStream().write(body);
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws ServletException {
+        appLogger = mock(AppLogger.class);
+        when(appLogger.getLogger(any())).thenReturn(mock(TemplateLogger.class));
+        servlet = new EchoServlet();
+        servlet.init(new MockServletConfig());
+    }
+
+    private static Map<String, List<String>> headers(String interactionId) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        headers.put("Content-Type", List.of("text/xml; charset=utf-8"));
+        headers.put("x-techbd-interaction-id", List.of(interactionId));
+        return headers;
+    }
+
+    private static MockHttpServletRequest outerRequest() {
+        MockHttpServletRequest outer = new MockHttpServletRequest("POST", "/ingest/src/pix");
+        outer.setAttribute("outer", "leaked");
+        return outer;
+    }
+
+    @Test
+    void shouldBufferResponseWithoutTouchingOuterResponse() throws Exception {
+        InProcessSoapDispatcher dispatcher = new InProcessSoapDispatcher(servlet, List.of(), appLogger);
+        MockHttpServletResponse outerResponse = new MockHttpServletResponse();
+        byte[] body = "<Envelope/>".getBytes(StandardCharsets.UTF_8);
+
+        InProcessSoapDispatcher.CapturedResponse response = dispatcher.dispatch(outerRequest(), body,
+                headers("id-1"), TARGET, outerResponse);
+
+        assertEquals(202, response.status());
+        assertEquals("text/xml; charset=utf-8", response.contentType());
+        assertEquals("<Envelope/>", new String(response.body(), StandardCharsets.UTF_8));
+        assertEquals(200, outerResponse.getStatus());
+        assertEquals(0, outerResponse.getContentAsByteArray().length);
+        assertNull(outerResponse.getHeader("X-Echo-Uri"));
+    }
+
+    @Test
+    void shouldPresentWsRequestWithIsolatedAttributes() throws Exception {
+        List<String> seen = new ArrayList<>();
+        Filter recording = (request, response, chain) -> {
+            HttpServletRequest http = (HttpServletRequest) request;
+            seen.add(http.getRequestURI() + "|" + http.getAttribute("outer") + "|"
+                    + http.getHeader("X-TECHBD-INTERACTION-ID") + "|" + http.getContentLength());
+            chain.doFilter(request, response);
+        };
+        InProcessSoapDispatcher dispatcher = new InProcessSoapDispatcher(servlet, List.of(recording), appLogger);
+
+        InProcessSoapDispatcher.CapturedResponse response = dispatcher.dispatch(outerRequest(),
+                "<a/>".getBytes(StandardCharsets.UTF_8), headers("id-2"), TARGET, new MockHttpServletResponse());
+
+        assertEquals(List.of("/ws|null|id-2|4"), seen);
+        assertEquals(202, response.status());
+    }
+
+    @Test
+    void shouldWriteDirectlyToServletResponse() throws Exception {
+        InProcessSoapDispatcher dispatcher = new InProcessSoapDispatcher(servlet, List.of(), appLogger);
+        MockHttpServletResponse outerResponse = new MockHttpServletResponse();
+
+        int status = dispatcher.dispatchDirect(outerRequest(), "<mtom/>".getBytes(StandardCharsets.UTF_8),
+                headers("id-3"), TARGET, outerResponse);
+
+        assertEquals(202, status);
+        assertEquals("<mtom/>", outerResponse.getContentAsString());
+        assertEquals("/ws", outerResponse.getHeader("X-Echo-Uri"));
+        assertEquals("null", outerResponse.getHeader("X-Echo-Attribute"));
+    }
+
+    @Test
+    void shouldKeepErrorStatusAndWriterOutputInsideCapturedResponse() throws Exception {
+        HttpServlet failing = new HttpServlet() {
+            @Override
+            protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setContentType("text/xml; charset=utf-8");
+                resp.getWriter().write("<Fault/>");
+                resp.sendError(500);
+            }
+        };
+        failing.init(new MockServletConfig());
+        InProcessSoapDispatcher dispatcher = new InProcessSoapDispatcher(failing, List.of(), appLogger);
+        MockHttpServletResponse outerResponse = new MockHttpServletResponse();
+
+        InProcessSoapDispatcher.CapturedResponse response = dispatcher.dispatch(outerRequest(),
+                "<a/>".getBytes(StandardCharsets.UTF_8), headers("id-4"), TARGET, outerResponse);
+
+        assertEquals(500, response.status());
+        assertEquals("<Fault/>", new String(response.body(), StandardCharsets.UTF_8));
+        assertEquals(200, outerResponse.getStatus());
+        assertNull(outerResponse.getContentType());
+        assertFalse(outerResponse.isCommitted());
+        assertEquals(0, outerResponse.getContentAsByteArray().length);
+    }
+
+    @Test
+    void shouldDeliverCachedBodyToReadListener() throws Exception {
+        HttpServlet nonBlocking = new HttpServlet() {
+            @Override
+            protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                ServletInputStream in = req.getInputStream();
+                ByteArrayOutputStream read = new ByteArrayOutputStream();
+                List<String> events = new ArrayList<>();
+                in.setReadListener(new ReadListener() {
+                    @Override
+                    public void onDataAvailable() throws IOException {
+                        events.add("dataAvailable");
+                        byte[] buffer = new byte[2];
+                        int n;
+                        while (in.isReady() && (n = in.read(buffer)) != -1) {
+                            read.write(buffer, 0, n);
+                        }
+                    }
+
+                    @Override
+                    public void onAllDataRead() throws IOException {
+                        events.add("allDataRead:" + in.isFinished());
+                        resp.setHeader("X-Events", String.join(",", events));
+                        resp.getOutputStream().write(read.toByteArray());
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        resp.setStatus(500);
+                    }
+                });
+            }
+        };
+        nonBlocking.init(new MockServletConfig());
+        InProcessSoapDispatcher dispatcher = new InProcessSoapDispatcher(nonBlocking, List.of(), appLogger);
+        MockHttpServletResponse outerResponse = new MockHttpServletResponse();
+
+        int status = dispatcher.dispatchDirect(outerRequest(), "<Envelope/>".getBytes(StandardCharsets.UTF_8),
+                headers("id-5"), TARGET, outerResponse);
+
+        assertEquals(200, status);
+        assertEquals("dataAvailable,allDataRead:true", outerResponse.getHeader("X-Events"));
+        assertEquals("<Envelope/>", outerResponse.getContentAsString());
+    }
+
+    @Test
+    void shouldReportUnavailableUntilServletInitialised() {
+        InProcessSoapDispatcher dispatcher = new InProcessSoapDispatcher(new EchoServlet(), List.of(), appLogger);
+        assertFalse(dispatcher.isAvailable());
+        assertTrue(new InProcessSoapDispatcher(servlet, List.of(), appLogger).isAvailable());
+    }
+
+    /**
+     * Concurrent load check: every caller must get back exactly its own
+     * body.
+     */
+    @Test
+    void shouldKeepResponsesSeparateUnderConcurrentLoad() throws Exception {
+        InProcessSoapDispatcher dispatcher = new InProcessSoapDispatcher(servlet, List.of(), appLogger);
+        int threads = 16;
+        int requestsPerThread = 250;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                results.add(executor.submit(() -> {
+                    int ok = 0;
+                    for (int i = 0; i < requestsPerThread; i++) {
+                        String envelope = "<Envelope id=\"" + thread + "-" + i + "\"/>";
+                        InProcessSoapDispatcher.CapturedResponse response = dispatcher.dispatch(outerRequest(),
+                                envelope.getBytes(StandardCharsets.UTF_8), headers(thread + "-" + i), TARGET,
+                                new MockHttpServletResponse());
+                        if (envelope.equals(new String(response.body(), StandardCharsets.UTF_8))) {
+                            ok++;
+                        }
+                    }
+                    return ok;
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get(60, TimeUnit.SECONDS);
+            }
+
+            assertEquals(threads * requestsPerThread, total);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
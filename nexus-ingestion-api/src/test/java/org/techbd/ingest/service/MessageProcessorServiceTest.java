@@ -1,6 +1,7 @@
 package org.techbd.ingest.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -8,15 +9,18 @@ import static org.mockito.Mockito.when;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.web.multipart.MultipartFile;
 import org.techbd.ingest.commons.MessageSourceType;
 import org.techbd.ingest.config.AppConfig;
 import org.techbd.ingest.model.RequestContext;
+import org.techbd.ingest.processor.AsyncMessageProcessingStep;
 import org.techbd.ingest.processor.MessageProcessingStep;
 import org.techbd.ingest.service.portconfig.PortConfigApplierService;
 import org.techbd.ingest.util.AppLogger;
@@ -131,4 +135,32 @@ public class MessageProcessorServiceTest {
         assertThat(result).containsEntry("exception", "RuntimeException");
         assertThat(result).containsEntry("message", "Simulated failure");
     }
+
+    @Test
+    void testProcessMessageAsyncRunsStepsInOrder() {
+        AsyncMessageProcessingStep asyncStep = mock(AsyncMessageProcessingStep.class);
+        MessageProcessingStep syncStep = mock(MessageProcessingStep.class);
+        CompletableFuture<Void> upload = new CompletableFuture<>();
+        service = new MessageProcessorService(List.of(asyncStep, syncStep), appLogger, appConfig, portConfigApplierService);
+        RequestContext context = mock(RequestContext.class);
+        when(context.getInteractionId()).thenReturn("int-004");
+        when(context.getMessageId()).thenReturn("msg-004");
+        when(context.getMessageSourceType()).thenReturn(MessageSourceType.HTTP_INGEST);
+        when(asyncStep.isEnabledFor(context)).thenReturn(true);
+        when(syncStep.isEnabledFor(context)).thenReturn(true);
+        when(asyncStep.processAsync(context, "content", "ack")).thenReturn(upload);
+
+        CompletableFuture<Map<String, String>> result = service.processMessageAsync(context, "content", "ack");
+
+        // the second step must wait for the first one to complete
+        verify(syncStep, times(0)).process(context, "content", "ack");
+        assertThat(result).isNotDone();
+        upload.complete(null);
+
+        assertThat(result.join()).containsEntry("messageId", "msg-004");
+        InOrder order = inOrder(asyncStep, syncStep);
+        order.verify(asyncStep).processAsync(context, "content", "ack");
+        order.verify(syncStep).process(context, "content", "ack");
+        verify(asyncStep, times(0)).process(context, "content", "ack");
+    }
 }
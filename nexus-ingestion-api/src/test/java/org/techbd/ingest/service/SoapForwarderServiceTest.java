@@ -0,0 +1,83 @@
+package org.techbd.ingest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.techbd.ingest.commons.Constants;
+import org.techbd.ingest.util.AppLogger;
+import org.techbd.ingest.util.TemplateLogger;
+
+class SoapForwarderServiceTest {
+
+    private InProcessSoapDispatcher dispatcher;
+    private SoapForwarderService service;
+    private MockHttpServletRequest request;
+    private final byte[] body = "<soap:Envelope/>".getBytes(StandardCharsets.UTF_8);
+
+    @BeforeEach
+    void setUp() {
+        AppLogger appLogger = mock(AppLogger.class);
+        when(appLogger.getLogger(any())).thenReturn(mock(TemplateLogger.class));
+        dispatcher = mock(InProcessSoapDispatcher.class);
+        when(dispatcher.isAvailable()).thenReturn(true);
+        service = new SoapForwarderService(appLogger, dispatcher);
+        ReflectionTestUtils.setField(service, "inProcessEnabled", true);
+
+        request = new MockHttpServletRequest("POST", "/ingest/src/pix");
+        request.setContentType("application/soap+xml; charset=utf-8");
+        request.addHeader("SOAPAction", "urn:hl7-org:v3:PRPA_IN201301UV02");
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void shouldDispatchInProcessWithForwardedHeaders() throws Exception {
+        when(dispatcher.dispatch(any(), any(), anyMap(), any(), any())).thenReturn(
+                new InProcessSoapDispatcher.CapturedResponse(200, "application/soap+xml; charset=utf-8",
+                        "<ack/>".getBytes(StandardCharsets.UTF_8)));
+
+        ResponseEntity<String> response = service.forward(request, new MockHttpServletResponse(), body,
+                "src", "pix", "interaction-1");
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("<ack/>", response.getBody());
+        assertEquals("application/soap+xml; charset=utf-8", response.getHeaders().getFirst("Content-Type"));
+
+        ArgumentCaptor<Map<String, List<String>>> headers = ArgumentCaptor.forClass(Map.class);
+        verify(dispatcher).dispatch(eq(request), eq(body), headers.capture(), any(), any());
+        assertEquals(List.of("interaction-1"), headers.getValue().get(Constants.HEADER_INTERACTION_ID));
+        assertEquals(List.of("src"), headers.getValue().get(Constants.HEADER_SOURCE_ID));
+        assertEquals(List.of("true"), headers.getValue().get(Constants.IS_LOCALHOST_WS_FORWARD));
+        assertEquals(List.of("application/soap+xml; charset=utf-8"), headers.getValue().get("Content-Type"));
+    }
+
+    @Test
+    void shouldStreamMtomResponsesDirectly() throws Exception {
+        request.setAttribute(Constants.RESPONSE_TYPE, "mtom");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        when(dispatcher.dispatchDirect(any(), any(), anyMap(), any(), eq(servletResponse))).thenReturn(200);
+
+        ResponseEntity<String> response = service.forward(request, servletResponse, body,
+                "src", "pnr", "interaction-2");
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("application/octet-stream", response.getHeaders().getFirst("Content-Type"));
+        verify(dispatcher, never()).dispatch(any(), any(), anyMap(), any(), any());
+    }
+}
@@ -0,0 +1,208 @@
+package org.techbd.ingest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.techbd.ingest.util.AppLogger;
+import org.techbd.ingest.util.TemplateLogger;
+
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
+
+class SqsBatchPublisherTest {
+
+    private static final String QUEUE_URL = "http://dummy-queue-url";
+
+    @Mock
+    private SqsAsyncClient sqsAsyncClient;
+
+    @Mock
+    private AppLogger appLogger;
+
+    @Mock
+    private TemplateLogger templateLogger;
+
+    private SqsBatchPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(appLogger.getLogger(SqsBatchPublisher.class)).thenReturn(templateLogger);
+        when(sqsAsyncClient.sendMessageBatch(any(SendMessageBatchRequest.class))).thenAnswer(invocation -> {
+            SendMessageBatchRequest request = invocation.getArgument(0);
+            List<SendMessageBatchResultEntry> ok = new ArrayList<>();
+            for (SendMessageBatchRequestEntry entry : request.entries()) {
+                ok.add(SendMessageBatchResultEntry.builder()
+                        .id(entry.id())
+                        .messageId("mid-" + entry.messageBody())
+                        .build());
+            }
+            return CompletableFuture.completedFuture(SendMessageBatchResponse.builder().successful(ok).build());
+        });
+        publisher = new SqsBatchPublisher(sqsAsyncClient, appLogger);
+        ReflectionTestUtils.setField(publisher, "enabled", true);
+        ReflectionTestUtils.setField(publisher, "lingerMs", 5_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.shutdown();
+    }
+
+    private static SendMessageRequest message(String body, String groupId) {
+        return message(QUEUE_URL, body, groupId);
+    }
+
+    private static SendMessageRequest message(String queueUrl, String body, String groupId) {
+        return SendMessageRequest.builder()
+                .queueUrl(queueUrl)
+                .messageBody(body)
+                .messageGroupId(groupId)
+                .build();
+    }
+
+    /**
+     * Makes every batch call return a future that stays pending until
+     * completed from {@code responses}, in call order.
+     */
+    private List<CompletableFuture<SendMessageBatchResponse>> holdBatchResponses() {
+        List<CompletableFuture<SendMessageBatchResponse>> responses = new CopyOnWriteArrayList<>();
+        when(sqsAsyncClient.sendMessageBatch(any(SendMessageBatchRequest.class))).thenAnswer(invocation -> {
+            CompletableFuture<SendMessageBatchResponse> response = new CompletableFuture<>();
+            responses.add(response);
+            return response;
+        });
+        return responses;
+    }
+
+    private void publishBatches(String queueUrl, int batches) {
+        for (int i = 0; i < batches * SqsBatchPublisher.MAX_BATCH_ENTRIES; i++) {
+            publisher.publish(message(queueUrl, "m" + i, "g"));
+        }
+    }
+
+    @Test
+    void testTenMessagesFlushAsOneBatchInOrder() throws Exception {
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < SqsBatchPublisher.MAX_BATCH_ENTRIES; i++) {
+            futures.add(publisher.publish(message("m" + i, "group-" + (i % 2))));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals("mid-m" + i, futures.get(i).get(5, TimeUnit.SECONDS));
+        }
+        ArgumentCaptor<SendMessageBatchRequest> captor = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        verify(sqsAsyncClient, times(1)).sendMessageBatch(captor.capture());
+        List<SendMessageBatchRequestEntry> entries = captor.getValue().entries();
+        assertEquals(10, entries.size());
+        assertEquals("m0", entries.get(0).messageBody());
+        assertEquals("group-0", entries.get(0).messageGroupId());
+        assertEquals("m9", entries.get(9).messageBody());
+        assertEquals("group-1", entries.get(9).messageGroupId());
+    }
+
+    @Test
+    void testLingerWindowFlushesPartialBatch() throws Exception {
+        ReflectionTestUtils.setField(publisher, "lingerMs", 10L);
+
+        CompletableFuture<String> first = publisher.publish(message("a", "g"));
+        CompletableFuture<String> second = publisher.publish(message("b", "g"));
+
+        assertEquals("mid-a", first.get(5, TimeUnit.SECONDS));
+        assertEquals("mid-b", second.get(5, TimeUnit.SECONDS));
+        verify(sqsAsyncClient, times(1)).sendMessageBatch(any(SendMessageBatchRequest.class));
+    }
+
+    @Test
+    void testPayloadLimitSplitsBatches() throws Exception {
+        String large = "x".repeat(SqsBatchPublisher.MAX_BATCH_BYTES / 2 + 1);
+        ReflectionTestUtils.setField(publisher, "lingerMs", 10L);
+
+        CompletableFuture<String> first = publisher.publish(message(large, "g"));
+        CompletableFuture<String> second = publisher.publish(message(large, "g"));
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        verify(sqsAsyncClient, times(2)).sendMessageBatch(any(SendMessageBatchRequest.class));
+    }
+
+    @Test
+    void testFailedEntryCompletesOnlyThatCallerExceptionally() throws Exception {
+        when(sqsAsyncClient.sendMessageBatch(any(SendMessageBatchRequest.class))).thenReturn(
+                CompletableFuture.completedFuture(SendMessageBatchResponse.builder()
+                        .successful(SendMessageBatchResultEntry.builder().id("0").messageId("ok-0").build())
+                        .failed(BatchResultErrorEntry.builder().id("1").code("InternalError").message("boom")
+                                .senderFault(false).build())
+                        .build()));
+        ReflectionTestUtils.setField(publisher, "lingerMs", 10L);
+
+        CompletableFuture<String> ok = publisher.publish(message("a", "g"));
+        CompletableFuture<String> failed = publisher.publish(message("b", "g"));
+
+        assertEquals("ok-0", ok.get(5, TimeUnit.SECONDS));
+        CompletionException ex = assertThrows(CompletionException.class, failed::join);
+        assertTrue(ex.getCause().getMessage().contains("InternalError"));
+    }
+
+    @Test
+    void testStandardQueueSendsUpToMaxInFlightBatchesConcurrently() {
+        ReflectionTestUtils.setField(publisher, "maxInFlightBatches", 2);
+        List<CompletableFuture<SendMessageBatchResponse>> responses = holdBatchResponses();
+
+        publishBatches(QUEUE_URL, 3);
+
+        verify(sqsAsyncClient, times(2)).sendMessageBatch(any(SendMessageBatchRequest.class));
+        responses.get(0).complete(SendMessageBatchResponse.builder().build());
+        verify(sqsAsyncClient, times(3)).sendMessageBatch(any(SendMessageBatchRequest.class));
+        responses.forEach(response -> response.complete(SendMessageBatchResponse.builder().build()));
+    }
+
+    @Test
+    void testFifoQueueSendsOneBatchAtATime() {
+        ReflectionTestUtils.setField(publisher, "maxInFlightBatches", 2);
+        List<CompletableFuture<SendMessageBatchResponse>> responses = holdBatchResponses();
+
+        publishBatches("http://dummy-queue-url.fifo", 2);
+
+        verify(sqsAsyncClient, times(1)).sendMessageBatch(any(SendMessageBatchRequest.class));
+        responses.get(0).complete(SendMessageBatchResponse.builder().build());
+        verify(sqsAsyncClient, times(2)).sendMessageBatch(any(SendMessageBatchRequest.class));
+        responses.get(1).complete(SendMessageBatchResponse.builder().build());
+    }
+
+    @Test
+    void testDisabledSendsSingleMessages() throws Exception {
+        ReflectionTestUtils.setField(publisher, "enabled", false);
+        when(sqsAsyncClient.sendMessage(any(SendMessageRequest.class))).thenReturn(
+                CompletableFuture.completedFuture(SendMessageResponse.builder().messageId("single").build()));
+
+        assertEquals("single", publisher.publish(message("a", "g")).get(5, TimeUnit.SECONDS));
+        verify(sqsAsyncClient, never()).sendMessageBatch(any(SendMessageBatchRequest.class));
+    }
+}
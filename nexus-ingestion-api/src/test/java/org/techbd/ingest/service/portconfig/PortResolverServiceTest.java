@@ -2,11 +2,11 @@ package org.techbd.ingest.service.portconfig;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.*;
 
 import java.util.List;
-import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -24,9 +24,6 @@ class PortResolverServiceTest {
     private AppLogger appLogger;
     private TemplateLogger templateLogger;
 
-    private PortConfigResolver resolver1;
-    private PortConfigResolver resolver2;
-
     private PortResolverService service;
 
     private List<PortEntry> portEntries;
@@ -40,89 +37,103 @@ class PortResolverServiceTest {
         when(appLogger.getLogger(PortResolverService.class))
                 .thenReturn(templateLogger);
 
-        resolver1 = mock(PortConfigResolver.class);
-        resolver2 = mock(PortConfigResolver.class);
-
-        portEntries = List.of(mockPortEntry(8080));
+        portEntries = List.of(
+                portEntry(8080, null, null, null),
+                portEntry(9090, "http", "LAB1", "ORU"),
+                portEntry(9090, "tcp", null, null),
+                portEntry(9090, null, null, null),
+                portEntry(7000, null, "LAB1", "ORU"));
         when(portConfig.getPortConfigurationList()).thenReturn(portEntries);
 
-        service = new PortResolverService(
-                List.of(resolver1, resolver2),
-                portConfig,
-                appLogger
-        );
+        service = new PortResolverService(portConfig, appLogger);
     }
 
     @Test
-    @DisplayName("Should return entry when first resolver matches")
-    void shouldReturnEntryWhenFirstResolverMatches() {
+    @DisplayName("Should prefer the sourceId and msgType match over the port match")
+    void shouldPreferRouteMatchOverPortMatch() {
         RequestContext context =
-                new RequestContext("interaction-1", 8080, "SRC", "MSG");
-
-        PortEntry entry = mockPortEntry(8080);
+                new RequestContext("interaction-1", 8080, "lab1", "oru");
 
-        when(resolver1.resolve(portEntries, context , Constants.HTTP))
-                .thenReturn(Optional.of(entry));
-        when(resolver2.resolve(any(), any(), any())).thenReturn(Optional.empty());
-        
+        assertThat(service.resolve(context, Constants.HTTP)).containsSame(portEntries.get(1));
+    }
 
-        Optional<PortEntry> result = service.resolve(context, Constants.HTTP);
+    @Test
+    @DisplayName("Should fall back to a blank-protocol route match for another protocol")
+    void shouldFallBackToBlankProtocolRouteMatch() {
+        RequestContext context =
+                new RequestContext("interaction-2", 8080, "LAB1", "ORU");
 
-        assertThat(result)
-                .isPresent()
-                .contains(entry);
+        assertThat(service.resolve(context, Constants.TCP)).containsSame(portEntries.get(4));
+    }
 
-        verify(resolver1).resolve(portEntries, context, Constants.HTTP);
-        verify(resolver2, never()).resolve(any(), any() , any());
+    @Test
+    @DisplayName("Should match the port, preferring the requested protocol over a blank one")
+    void shouldMatchPortPreferringRequestedProtocol() {
+        assertThat(service.resolve(new RequestContext("interaction-3", 9090, null, null), Constants.TCP))
+                .containsSame(portEntries.get(2));
+        assertThat(service.resolve(new RequestContext("interaction-4", 9090, "OTHER", "MSG"), Constants.HTTP))
+                .containsSame(portEntries.get(1));
+        assertThat(service.resolve(new RequestContext("interaction-5", 9090, "OTHER", "MSG"), "soap"))
+                .containsSame(portEntries.get(3));
     }
 
     @Test
-    @DisplayName("Should return entry when second resolver matches")
-    void shouldReturnEntryWhenSecondResolverMatches() {
+    @DisplayName("Should throw exception when no entry matches")
+    void shouldThrowExceptionWhenNoEntryMatches() {
         RequestContext context =
-                new RequestContext("interaction-2", 9090, "SRC", "MSG");
+                new RequestContext("interaction-12", 6060, "SRC", "MSG");
 
-        PortEntry entry = mockPortEntry(9090);
-
-        when(resolver1.resolve(portEntries, context , Constants.HTTP))
-                .thenReturn(Optional.empty());
-        when(resolver2.resolve(portEntries, context , Constants.HTTP))
-                .thenReturn(Optional.of(entry));
+        assertThatThrownBy(() -> service.resolve(context, Constants.HTTP))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("No configuration found for the given port");
+    }
 
-        Optional<PortEntry> result = service.resolve(context , Constants.HTTP);
+    @Test
+    @DisplayName("Should build the index once per configuration list")
+    void shouldBuildIndexOncePerConfigurationList() {
+        RequestContext first = new RequestContext("interaction-6", 8080, "SRC", "MSG");
+        RequestContext second = new RequestContext("interaction-7", 8080, "SRC", "MSG");
 
-        assertThat(result)
-                .isPresent()
-                .contains(entry);
+        assertThat(service.resolve(first, Constants.HTTP)).containsSame(portEntries.get(0));
+        assertThat(service.resolve(second, Constants.HTTP)).containsSame(portEntries.get(0));
 
-        verify(resolver1).resolve(portEntries, context, Constants.HTTP);
-        verify(resolver2).resolve(portEntries, context, Constants.HTTP);
+        verify(templateLogger, times(1)).info(startsWith("[PORT_RESOLVER] Built port index"), anyInt(), anyInt());
+        assertThat(second.getPortEntry()).isSameAs(portEntries.get(0));
     }
 
     @Test
-    @DisplayName("Should throw exception when no resolver matches")
-    void shouldThrowExceptionWhenNoResolverMatches() {
-        RequestContext context =
-                new RequestContext("interaction-3", 7070, "SRC", "MSG");
+    @DisplayName("Should return entry memoized on the context without consulting the configuration")
+    void shouldReturnMemoizedEntryFromContext() {
+        RequestContext context = new RequestContext("interaction-8", 8080, "SRC", "MSG");
+        PortEntry entry = portEntry(8080, null, null, null);
 
-        when(resolver1.resolve(portEntries, context , Constants.HTTP))
-                .thenReturn(Optional.empty());
-        when(resolver2.resolve(portEntries, context , Constants.HTTP))
-                .thenReturn(Optional.empty());
+        service.memoize(context, Constants.TCP, entry);
 
-        assertThatThrownBy(() -> service.resolve(context, Constants.HTTP))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessageContaining("No configuration found for the given port");
+        assertThat(service.resolve(context, Constants.TCP)).containsSame(entry);
+        verifyNoInteractions(portConfig);
+    }
 
-        verify(resolver1).resolve(portEntries, context, Constants.HTTP);
-        verify(resolver2).resolve(portEntries, context, Constants.HTTP);
+    @Test
+    @DisplayName("Should swap in a new index when the configuration list is reloaded")
+    void shouldSwapIndexWhenConfigurationReloaded() {
+        assertThatThrownBy(() -> service.resolve(new RequestContext("interaction-9", 6060, null, null), Constants.HTTP))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        List<PortEntry> reloaded = List.of(portEntry(6060, null, null, null));
+        when(portConfig.getPortConfigurationList()).thenReturn(reloaded);
+
+        assertThat(service.resolve(new RequestContext("interaction-10", 6060, null, null), Constants.HTTP))
+                .containsSame(reloaded.get(0));
+        assertThatThrownBy(() -> service.resolve(new RequestContext("interaction-11", 8080, null, null), Constants.HTTP))
+                .isInstanceOf(IllegalArgumentException.class);
     }
 
-    private PortEntry mockPortEntry(int port) {
+    private PortEntry portEntry(int port, String protocol, String sourceId, String msgType) {
         PortEntry entry = new PortEntry();
         entry.port = port;
-        entry.sourceId = "SRC";
-        entry.msgType = "MSG";
+        entry.protocol = protocol;
+        entry.sourceId = sourceId;
+        entry.msgType = msgType;
         return entry;
     }
 }
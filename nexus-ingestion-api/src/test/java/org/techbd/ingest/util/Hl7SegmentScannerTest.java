@@ -0,0 +1,56 @@
+package org.techbd.ingest.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class Hl7SegmentScannerTest {
+
+    private static final String MESSAGE = "MSH|^~\\&|APP|FAC|RECAPP|RECFAC|20240101||ADT^A01|MSG1|P|2.5\r"
+            + "PID|1||12345\n"
+            + "  ZNT|1|MSGCODE^X|3|DELIVERY^Y|5|6|7|QE123:FAC456  \r\n";
+
+    @Test
+    void shouldMatchSplitBasedFieldIndexes() {
+        Hl7SegmentScanner.Segment msh = Hl7SegmentScanner.findSegment(MESSAGE, "MSH");
+        assertNotNull(msh);
+
+        String[] expected = MESSAGE.split("\r|\n")[0].trim().split("\\|", -1);
+        assertEquals(expected.length, msh.fieldCount());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], msh.field(i), "field " + i);
+        }
+        assertNull(msh.field(expected.length));
+    }
+
+    @Test
+    void shouldTrimSegmentAndReturnFirstComponent() {
+        Hl7SegmentScanner.Segment znt = Hl7SegmentScanner.findSegment(MESSAGE, "ZNT");
+        assertNotNull(znt);
+
+        assertEquals("MSGCODE", znt.firstComponent(2));
+        assertEquals("DELIVERY", znt.firstComponent(4));
+        assertEquals("QE123:FAC456", znt.firstComponent(8));
+        assertNull(znt.firstComponent(30));
+    }
+
+    @Test
+    void shouldReturnNullWhenSegmentMissing() {
+        assertNull(Hl7SegmentScanner.findSegment("PID|1|\rOBX|1", "ZNT"));
+        assertNull(Hl7SegmentScanner.findSegment("MSHX|1", "MSH"));
+        assertNull(Hl7SegmentScanner.findSegment(null, "MSH"));
+    }
+
+    @Test
+    void shouldReturnEmptyStringForEmptyFields() {
+        Hl7SegmentScanner.Segment znt = Hl7SegmentScanner.findSegment("ZNT|||^B|", "ZNT");
+        assertNotNull(znt);
+
+        assertEquals("", znt.field(1));
+        assertNull(znt.firstComponent(2));
+        assertEquals("", znt.firstComponent(3));
+        assertEquals("", znt.field(4));
+    }
+}
@@ -5,6 +5,8 @@ import os
 from frictionless import Package, transform, steps, extract, Check, errors, Checklist, Resource, Pipeline
 from datetime import datetime, date
 import re  # Import required for regular expression handling
+import io
+import contextlib
 import difflib  # For finding close matches between schema and CSV headers
 import gc  # Garbage collection for memory optimization
 
@@ -428,8 +430,54 @@ def validate_package(spec_path, file1, file2, file3, file4, output_path):
             print(results)
             return False
 
+def run_worker():
+    """Serve validation requests as JSON lines on stdin/stdout.
+
+    Keeps the interpreter and frictionless imports warm between requests.
+    Each request is {"id", "cwd", "args": [spec_path, file1, file2, file3, file4]}
+    and gets {"id", "exitCode", "output"}, where output is what the one-shot
+    mode would have printed. {"id", "ping": true} is answered with
+    {"id", "pong": true} and is used as a health check.
+    """
+    protocol_out = sys.stdout
+
+    def reply(message):
+        protocol_out.write(json.dumps(message, default=str) + "\n")
+        protocol_out.flush()
+
+    reply({"ready": True})
+    for line in sys.stdin:
+        if not line.strip():
+            continue
+        request_id = None
+        try:
+            request = json.loads(line)
+            request_id = request.get("id")
+            if request.get("ping"):
+                reply({"id": request_id, "pong": True})
+                continue
+            args = request["args"]
+            if len(args) != 5:
+                raise ValueError(f"Expected 5 arguments, got {len(args)}")
+            os.chdir(request["cwd"])
+            if not os.path.isfile(args[0]):
+                raise FileNotFoundError(f"Specification file '{args[0]}' not found.")
+            captured = io.StringIO()
+            with contextlib.redirect_stdout(captured):
+                validate_package(args[0], args[1], args[2], args[3], args[4], None)
+            reply({"id": request_id, "exitCode": 0, "output": captured.getvalue()})
+        except Exception as e:
+            reply({"id": request_id, "exitCode": 1, "output": f"Worker error: {e}"})
+        finally:
+            gc.collect()
+
+
 if __name__ == "__main__":
 
+    if len(sys.argv) == 2 and sys.argv[1] == "--worker":
+        run_worker()
+        sys.exit(0)
+
     results = {
         "errorsSummary": [],
         "report": None